@@ -43,6 +43,33 @@ return [body: request.body]
     typer.echo(f"📄 Fichier WSDL copié : {wsdl_path.name}")
     typer.echo("📝 response.groovy généré.")
 
+WSDL_NS = "http://schemas.xmlsoap.org/wsdl/"
+SOAP_NS = "http://schemas.xmlsoap.org/wsdl/soap/"
+SOAP12_NS = "http://schemas.xmlsoap.org/wsdl/soap12/"
+
+
+def soap_routes(root):
+    """Chemin de chaque soap:address -> {opération: soapAction} du binding de son port"""
+    bindings = {b.get("name"): b for b in root.findall(f"{{{WSDL_NS}}}binding")}
+    routes = {}
+    for address in root.iter(f"{{{SOAP_NS}}}address", f"{{{SOAP12_NS}}}address"):
+        location = (address.get("location") or "").strip()
+        if not location:
+            continue
+        path = urlparse(location).path or "/defaultPath"
+        ops = routes.setdefault(path, {})
+        binding_ref = address.getparent().get("binding") or ""
+        binding = bindings.get(binding_ref.split(":")[-1])
+        if binding is None:
+            continue
+        for operation in binding.findall(f"{{{WSDL_NS}}}operation"):
+            soap_op = operation.find(f"{{{SOAP_NS}}}operation")
+            if soap_op is None:
+                soap_op = operation.find(f"{{{SOAP12_NS}}}operation")
+            action = soap_op.get("soapAction") if soap_op is not None else None
+            ops.setdefault(operation.get("name"), action)
+    return routes
+
 @app.command()
 def generate(
     project: str = typer.Option(..., help="Nom du dossier du projet dans projets_mocks"),
@@ -71,7 +98,13 @@ def generate(
         typer.echo(f"🚀 Initialisation du projet '{project}' ...")
         init_project(project_path, wsdl_path, xsd_path)
 
-    wsdl_files = list(project_path.glob("*.wsdl"))
+    # WSDL d'une archive rangé dans un sous-dossier (imports en ../) : celui du projet
+    wsdl_given = Path(wsdl).resolve() if wsdl else None
+    if wsdl_given and wsdl_given.is_file() and project_path.resolve() in wsdl_given.parents \
+            and wsdl_given.parent != project_path.resolve():
+        wsdl_files = [project_path / wsdl_given.relative_to(project_path.resolve())]
+    else:
+        wsdl_files = list(project_path.glob("*.wsdl"))
     if not wsdl_files:
         typer.echo("❌ Aucun fichier WSDL (.wsdl) trouvé dans le dossier.")
         raise typer.Exit(code=1)
@@ -82,40 +115,40 @@ def generate(
         raise typer.Exit(code=1)
 
     wsdl_path = wsdl_files[0]
-    typer.echo(f"📄 WSDL trouvé : {wsdl_path.name}")
+    wsdl_file = wsdl_path.relative_to(project_path).as_posix()
+    typer.echo(f"📄 WSDL trouvé : {wsdl_file}")
 
-    # Analyse WSDL pour le chemin SOAP
+    # Analyse WSDL : une ressource par opération et par chemin SOAP (tous les ports SOAP 1.1 et 1.2)
     tree = etree.parse(str(wsdl_path))
     root = tree.getroot()
-    nsmap = {
-        'wsdl': 'http://schemas.xmlsoap.org/wsdl/',
-        'soap': 'http://schemas.xmlsoap.org/wsdl/soap/'
-    }
-    soap_address = root.find(".//soap:address", namespaces=nsmap)
-    if soap_address is None:
+    routes = soap_routes(root)
+    if not routes:
         typer.echo("❌ <soap:address> introuvable dans le WSDL.")
         raise typer.Exit(code=1)
 
-    location_url = soap_address.attrib.get("location")
-    if not location_url:
-        typer.echo("❌ L’attribut 'location' est vide.")
-        raise typer.Exit(code=1)
-
-    path = urlparse(location_url).path or "/defaultPath"
-    typer.echo(f"🔍 Chemin SOAP extrait : {path}")
+    operations = sum(len(ops) for ops in routes.values())
+    typer.echo(f"🔍 Chemin(s) SOAP extrait(s) : {list(routes)}, {operations} opération(s)")
+
+    resources = []
+    for path, ops in routes.items():
+        if not ops:
+            resources.append({"path": path, "response": {"scriptFile": "response.groovy"}})
+        for name, action in ops.items():
+            resource = {"path": path, "operation": name}
+            if action:
+                resource["soapAction"] = action
+            response_file = f"responses/{name}.xml"
+            if (project_path / response_file).is_file():
+                resource["response"] = {"file": response_file, "template": True}
+            else:
+                resource["response"] = {"scriptFile": "response.groovy"}
+            resources.append(resource)
 
     # Génération config.yaml
     config = {
         "plugin": "soap",
-        "wsdlFile": wsdl_path.name,
-        "resources": [
-            {
-                "path": path,
-                "response": {
-                    "scriptFile": "response.groovy"
-                }
-            }
-        ]
+        "wsdlFile": wsdl_file,
+        "resources": resources
     }
 
     config_path = project_path / "imposter-config.yaml"
@@ -0,0 +1,147 @@
+"""
+Worker Python longue durée : typer, yaml et lxml ne sont importés qu'une fois.
+
+Protocole (une ligne JSON par message, sur stdin / stdout) :
+  -> {"id": 1, "script": "generate", "args": ["--project=p", ...], "env": {"BASE_DIR": "..."}}
+  <- {"id": 1, "line": "..."}   pour chaque ligne affichée par le script
+  <- {"id": 1, "exit": 0}       fin de la commande
+Au démarrage, {"ready": true} est émis une fois les modules importés. Un script modifié sur
+disque depuis son import (même empreinte SHA-256 que celle du backend) est rechargé avant la commande.
+"""
+import hashlib
+import importlib
+import io
+import json
+import os
+import sys
+import traceback
+
+# Canal du protocole sur une copie du descripteur 1 ; le descripteur 1 lui-même est redirigé
+# vers stderr pour qu'un sous-processus qui écrit directement dessus ne casse pas le protocole
+PROTOCOL_OUT = os.fdopen(os.dup(1), "w", encoding="utf-8")
+os.dup2(2, 1)
+
+
+def send(message):
+    PROTOCOL_OUT.write(json.dumps(message, ensure_ascii=False) + "\n")
+    PROTOCOL_OUT.flush()
+
+
+class LineWriter(io.TextIOBase):
+    """Remplace stdout/stderr pendant une commande : chaque ligne devient un message"""
+
+    def __init__(self, request_id):
+        self.request_id = request_id
+        self.pending = ""
+
+    def writable(self):
+        return True
+
+    def write(self, text):
+        self.pending += text
+        while "\n" in self.pending:
+            line, self.pending = self.pending.split("\n", 1)
+            send({"id": self.request_id, "line": line})
+        return len(text)
+
+    def flush(self):
+        pass
+
+    def close_line(self):
+        if self.pending:
+            send({"id": self.request_id, "line": self.pending})
+            self.pending = ""
+
+
+# Empreinte du fichier source de chaque module au moment de son (re)chargement
+LOADED = {}
+
+
+def fingerprint(module_name):
+    path = os.path.join(os.path.dirname(os.path.abspath(__file__)), module_name + ".py")
+    with open(path, "rb") as f:
+        return hashlib.sha256(f.read()).hexdigest()
+
+
+def load(module_name):
+    """Module du script, rechargé si son fichier a changé depuis le dernier chargement"""
+    current = fingerprint(module_name)
+    module = sys.modules.get(module_name)
+    if module is None:
+        module = importlib.import_module(module_name)
+    elif LOADED.get(module_name) != current:
+        module = importlib.reload(module)
+    LOADED[module_name] = current
+    return module
+
+
+def run_generate(args):
+    generate = load("generate")
+    generate.BASE_DIR = generate.get_base_dir()
+    generate.app(args=args, prog_name="generate.py")
+
+
+def run_docker_control(args):
+    docker_control = load("docker_control")
+    docker_control.CONFIG_DIR = docker_control.get_config_dir()
+    sys.argv = ["docker_control.py"] + args
+    docker_control.main()
+
+
+SCRIPTS = {
+    "generate": run_generate,
+    "docker_control": run_docker_control,
+}
+
+
+def execute(request):
+    request_id = request.get("id")
+    script = SCRIPTS.get(request.get("script"))
+    writer = LineWriter(request_id)
+    saved_env = dict(os.environ)
+    saved_argv = list(sys.argv)
+    sys.stdout = sys.stderr = writer
+    code = 0
+    try:
+        os.environ.update(request.get("env") or {})
+        if script is None:
+            print(f"❌ Script inconnu : {request.get('script')}")
+            code = 2
+        else:
+            script(list(request.get("args") or []))
+    except SystemExit as e:
+        code = e.code if isinstance(e.code, int) else (0 if e.code is None else 1)
+        if not isinstance(e.code, (int, type(None))):
+            print(e.code)
+    except Exception:
+        traceback.print_exc()
+        code = 1
+    finally:
+        writer.close_line()
+        sys.stdout = sys.__stdout__
+        sys.stderr = sys.__stderr__
+        sys.argv = saved_argv
+        os.environ.clear()
+        os.environ.update(saved_env)
+    send({"id": request_id, "exit": code})
+
+
+def main():
+    # Imports coûteux faits une seule fois ; l'affichage de docker_control à l'import est ignoré
+    sys.stdout = io.StringIO()
+    try:
+        load("generate")
+        load("docker_control")
+    finally:
+        sys.stdout = sys.__stdout__
+    send({"ready": True})
+
+    for raw in io.TextIOWrapper(sys.stdin.buffer, encoding="utf-8"):
+        raw = raw.strip()
+        if not raw:
+            continue
+        execute(json.loads(raw))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,48 @@
+package com.imposter.mockimposter.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imposter.mockimposter.service.CliDockerClient;
+import com.imposter.mockimposter.service.DockerClient;
+import com.imposter.mockimposter.service.ProcessSupervisor;
+import com.imposter.mockimposter.service.UnixSocketDockerClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+@Configuration
+public class DockerClientConfig {
+
+    private static final Logger logger = Logger.getLogger(DockerClientConfig.class.getName());
+
+    /**
+     * docker.client = socket (API Engine sur le socket Unix), cli (commande docker)
+     * ou auto : le socket s'il est présent, sinon la CLI.
+     */
+    @Bean(destroyMethod = "close")
+    public DockerClient dockerClient(@Value("${docker.client:auto}") String mode,
+                                     @Value("${docker.socket:/var/run/docker.sock}") String socket,
+                                     @Value("${docker.api-version:}") String apiVersion,
+                                     @Value("${docker.socket.max-idle-connections:8}") int maxIdleConnections,
+                                     @Value("${docker.api.read-timeout-ms:60000}") long readTimeoutMs,
+                                     @Value("${docker.cli.timeout-ms:300000}") long cliTimeoutMs,
+                                     ObjectMapper objectMapper,
+                                     ProcessSupervisor processSupervisor) {
+        Path socketPath = Paths.get(socket);
+        boolean useSocket = "socket".equalsIgnoreCase(mode)
+                || ("auto".equalsIgnoreCase(mode) && Files.exists(socketPath));
+
+        if (useSocket) {
+            logger.info("[DOCKER] Client API Engine sur " + socketPath);
+            return new UnixSocketDockerClient(socketPath, apiVersion, maxIdleConnections, objectMapper,
+                    Duration.ofMillis(readTimeoutMs));
+        }
+        logger.info("[DOCKER] Client CLI docker");
+        return new CliDockerClient(objectMapper, processSupervisor, Duration.ofMillis(cliTimeoutMs));
+    }
+}
@@ -0,0 +1,10 @@
+package com.imposter.mockimposter.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Tâches périodiques du backend (mise en veille des conteneurs inactifs) */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
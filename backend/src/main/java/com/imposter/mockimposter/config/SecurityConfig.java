@@ -48,6 +48,12 @@ public class SecurityConfig {
                         // Permettre l'accès à H2 Console
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Appels SOAP des mocks embarqués : mêmes règles qu'un conteneur Imposter
+                        .requestMatchers("/mock/**").permitAll()
+                        // Passerelle vers les conteneurs mock : accès direct au conteneur aujourd'hui non authentifié
+                        .requestMatchers("/gateway/**").permitAll()
+                        // HEALTHCHECK du Dockerfile
+                        .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/api/projects/**").authenticated()
                         .requestMatchers("/api/docker/**").authenticated()
                         .anyRequest().authenticated()
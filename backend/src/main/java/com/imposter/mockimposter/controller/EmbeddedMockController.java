@@ -0,0 +1,68 @@
+package com.imposter.mockimposter.controller;
+
+import com.imposter.mockimposter.service.EmbeddedMockEngine;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Point d'entrée SOAP des projets servis en mode EMBEDDED : /mock/{projectName}/{chemin soap:address}.
+ * Pas d'authentification, comme pour un conteneur Imposter.
+ */
+@RestController
+@RequestMapping("/mock")
+public class EmbeddedMockController {
+
+    @Autowired
+    private EmbeddedMockEngine embeddedMockEngine;
+
+    /** Appel SOAP sur un projet embarqué */
+    @PostMapping("/{projectName}/**")
+    public ResponseEntity<byte[]> invoke(@PathVariable String projectName,
+                                         @RequestHeader(value = "SOAPAction", required = false) String soapAction,
+                                         @RequestBody(required = false) byte[] body,
+                                         HttpServletRequest request) {
+        String action = soapAction != null ? soapAction : soap12Action(request.getContentType());
+        EmbeddedMockEngine.MockResponse response = embeddedMockEngine.handle(
+                projectName, soapPath(projectName, request), action, body != null ? body : new byte[0]);
+
+        return ResponseEntity.status(response.status())
+                .contentType(MediaType.parseMediaType(response.contentType()))
+                .headers(headers -> response.headers().forEach(headers::add))
+                .body(response.body());
+    }
+
+    /** WSDL du projet (GET .../service?wsdl) */
+    @GetMapping("/{projectName}/**")
+    public ResponseEntity<byte[]> wsdl(@PathVariable String projectName) {
+        byte[] wsdl = embeddedMockEngine.getWsdl(projectName);
+        if (wsdl == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.TEXT_XML).body(wsdl);
+    }
+
+    // Chemin restant après /mock/{projectName}, à comparer aux chemins des soap:address
+    private static String soapPath(String projectName, HttpServletRequest request) {
+        String within = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String prefix = "/mock/" + projectName;
+        String path = within != null && within.startsWith(prefix) ? within.substring(prefix.length()) : "";
+        return path.isEmpty() ? "/" : path;
+    }
+
+    // SOAP 1.2 : l'action est portée par le Content-Type (application/soap+xml; action="...")
+    private static String soap12Action(String contentType) {
+        if (contentType == null) return null;
+        for (String part : contentType.split(";")) {
+            String p = part.trim();
+            if (p.regionMatches(true, 0, "action=", 0, 7)) {
+                return p.substring(7);
+            }
+        }
+        return null;
+    }
+}
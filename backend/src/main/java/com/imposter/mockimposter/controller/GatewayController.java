@@ -0,0 +1,239 @@
+package com.imposter.mockimposter.controller;
+
+import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.entities.ServingMode;
+import com.imposter.mockimposter.service.EmbeddedMockEngine;
+import com.imposter.mockimposter.service.MockGateway;
+import com.imposter.mockimposter.service.MockProjectService;
+import com.imposter.mockimposter.service.OrchestrationExecutor;
+import com.imposter.mockimposter.service.RequestValidator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Point d'entrée unique des mocks : /gateway/{projectName}/{chemin} est relayé vers le conteneur
+ * du projet (mode DOCKER) ou vers /mock/{projectName}/{chemin} (mode EMBEDDED).
+ */
+@RestController
+@RequestMapping("/gateway")
+public class GatewayController {
+
+    private static final String PREFIX = "/gateway/";
+
+    @Autowired
+    private MockGateway mockGateway;
+
+    @Autowired
+    private MockProjectService mockProjectService;
+
+    @Autowired
+    private RequestValidator requestValidator;
+
+    @RequestMapping("/{projectName}/**")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> forward(@PathVariable String projectName,
+                                                                            HttpServletRequest request,
+                                                                            HttpServletResponse response) throws Exception {
+        Optional<MockProject> project = mockProjectService.findProjectByName(projectName);
+        if (project.isEmpty()) {
+            return CompletableFuture.completedFuture(error(HttpStatus.NOT_FOUND, "Projet introuvable : " + projectName));
+        }
+
+        String path = remainingPath(request);
+        if (project.get().getServingMode() == ServingMode.EMBEDDED) {
+            request.getRequestDispatcher("/mock/" + projectName + path).forward(request, response);
+            return null;
+        }
+
+        long contentLength = request.getContentLengthLong();
+        Supplier<InputStream> body = () -> {
+            try {
+                return request.getInputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        // Validation facultative : le corps est alors lu en mémoire (borné) avant d'être relayé
+        Map<String, String> validationHeaders = Map.of();
+        if (requestValidator.isEnabled() && "POST".equals(request.getMethod()) && contentLength != 0
+                && contentLength <= requestValidator.getMaxBytes()) {
+            byte[] bytes = request.getInputStream().readNBytes((int) Math.min(requestValidator.getMaxBytes() + 1,
+                    Integer.MAX_VALUE - 8));
+            if (bytes.length > requestValidator.getMaxBytes()) {
+                // Longueur non annoncée et corps trop gros : relayé sans validation
+                InputStream rest = request.getInputStream();
+                body = () -> new SequenceInputStream(new ByteArrayInputStream(bytes), rest);
+            } else {
+                RequestValidator.Result validation = requestValidator.validate(project.get(), bytes);
+                validationHeaders = validation.headers();
+                if (validation.status() == RequestValidator.Status.INVALID && requestValidator.rejectsInvalid()) {
+                    return CompletableFuture.completedFuture(rejected(validation));
+                }
+                contentLength = bytes.length;
+                body = () -> new ByteArrayInputStream(bytes);
+            }
+        }
+
+        MockGateway.ForwardRequest forwardRequest = new MockGateway.ForwardRequest(
+                request.getMethod(),
+                path,
+                request.getQueryString(),
+                headers(request),
+                contentLength,
+                body,
+                request.getRemoteAddr(),
+                request.getHeader("Host"));
+
+        Map<String, String> extraHeaders = validationHeaders;
+        Release release = new Release();
+        WebAsyncUtils.getAsyncManager(request).registerDeferredResultInterceptor(Release.class.getName(), release);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(Release.class.getName(), release);
+        try {
+            return mockGateway.forward(project.get(), forwardRequest)
+                    .thenApply(upstream -> {
+                        release.attach(upstream);
+                        return relay(upstream, extraHeaders);
+                    })
+                    .exceptionally(GatewayController::failure);
+        } catch (MockGateway.GatewayBusyException e) {
+            return CompletableFuture.completedFuture(error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+        }
+    }
+
+    /**
+     * Rend la place du projet et ferme le flux du mock si le corps n'est jamais recopié : délai
+     * dépassé ou client parti avant la réponse du mock, erreur avant l'écriture du corps. Après
+     * une écriture complète, {@link MockGateway.ForwardResponse#discard} ne fait plus rien.
+     */
+    private static final class Release implements DeferredResultProcessingInterceptor, CallableProcessingInterceptor {
+        private final AtomicReference<MockGateway.ForwardResponse> upstream = new AtomicReference<>();
+        private volatile boolean abandoned;
+
+        // Réponse du mock arrivée après l'abandon de l'échange : rendue aussitôt
+        void attach(MockGateway.ForwardResponse response) {
+            upstream.set(response);
+            if (abandoned) response.discard();
+        }
+
+        void abandon() {
+            abandoned = true;
+            MockGateway.ForwardResponse response = upstream.get();
+            if (response != null) response.discard();
+        }
+
+        // Attente de la réponse du mock
+        @Override
+        public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> result) {
+            abandon();
+            return true;
+        }
+
+        @Override
+        public <T> boolean handleError(NativeWebRequest request, DeferredResult<T> result, Throwable t) {
+            abandon();
+            return true;
+        }
+
+        // Écriture du corps (StreamingResponseBody) : fin de l'échange, quelle qu'en soit l'issue
+        @Override
+        public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+            abandon();
+            return RESULT_NONE;
+        }
+
+        @Override
+        public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+            abandon();
+            return RESULT_NONE;
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            abandon();
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> relay(MockGateway.ForwardResponse upstream,
+                                                               Map<String, String> extraHeaders) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(upstream.getStatus());
+        upstream.getHeaders().forEach((name, values) -> builder.header(name, values.toArray(String[]::new)));
+        extraHeaders.forEach(builder::header);
+        return builder.body(upstream::writeBody);
+    }
+
+    // Requête rejetée par la validation : faute SOAP, le mock n'est pas appelé
+    private static ResponseEntity<StreamingResponseBody> rejected(RequestValidator.Result validation) {
+        EmbeddedMockEngine.MockResponse fault = EmbeddedMockEngine.fault(500,
+                "Requête non conforme au schéma : " + validation.errors().get(0));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(fault.status())
+                .contentType(MediaType.parseMediaType(fault.contentType()));
+        validation.headers().forEach(builder::header);
+        return builder.body(out -> out.write(fault.body()));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> failure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof MockGateway.GatewayBusyException || cause instanceof OrchestrationExecutor.OrchestrationBusyException) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, cause.getMessage());
+        }
+        if (cause instanceof HttpTimeoutException) {
+            return error(HttpStatus.GATEWAY_TIMEOUT, "Le mock n'a pas répondu à temps");
+        }
+        if (cause instanceof ConnectException) {
+            return error(HttpStatus.BAD_GATEWAY, "Mock injoignable (conteneur démarré ?)");
+        }
+        return error(HttpStatus.BAD_GATEWAY, "Erreur de relais : " + cause.getMessage());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(out -> out.write(body));
+    }
+
+    // Chemin brut (encodé) après /gateway/{projectName}
+    private static String remainingPath(HttpServletRequest request) {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        int slash = uri.indexOf('/', PREFIX.length());
+        return slash < 0 ? "" : uri.substring(slash);
+    }
+
+    private static Map<String, List<String>> headers(HttpServletRequest request) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            headers.put(name, Collections.list(request.getHeaders(name)));
+        }
+        return headers;
+    }
+}
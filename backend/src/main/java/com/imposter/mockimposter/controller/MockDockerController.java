@@ -1,14 +1,36 @@
 package com.imposter.mockimposter.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.service.ContainerLogStreamer;
+import com.imposter.mockimposter.service.ContainerStateTracker;
+import com.imposter.mockimposter.service.DockerApiException;
+import com.imposter.mockimposter.service.MockBulkService;
+import com.imposter.mockimposter.service.MockGateway;
 import com.imposter.mockimposter.service.MockProjectService;
+import com.imposter.mockimposter.service.OrchestrationExecutor;
+import com.imposter.mockimposter.service.ProjectOperationCoordinator;
+import com.imposter.mockimposter.service.WarmContainerPool;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Logger;
 
 @RestController
@@ -20,67 +42,335 @@ public class MockDockerController {
     @Autowired
     private MockProjectService mockProjectService;
 
-    /** Démarrer un conteneur Docker via le script python */
+    @Autowired
+    private WarmContainerPool warmContainerPool;
+
+    @Autowired
+    private MockGateway mockGateway;
+
+    @Autowired
+    private OrchestrationExecutor orchestrationExecutor;
+
+    @Autowired
+    private MockBulkService mockBulkService;
+
+    @Autowired
+    private ProjectOperationCoordinator operationCoordinator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContainerLogStreamer containerLogStreamer;
+
+    @Autowired
+    private ContainerStateTracker containerStateTracker;
+
+    @Value("${docker.bulk.timeout-ms:1800000}")
+    private long bulkTimeoutMs;
+
+    @Value("${docker.logs.stream.timeout-ms:1800000}")
+    private long logStreamTimeoutMs;
+
+    @Value("${docker.events.stream.timeout-ms:1800000}")
+    private long eventStreamTimeoutMs;
+
+    /** Démarrer le mock d'un projet (conteneur Docker, ou moteur embarqué en mode EMBEDDED) */
     @PostMapping("/start/{projectName}")
-    public ResponseEntity<?> startContainer(@PathVariable String projectName) {
+    public CompletableFuture<ResponseEntity<?>> startContainer(@PathVariable String projectName) {
+        if (!isAuthenticated()) {
+            return CompletableFuture.completedFuture(unauthorized());
+        }
+
+        logger.info("[DOCKER] Tentative de démarrage du conteneur pour le projet : " + projectName);
+
+        return orchestrationExecutor.submit(OrchestrationExecutor.Operation.START,
+                        () -> mockProjectService.startMock(projectName))
+                .<ResponseEntity<?>>thenApply(started -> ResponseEntity.ok(startedBody(projectName, started,
+                        "Conteneur démarré avec succès")))
+                .exceptionally(e -> failure("[DOCKER] Erreur lors du démarrage du conteneur : ",
+                        "Erreur lors du démarrage : ", e));
+    }
+
+    /** Arrêter le mock d'un projet (conteneur Docker, ou moteur embarqué en mode EMBEDDED) */
+    @PostMapping("/stop/{projectName}")
+    public CompletableFuture<ResponseEntity<?>> stopContainer(@PathVariable String projectName) {
+        if (!isAuthenticated()) {
+            return CompletableFuture.completedFuture(unauthorized());
+        }
+
+        logger.info("[DOCKER] Tentative d'arrêt du conteneur pour le projet : " + projectName);
+
+        return orchestrationExecutor.submit(OrchestrationExecutor.Operation.STOP, () -> {
+                    mockProjectService.stopMock(projectName);
+                    return projectName;
+                })
+                .<ResponseEntity<?>>thenApply(name -> ResponseEntity.ok(Map.of(
+                        "status", "success",
+                        "message", "Conteneur arrêté avec succès",
+                        "projectName", name
+                )))
+                .exceptionally(e -> failure("[DOCKER] Erreur lors de l'arrêt du conteneur : ",
+                        "Erreur lors de l'arrêt : ", e));
+    }
+
+    /** Redémarrer un conteneur Docker (stop puis start via le script python) */
+    @PostMapping("/restart/{projectName}")
+    public CompletableFuture<ResponseEntity<?>> restartContainer(@PathVariable String projectName) {
+        if (!isAuthenticated()) {
+            return CompletableFuture.completedFuture(unauthorized());
+        }
+
+        logger.info("[DOCKER] Tentative de redémarrage du conteneur pour le projet : " + projectName);
+
+        return orchestrationExecutor.submit(OrchestrationExecutor.Operation.RESTART,
+                        () -> mockProjectService.restartMock(projectName))
+                .<ResponseEntity<?>>thenApply(started -> ResponseEntity.ok(startedBody(projectName, started,
+                        "Conteneur redémarré avec succès")))
+                .exceptionally(e -> failure("[DOCKER] Erreur lors du redémarrage du conteneur : ",
+                        "Erreur lors du redémarrage : ", e));
+    }
+
+    /**
+     * Même action sur plusieurs projets : {"action": "start|stop|restart", "projects": [...], "concurrency": 4}.
+     * Réponse NDJSON : une ligne par projet dès qu'il est traité, puis une ligne {"summary": {...}}.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ResponseBodyEmitter> bulk(@RequestBody Map<String, Object> request) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(bulkTimeoutMs);
+        if (!isAuthenticated()) {
+            return singleLine(emitter, HttpStatus.UNAUTHORIZED, Map.of("status", "error", "message", "Utilisateur non authentifié"));
+        }
+
+        MockBulkService.Action action;
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("status", "error", "message", "Utilisateur non authentifié"));
-            }
+            action = MockBulkService.Action.valueOf(String.valueOf(request.get("action")).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return singleLine(emitter, HttpStatus.BAD_REQUEST, Map.of("status", "error", "message", "Action inconnue : " + request.get("action")));
+        }
+        if (!(request.get("projects") instanceof List<?> requested) || requested.isEmpty()) {
+            return singleLine(emitter, HttpStatus.BAD_REQUEST, Map.of("status", "error", "message", "Liste de projets vide"));
+        }
+        int concurrency = request.get("concurrency") instanceof Number n ? n.intValue() : mockBulkService.getMaxConcurrency();
 
-            logger.info("[DOCKER] Tentative de démarrage du conteneur pour le projet : " + projectName);
+        // Seuls les projets de l'utilisateur (tous pour un admin) sont traités
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        java.util.Set<String> allowed = (admin ? mockProjectService.getAllProjects() : mockProjectService.getProjectsByCurrentUser())
+                .stream().map(MockProject::getName).collect(java.util.stream.Collectors.toSet());
+        List<String> accepted = new java.util.ArrayList<>();
+        List<String> rejected = new java.util.ArrayList<>();
+        requested.stream().map(String::valueOf).distinct()
+                .forEach(name -> (allowed.contains(name) ? accepted : rejected).add(name));
 
-            mockProjectService.startDockerContainer(projectName);
+        logger.info("[DOCKER] Action groupée " + action + " sur " + accepted.size() + " projet(s)");
+        rejected.forEach(name -> sendLine(emitter, Map.of(
+                "projectName", name, "status", "error", "message", "Projet introuvable : " + name)));
+        mockBulkService.run(action, accepted, concurrency, result -> sendLine(emitter, result))
+                .whenComplete((summary, error) -> {
+                    if (summary != null) {
+                        Map<String, Object> withRejected = new LinkedHashMap<>(summary);
+                        withRejected.put("rejected", rejected.size());
+                        sendLine(emitter, Map.of("summary", withRejected));
+                    }
+                    emitter.complete();
+                });
 
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "message", "Conteneur démarré avec succès",
-                    "projectName", projectName
-            ));
-        } catch (Exception e) {
-            logger.severe("[DOCKER] Erreur lors du démarrage du conteneur : " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                            "status", "error",
-                            "message", "Erreur lors du démarrage : " + e.getMessage()
-                    ));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private ResponseEntity<ResponseBodyEmitter> singleLine(ResponseBodyEmitter emitter, HttpStatus status, Map<String, Object> body) {
+        sendLine(emitter, body);
+        emitter.complete();
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private void sendLine(ResponseBodyEmitter emitter, Map<String, Object> line) {
+        try {
+            emitter.send(objectMapper.writeValueAsString(line) + "\n", MediaType.APPLICATION_NDJSON);
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté : les opérations continuent, seul le suivi est perdu
+            logger.fine("[DOCKER] Ligne de résultat non transmise : " + e.getMessage());
         }
     }
 
-    /** Arrêter un conteneur Docker via le script python */
-    @PostMapping("/stop/{projectName}")
-    public ResponseEntity<?> stopContainer(@PathVariable String projectName) {
+    /**
+     * Logs du conteneur en continu (Server-Sent Events) : les tail dernières lignes puis les
+     * nouvelles au fil de l'eau. Événements "log" (une ligne, stderr préfixé par "ERROR: "),
+     * "dropped" ({"dropped": n} : lignes sautées car le client ne suit pas), "end" (conteneur
+     * arrêté), "error" (refus).
+     */
+    @GetMapping(value = "/logs/{projectName}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLogs(@PathVariable String projectName,
+                                                 @RequestParam(defaultValue = "100") int tail) {
+        SseEmitter emitter = new SseEmitter(logStreamTimeoutMs);
+        if (!isAuthenticated()) {
+            return singleEvent(emitter, HttpStatus.UNAUTHORIZED, "Utilisateur non authentifié");
+        }
+        // Projet de l'utilisateur (n'importe lequel pour un admin) ; celui d'un autre est introuvable
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        boolean visible = (admin ? mockProjectService.getAllProjects() : mockProjectService.getProjectsByCurrentUser())
+                .stream().anyMatch(project -> project.getName().equals(projectName));
+        if (!visible) {
+            return singleEvent(emitter, HttpStatus.NOT_FOUND, "Projet introuvable : " + projectName);
+        }
+
+        Closeable subscription;
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("status", "error", "message", "Utilisateur non authentifié"));
+            subscription = containerLogStreamer.subscribe(projectName, tail, new ContainerLogStreamer.LogSink() {
+                @Override
+                public void line(String line) throws IOException {
+                    emitter.send(SseEmitter.event().name("log").data(line));
+                }
+
+                @Override
+                public void dropped(long count) throws IOException {
+                    emitter.send(SseEmitter.event().name("dropped").data(Map.of("dropped", count)));
+                }
+
+                @Override
+                public void ping() throws IOException {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+
+                @Override
+                public void end() {
+                    try {
+                        emitter.send(SseEmitter.event().name("end").data(""));
+                        emitter.complete();
+                    } catch (IOException | IllegalStateException e) {
+                        // Client déjà déconnecté
+                    }
+                }
+            });
+        } catch (DockerApiException e) {
+            HttpStatus status = e.getStatus() == 404 ? HttpStatus.NOT_FOUND : HttpStatus.BAD_GATEWAY;
+            return singleEvent(emitter, status, "Logs indisponibles : " + e.getMessage());
+        } catch (IOException e) {
+            logger.warning("[DOCKER] Suivi des logs impossible pour " + projectName + " : " + e.getMessage());
+            return singleEvent(emitter, HttpStatus.BAD_GATEWAY, "Logs indisponibles : " + e.getMessage());
+        }
+
+        Runnable unsubscribe = () -> {
+            try {
+                subscription.close();
+            } catch (IOException ignored) {
             }
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
 
-            logger.info("[DOCKER] Tentative d'arrêt du conteneur pour le projet : " + projectName);
+    /**
+     * Changements d'état des conteneurs des projets de l'utilisateur (tous pour un admin), en
+     * Server-Sent Events : un événement "state" par conteneur à l'ouverture, puis un à chaque
+     * démarrage, arrêt, OOM ou changement de santé ("removed" quand le conteneur est supprimé).
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        SseEmitter emitter = new SseEmitter(eventStreamTimeoutMs);
+        if (!isAuthenticated()) {
+            return singleEvent(emitter, HttpStatus.UNAUTHORIZED, "Utilisateur non authentifié");
+        }
+        if (!containerStateTracker.isLive()) {
+            return singleEvent(emitter, HttpStatus.SERVICE_UNAVAILABLE, "Flux d'événements Docker indisponible");
+        }
 
-            mockProjectService.stopDockerContainer(projectName);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        java.util.Set<String> allowed = (admin ? mockProjectService.getAllProjects() : mockProjectService.getProjectsByCurrentUser())
+                .stream().map(MockProject::getName).collect(java.util.stream.Collectors.toSet());
 
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "message", "Conteneur arrêté avec succès",
-                    "projectName", projectName
-            ));
-        } catch (Exception e) {
-            logger.severe("[DOCKER] Erreur lors de l'arrêt du conteneur : " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                            "status", "error",
-                            "message", "Erreur lors de l'arrêt : " + e.getMessage()
-                    ));
+        java.util.function.Consumer<ContainerStateTracker.ContainerState> send = state -> {
+            if (!allowed.contains(state.projectName())) return;
+            try {
+                emitter.send(SseEmitter.event().name("state").data(stateBody(state)));
+            } catch (IOException e) {
+                // Remonté au tracker : l'abonné est retiré
+                throw new IllegalStateException(e);
+            }
+        };
+        Closeable subscription = containerStateTracker.subscribe(send);
+        Runnable unsubscribe = () -> {
+            try {
+                subscription.close();
+            } catch (IOException ignored) {
+            }
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        try {
+            containerStateTracker.states().forEach(send);
+        } catch (IllegalStateException e) {
+            unsubscribe.run();
         }
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
     }
 
-    /** Redémarrer un conteneur Docker (stop puis start via le script python) */
-    @PostMapping("/restart/{projectName}")
-    public ResponseEntity<?> restartContainer(@PathVariable String projectName) {
+    private static Map<String, Object> stateBody(ContainerStateTracker.ContainerState state) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("projectName", state.projectName());
+        body.put("state", state.state());
+        body.put("status", state.status());
+        body.put("running", state.running());
+        if (state.health() != null) body.put("health", state.health());
+        if (state.exitCode() != null) body.put("exitCode", state.exitCode());
+        if (state.oomKilled()) body.put("oomKilled", true);
+        body.put("changedAt", state.changedAt().toString());
+        return body;
+    }
+
+    private static ResponseEntity<SseEmitter> singleEvent(SseEmitter emitter, HttpStatus status, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("status", "error", "message", message)));
+        } catch (IOException ignored) {
+        }
+        emitter.complete();
+        return ResponseEntity.status(status).contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    private static Map<String, Object> startedBody(String projectName, MockProjectService.MockStart started, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "success");
+        body.put("message", message);
+        body.put("projectName", projectName);
+        body.put("timeToReadyMs", started.timeToReady().toMillis());
+        if (started.hostPort() != null) body.put("hostPort", started.hostPort());
+        return body;
+    }
+
+    // Plafond d'opérations atteint : 503 ; autre erreur : 500
+    private static ResponseEntity<?> failure(String logPrefix, String messagePrefix, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        logger.severe(logPrefix + cause.getMessage());
+        HttpStatus status = cause instanceof OrchestrationExecutor.OrchestrationBusyException
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status)
+                .body(Map.of(
+                        "status", "error",
+                        "message", messagePrefix + cause.getMessage()
+                ));
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal());
+    }
+
+    private static ResponseEntity<?> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("status", "error", "message", "Utilisateur non authentifié"));
+    }
+
+    /** État de tous les mocks de l'utilisateur (all=true : tous les projets, réservé aux admins) */
+    @GetMapping("/status")
+    public ResponseEntity<?> getStatuses(@RequestParam(defaultValue = "false") boolean all,
+                                         @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
@@ -88,28 +378,58 @@ public class MockDockerController {
                         .body(Map.of("status", "error", "message", "Utilisateur non authentifié"));
             }
 
-            logger.info("[DOCKER] Tentative de redémarrage du conteneur pour le projet : " + projectName);
+            boolean admin = auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+            List<MockProject> projects = all && admin
+                    ? mockProjectService.getAllProjects()
+                    : mockProjectService.getProjectsByCurrentUser();
 
-            try {
-                mockProjectService.stopDockerContainer(projectName);
-            } catch (Exception e) {
-                logger.warning("[DOCKER] Conteneur déjà arrêté ou inexistant : " + e.getMessage());
+            List<Map<String, Object>> statuses = mockProjectService.getContainerStatuses(projects);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(statuses.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
             }
-            mockProjectService.startDockerContainer(projectName);
 
-            return ResponseEntity.ok(Map.of(
+            return ResponseEntity.ok().eTag(etag).body(Map.of(
                     "status", "success",
-                    "message", "Conteneur redémarré avec succès",
-                    "projectName", projectName
+                    "data", statuses
             ));
         } catch (Exception e) {
-            logger.severe("[DOCKER] Erreur lors du redémarrage du conteneur : " + e.getMessage());
+            logger.severe("[DOCKER] Erreur lors de la lecture des états : " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of(
                             "status", "error",
-                            "message", "Erreur lors du redémarrage : " + e.getMessage()
+                            "message", "Erreur lors de la lecture des états : " + e.getMessage()
                     ));
         }
     }
 
-}
\ No newline at end of file
+    /** État du pool de conteneurs déjà créés (succès, échecs, latence de remplissage) */
+    @GetMapping("/pool")
+    public ResponseEntity<?> getPoolStats() {
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "data", warmContainerPool.stats()
+        ));
+    }
+
+    /** Opérations de démarrage / arrêt en cours et en attente, et demandes rattachées par projet */
+    @GetMapping("/orchestration")
+    public ResponseEntity<?> getOrchestrationStats() {
+        Map<String, Object> data = new LinkedHashMap<>(orchestrationExecutor.stats());
+        data.put("perProject", operationCoordinator.stats());
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "data", data
+        ));
+    }
+
+    /** Échanges en cours par projet sur la passerelle /gateway (latences : métrique mock.gateway.requests) */
+    @GetMapping("/gateway")
+    public ResponseEntity<?> getGatewayStats() {
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "data", mockGateway.inFlight()
+        ));
+    }
+
+}
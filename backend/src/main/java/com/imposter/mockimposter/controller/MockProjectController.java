@@ -1,26 +1,44 @@
 package com.imposter.mockimposter.controller;
 
 import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.entities.ServingMode;
 import com.imposter.mockimposter.service.MockProjectService;
+import com.imposter.mockimposter.service.ProjectNameConflictException;
+import com.imposter.mockimposter.service.ProvisioningJob;
+import com.imposter.mockimposter.service.ProvisioningService;
+import com.imposter.mockimposter.service.UploadLimitException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/projects")
 public class MockProjectController {
 
     private final MockProjectService mockProjectService;
+    private final ProvisioningService provisioningService;
+
+    @Value("${provisioning.events.timeout-ms:600000}")
+    private long progressTimeoutMs;
 
-    public MockProjectController(MockProjectService mockProjectService) {
+    public MockProjectController(MockProjectService mockProjectService, ProvisioningService provisioningService) {
         this.mockProjectService = mockProjectService;
+        this.provisioningService = provisioningService;
     }
 
     private boolean isAuthenticated() {
@@ -50,7 +68,8 @@ public class MockProjectController {
     public ResponseEntity<?> createProject(
             @RequestParam("projectName") String projectName,
             @RequestParam("wsdlFile") MultipartFile wsdlFile,
-            @RequestParam(value = "xsdFile", required = false) MultipartFile xsdFile) {
+            @RequestParam(value = "xsdFile", required = false) MultipartFile xsdFile,
+            @RequestParam(value = "servingMode", defaultValue = "DOCKER") ServingMode servingMode) {
 
         if (!isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
@@ -67,11 +86,23 @@ public class MockProjectController {
         }
 
         try {
-            MockProject project = mockProjectService.createMockProject(projectName, wsdlFile, xsdFile);
-            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+            // Fichiers déposés maintenant, génération en tâche de fond : suivi via /jobs/{id}
+            ProvisioningJob job = provisioningService.submit(projectName, wsdlFile, xsdFile, servingMode);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
                     "success", true,
-                    "message", "Projet créé avec succès",
-                    "data", project
+                    "message", "Création du projet en cours",
+                    "jobId", job.getId(),
+                    "data", job
+            ));
+        } catch (ProjectNameConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "success", false,
+                    "message", "Trop de créations de projets en cours, réessayez plus tard"
             ));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
@@ -81,6 +112,277 @@ public class MockProjectController {
         }
     }
 
+    // ✅ Créer un projet à partir du corps brut de la requête : WSDL, ou archive .zip (WSDL + XSD importés)
+    // Lu en flux et écrit directement à sa place, sans formulaire multipart ; fileName indique le type
+    @PostMapping(value = "/create/stream", consumes = {
+            MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE,
+            "application/wsdl+xml", "application/zip", "application/x-zip-compressed"})
+    public ResponseEntity<?> createProjectFromStream(
+            @RequestParam("projectName") String projectName,
+            @RequestParam(value = "fileName", required = false) String fileName,
+            @RequestParam(value = "servingMode", defaultValue = "DOCKER") ServingMode servingMode,
+            HttpServletRequest request) {
+
+        if (!isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "success", false,
+                    "message", "Vous devez être connecté pour créer un projet"
+            ));
+        }
+
+        if (fileName == null || fileName.isBlank()) {
+            String contentType = request.getContentType() != null ? request.getContentType() : "";
+            fileName = projectName + (contentType.contains("zip") ? ".zip" : ".wsdl");
+        }
+
+        try {
+            ProvisioningJob job = provisioningService.submitStream(projectName, fileName, request.getInputStream(),
+                    request.getContentLengthLong(), servingMode);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "success", true,
+                    "message", "Création du projet en cours",
+                    "jobId", job.getId(),
+                    "data", job
+            ));
+        } catch (UploadLimitException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (ProjectNameConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "success", false,
+                    "message", "Trop de créations de projets en cours, réessayez plus tard"
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Erreur lors de la création du projet : " + e.getMessage()
+            ));
+        }
+    }
+
+    // ✅ Suivre une création de projet
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id) {
+        if (!isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "success", false,
+                    "message", "Utilisateur non authentifié"
+            ));
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Optional<ProvisioningJob> job = provisioningService.getJob(id, username);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "success", false,
+                    "message", "Job introuvable"
+            ));
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", job.get()
+        ));
+    }
+
+    // ✅ Progression d'une création en direct (Server-Sent Events)
+    // Événements "stage" (changement d'étape), "output" (ligne du générateur), "missed" (événements
+    // perdus par un client trop lent) et "end" ; reprise après coupure via l'en-tête Last-Event-ID
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable String id,
+                                                      @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(progressTimeoutMs);
+        if (!isAuthenticated()) {
+            return errorEvent(emitter, HttpStatus.UNAUTHORIZED, "Utilisateur non authentifié");
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Optional<Closeable> subscription = provisioningService.subscribe(id, username, lastEventId != null ? lastEventId : 0,
+                new ProvisioningService.ProgressSink() {
+                    @Override
+                    public void event(ProvisioningJob.ProgressEvent event) throws IOException {
+                        Map<String, Object> data = new LinkedHashMap<>();
+                        data.put("stage", event.stage());
+                        if (event.line() != null) data.put("line", event.line());
+                        data.put("at", event.at().toString());
+                        emitter.send(SseEmitter.event().id(String.valueOf(event.id())).name(event.type()).data(data));
+                    }
+
+                    @Override
+                    public void missed(long count) throws IOException {
+                        emitter.send(SseEmitter.event().name("missed").data(Map.of("missed", count)));
+                    }
+
+                    @Override
+                    public void end() {
+                        try {
+                            emitter.send(SseEmitter.event().name("end").data(""));
+                            emitter.complete();
+                        } catch (IOException | IllegalStateException e) {
+                            // Client déjà déconnecté
+                        }
+                    }
+                });
+        if (subscription.isEmpty()) {
+            return errorEvent(emitter, HttpStatus.NOT_FOUND, "Job introuvable");
+        }
+
+        Runnable unsubscribe = () -> {
+            try {
+                subscription.get().close();
+            } catch (IOException ignored) {
+            }
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    private static ResponseEntity<SseEmitter> errorEvent(SseEmitter emitter, HttpStatus status, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("success", false, "message", message)));
+        } catch (IOException ignored) {
+        }
+        emitter.complete();
+        return ResponseEntity.status(status).contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    // ✅ Changer le mode de service d'un projet (DOCKER / EMBEDDED)
+    @PutMapping("/{id}/serving-mode")
+    public ResponseEntity<?> updateServingMode(@PathVariable Long id, @RequestParam("mode") ServingMode mode) {
+        if (!isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "success", false,
+                    "message", "Utilisateur non authentifié"
+            ));
+        }
+
+        Optional<MockProject> projectOpt = mockProjectService.getProjectsByCurrentUser().stream()
+                .filter(p -> p.getId().equals(id))
+                .findFirst();
+
+        if (projectOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "success", false,
+                    "message", "Projet non trouvé ou accès interdit"
+            ));
+        }
+
+        MockProject project = mockProjectService.updateServingMode(projectOpt.get(), mode);
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "Mode de service mis à jour",
+                "data", project
+        ));
+    }
+
+    // ✅ Table de routage SOAP d'un projet (chemin, SOAPAction, élément du Body -> opération)
+    @GetMapping("/{id}/routes")
+    public ResponseEntity<?> getRoutes(@PathVariable Long id) {
+        if (!isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "success", false,
+                    "message", "Utilisateur non authentifié"
+            ));
+        }
+
+        Optional<MockProject> projectOpt = mockProjectService.getProjectsByCurrentUser().stream()
+                .filter(p -> p.getId().equals(id))
+                .findFirst();
+
+        if (projectOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "success", false,
+                    "message", "Projet non trouvé ou accès interdit"
+            ));
+        }
+
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", mockProjectService.getRoutes(projectOpt.get())
+        ));
+    }
+
+    // ✅ Régénérer un projet (nouveau WSDL / XSD facultatifs) : sauté si les entrées n'ont pas changé
+    @PostMapping("/{id}/regenerate")
+    public ResponseEntity<?> regenerateProject(
+            @PathVariable Long id,
+            @RequestParam(value = "wsdlFile", required = false) MultipartFile wsdlFile,
+            @RequestParam(value = "xsdFile", required = false) MultipartFile xsdFile,
+            @RequestParam(value = "force", defaultValue = "false") boolean force) {
+        if (!isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "success", false,
+                    "message", "Utilisateur non authentifié"
+            ));
+        }
+
+        Optional<MockProject> projectOpt = mockProjectService.getProjectsByCurrentUser().stream()
+                .filter(p -> p.getId().equals(id))
+                .findFirst();
+
+        if (projectOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "success", false,
+                    "message", "Projet non trouvé ou accès interdit"
+            ));
+        }
+
+        try {
+            MockProjectService.Regeneration result = mockProjectService.regenerate(projectOpt.get(), wsdlFile, xsdFile, force);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "unchanged".equals(result.outcome()) ? "Entrées inchangées, rien à régénérer" : "Projet régénéré",
+                    "data", result
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Erreur lors de la régénération du projet : " + e.getMessage()
+            ));
+        }
+    }
+
+    // ✅ Régénérer tous les projets de l'utilisateur en tâche de fond : seuls ceux dont les entrées ont
+    // changé sont traités ; progression et résultat par projet via /jobs/{id} et /jobs/{id}/events
+    @PostMapping("/regenerate")
+    public ResponseEntity<?> regenerateAll(@RequestParam(value = "force", defaultValue = "false") boolean force) {
+        if (!isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "success", false,
+                    "message", "Utilisateur non authentifié"
+            ));
+        }
+
+        try {
+            ProvisioningJob job = provisioningService.submitRegeneration(force);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "success", true,
+                    "message", "Régénération des projets en cours",
+                    "jobId", job.getId(),
+                    "data", job
+            ));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "success", false,
+                    "message", "Trop de tâches de fond en cours, réessayez plus tard"
+            ));
+        }
+    }
+
     // ✅ Supprimer un projet
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<?> deleteProject(@PathVariable Long id) {
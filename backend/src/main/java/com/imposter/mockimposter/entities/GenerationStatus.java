@@ -0,0 +1,8 @@
+package com.imposter.mockimposter.entities;
+
+/** État de la génération des fichiers Imposter (imposter-config.yaml, response.groovy) d'un projet */
+public enum GenerationStatus {
+    PENDING,
+    READY,
+    FAILED
+}
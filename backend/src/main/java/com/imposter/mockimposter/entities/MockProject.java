@@ -1,10 +1,13 @@
 package com.imposter.mockimposter.entities;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @AllArgsConstructor
@@ -21,6 +24,48 @@ public class MockProject{
     private String xsdPath;
     private LocalDateTime createdAt;
 
+    @Enumerated(EnumType.STRING)
+    private ServingMode servingMode = ServingMode.DOCKER;
+
+    @Enumerated(EnumType.STRING)
+    private GenerationStatus generationStatus;
+
+    @Column(length = 2000)
+    private String generationError;
+
+    // Port hôte publié par le conteneur du projet (null tant qu'il n'est pas démarré)
+    private Integer hostPort;
+
+    // Empreintes SHA-256 des entrées de la dernière génération réussie, et version du générateur :
+    // une régénération sans changement d'entrée est sautée
+    @Column(length = 64)
+    private String wsdlHash;
+
+    @Column(length = 64)
+    private String xsdHash;
+
+    // Autres schémas du projet (archive déposée, imports rendus locaux), empreinte d'ensemble
+    @Column(length = 64)
+    private String importsHash;
+
+    @Column(length = 80)
+    private String generatorVersion;
+
+    // Fichiers du magasin partagé (BlobStore) référencés par le WSDL et le XSD du projet,
+    // null pour un fichier hors magasin
+    @Column(length = 64)
+    private String wsdlBlob;
+
+    @Column(length = 64)
+    private String xsdBlob;
+
+    // Autres fichiers d'une archive dépliée dans le projet (XSD importés...), une entrée par fichier
+    @JsonIgnore
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "mock_project_blobs", joinColumns = @JoinColumn(name = "project_id"))
+    @Column(name = "blob_hash", length = 64)
+    private List<String> bundleBlobs = new ArrayList<>();
+
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = true)
     private User user;
@@ -73,6 +118,94 @@ public class MockProject{
         this.createdAt = createdAt;
     }
 
+    public ServingMode getServingMode() {
+        return servingMode;
+    }
+
+    public void setServingMode(ServingMode servingMode) {
+        this.servingMode = servingMode;
+    }
+
+    public GenerationStatus getGenerationStatus() {
+        return generationStatus;
+    }
+
+    public void setGenerationStatus(GenerationStatus generationStatus) {
+        this.generationStatus = generationStatus;
+    }
+
+    public String getGenerationError() {
+        return generationError;
+    }
+
+    public void setGenerationError(String generationError) {
+        this.generationError = generationError;
+    }
+
+    public Integer getHostPort() {
+        return hostPort;
+    }
+
+    public void setHostPort(Integer hostPort) {
+        this.hostPort = hostPort;
+    }
+
+    public String getWsdlHash() {
+        return wsdlHash;
+    }
+
+    public void setWsdlHash(String wsdlHash) {
+        this.wsdlHash = wsdlHash;
+    }
+
+    public String getXsdHash() {
+        return xsdHash;
+    }
+
+    public void setXsdHash(String xsdHash) {
+        this.xsdHash = xsdHash;
+    }
+
+    public String getImportsHash() {
+        return importsHash;
+    }
+
+    public void setImportsHash(String importsHash) {
+        this.importsHash = importsHash;
+    }
+
+    public String getGeneratorVersion() {
+        return generatorVersion;
+    }
+
+    public void setGeneratorVersion(String generatorVersion) {
+        this.generatorVersion = generatorVersion;
+    }
+
+    public String getWsdlBlob() {
+        return wsdlBlob;
+    }
+
+    public void setWsdlBlob(String wsdlBlob) {
+        this.wsdlBlob = wsdlBlob;
+    }
+
+    public String getXsdBlob() {
+        return xsdBlob;
+    }
+
+    public void setXsdBlob(String xsdBlob) {
+        this.xsdBlob = xsdBlob;
+    }
+
+    public List<String> getBundleBlobs() {
+        return bundleBlobs;
+    }
+
+    public void setBundleBlobs(List<String> bundleBlobs) {
+        this.bundleBlobs = bundleBlobs;
+    }
+
     public User getUser() {
         return user;
     }
@@ -0,0 +1,10 @@
+package com.imposter.mockimposter.entities;
+
+/**
+ * Mode de service d'un projet mock :
+ * DOCKER = un conteneur Imposter dédié, EMBEDDED = servi directement par le backend sous /mock/{projectName}/**.
+ */
+public enum ServingMode {
+    DOCKER,
+    EMBEDDED
+}
@@ -0,0 +1,92 @@
+package com.imposter.mockimposter.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrée de la table de routage SOAP d'un projet, dérivée de son WSDL à chaque génération :
+ * chemin de la soap:address, SOAPAction et premier élément du Body (notation {ns}nom) -> opération.
+ * responseFile = réponse propre à l'opération dans le projet, null pour le script response.groovy.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "soap_routes", indexes = @Index(columnList = "projectId"))
+public class SoapRoute {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long projectId;
+
+    @Column(length = 512)
+    private String path;
+
+    private String operation;
+
+    @Column(length = 512)
+    private String soapAction;
+
+    @Column(length = 512)
+    private String bodyElement;
+
+    private String responseFile;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getSoapAction() {
+        return soapAction;
+    }
+
+    public void setSoapAction(String soapAction) {
+        this.soapAction = soapAction;
+    }
+
+    public String getBodyElement() {
+        return bodyElement;
+    }
+
+    public void setBodyElement(String bodyElement) {
+        this.bodyElement = bodyElement;
+    }
+
+    public String getResponseFile() {
+        return responseFile;
+    }
+
+    public void setResponseFile(String responseFile) {
+        this.responseFile = responseFile;
+    }
+}
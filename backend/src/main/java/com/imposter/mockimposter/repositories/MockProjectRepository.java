@@ -5,8 +5,14 @@ import com.imposter.mockimposter.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface MockProjectRepository extends JpaRepository<MockProject, Long> {
     // ⚡ On ne passe plus Optional<User>, juste User
     List<MockProject> findByUser(User user);
+
+    // Les conteneurs sont nommés mock-{projectName} : le nom sert d'identifiant côté Docker
+    Optional<MockProject> findFirstByName(String name);
+
+    List<MockProject> findByHostPortIsNotNull();
 }
@@ -0,0 +1,15 @@
+package com.imposter.mockimposter.repositories;
+
+import com.imposter.mockimposter.entities.SoapRoute;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface SoapRouteRepository extends JpaRepository<SoapRoute, Long> {
+
+    List<SoapRoute> findByProjectIdOrderById(Long projectId);
+
+    @Transactional
+    void deleteByProjectId(Long projectId);
+}
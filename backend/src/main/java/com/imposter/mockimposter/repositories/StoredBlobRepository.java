@@ -0,0 +1,29 @@
+package com.imposter.mockimposter.repositories;
+
+import com.imposter.mockimposter.entities.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    List<StoredBlob> findByRefCountLessThanEqual(int refCount);
+
+    /** Incrément en base, sans relire l'entité : deux mises à jour concurrentes ne s'écrasent pas */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update StoredBlob b set b.refCount = b.refCount + :delta where b.hash = :hash")
+    int addReferences(@Param("hash") String hash, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from StoredBlob b where b.hash = :hash and b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    @Query("select coalesce(sum(b.size), 0) from StoredBlob b")
+    long totalSize();
+
+    @Query("select coalesce(sum(b.size * b.refCount), 0) from StoredBlob b")
+    long referencedSize();
+}
@@ -0,0 +1,283 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.StoredBlob;
+import com.imposter.mockimposter.repositories.StoredBlobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.logging.Logger;
+
+/**
+ * Magasin des WSDL / XSD déposés, adressé par contenu : base.dir/.blobs/ab/abcdef... Un fichier
+ * déjà connu n'est stocké qu'une fois ; les dossiers de projets y renvoient par lien physique
+ * (copie si le système de fichiers ne le permet pas), ce qui reste lisible tel quel par les
+ * conteneurs qui montent le dossier du projet. Le nombre de références est tenu en base.
+ *
+ * Les fichiers reliés partagent leur contenu : ils ne sont jamais modifiés sur place, seulement
+ * remplacés (déplacement d'un nouveau fichier) ou supprimés.
+ *
+ * Chaque référencement / libération est validé dans sa propre transaction, par incrément en base :
+ * il ne dépend pas de la transaction (parfois longue) de l'appelant.
+ */
+@Component
+public class BlobStore {
+
+    private static final Logger logger = Logger.getLogger(BlobStore.class.getName());
+
+    /**
+     * @param hash         empreinte SHA-256 du contenu, null si le magasin est désactivé
+     * @param deduplicated contenu déjà présent dans le magasin
+     * @param linked       lien physique vers le magasin (sinon copie)
+     */
+    public record Placement(String hash, long size, boolean deduplicated, boolean linked) {
+    }
+
+    @Autowired
+    private StoredBlobRepository blobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${blob.store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${base.dir:projets_mocks}")
+    private String baseDirPath;
+
+    private static final DefaultTransactionDefinition OWN_TRANSACTION =
+            new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    private final Counter stored;
+    private final Counter deduplicated;
+    private final Counter savedBytes;
+
+    private Path root;
+    private volatile boolean hardLinks = true;
+
+    // Référencement et libération d'un même blob ne doivent pas se croiser
+    private final Object lock = new Object();
+
+    public BlobStore(MeterRegistry meterRegistry) {
+        stored = meterRegistry.counter("mock.blobs.uploads", "result", "stored");
+        deduplicated = meterRegistry.counter("mock.blobs.uploads", "result", "deduplicated");
+        savedBytes = meterRegistry.counter("mock.blobs.deduplicated.bytes");
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) return;
+        root = Paths.get(baseDirPath).toAbsolutePath().normalize().resolve(".blobs");
+        Files.createDirectories(root);
+        removeOrphans();
+        logger.info("[BLOBS] Magasin de fichiers partagés : " + root);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Dépose content à l'emplacement target (remplacé s'il existe) et lui ajoute une référence.
+     * Le contenu est haché pendant sa lecture : un seul passage, qu'il soit nouveau ou déjà stocké.
+     */
+    public Placement place(InputStream content, Path target) throws IOException {
+        return place(content, target, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param content  lu jusqu'au bout mais pas fermé (entrée d'archive, corps de requête)
+     * @param maxBytes au-delà, {@link UploadLimitException} et rien n'est déposé
+     */
+    public Placement place(InputStream content, Path target, long maxBytes) throws IOException {
+        if (!enabled) {
+            try {
+                return new Placement(null, write(content, target, null, maxBytes), false, false);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(target);
+                throw e;
+            }
+        }
+
+        Path incoming = Files.createTempFile(root, ".incoming-", ".tmp");
+        try {
+            MessageDigest digest = ContentHash.newDigest();
+            long size = write(content, incoming, digest, maxBytes);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path blob = pathOf(hash);
+
+            synchronized (lock) {
+                return inOwnTransaction(() -> {
+                    boolean recorded = blobRepository.existsById(hash);
+                    boolean known = recorded && Files.exists(blob);
+                    if (!known) {
+                        Files.createDirectories(blob.getParent());
+                        Files.move(incoming, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    boolean linked = link(blob, target);
+                    if (recorded) {
+                        blobRepository.addReferences(hash, 1);
+                    } else {
+                        StoredBlob entry = new StoredBlob();
+                        entry.setHash(hash);
+                        entry.setSize(size);
+                        entry.setRefCount(1);
+                        entry.setCreatedAt(LocalDateTime.now());
+                        blobRepository.save(entry);
+                    }
+
+                    if (known) {
+                        deduplicated.increment();
+                        savedBytes.increment(size);
+                        int references = blobRepository.findById(hash).map(StoredBlob::getRefCount).orElse(0);
+                        logger.info("[BLOBS] " + target.getFileName() + " déjà stocké (" + hash.substring(0, 12)
+                                + ", " + references + " référence(s))");
+                    } else {
+                        stored.increment();
+                    }
+                    return new Placement(hash, size, known, linked);
+                });
+            }
+        } finally {
+            Files.deleteIfExists(incoming);
+        }
+    }
+
+    /** Retire une référence ; le fichier du magasin est supprimé à la dernière, une fois la base validée */
+    public void release(String hash) {
+        if (!enabled || hash == null) return;
+        synchronized (lock) {
+            boolean last;
+            try {
+                last = inOwnTransaction(() ->
+                        blobRepository.addReferences(hash, -1) > 0 && blobRepository.deleteIfUnreferenced(hash) > 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if (!last) return;
+            try {
+                Files.deleteIfExists(pathOf(hash));
+            } catch (IOException e) {
+                logger.warning("[BLOBS] Suppression impossible de " + hash + " : " + e.getMessage());
+            }
+        }
+    }
+
+    private interface Step<T> {
+        T run() throws IOException;
+    }
+
+    // Transaction distincte de celle de l'appelant : validée dès la fin de l'étape
+    private <T> T inOwnTransaction(Step<T> step) throws IOException {
+        TransactionStatus status = transactionManager.getTransaction(OWN_TRANSACTION);
+        T result;
+        try {
+            result = step.run();
+        } catch (IOException | RuntimeException | Error e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return result;
+    }
+
+    // Écriture par canal et hachage dans la même boucle, sans copie intermédiaire du contenu
+    private static long write(InputStream content, Path file, MessageDigest digest, long maxBytes) throws IOException {
+        ReadableByteChannel source = Channels.newChannel(content);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long size = 0;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxBytes) {
+                    throw new UploadLimitException("Fichier trop volumineux : " + file.getFileName(), maxBytes);
+                }
+                if (digest != null) digest.update(buffer.array(), buffer.position(), buffer.remaining());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return size;
+    }
+
+    // Lien physique : aucune copie, et le fichier du projet survit à la suppression du blob
+    private boolean link(Path blob, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        if (hardLinks) {
+            try {
+                Files.createLink(target, blob);
+                return true;
+            } catch (NoSuchFileException e) {
+                throw e;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                hardLinks = false;
+                logger.warning("[BLOBS] Liens physiques indisponibles (" + e.getMessage() + "), fichiers copiés");
+            }
+        }
+        Files.copy(blob, target);
+        return false;
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Fichiers sans entrée en base (base recréée au démarrage, arrêt entre le dépôt et
+     * l'enregistrement) et entrées sans référence. Les projets qui y renvoyaient gardent leur
+     * contenu : un lien physique ne dépend pas du fichier du magasin.
+     */
+    private void removeOrphans() throws IOException {
+        int removed = 0;
+        synchronized (lock) {
+            for (StoredBlob entry : blobRepository.findByRefCountLessThanEqual(0)) {
+                blobRepository.delete(entry);
+            }
+            try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root)) {
+                for (Path prefix : prefixes) {
+                    if (!Files.isDirectory(prefix)) {
+                        Files.deleteIfExists(prefix);
+                        continue;
+                    }
+                    try (DirectoryStream<Path> blobs = Files.newDirectoryStream(prefix)) {
+                        for (Path blob : blobs) {
+                            if (!blobRepository.existsById(blob.getFileName().toString())) {
+                                Files.deleteIfExists(blob);
+                                removed++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (removed > 0) logger.info("[BLOBS] " + removed + " fichier(s) sans référence supprimé(s)");
+    }
+}
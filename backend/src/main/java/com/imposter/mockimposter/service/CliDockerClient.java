@@ -0,0 +1,287 @@
+package com.imposter.mockimposter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Repli sur la CLI docker (Windows, ou socket Engine inaccessible).
+ * Chaque appel forke un processus docker, lancé par {@link ProcessSupervisor}.
+ */
+public class CliDockerClient implements DockerClient {
+
+    private static final boolean IS_WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
+
+    // Sortie complète attendue (JSON de docker ps / inspect) : tampon large mais borné
+    private static final int MAX_OUTPUT_LINES = 10_000;
+
+    private final ObjectMapper mapper;
+    private final ProcessSupervisor processSupervisor;
+    private final Duration timeout;
+
+    public CliDockerClient(ObjectMapper mapper, ProcessSupervisor processSupervisor, Duration timeout) {
+        this.mapper = mapper;
+        this.processSupervisor = processSupervisor;
+        this.timeout = timeout;
+    }
+
+    private record CommandResult(int exitCode, String output) {
+    }
+
+    private CommandResult docker(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        if (IS_WINDOWS) {
+            command.add("cmd");
+            command.add("/c");
+        }
+        command.add("docker");
+        command.addAll(Arrays.asList(args));
+
+        ProcessSupervisor.Result result;
+        try {
+            result = processSupervisor.run("docker:" + args[0], command, null, Map.of(), timeout, MAX_OUTPUT_LINES, line -> {
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Commande docker interrompue : " + String.join(" ", args), e);
+        }
+        if (result.outcome() == ProcessSupervisor.Outcome.TIMEOUT) {
+            throw new IOException("Commande docker sans réponse après " + timeout.toSeconds() + " s : " + String.join(" ", args));
+        }
+        return new CommandResult(result.exitCode(), result.output().trim());
+    }
+
+    private String dockerOrFail(String... args) throws IOException {
+        CommandResult result = docker(args);
+        if (result.exitCode() != 0) {
+            throw new IOException("docker " + args[0] + " a échoué (code " + result.exitCode() + ") : " + result.output());
+        }
+        return result.output();
+    }
+
+    @Override
+    public String createContainer(ContainerSpec spec) throws IOException {
+        List<String> args = new ArrayList<>(List.of("create", "--name", spec.name()));
+        if (spec.hostPort() != null) {
+            args.add("-p");
+            args.add(spec.hostPort() + ":" + spec.containerPort());
+        }
+        if (spec.bindSource() != null) {
+            args.add("-v");
+            args.add(spec.bindSource() + ":" + spec.bindTarget());
+        }
+        if (spec.network() != null) {
+            args.add("--network");
+            args.add(spec.network());
+        }
+        if (spec.labels() != null) {
+            spec.labels().forEach((k, v) -> {
+                args.add("--label");
+                args.add(k + "=" + v);
+            });
+        }
+        args.add(spec.image());
+
+        // docker create tire l'image si nécessaire ; l'identifiant est la dernière ligne
+        String output = dockerOrFail(args.toArray(String[]::new));
+        String[] lines = output.split("\n");
+        return lines[lines.length - 1].trim();
+    }
+
+    @Override
+    public void startContainer(String container) throws IOException {
+        dockerOrFail("start", container);
+    }
+
+    @Override
+    public void stopContainer(String container, int timeoutSeconds) throws IOException {
+        docker("stop", "-t", String.valueOf(timeoutSeconds), container);
+    }
+
+    @Override
+    public void removeContainer(String container, boolean force) throws IOException {
+        if (force) docker("rm", "-f", container);
+        else docker("rm", container);
+    }
+
+    @Override
+    public void restartContainer(String container, int timeoutSeconds) throws IOException {
+        dockerOrFail("restart", "-t", String.valueOf(timeoutSeconds), container);
+    }
+
+    @Override
+    public void renameContainer(String container, String newName) throws IOException {
+        dockerOrFail("rename", container, newName);
+    }
+
+    @Override
+    public Optional<ContainerInfo> inspectContainer(String container) throws IOException {
+        CommandResult result = docker("inspect", "--type", "container", container);
+        if (result.exitCode() != 0) return Optional.empty();
+
+        JsonNode node = mapper.readTree(result.output()).path(0);
+        String state = node.path("State").path("Status").asText();
+        return Optional.of(new ContainerInfo(
+                node.path("Id").asText(),
+                node.path("Name").asText().replaceFirst("^/", ""),
+                state,
+                state,
+                labels(node.path("Config").path("Labels"))));
+    }
+
+    @Override
+    public List<ContainerInfo> listContainers(boolean all, String namePrefix) throws IOException {
+        List<String> args = new ArrayList<>(List.of("ps", "--no-trunc", "--format", "{{json .}}"));
+        if (all) args.add("-a");
+        if (namePrefix != null) {
+            args.add("-f");
+            args.add("name=^/" + namePrefix);
+        }
+
+        List<ContainerInfo> containers = new ArrayList<>();
+        for (String line : dockerOrFail(args.toArray(String[]::new)).split("\n")) {
+            if (line.isBlank()) continue;
+            JsonNode node = mapper.readTree(line);
+            Map<String, String> labels = new LinkedHashMap<>();
+            for (String pair : node.path("Labels").asText().split(",")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) labels.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+            containers.add(new ContainerInfo(
+                    node.path("ID").asText(),
+                    node.path("Names").asText(),
+                    node.path("State").asText(),
+                    node.path("Status").asText(),
+                    labels));
+        }
+        return containers;
+    }
+
+    @Override
+    public String containerLogs(String container, int tail, long sinceEpochSeconds) throws IOException {
+        if (sinceEpochSeconds > 0) {
+            return docker("logs", "--tail", String.valueOf(tail), "--since", String.valueOf(sinceEpochSeconds), container).output();
+        }
+        return docker("logs", "--tail", String.valueOf(tail), container).output();
+    }
+
+    @Override
+    public Closeable followLogs(String container, int tail, Consumer<String> onLine, Runnable onEnd) throws IOException {
+        List<String> command = new ArrayList<>();
+        if (IS_WINDOWS) {
+            command.add("cmd");
+            command.add("/c");
+        }
+        command.addAll(List.of("docker", "logs", "--follow", "--tail", String.valueOf(Math.max(0, tail)), container));
+
+        // stdout du conteneur sur stdout, stderr sur stderr : même préfixe que l'API Engine
+        Process process = processSupervisor.spawn("docker:logs", command, null, Map.of(),
+                line -> onLine.accept("ERROR: " + line));
+        process.getOutputStream().close();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    onLine.accept(line);
+                }
+            } catch (IOException ignored) {
+                // Processus arrêté par close()
+            } finally {
+                processSupervisor.kill(process);
+                onEnd.run();
+            }
+        }, "docker-logs-" + container);
+        reader.setDaemon(true);
+        reader.start();
+        return () -> processSupervisor.kill(process);
+    }
+
+    @Override
+    public Closeable containerEvents(Consumer<ContainerEvent> onEvent, Runnable onEnd) throws IOException {
+        List<String> command = new ArrayList<>();
+        if (IS_WINDOWS) {
+            command.add("cmd");
+            command.add("/c");
+        }
+        command.addAll(List.of("docker", "events", "--filter", "type=container", "--format", "{{json .}}"));
+
+        Process process = processSupervisor.spawn("docker:events", command, null, Map.of(), line -> {
+        });
+        process.getOutputStream().close();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (!line.isBlank()) onEvent.accept(ContainerEvent.fromJson(mapper.readTree(line)));
+                }
+            } catch (IOException ignored) {
+                // Processus arrêté par close()
+            } finally {
+                processSupervisor.kill(process);
+                onEnd.run();
+            }
+        }, "docker-events");
+        reader.setDaemon(true);
+        reader.start();
+        return () -> processSupervisor.kill(process);
+    }
+
+    @Override
+    public long networkReceivedBytes(String container) throws IOException {
+        CommandResult result = docker("stats", "--no-stream", "--format", "{{.NetIO}}", container);
+        if (result.exitCode() != 0) return -1;
+        // Format "1.2kB / 648B" : reçu / émis
+        String received = result.output().trim().split("/")[0].trim();
+        return received.isEmpty() || received.startsWith("-") ? -1 : parseSize(received);
+    }
+
+    static long parseSize(String value) {
+        int unitStart = 0;
+        while (unitStart < value.length()
+                && (Character.isDigit(value.charAt(unitStart)) || value.charAt(unitStart) == '.')) {
+            unitStart++;
+        }
+        double amount = Double.parseDouble(value.substring(0, unitStart));
+        long factor = switch (value.substring(unitStart).trim()) {
+            case "kB", "KB" -> 1000L;
+            case "KiB" -> 1024L;
+            case "MB" -> 1000L * 1000;
+            case "MiB" -> 1024L * 1024;
+            case "GB" -> 1000L * 1000 * 1000;
+            case "GiB" -> 1024L * 1024 * 1024;
+            default -> 1L;
+        };
+        return (long) (amount * factor);
+    }
+
+    @Override
+    public boolean networkExists(String network) throws IOException {
+        return docker("network", "inspect", network).exitCode() == 0;
+    }
+
+    @Override
+    public void createNetwork(String network) throws IOException {
+        dockerOrFail("network", "create", network);
+    }
+
+    private static Map<String, String> labels(JsonNode node) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        node.properties().forEach(e -> labels.put(e.getKey(), e.getValue().asText()));
+        return labels;
+    }
+}
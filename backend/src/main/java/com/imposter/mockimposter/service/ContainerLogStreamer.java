@@ -0,0 +1,279 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Logs des conteneurs mock-* en continu : un seul lecteur Docker (logs suivis) par projet,
+ * diffusé à tous les abonnés. Chaque abonné a sa propre file bornée : un client lent ne
+ * ralentit ni le lecteur ni les autres abonnés, il perd des lignes et reçoit le nombre de
+ * lignes sautées. Le lecteur est fermé au départ du dernier abonné.
+ */
+@Component
+public class ContainerLogStreamer {
+
+    private static final Logger logger = Logger.getLogger(ContainerLogStreamer.class.getName());
+
+    /** Destination des lignes d'un abonné (flux SSE côté contrôleur) */
+    public interface LogSink {
+        void line(String line) throws IOException;
+
+        /** count lignes sautées faute de place dans la file de l'abonné */
+        void dropped(long count) throws IOException;
+
+        /** Message vide périodique : détecte les clients partis sans fermer la connexion */
+        void ping() throws IOException;
+
+        /** Fin du flux (conteneur arrêté ou supprimé) */
+        void end();
+    }
+
+    @Autowired
+    private DockerClient dockerClient;
+
+    // Lignes gardées par projet pour les abonnés qui arrivent en cours de route (plafond de tail)
+    @Value("${docker.logs.stream.history:500}")
+    private int historySize;
+
+    @Value("${docker.logs.stream.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    private final Counter droppedLines;
+
+    private final Map<String, Channel> channels = new HashMap<>();
+
+    private final ExecutorService sender = Executors.newCachedThreadPool(new java.util.concurrent.ThreadFactory() {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "log-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    public ContainerLogStreamer(MeterRegistry meterRegistry) {
+        this.droppedLines = meterRegistry.counter("mock.logs.dropped");
+    }
+
+    /**
+     * @param tail lignes déjà écrites à renvoyer d'abord, bornée par docker.logs.stream.history
+     * @return l'abonnement, à fermer quand le client se déconnecte
+     * @throws IOException si le conteneur n'existe pas ou que Docker refuse la lecture
+     */
+    public Closeable subscribe(String projectName, int tail, LogSink sink) throws IOException {
+        int backlog = Math.max(0, Math.min(tail, historySize));
+        Subscriber subscriber = new Subscriber(sink);
+        synchronized (channels) {
+            Channel channel = channels.get(projectName);
+            if (channel != null) {
+                channel.join(subscriber, backlog);
+            } else {
+                channel = new Channel(projectName);
+                channel.join(subscriber, 0);
+                channels.put(projectName, channel);
+                try {
+                    Channel opened = channel;
+                    channel.upstream = dockerClient.followLogs("mock-" + projectName, backlog,
+                            opened::publish, opened::ended);
+                } catch (IOException | RuntimeException e) {
+                    channels.remove(projectName);
+                    throw e;
+                }
+                logger.info("[LOGS] Suivi des logs de mock-" + projectName + " ouvert");
+            }
+            Channel joined = channel;
+            return () -> leave(joined, subscriber);
+        }
+    }
+
+    /** Abonnés par projet suivi */
+    public Map<String, Integer> subscribers() {
+        Map<String, Integer> counts = new HashMap<>();
+        synchronized (channels) {
+            channels.forEach((project, channel) -> counts.put(project, channel.subscribers.size()));
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${docker.logs.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        List<Channel> open;
+        synchronized (channels) {
+            open = new ArrayList<>(channels.values());
+        }
+        open.forEach(channel -> channel.subscribers.forEach(Subscriber::ping));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Channel> open;
+        synchronized (channels) {
+            open = new ArrayList<>(channels.values());
+            channels.clear();
+        }
+        open.forEach(Channel::closeUpstream);
+        sender.shutdownNow();
+    }
+
+    private void leave(Channel channel, Subscriber subscriber) {
+        subscriber.closed = true;
+        synchronized (channels) {
+            channel.subscribers.remove(subscriber);
+            if (!channel.subscribers.isEmpty() || channels.get(channel.projectName) != channel) return;
+            channels.remove(channel.projectName);
+        }
+        channel.closeUpstream();
+        logger.info("[LOGS] Plus d'abonné, suivi des logs de mock-" + channel.projectName + " fermé");
+    }
+
+    /** Lecteur Docker d'un projet et ses abonnés */
+    private final class Channel {
+        private final String projectName;
+        private final ArrayDeque<String> history = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private volatile Closeable upstream;
+
+        Channel(String projectName) {
+            this.projectName = projectName;
+        }
+
+        // Historique et inscription sous le même verrou que publish : ni ligne perdue ni doublon
+        synchronized void join(Subscriber subscriber, int backlog) {
+            int skip = Math.max(0, history.size() - backlog);
+            for (String line : history) {
+                if (skip-- <= 0) subscriber.offer(line);
+            }
+            subscribers.add(subscriber);
+        }
+
+        synchronized void publish(String line) {
+            if (historySize > 0) {
+                if (history.size() >= historySize) history.removeFirst();
+                history.addLast(line);
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(line);
+            }
+        }
+
+        void ended() {
+            synchronized (channels) {
+                channels.remove(projectName, this);
+            }
+            subscribers.forEach(Subscriber::finish);
+        }
+
+        void closeUpstream() {
+            Closeable reader = upstream;
+            if (reader == null) return;
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * File bornée d'un abonné, vidée par un thread d'envoi. File pleine : les lignes suivantes
+     * sont sautées jusqu'à ce qu'elle soit vidée, puis le nombre de lignes sautées est envoyé.
+     */
+    private final class Subscriber {
+        private final LogSink sink;
+        private final ArrayBlockingQueue<String> queue = new ArrayBlockingQueue<>(Math.max(1, subscriberBuffer));
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private boolean overflowing;
+        private long dropped;
+        private volatile boolean pingPending;
+        private volatile boolean finished;
+        private volatile boolean closed;
+
+        Subscriber(LogSink sink) {
+            this.sink = sink;
+        }
+
+        void offer(String line) {
+            synchronized (this) {
+                if (overflowing || !queue.offer(line)) {
+                    overflowing = true;
+                    dropped++;
+                    droppedLines.increment();
+                }
+            }
+            schedule();
+        }
+
+        void ping() {
+            pingPending = true;
+            schedule();
+        }
+
+        void finish() {
+            finished = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                String line;
+                while (!closed && (line = queue.poll()) != null) {
+                    sink.line(line);
+                }
+                long skipped = 0;
+                synchronized (this) {
+                    if (overflowing && queue.isEmpty()) {
+                        skipped = dropped;
+                        dropped = 0;
+                        overflowing = false;
+                    }
+                }
+                if (skipped > 0) sink.dropped(skipped);
+                if (pingPending) {
+                    pingPending = false;
+                    sink.ping();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Client parti : l'abonnement est fermé par le contrôleur (onError / onCompletion)
+                closed = true;
+                sink.end();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            if (finished && queue.isEmpty() && !overflowing) {
+                closed = true;
+                sink.end();
+            } else if (!queue.isEmpty() || overflowing || pingPending || finished) {
+                schedule();
+            }
+        }
+    }
+}
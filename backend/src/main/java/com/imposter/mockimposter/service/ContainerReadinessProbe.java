@@ -0,0 +1,116 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Attente de disponibilité d'un conteneur mock : rend la main dès que le mock répond en HTTP
+ * sur son port ou que sa ligne de démarrage apparaît dans les logs. Sondage à backoff
+ * exponentiel jusqu'à une échéance configurable ; échec immédiat si le conteneur s'arrête.
+ */
+@Component
+public class ContainerReadinessProbe {
+
+    private static final Logger logger = Logger.getLogger(ContainerReadinessProbe.class.getName());
+
+    @Autowired
+    private DockerClient dockerClient;
+
+    @Value("${docker.readiness.timeout-ms:60000}")
+    private long timeoutMs;
+
+    @Value("${docker.readiness.initial-backoff-ms:50}")
+    private long initialBackoffMs;
+
+    @Value("${docker.readiness.max-backoff-ms:2000}")
+    private long maxBackoffMs;
+
+    // Ligne écrite par Imposter quand le moteur est prêt
+    @Value("${docker.readiness.log-marker:Mock engine up and running}")
+    private String logMarker;
+
+    @Value("${docker.readiness.path:/system/status}")
+    private String probePath;
+
+    @Autowired
+    private MockEndpointResolver endpointResolver;
+
+    public enum Outcome {HTTP, LOG, EXITED, TIMEOUT}
+
+    public record Readiness(Outcome outcome, Duration elapsed) {
+        public boolean ready() {
+            return outcome == Outcome.HTTP || outcome == Outcome.LOG;
+        }
+    }
+
+    public Readiness awaitReady(String containerName, int containerPort, Integer hostPort) throws InterruptedException {
+        return awaitReady(containerName, containerPort, hostPort, 0);
+    }
+
+    /**
+     * @param logsSinceEpochSeconds ignore les lignes de logs antérieures (conteneur redémarré,
+     *                              dont les logs contiennent déjà la ligne de démarrage précédente)
+     */
+    public Readiness awaitReady(String containerName, int containerPort, Integer hostPort,
+                                long logsSinceEpochSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofMillis(timeoutMs).toNanos();
+        long backoff = Math.max(1, initialBackoffMs);
+        String url = endpointResolver.baseUrl(containerName, hostPort) + probePath;
+
+        while (true) {
+            if (answersHttp(url)) {
+                return done(containerName, Outcome.HTTP, start);
+            }
+
+            try {
+                Optional<DockerClient.ContainerInfo> info = dockerClient.inspectContainer(containerName);
+                if (info.isEmpty() || "exited".equals(info.get().state()) || "dead".equals(info.get().state())) {
+                    return done(containerName, Outcome.EXITED, start);
+                }
+                if (dockerClient.containerLogs(containerName, 20, logsSinceEpochSeconds).contains(logMarker)) {
+                    return done(containerName, Outcome.LOG, start);
+                }
+            } catch (IOException e) {
+                logger.fine("[READINESS] Inspection de " + containerName + " impossible : " + e.getMessage());
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return done(containerName, Outcome.TIMEOUT, start);
+            }
+            Thread.sleep(Math.min(backoff, Duration.ofNanos(remaining).toMillis() + 1));
+            backoff = Math.min(backoff * 2, maxBackoffMs);
+        }
+    }
+
+    private Readiness done(String containerName, Outcome outcome, long start) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        logger.info("[READINESS] " + containerName + " : " + outcome + " après " + elapsed.toMillis() + " ms");
+        return new Readiness(outcome, elapsed);
+    }
+
+    // Toute réponse HTTP (même 404) prouve que le moteur Imposter écoute ; le proxy de ports
+    // Docker accepte les connexions TCP avant que le conteneur n'écoute, d'où un vrai appel HTTP
+    private static boolean answersHttp(String url) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(500);
+            connection.setReadTimeout(1000);
+            return connection.getResponseCode() > 0;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (connection != null) connection.disconnect();
+        }
+    }
+}
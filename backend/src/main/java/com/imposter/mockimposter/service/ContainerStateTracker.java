@@ -0,0 +1,338 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Table en mémoire de l'état des conteneurs mock-*, tenue à jour par le flux d'événements du
+ * démon Docker (démarrage, arrêt, OOM, santé...) : les lectures d'état ne passent plus par
+ * Docker. À la connexion (et après chaque coupure du flux), la table est reconstruite par une
+ * énumération, les événements reçus pendant celle-ci étant rejoués ensuite.
+ */
+@Component
+public class ContainerStateTracker {
+
+    private static final Logger logger = Logger.getLogger(ContainerStateTracker.class.getName());
+
+    private static final String PREFIX = "mock-";
+
+    /**
+     * @param health    healthy, unhealthy, starting, ou null sans healthcheck
+     * @param exitCode  code de sortie du dernier arrêt, null si le conteneur tourne
+     * @param oomKilled arrêté par manque de mémoire depuis le dernier démarrage
+     */
+    public record ContainerState(String projectName,
+                                 String containerId,
+                                 String containerName,
+                                 String state,
+                                 String health,
+                                 Integer exitCode,
+                                 boolean oomKilled,
+                                 Instant changedAt,
+                                 Map<String, String> labels) {
+
+        public boolean running() {
+            return "running".equals(state);
+        }
+
+        /** Libellé lisible, à la manière de la colonne STATUS de docker ps */
+        public String status() {
+            return switch (state) {
+                case "running" -> health != null ? "Up (" + health + ")" : "Up";
+                case "exited" -> "Exited (" + (exitCode != null ? exitCode : "?") + ")" + (oomKilled ? " OOM" : "");
+                case "created" -> "Created";
+                case "paused" -> "Up (Paused)";
+                default -> state;
+            };
+        }
+
+        DockerClient.ContainerInfo toInfo() {
+            return new DockerClient.ContainerInfo(containerId, containerName, state, status(), labels);
+        }
+    }
+
+    @Autowired
+    private DockerClient dockerClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${docker.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${docker.events.reconnect-max-ms:30000}")
+    private long reconnectMaxMs;
+
+    // Par identifiant de conteneur : un renommage ne change pas la clé
+    private final Map<String, ContainerState> byId = new HashMap<>();
+    private List<DockerClient.ContainerEvent> pendingDuringSync;
+    private volatile boolean live;
+    private volatile boolean running = true;
+    private volatile Closeable subscription;
+    private Thread loop;
+
+    private final List<Consumer<ContainerState>> listeners = new CopyOnWriteArrayList<>();
+
+    // Les abonnés sont notifiés hors du thread de lecture du flux
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "docker-events-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        loop = new Thread(this::followEvents, "docker-events-loop");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        live = false;
+        if (loop != null) loop.interrupt();
+        closeSubscription();
+        dispatcher.shutdownNow();
+    }
+
+    /** La table reflète Docker (flux d'événements connecté et table synchronisée) */
+    public boolean isLive() {
+        return live;
+    }
+
+    public Optional<ContainerState> state(String projectName) {
+        synchronized (byId) {
+            return byId.values().stream().filter(s -> s.projectName().equals(projectName)).findFirst();
+        }
+    }
+
+    /** Conteneurs mock-* par projet, au format de {@link DockerClient#listContainers} */
+    public Map<String, DockerClient.ContainerInfo> containersByProject() {
+        Map<String, DockerClient.ContainerInfo> byProject = new HashMap<>();
+        synchronized (byId) {
+            byId.values().forEach(s -> byProject.put(s.projectName(), s.toInfo()));
+        }
+        return Collections.unmodifiableMap(byProject);
+    }
+
+    public List<ContainerState> states() {
+        synchronized (byId) {
+            return new ArrayList<>(byId.values());
+        }
+    }
+
+    /**
+     * @param listener appelé à chaque changement d'état (état "removed" à la suppression), sur
+     *                 un thread dédié ; retiré s'il lève une exception
+     * @return l'abonnement, à fermer quand le client se déconnecte
+     */
+    public Closeable subscribe(Consumer<ContainerState> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    private void followEvents() {
+        long backoffMs = 1000;
+        while (running) {
+            CountDownLatch ended = new CountDownLatch(1);
+            try {
+                synchronized (byId) {
+                    pendingDuringSync = new ArrayList<>();
+                }
+                // Abonnement d'abord : aucun événement n'est perdu pendant l'énumération
+                subscription = dockerClient.containerEvents(this::onEvent, ended::countDown);
+                resync();
+                live = true;
+                backoffMs = 1000;
+                logger.info("[EVENTS] Flux d'événements Docker connecté, " + states().size() + " conteneur(s) suivi(s)");
+                ended.await();
+                logger.warning("[EVENTS] Flux d'événements Docker interrompu, reconnexion");
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                // Docker absent : un seul avertissement, puis tentatives espacées
+                if (backoffMs == 1000) {
+                    logger.warning("[EVENTS] Flux d'événements Docker indisponible, lecture par énumération : " + e.getMessage());
+                } else {
+                    logger.fine("[EVENTS] Flux d'événements Docker toujours indisponible : " + e.getMessage());
+                }
+            } finally {
+                live = false;
+                synchronized (byId) {
+                    pendingDuringSync = null;
+                }
+                closeSubscription();
+            }
+
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, Math.max(1000, reconnectMaxMs));
+        }
+    }
+
+    private void resync() throws IOException {
+        Map<String, ContainerState> fresh = new HashMap<>();
+        Instant now = Instant.now();
+        for (DockerClient.ContainerInfo info : dockerClient.listContainers(true, PREFIX)) {
+            if (!info.name().startsWith(PREFIX)) continue;
+            fresh.put(info.id(), new ContainerState(projectOf(info.name(), info.labels()), info.id(), info.name(),
+                    info.state(), healthOf(info.status()), null, false, now, info.labels()));
+        }
+        // Événements reçus pendant l'énumération rejoués sous le même verrou : un événement plus récent
+        // du flux ne peut pas s'intercaler puis être écrasé par un plus ancien
+        List<DockerClient.ContainerEvent> replay;
+        List<ContainerState> changes = new ArrayList<>();
+        synchronized (byId) {
+            byId.clear();
+            byId.putAll(fresh);
+            replay = pendingDuringSync != null ? pendingDuringSync : List.of();
+            pendingDuringSync = null;
+            for (DockerClient.ContainerEvent event : replay) {
+                ContainerState changed = apply(event, kindOf(event));
+                if (changed != null) changes.add(changed);
+            }
+        }
+        replay.forEach(event -> meterRegistry.counter("docker.events", "action", kindOf(event)).increment());
+        changes.forEach(this::notifyListeners);
+    }
+
+    void onEvent(DockerClient.ContainerEvent event) {
+        String kind = kindOf(event);
+        ContainerState changed;
+        synchronized (byId) {
+            if (pendingDuringSync != null) {
+                pendingDuringSync.add(event);
+                return;
+            }
+            changed = apply(event, kind);
+        }
+        meterRegistry.counter("docker.events", "action", kind).increment();
+        if (changed != null) notifyListeners(changed);
+    }
+
+    // Action sans son détail ("health_status: healthy" -> "health_status")
+    private static String kindOf(DockerClient.ContainerEvent event) {
+        String action = event.action();
+        return action.contains(":") ? action.substring(0, action.indexOf(':')) : action;
+    }
+
+    // Appelé sous le verrou de la table ; rend le nouvel état, ou null si rien ne change
+    private ContainerState apply(DockerClient.ContainerEvent event, String kind) {
+        ContainerState previous = byId.get(event.id());
+        String name = event.name().isEmpty() && previous != null ? previous.containerName() : event.name();
+
+        if ("destroy".equals(kind) || !name.startsWith(PREFIX)) {
+            // Supprimé, ou renommé hors de mock-*
+            ContainerState removed = byId.remove(event.id());
+            return removed == null ? null : withState(removed, "removed", event.time());
+        }
+
+        Map<String, String> labels = previous != null ? previous.labels() : labelsOf(event);
+        ContainerState base = previous != null
+                ? new ContainerState(projectOf(name, labels), previous.containerId(), name, previous.state(),
+                previous.health(), previous.exitCode(), previous.oomKilled(), event.time(), labels)
+                : new ContainerState(projectOf(name, labels), event.id(), name, "created", null, null, false,
+                event.time(), labels);
+
+        ContainerState next = switch (kind) {
+            case "create" -> withState(base, "created", event.time());
+            case "start", "restart", "unpause" -> new ContainerState(base.projectName(), base.containerId(), name,
+                    "running", null, null, false, event.time(), labels);
+            case "die" -> new ContainerState(base.projectName(), base.containerId(), name, "exited", null,
+                    parseExitCode(event.attributes().get("exitCode")), base.oomKilled(), event.time(), labels);
+            case "oom" -> new ContainerState(base.projectName(), base.containerId(), name, base.state(),
+                    base.health(), base.exitCode(), true, event.time(), labels);
+            case "pause" -> withState(base, "paused", event.time());
+            case "health_status" -> new ContainerState(base.projectName(), base.containerId(), name, base.state(),
+                    event.action().substring(event.action().indexOf(':') + 1).trim(), base.exitCode(),
+                    base.oomKilled(), event.time(), labels);
+            // Renommage vers mock-* d'un conteneur non suivi (conteneur du pool attribué) : il tourne
+            case "rename" -> previous != null ? base : withState(base, "running", event.time());
+            default -> previous != null ? null : base;
+        };
+        if (next == null) return null;
+        byId.put(event.id(), next);
+        return next;
+    }
+
+    private void notifyListeners(ContainerState state) {
+        if (listeners.isEmpty()) return;
+        dispatcher.execute(() -> listeners.forEach(listener -> {
+            try {
+                listener.accept(state);
+            } catch (RuntimeException e) {
+                listeners.remove(listener);
+            }
+        }));
+    }
+
+    private void closeSubscription() {
+        Closeable current = subscription;
+        subscription = null;
+        if (current == null) return;
+        try {
+            current.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static ContainerState withState(ContainerState state, String newState, Instant at) {
+        return new ContainerState(state.projectName(), state.containerId(), state.containerName(), newState,
+                state.health(), state.exitCode(), state.oomKilled(), at, state.labels());
+    }
+
+    private static String projectOf(String containerName, Map<String, String> labels) {
+        return labels.getOrDefault(DockerClient.PROJECT_LABEL, containerName.substring(PREFIX.length()));
+    }
+
+    // Attributs d'événement : labels du conteneur mêlés aux détails (name, image, exitCode...)
+    private static Map<String, String> labelsOf(DockerClient.ContainerEvent event) {
+        Map<String, String> labels = new HashMap<>();
+        event.attributes().forEach((key, value) -> {
+            if (key.contains(".")) labels.put(key, value);
+        });
+        return labels;
+    }
+
+    // "Up 5 minutes (healthy)" -> healthy
+    private static String healthOf(String status) {
+        if (status == null) return null;
+        for (String health : List.of("healthy", "unhealthy", "health: starting")) {
+            if (status.contains("(" + health + ")")) return health.replace("health: ", "");
+        }
+        return null;
+    }
+
+    private static Integer parseExitCode(String value) {
+        try {
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
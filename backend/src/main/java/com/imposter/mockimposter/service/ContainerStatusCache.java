@@ -0,0 +1,104 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+
+/**
+ * Instantané de l'état de tous les conteneurs mock-*. Tant que le flux d'événements Docker est
+ * suivi, il est lu dans la table de {@link ContainerStateTracker}, sans appel à Docker. Sinon il
+ * est obtenu en une seule énumération, réutilisée pendant docker.status.ttl-ms ; à expiration,
+ * un seul appelant relance l'énumération et les appels concurrents attendent ce même résultat.
+ */
+@Component
+public class ContainerStatusCache {
+
+    private static final Logger logger = Logger.getLogger(ContainerStatusCache.class.getName());
+
+    @Autowired
+    private DockerClient dockerClient;
+
+    @Autowired
+    private ContainerStateTracker stateTracker;
+
+    @Value("${docker.status.ttl-ms:2000}")
+    private long ttlMs;
+
+    public record Snapshot(Map<String, DockerClient.ContainerInfo> byProject, Instant takenAt, long takenAtNanos) {
+    }
+
+    private volatile Snapshot current;
+    private CompletableFuture<Snapshot> inFlight;
+
+    public Snapshot get() throws IOException {
+        if (stateTracker.isLive()) {
+            return new Snapshot(stateTracker.containersByProject(), Instant.now(), System.nanoTime());
+        }
+
+        Snapshot snapshot = current;
+        if (snapshot != null && System.nanoTime() - snapshot.takenAtNanos() < ttlMs * 1_000_000) {
+            return snapshot;
+        }
+
+        CompletableFuture<Snapshot> refresh;
+        boolean owner = false;
+        synchronized (this) {
+            snapshot = current;
+            if (snapshot != null && System.nanoTime() - snapshot.takenAtNanos() < ttlMs * 1_000_000) {
+                return snapshot;
+            }
+            if (inFlight == null) {
+                inFlight = new CompletableFuture<>();
+                owner = true;
+            }
+            refresh = inFlight;
+        }
+
+        if (owner) {
+            try {
+                Snapshot fresh = load();
+                current = fresh;
+                refresh.complete(fresh);
+            } catch (IOException | RuntimeException e) {
+                refresh.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    inFlight = null;
+                }
+            }
+        }
+
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+    }
+
+    /** Force la prochaine lecture à réinterroger Docker (après un start/stop) */
+    public void invalidate() {
+        current = null;
+    }
+
+    private Snapshot load() throws IOException {
+        Map<String, DockerClient.ContainerInfo> byProject = new HashMap<>();
+        for (DockerClient.ContainerInfo info : dockerClient.listContainers(true, "mock-")) {
+            String project = info.labels().getOrDefault(DockerClient.PROJECT_LABEL, info.name().substring("mock-".length()));
+            byProject.put(project, info);
+        }
+        logger.fine("[DOCKER] Instantané des conteneurs : " + byProject.size() + " conteneur(s)");
+        return new Snapshot(Collections.unmodifiableMap(byProject), Instant.now(), System.nanoTime());
+    }
+}
@@ -0,0 +1,18 @@
+package com.imposter.mockimposter.service;
+
+import java.io.IOException;
+
+/** Réponse d'erreur de l'API Docker Engine (code HTTP >= 400) */
+public class DockerApiException extends IOException {
+
+    private final int status;
+
+    public DockerApiException(int status, String message) {
+        super("Docker API " + status + " : " + message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
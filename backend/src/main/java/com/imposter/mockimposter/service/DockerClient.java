@@ -0,0 +1,131 @@
+package com.imposter.mockimposter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Opérations Docker utilisées par le backend (conteneurs mock-* et réseau docker.network).
+ * Implémentations : {@link UnixSocketDockerClient} (API Engine sur /var/run/docker.sock)
+ * et {@link CliDockerClient} (CLI docker, pour Windows ou sans accès au socket).
+ */
+public interface DockerClient extends Closeable {
+
+    /** Label posé sur tous les conteneurs créés par le backend */
+    String PROJECT_LABEL = "mockimposter.project";
+
+    record ContainerSpec(String name,
+                         String image,
+                         Integer hostPort,
+                         int containerPort,
+                         String bindSource,
+                         String bindTarget,
+                         String network,
+                         Map<String, String> labels) {
+    }
+
+    /**
+     * @param state  état Docker (created, running, exited...)
+     * @param status libellé lisible façon "docker ps" (ex. "Up 5 minutes"), ou l'état si indisponible
+     */
+    record ContainerInfo(String id,
+                         String name,
+                         String state,
+                         String status,
+                         Map<String, String> labels) {
+
+        public boolean running() {
+            return "running".equals(state);
+        }
+    }
+
+    /**
+     * Événement du flux /events du démon pour un conteneur.
+     *
+     * @param action     start, die, oom, destroy, rename, "health_status: healthy"...
+     * @param name       nom du conteneur après l'événement (sans "/")
+     * @param attributes labels du conteneur et détails de l'événement (exitCode, oldName...)
+     */
+    record ContainerEvent(String action,
+                          String id,
+                          String name,
+                          Map<String, String> attributes,
+                          Instant time) {
+
+        /** Format commun à l'API Engine et à "docker events --format {{json .}}" */
+        public static ContainerEvent fromJson(JsonNode event) {
+            JsonNode actor = event.path("Actor");
+            Map<String, String> attributes = new LinkedHashMap<>();
+            actor.path("Attributes").properties().forEach(e -> attributes.put(e.getKey(), e.getValue().asText()));
+            long timeNano = event.path("timeNano").asLong(event.path("time").asLong() * 1_000_000_000L);
+            String name = attributes.getOrDefault("name", "");
+            return new ContainerEvent(
+                    event.path("Action").asText(event.path("status").asText()),
+                    actor.path("ID").asText(event.path("id").asText()),
+                    name.startsWith("/") ? name.substring(1) : name,
+                    attributes,
+                    Instant.ofEpochSecond(0, timeNano));
+        }
+    }
+
+    /** @return l'identifiant du conteneur créé (l'image est tirée si absente) */
+    String createContainer(ContainerSpec spec) throws IOException;
+
+    void startContainer(String container) throws IOException;
+
+    /** Arrêt sans erreur si le conteneur est déjà arrêté ou inexistant */
+    void stopContainer(String container, int timeoutSeconds) throws IOException;
+
+    /** Suppression sans erreur si le conteneur n'existe pas */
+    void removeContainer(String container, boolean force) throws IOException;
+
+    /** Arrêt puis redémarrage du processus du conteneur (même configuration, mêmes montages) */
+    void restartContainer(String container, int timeoutSeconds) throws IOException;
+
+    void renameContainer(String container, String newName) throws IOException;
+
+    Optional<ContainerInfo> inspectContainer(String container) throws IOException;
+
+    /** @param namePrefix filtre sur le nom (préfixe), null pour tous les conteneurs */
+    List<ContainerInfo> listContainers(boolean all, String namePrefix) throws IOException;
+
+    /** Dernières lignes de logs, lignes stderr préfixées par "ERROR: " */
+    default String containerLogs(String container, int tail) throws IOException {
+        return containerLogs(container, tail, 0);
+    }
+
+    /** @param sinceEpochSeconds ne garder que les lignes écrites depuis cet instant (0 = toutes) */
+    String containerLogs(String container, int tail, long sinceEpochSeconds) throws IOException;
+
+    /**
+     * Suivi continu des logs (docker logs -f) sur un thread dédié : les tail dernières lignes puis
+     * chaque nouvelle ligne, lignes stderr préfixées par "ERROR: ". onEnd est appelé quand le flux
+     * s'arrête (conteneur arrêté, supprimé, ou close() sur la valeur rendue).
+     */
+    Closeable followLogs(String container, int tail, Consumer<String> onLine, Runnable onEnd) throws IOException;
+
+    /**
+     * Abonnement au flux d'événements des conteneurs (docker events), lu sur un thread dédié.
+     * onEnd est appelé quand le flux s'arrête (redémarrage du démon, ou close() sur la valeur rendue).
+     */
+    Closeable containerEvents(Consumer<ContainerEvent> onEvent, Runnable onEnd) throws IOException;
+
+    /** Octets reçus par le conteneur sur ses interfaces réseau, -1 s'il n'existe pas ou est arrêté */
+    long networkReceivedBytes(String container) throws IOException;
+
+    boolean networkExists(String network) throws IOException;
+
+    void createNetwork(String network) throws IOException;
+
+    /** Libère les ressources du client (connexions, threads) ; rien à faire par défaut */
+    @Override
+    default void close() {
+    }
+}
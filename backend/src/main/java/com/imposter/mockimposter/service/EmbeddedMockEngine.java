@@ -0,0 +1,177 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.repositories.SoapRouteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Moteur SOAP embarqué : sert les projets en mode EMBEDDED directement dans la JVM du backend,
+ * sans conteneur Imposter. Chaque projet démarré est compilé une fois en table de routage immuable
+ * ({@link SoapRoutingIndex} : chemin SOAP -> SOAPAction ou premier élément du Body -> opération)
+ * conservée en mémoire, avec les réponses propres à chaque opération.
+ */
+@Service
+public class EmbeddedMockEngine {
+
+    private static final Logger logger = Logger.getLogger(EmbeddedMockEngine.class.getName());
+
+    @Autowired
+    private WsdlAnalyzer wsdlAnalyzer;
+
+    @Autowired
+    private SoapRouteRepository soapRouteRepository;
+
+    @Autowired
+    private RequestValidator requestValidator;
+
+    private final Map<String, CompiledMock> deployed = new ConcurrentHashMap<>();
+
+    /** @param headers en-têtes ajoutés à la réponse (résultat de la validation de la requête) */
+    public record MockResponse(int status, String contentType, byte[] body, Map<String, String> headers) {
+
+        public MockResponse(int status, String contentType, byte[] body) {
+            this(status, contentType, body, Map.of());
+        }
+
+        MockResponse withHeaders(Map<String, String> headers) {
+            return new MockResponse(status, contentType, body, headers);
+        }
+    }
+
+    /** Table de routage compilée d'un projet, partagée en lecture par toutes les requêtes */
+    static final class CompiledMock {
+        final MockProject project;
+        final byte[] wsdl;
+        final SoapRoutingIndex routes;
+        final Map<String, ResponseTemplate> responses;
+
+        CompiledMock(MockProject project, byte[] wsdl, SoapRoutingIndex routes, Map<String, ResponseTemplate> responses) {
+            this.project = project;
+            this.wsdl = wsdl;
+            this.routes = routes;
+            this.responses = responses;
+        }
+    }
+
+    public void deploy(MockProject project) throws IOException {
+        Path wsdlPath = Paths.get(project.getWsdlPath());
+        if (!Files.exists(wsdlPath)) {
+            throw new IOException("WSDL introuvable pour le projet " + project.getName() + " : " + wsdlPath);
+        }
+
+        byte[] wsdl = Files.readAllBytes(wsdlPath);
+        Path projectPath = Paths.get(project.getPath());
+
+        // Table enregistrée à la génération ; à défaut (projet généré avant), dérivée du WSDL
+        List<SoapRoutingIndex.Route> routes = new ArrayList<>();
+        if (project.getId() != null) {
+            soapRouteRepository.findByProjectIdOrderById(project.getId()).forEach(r -> routes.add(
+                    new SoapRoutingIndex.Route(r.getPath(), r.getOperation(), r.getSoapAction(), r.getBodyElement(),
+                            r.getResponseFile())));
+        }
+        if (routes.isEmpty()) {
+            routes.addAll(SoapRoutingIndex.routesOf(wsdlAnalyzer.analyze(wsdlPath), projectPath));
+        }
+        if (routes.isEmpty()) {
+            throw new IOException("<soap:address> introuvable dans le WSDL du projet " + project.getName());
+        }
+
+        // Réponses compilées une fois au déploiement : une requête ne fait que recopier des octets
+        Map<String, ResponseTemplate> responses = new HashMap<>();
+        for (SoapRoutingIndex.Route route : routes) {
+            if (route.responseFile() == null) continue;
+            Path file = projectPath.resolve(route.responseFile()).normalize();
+            if (file.startsWith(projectPath) && Files.isRegularFile(file)) {
+                responses.put(route.operation(), ResponseTemplate.compile(Files.readAllBytes(file)));
+            }
+        }
+
+        SoapRoutingIndex index = SoapRoutingIndex.of(routes);
+        deployed.put(project.getName(), new CompiledMock(project, wsdl, index, Map.copyOf(responses)));
+        logger.info("[EMBEDDED] Projet " + project.getName() + " déployé : " + index.size() + " route(s), "
+                + responses.size() + " réponse(s) dédiée(s)");
+    }
+
+    public void undeploy(String projectName) {
+        if (deployed.remove(projectName) != null) {
+            logger.info("[EMBEDDED] Projet " + projectName + " retiré du moteur embarqué");
+        }
+    }
+
+    public boolean isDeployed(String projectName) {
+        return deployed.containsKey(projectName);
+    }
+
+    public int deployedCount() {
+        return deployed.size();
+    }
+
+    /** Contenu du WSDL d'un projet déployé (réponse aux GET ...?wsdl) */
+    public byte[] getWsdl(String projectName) {
+        CompiledMock mock = deployed.get(projectName);
+        return mock != null ? mock.wsdl : null;
+    }
+
+    /**
+     * Traite un appel SOAP : l'opération est résolue par la SOAPAction, sinon par le premier élément
+     * du Body. Sa réponse dédiée est renvoyée si le projet en a une ; à défaut, comme le
+     * response.groovy généré pour Imposter, le corps reçu est renvoyé tel quel.
+     */
+    public MockResponse handle(String projectName, String path, String soapAction, byte[] body) {
+        CompiledMock mock = deployed.get(projectName);
+        if (mock == null) {
+            return fault(404, "Projet mock non démarré : " + projectName);
+        }
+        if (!mock.routes.hasPath(path)) {
+            return fault(404, "Aucune ressource SOAP pour le chemin " + path);
+        }
+
+        // Validation facultative contre les schémas du projet (compilés une fois, voir RequestValidator)
+        Map<String, String> headers = Map.of();
+        if (requestValidator.isEnabled() && body.length <= requestValidator.getMaxBytes()) {
+            RequestValidator.Result validation = requestValidator.validate(mock.project, body);
+            headers = validation.headers();
+            if (validation.status() == RequestValidator.Status.INVALID && requestValidator.rejectsInvalid()) {
+                return fault(500, "Requête non conforme au schéma : " + validation.errors().get(0)).withHeaders(headers);
+            }
+        }
+
+        SoapRoutingIndex.Route route = mock.routes.resolve(path, soapAction, body);
+        if (route == null) {
+            return fault(500, "Aucune opération du WSDL ne correspond à la requête (SOAPAction "
+                    + (soapAction != null ? soapAction : "absente") + ")").withHeaders(headers);
+        }
+        ResponseTemplate response = route.operation() != null ? mock.responses.get(route.operation()) : null;
+        if (route.operation() != null) {
+            logger.fine("[EMBEDDED] " + projectName + " -> opération " + route.operation());
+        }
+
+        return new MockResponse(200, "text/xml;charset=UTF-8", response != null ? response.render() : body, headers);
+    }
+
+    /** Faute SOAP 1.1 (faultcode Client) ; réutilisée par la passerelle pour les requêtes rejetées */
+    public static MockResponse fault(int status, String message) {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body>"
+                + "<soapenv:Fault><faultcode>soapenv:Client</faultcode><faultstring>" + escape(message)
+                + "</faultstring></soapenv:Fault></soapenv:Body></soapenv:Envelope>";
+        return new MockResponse(status, "text/xml;charset=UTF-8", xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
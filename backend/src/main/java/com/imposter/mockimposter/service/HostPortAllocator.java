@@ -0,0 +1,115 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.repositories.MockProjectRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Attribution des ports hôte publiés par les conteneurs mock, dans la plage docker.ports.range.
+ * Liste libre sans verrou : un bit par port, posé/effacé par compare-and-set, et un curseur
+ * tournant pour ne pas réattribuer aussitôt un port qui vient d'être libéré.
+ */
+@Component
+public class HostPortAllocator {
+
+    private static final Logger logger = Logger.getLogger(HostPortAllocator.class.getName());
+
+    @Autowired
+    private MockProjectRepository mockProjectRepository;
+
+    @Value("${docker.ports.range:20000-20999}")
+    private String range;
+
+    private int firstPort;
+    private int size;
+    private AtomicLongArray used;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public HostPortAllocator() {
+    }
+
+    // Constructeur utilisé hors contexte Spring (tests)
+    HostPortAllocator(int firstPort, int lastPort) {
+        configure(firstPort, lastPort);
+    }
+
+    @PostConstruct
+    public void init() {
+        String[] bounds = range.trim().split("-");
+        if (bounds.length != 2) {
+            throw new IllegalStateException("docker.ports.range invalide (attendu debut-fin) : " + range);
+        }
+        configure(Integer.parseInt(bounds[0].trim()), Integer.parseInt(bounds[1].trim()));
+
+        // Reprise après redémarrage : les ports déjà attribués en base restent réservés
+        int recovered = 0;
+        for (MockProject project : mockProjectRepository.findByHostPortIsNotNull()) {
+            if (reserve(project.getHostPort())) recovered++;
+        }
+        logger.info("[PORTS] Plage " + range + ", " + recovered + " port(s) repris depuis la base");
+    }
+
+    private void configure(int firstPort, int lastPort) {
+        if (firstPort < 1 || lastPort > 65535 || lastPort < firstPort) {
+            throw new IllegalStateException("Plage de ports invalide : " + firstPort + "-" + lastPort);
+        }
+        this.firstPort = firstPort;
+        this.size = lastPort - firstPort + 1;
+        this.used = new AtomicLongArray((size + 63) / 64);
+    }
+
+    /** @throws IllegalStateException si tous les ports de la plage sont pris */
+    public int allocate() {
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (trySet(index)) {
+                return firstPort + index;
+            }
+        }
+        throw new IllegalStateException("Plus aucun port libre dans la plage " + firstPort + "-" + (firstPort + size - 1));
+    }
+
+    /** Réserve un port précis ; false s'il est hors plage ou déjà pris */
+    public boolean reserve(int port) {
+        return inRange(port) && trySet(port - firstPort);
+    }
+
+    public void release(Integer port) {
+        if (port == null || !inRange(port)) return;
+        int index = port - firstPort;
+        int word = index >>> 6;
+        long mask = 1L << (index & 63);
+        while (true) {
+            long current = used.get(word);
+            if ((current & mask) == 0 || used.compareAndSet(word, current, current & ~mask)) return;
+        }
+    }
+
+    public boolean isAllocated(int port) {
+        if (!inRange(port)) return false;
+        int index = port - firstPort;
+        return (used.get(index >>> 6) & (1L << (index & 63))) != 0;
+    }
+
+    private boolean inRange(int port) {
+        return port >= firstPort && port < firstPort + size;
+    }
+
+    private boolean trySet(int index) {
+        int word = index >>> 6;
+        long mask = 1L << (index & 63);
+        while (true) {
+            long current = used.get(word);
+            if ((current & mask) != 0) return false;
+            if (used.compareAndSet(word, current, current | mask)) return true;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.entities.ServingMode;
+import com.imposter.mockimposter.repositories.MockProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * Met en veille les conteneurs mock sans trafic depuis docker.idle.timeout-minutes :
+ * le conteneur est supprimé, son port reste réservé et écouté par {@link WakeOnRequestListener}.
+ * L'activité est déduite du compteur d'octets reçus par le conteneur entre deux passages.
+ */
+@Component
+public class IdleContainerReaper {
+
+    private static final Logger logger = Logger.getLogger(IdleContainerReaper.class.getName());
+
+    @Autowired
+    private MockProjectRepository mockProjectRepository;
+
+    @Autowired
+    private MockProjectService mockProjectService;
+
+    @Autowired
+    private DockerClient dockerClient;
+
+    @Autowired
+    private ContainerStatusCache containerStatusCache;
+
+    @Autowired
+    private MockActivityTracker activityTracker;
+
+    @Autowired
+    private WakeOnRequestListener wakeOnRequestListener;
+
+    @Value("${docker.idle.enabled:false}")
+    private boolean enabled;
+
+    @Value("${docker.idle.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Scheduled(fixedDelayString = "${docker.idle.check-interval-ms:60000}",
+            initialDelayString = "${docker.idle.check-interval-ms:60000}")
+    public void reap() {
+        if (!enabled) return;
+
+        ContainerStatusCache.Snapshot snapshot;
+        try {
+            snapshot = containerStatusCache.get();
+        } catch (Exception e) {
+            logger.warning("[IDLE] État des conteneurs indisponible : " + e.getMessage());
+            return;
+        }
+
+        Duration timeout = Duration.ofMinutes(timeoutMinutes);
+        for (MockProject project : mockProjectRepository.findByHostPortIsNotNull()) {
+            String projectName = project.getName();
+            if (project.getServingMode() != ServingMode.DOCKER || wakeOnRequestListener.isSuspended(projectName)) {
+                continue;
+            }
+            DockerClient.ContainerInfo info = snapshot.byProject().get(projectName);
+            if (info == null || !info.running()) continue;
+
+            try {
+                activityTracker.observeReceivedBytes(projectName, dockerClient.networkReceivedBytes("mock-" + projectName));
+                Duration idle = activityTracker.idleFor(projectName);
+                if (idle.compareTo(timeout) >= 0) {
+                    logger.info("[IDLE] " + projectName + " inactif depuis " + idle.toMinutes() + " min, mise en veille");
+                    mockProjectService.suspendDockerContainer(projectName);
+                    activityTracker.forget(projectName);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warning("[IDLE] Mise en veille de " + projectName + " impossible : " + e.getMessage());
+            }
+        }
+    }
+}
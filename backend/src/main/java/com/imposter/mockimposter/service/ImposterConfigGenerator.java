@@ -0,0 +1,191 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Portage Java de script_py/generate.py : produit imposter-config.yaml et response.groovy
+ * à partir du WSDL du projet, sans lancer d'interpréteur Python.
+ * Les fichiers écrits sont identiques à ceux du script (même YAML, même script Groovy).
+ */
+@Service
+public class ImposterConfigGenerator {
+
+    private static final Logger logger = Logger.getLogger(ImposterConfigGenerator.class.getName());
+
+    public static final String CONFIG_FILE = "imposter-config.yaml";
+    public static final String RESPONSE_SCRIPT = "response.groovy";
+
+    /**
+     * Réponses propres à une opération : responses/<opération>.xml, servies à la place du script
+     * comme gabarits (emplacements ${...}, voir {@link ResponseTemplate})
+     */
+    public static final String RESPONSES_DIR = "responses";
+
+    /** À incrémenter à chaque changement du rendu : les projets générés avant sont alors régénérés */
+    public static final String VERSION = "java-3";
+
+    static final String GROOVY_CODE = """
+            /*
+             Script Groovy basique pour Imposter
+             Renvoie le corps reçu tel quel.
+            */
+            return [body: request.body]
+            """;
+
+    @Autowired
+    private WsdlAnalyzer wsdlAnalyzer;
+
+    private final Yaml yaml;
+
+    public ImposterConfigGenerator() {
+        // Même rendu que yaml.dump(config, sort_keys=False) de PyYAML
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setIndent(2);
+        options.setAllowUnicode(false);
+        yaml = new Yaml(options);
+    }
+
+    // Constructeur utilisé hors contexte Spring (tests)
+    ImposterConfigGenerator(WsdlAnalyzer wsdlAnalyzer) {
+        this();
+        this.wsdlAnalyzer = wsdlAnalyzer;
+    }
+
+    public void generate(String projectName, Path wsdlPath, Path xsdPath, Path projectPath) throws IOException {
+        generate(projectName, wsdlPath, xsdPath, projectPath, line -> logger.info("[GENERATOR] " + line));
+    }
+
+    /**
+     * @param output reçoit les messages de progression (équivalents des typer.echo du script)
+     */
+    public void generate(String projectName, Path wsdlPath, Path xsdPath, Path projectPath,
+                         Consumer<String> output) throws IOException {
+        // Initialisation si le dossier projet n'existe pas
+        if (!Files.exists(projectPath)) {
+            if (wsdlPath == null || !Files.exists(wsdlPath)) {
+                throw new IOException("Le projet n'existe pas et le fichier WSDL est introuvable : " + wsdlPath);
+            }
+            output.accept("Initialisation du projet '" + projectName + "' ...");
+            initProject(projectPath, wsdlPath, xsdPath, output);
+        }
+
+        Path wsdl = projectWsdl(wsdlPath, projectPath);
+        output.accept("WSDL trouvé : " + projectPath.relativize(wsdl));
+
+        // Une ressource par opération et par chemin SOAP (tous les ports SOAP 1.1 et 1.2)
+        WsdlDescriptor descriptor = wsdlAnalyzer.analyze(wsdl);
+        if (descriptor.endpoints().isEmpty()) {
+            throw new IOException("<soap:address> introuvable dans le WSDL.");
+        }
+        List<SoapRoutingIndex.Route> routes = SoapRoutingIndex.routesOf(descriptor, projectPath);
+        output.accept("Chemin(s) SOAP extrait(s) : " + routes.stream().map(SoapRoutingIndex.Route::path).distinct().toList()
+                + ", " + routes.stream().filter(r -> r.operation() != null).count() + " opération(s)");
+
+        Path configPath = projectPath.resolve(CONFIG_FILE);
+        writeConfig(configPath, projectPath.relativize(wsdl).toString().replace('\\', '/'), routes);
+        output.accept("config.yaml généré dans : " + configPath);
+
+        // Générer response.groovy si absent, même si le projet existe déjà
+        Path groovyPath = projectPath.resolve(RESPONSE_SCRIPT);
+        if (!Files.exists(groovyPath)) {
+            Files.writeString(groovyPath, GROOVY_CODE, StandardCharsets.UTF_8);
+            output.accept("response.groovy généré dans : " + groovyPath);
+        } else {
+            output.accept("response.groovy déjà présent, non régénéré.");
+        }
+
+        output.accept("Tous les fichiers attendus sont présents.");
+    }
+
+    // WSDL d'une archive rangé dans un sous-dossier (imports en ../) : celui du projet ; sinon l'unique
+    // .wsdl à la racine du projet
+    private static Path projectWsdl(Path wsdlPath, Path projectPath) throws IOException {
+        if (wsdlPath != null && Files.isRegularFile(wsdlPath)) {
+            Path root = projectPath.toAbsolutePath().normalize();
+            Path wsdl = wsdlPath.toAbsolutePath().normalize();
+            if (wsdl.startsWith(root) && !root.equals(wsdl.getParent())) {
+                return projectPath.resolve(root.relativize(wsdl));
+            }
+        }
+
+        List<Path> wsdlFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(projectPath, "*.wsdl")) {
+            stream.forEach(wsdlFiles::add);
+        }
+        if (wsdlFiles.isEmpty()) {
+            throw new IOException("Aucun fichier WSDL (.wsdl) trouvé dans le dossier " + projectPath);
+        }
+        if (wsdlFiles.size() > 1) {
+            throw new IOException("Plusieurs fichiers .wsdl trouvés dans " + projectPath + " : " + wsdlFiles);
+        }
+        return wsdlFiles.get(0);
+    }
+
+    private void initProject(Path projectPath, Path wsdlPath, Path xsdPath, Consumer<String> output) throws IOException {
+        Files.createDirectories(projectPath);
+        Files.copy(wsdlPath, projectPath.resolve(wsdlPath.getFileName()), StandardCopyOption.COPY_ATTRIBUTES);
+        if (xsdPath != null && Files.exists(xsdPath)) {
+            Path xsdDir = Files.createDirectories(projectPath.resolve("xsd"));
+            Path xsdDest = xsdDir.resolve(xsdPath.getFileName());
+            Files.copy(xsdPath, xsdDest, StandardCopyOption.COPY_ATTRIBUTES);
+            output.accept("Fichier XSD copié dans : " + xsdDest);
+        }
+        Files.writeString(projectPath.resolve(RESPONSE_SCRIPT), GROOVY_CODE, StandardCharsets.UTF_8);
+        output.accept("Projet mock initialisé dans " + projectPath);
+    }
+
+    private void writeConfig(Path configPath, String wsdlFileName, List<SoapRoutingIndex.Route> routes)
+            throws IOException {
+        List<Map<String, Object>> resources = new ArrayList<>();
+        for (SoapRoutingIndex.Route route : routes) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            if (route.responseFile() != null) {
+                response.put("file", route.responseFile());
+                response.put("template", true);
+            } else {
+                response.put("scriptFile", RESPONSE_SCRIPT);
+            }
+
+            Map<String, Object> resource = new LinkedHashMap<>();
+            resource.put("path", route.path());
+            if (route.operation() != null) resource.put("operation", route.operation());
+            if (route.soapAction() != null && !route.soapAction().isEmpty()) {
+                resource.put("soapAction", route.soapAction());
+            }
+            resource.put("response", response);
+            resources.add(resource);
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("plugin", "soap");
+        config.put("wsdlFile", wsdlFileName);
+        config.put("resources", resources);
+
+        // Fichier réécrit seulement si son contenu change (date de modification préservée sinon)
+        String rendered = yaml.dump(config);
+        if (Files.exists(configPath) && rendered.equals(Files.readString(configPath, StandardCharsets.UTF_8))) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(configPath, StandardCharsets.UTF_8)) {
+            writer.write(rendered);
+        }
+    }
+}
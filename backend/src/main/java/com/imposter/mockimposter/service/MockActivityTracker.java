@@ -0,0 +1,45 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dernière activité connue de chaque mock : requêtes vues par le backend (réveil, passerelle)
+ * et progression du compteur d'octets reçus par le conteneur.
+ */
+@Component
+public class MockActivityTracker {
+
+    private record Activity(long lastActiveNanos, long receivedBytes) {
+    }
+
+    private final ConcurrentHashMap<String, Activity> activities = new ConcurrentHashMap<>();
+
+    public void touch(String projectName) {
+        activities.compute(projectName, (name, previous) ->
+                new Activity(System.nanoTime(), previous != null ? previous.receivedBytes() : -1));
+    }
+
+    /** Le mock est considéré actif si son compteur a bougé depuis la dernière observation */
+    public void observeReceivedBytes(String projectName, long receivedBytes) {
+        if (receivedBytes < 0) return;
+        activities.compute(projectName, (name, previous) -> {
+            if (previous == null || previous.receivedBytes() != receivedBytes) {
+                return new Activity(System.nanoTime(), receivedBytes);
+            }
+            return previous;
+        });
+    }
+
+    /** Durée depuis la dernière activité, zéro pour un mock jamais observé */
+    public Duration idleFor(String projectName) {
+        Activity activity = activities.get(projectName);
+        return activity == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - activity.lastActiveNanos());
+    }
+
+    public void forget(String projectName) {
+        activities.remove(projectName);
+    }
+}
@@ -0,0 +1,158 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Démarrage / arrêt / redémarrage de plusieurs projets en parallèle. Au plus N projets de la
+ * demande sont traités à la fois (fenêtre glissante), en plus des plafonds globaux
+ * d'{@link OrchestrationExecutor} ; chaque résultat est publié dès qu'il est connu.
+ */
+@Service
+public class MockBulkService {
+
+    private static final Logger logger = Logger.getLogger(MockBulkService.class.getName());
+
+    public enum Action {START, STOP, RESTART}
+
+    @Autowired
+    private MockProjectService mockProjectService;
+
+    @Autowired
+    private OrchestrationExecutor orchestrationExecutor;
+
+    @Value("${docker.bulk.max-concurrency:8}")
+    private int maxConcurrency;
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @param concurrency nombre de projets traités simultanément, borné par docker.bulk.max-concurrency
+     * @param onResult    appelé pour chaque projet terminé (projectName, status, durationMs...)
+     * @return le bilan (total, succès, échecs, durée totale)
+     */
+    public CompletableFuture<Map<String, Object>> run(Action action, List<String> projectNames, int concurrency,
+                                                      Consumer<Map<String, Object>> onResult) {
+        Batch batch = new Batch(action, projectNames, onResult);
+        if (projectNames.isEmpty()) {
+            batch.done.complete(batch.summary());
+            return batch.done;
+        }
+        int window = Math.max(1, Math.min(concurrency, maxConcurrency));
+        logger.info("[BULK] " + action + " de " + projectNames.size() + " projet(s), " + window + " à la fois");
+        for (int i = 0; i < Math.min(window, projectNames.size()); i++) {
+            launchNext(batch);
+        }
+        return batch.done;
+    }
+
+    private void launchNext(Batch batch) {
+        String projectName = batch.next();
+        if (projectName == null) return;
+
+        long start = System.nanoTime();
+        orchestrationExecutor.submit(operation(batch.action), () -> perform(batch.action, projectName))
+                .whenComplete((started, error) -> {
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("projectName", projectName);
+                    result.put("durationMs", Duration.ofNanos(System.nanoTime() - start).toMillis());
+                    if (error == null) {
+                        batch.succeeded.incrementAndGet();
+                        result.put("status", "success");
+                        if (started != null) {
+                            result.put("timeToReadyMs", started.timeToReady().toMillis());
+                            if (started.hostPort() != null) result.put("hostPort", started.hostPort());
+                        }
+                    } else {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        batch.failed.incrementAndGet();
+                        result.put("status", "error");
+                        result.put("message", cause.getMessage());
+                    }
+                    try {
+                        batch.onResult.accept(result);
+                    } catch (RuntimeException e) {
+                        logger.warning("[BULK] Résultat non transmis pour " + projectName + " : " + e.getMessage());
+                    }
+
+                    if (batch.succeeded.get() + batch.failed.get() == batch.total) {
+                        batch.done.complete(batch.summary());
+                    } else {
+                        launchNext(batch);
+                    }
+                });
+    }
+
+    // Réutilise les chemins de démarrage / arrêt unitaires
+    private MockProjectService.MockStart perform(Action action, String projectName) throws Exception {
+        if (mockProjectService.findProjectByName(projectName).isEmpty()) {
+            throw new IllegalArgumentException("Projet introuvable : " + projectName);
+        }
+        switch (action) {
+            case STOP -> {
+                mockProjectService.stopMock(projectName);
+                return null;
+            }
+            case RESTART -> {
+                return mockProjectService.restartMock(projectName);
+            }
+            default -> {
+                return mockProjectService.startMock(projectName);
+            }
+        }
+    }
+
+    private static OrchestrationExecutor.Operation operation(Action action) {
+        return switch (action) {
+            case START -> OrchestrationExecutor.Operation.START;
+            case STOP -> OrchestrationExecutor.Operation.STOP;
+            case RESTART -> OrchestrationExecutor.Operation.RESTART;
+        };
+    }
+
+    private static final class Batch {
+        private final Action action;
+        private final Iterator<String> pending;
+        private final int total;
+        private final Consumer<Map<String, Object>> onResult;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final CompletableFuture<Map<String, Object>> done = new CompletableFuture<>();
+
+        Batch(Action action, List<String> projectNames, Consumer<Map<String, Object>> onResult) {
+            this.action = action;
+            this.pending = List.copyOf(projectNames).iterator();
+            this.total = projectNames.size();
+            this.onResult = onResult;
+        }
+
+        synchronized String next() {
+            return pending.hasNext() ? pending.next() : null;
+        }
+
+        Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("action", action.name().toLowerCase());
+            summary.put("total", total);
+            summary.put("succeeded", succeeded.get());
+            summary.put("failed", failed.get());
+            summary.put("wallClockMs", Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Adresse à laquelle le backend joint un conteneur mock : par son nom sur docker.network
+ * (backend lui-même dans un conteneur), ou par un hôte + port publié (backend lancé sur l'hôte).
+ */
+@Component
+public class MockEndpointResolver {
+
+    public static final int CONTAINER_PORT = 8080;
+
+    // Vide : nom du conteneur sur docker.network ; sinon hôte joignant les ports publiés (ex. localhost)
+    @Value("${docker.mock-host:${docker.readiness.host:}}")
+    private String mockHost;
+
+    public InetSocketAddress resolve(String containerName, Integer hostPort) {
+        if (mockHost.isBlank() || hostPort == null) {
+            return InetSocketAddress.createUnresolved(containerName, CONTAINER_PORT);
+        }
+        return InetSocketAddress.createUnresolved(mockHost, hostPort);
+    }
+
+    public String baseUrl(String containerName, Integer hostPort) {
+        InetSocketAddress address = resolve(containerName, hostPort);
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+}
@@ -0,0 +1,254 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.MockProject;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Relais HTTP vers les conteneurs mock-{projectName}. Un seul HttpClient (connexions keep-alive
+ * réutilisées, envoi non bloquant) ; corps de requête et de réponse transmis en flux, sans mise en
+ * mémoire. Le nombre d'échanges simultanés est borné par projet.
+ */
+@Service
+public class MockGateway {
+
+    private static final Logger logger = Logger.getLogger(MockGateway.class.getName());
+
+    // En-têtes propres à chaque saut, ou fixés par HttpClient lui-même
+    private static final Set<String> HOP_BY_HOP = Set.of(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "te", "trailer",
+            "upgrade", "host", "content-length", "expect", "http2-settings");
+
+    @Autowired
+    private MockProjectService mockProjectService;
+
+    @Autowired
+    private MockEndpointResolver endpointResolver;
+
+    @Autowired
+    private MockActivityTracker activityTracker;
+
+    @Autowired
+    private WakeOnRequestListener wakeOnRequestListener;
+
+    @Autowired
+    private OrchestrationExecutor orchestrationExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.max-concurrent-per-project:32}")
+    private int maxConcurrentPerProject;
+
+    @Value("${gateway.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    @Value("${gateway.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${gateway.response-timeout-ms:30000}")
+    private long responseTimeoutMs;
+
+    private HttpClient httpClient;
+
+    private final ConcurrentHashMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /** Requête entrante, indépendante de l'API servlet */
+    public record ForwardRequest(String method,
+                                 String path,
+                                 String query,
+                                 Map<String, java.util.List<String>> headers,
+                                 long contentLength,
+                                 Supplier<InputStream> body,
+                                 String clientAddress,
+                                 String forwardedHost) {
+    }
+
+    /**
+     * Réponse du mock ; le corps doit être copié par {@link #writeBody} (ou le relais abandonné
+     * par {@link #discard}) pour rendre la place occupée dans la limite du projet.
+     */
+    public static final class ForwardResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final InputStream body;
+        private final Runnable onDone;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        ForwardResponse(int status, HttpHeaders headers, InputStream body, Runnable onDone) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.onDone = onDone;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /** En-têtes de réponse à recopier (hors en-têtes de saut) */
+        public Map<String, java.util.List<String>> getHeaders() {
+            Map<String, java.util.List<String>> copied = new java.util.LinkedHashMap<>();
+            headers.map().forEach((name, values) -> {
+                if (!HOP_BY_HOP.contains(name.toLowerCase()) || "content-length".equalsIgnoreCase(name)) {
+                    copied.put(name, values);
+                }
+            });
+            return copied;
+        }
+
+        public void writeBody(OutputStream out) throws IOException {
+            try (InputStream in = body) {
+                in.transferTo(out);
+            } finally {
+                finish();
+            }
+        }
+
+        public void discard() {
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // Connexion déjà fermée
+            } finally {
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (done.compareAndSet(false, true)) onDone.run();
+        }
+    }
+
+    /** Levée quand la limite d'échanges simultanés du projet reste atteinte */
+    public static class GatewayBusyException extends RuntimeException {
+        public GatewayBusyException(String message) {
+            super(message);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Mock en veille : il est réveillé par un démarrage d'orchestration, hors du thread de la requête
+     * et sans occuper de place dans la limite du projet ; le relais part une fois le mock démarré.
+     *
+     * @return la réponse du mock (en-têtes reçus, corps pas encore lu)
+     * @throws GatewayBusyException si la limite d'échanges simultanés du projet reste atteinte
+     */
+    public CompletableFuture<ForwardResponse> forward(MockProject project, ForwardRequest request) {
+        String projectName = project.getName();
+        activityTracker.touch(projectName);
+
+        if (wakeOnRequestListener.isSuspended(projectName)) {
+            return orchestrationExecutor.submit(OrchestrationExecutor.Operation.START,
+                            () -> mockProjectService.startMock(projectName).hostPort())
+                    // Sur le thread de l'orchestration : place prise sans attente (mock tout juste réveillé)
+                    .thenCompose(hostPort -> send(projectName, hostPort, request, 0));
+        }
+        return send(projectName, project.getHostPort(), request, acquireTimeoutMs);
+    }
+
+    private CompletableFuture<ForwardResponse> send(String projectName, Integer hostPort, ForwardRequest request,
+                                                    long waitMs) {
+        Semaphore semaphore = permits.computeIfAbsent(projectName, name -> new Semaphore(maxConcurrentPerProject));
+        try {
+            if (!semaphore.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                throw new GatewayBusyException("Trop de requêtes simultanées vers " + projectName);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayBusyException("Requête interrompue");
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            HttpRequest upstream = buildRequest(endpointResolver.baseUrl("mock-" + projectName, hostPort), request);
+            return httpClient.sendAsync(upstream, HttpResponse.BodyHandlers.ofInputStream())
+                    .handle((response, error) -> {
+                        if (error != null) {
+                            record(sample, projectName, "error");
+                            semaphore.release();
+                            throw new java.util.concurrent.CompletionException(error);
+                        }
+                        return new ForwardResponse(response.statusCode(), response.headers(), response.body(), () -> {
+                            record(sample, projectName, String.valueOf(response.statusCode()));
+                            semaphore.release();
+                        });
+                    });
+        } catch (Exception e) {
+            record(sample, projectName, "error");
+            semaphore.release();
+            logger.warning("[GATEWAY] Relais vers " + projectName + " impossible : " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private HttpRequest buildRequest(String baseUrl, ForwardRequest request) {
+        String target = baseUrl + (request.path().isEmpty() ? "/" : request.path())
+                + (request.query() != null ? "?" + request.query() : "");
+
+        HttpRequest.BodyPublisher publisher;
+        if (request.contentLength() == 0) {
+            publisher = HttpRequest.BodyPublishers.noBody();
+        } else if (request.contentLength() > 0) {
+            publisher = HttpRequest.BodyPublishers.fromPublisher(
+                    HttpRequest.BodyPublishers.ofInputStream(request.body()), request.contentLength());
+        } else {
+            // Longueur inconnue : envoi en chunked
+            publisher = HttpRequest.BodyPublishers.ofInputStream(request.body());
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target))
+                .timeout(Duration.ofMillis(responseTimeoutMs))
+                .method(request.method(), publisher);
+        request.headers().forEach((name, values) -> {
+            if (HOP_BY_HOP.contains(name.toLowerCase())) return;
+            values.forEach(value -> builder.header(name, value));
+        });
+        if (request.clientAddress() != null) builder.header("X-Forwarded-For", request.clientAddress());
+        if (request.forwardedHost() != null) builder.header("X-Forwarded-Host", request.forwardedHost());
+        return builder.build();
+    }
+
+    private void record(Timer.Sample sample, String projectName, String outcome) {
+        sample.stop(meterRegistry.timer("mock.gateway.requests", "project", projectName, "outcome", outcome));
+    }
+
+    /** Échanges en cours par projet (pour /api/docker/gateway) */
+    public Map<String, Integer> inFlight() {
+        Map<String, Integer> inFlight = new java.util.TreeMap<>();
+        permits.forEach((name, semaphore) -> inFlight.put(name, maxConcurrentPerProject - semaphore.availablePermits()));
+        return inFlight;
+    }
+}
@@ -1,8 +1,12 @@
 package com.imposter.mockimposter.service;
 
+import com.imposter.mockimposter.entities.GenerationStatus;
 import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.entities.ServingMode;
+import com.imposter.mockimposter.entities.SoapRoute;
 import com.imposter.mockimposter.entities.User;
 import com.imposter.mockimposter.repositories.MockProjectRepository;
+import com.imposter.mockimposter.repositories.SoapRouteRepository;
 import com.imposter.mockimposter.repositories.UserRepository;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,16 +15,26 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
 import java.nio.file.*;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 @Service
@@ -36,6 +50,21 @@ public class MockProjectService {
     @Value("${docker.network:mocknet}")
     private String dockerNetwork;
 
+    // api = appels directs à l'API Docker (DockerClient), script = script_py/docker_control.py
+    @Value("${docker.control:api}")
+    private String dockerControl;
+
+    @Value("${docker.image:outofcoffee/imposter:latest}")
+    private String dockerImage;
+
+    // Chemin des projets côté hôte (Docker-in-Docker), équivalent de HOST_PROJECTS_DIR
+    @Value("${docker.host-projects-dir:${HOST_PROJECTS_DIR:}}")
+    private String hostProjectsDir;
+
+    // java = générateur natif (ImposterConfigGenerator), python = script_py/generate.py
+    @Value("${generator.engine:java}")
+    private String generatorEngine;
+
     @Value("${base.dir:projets_mocks}")
     private String baseDirPath;
     private Path baseDir;
@@ -46,6 +75,63 @@ public class MockProjectService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EmbeddedMockEngine embeddedMockEngine;
+
+    @Autowired
+    private ImposterConfigGenerator imposterConfigGenerator;
+
+    @Autowired
+    private DockerClient dockerClient;
+
+    @Autowired
+    private ContainerReadinessProbe readinessProbe;
+
+    @Autowired
+    private ContainerStatusCache containerStatusCache;
+
+    @Autowired
+    private ContainerStateTracker containerStateTracker;
+
+    @Autowired
+    private WarmContainerPool warmContainerPool;
+
+    @Autowired
+    private HostPortAllocator hostPortAllocator;
+
+    @Autowired
+    private WakeOnRequestListener wakeOnRequestListener;
+
+    @Autowired
+    private PythonWorkerPool pythonWorkerPool;
+
+    @Autowired
+    private ProjectOperationCoordinator operationCoordinator;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private UploadReceiver uploadReceiver;
+
+    @Autowired
+    private SchemaImportResolver schemaImportResolver;
+
+    @Autowired
+    private WsdlAnalyzer wsdlAnalyzer;
+
+    @Autowired
+    private SampleResponseGenerator sampleResponseGenerator;
+
+    @Autowired
+    private RequestValidator requestValidator;
+
+    @Autowired
+    private SoapRouteRepository soapRouteRepository;
+
+    @Value("${python.timeout-ms:120000}")
+    private long pythonTimeoutMs;
+
     @PostConstruct
     public void init() {
         globalScriptPyDir = Paths.get(globalScriptPyDirPath).toAbsolutePath().normalize();
@@ -64,10 +150,11 @@ public class MockProjectService {
         logger.info("[MockProjectService] OS détecté : " + System.getProperty("os.name"));
         logger.info("[MockProjectService] Global script_py dir = " + globalScriptPyDir);
         logger.info("[MockProjectService] Base projects dir = " + baseDir);
+        logger.info("[MockProjectService] Générateur de configuration = " + generatorEngine);
     }
 
     // 🔑 Récupération utilisateur connecté
-    private User getCurrentUser() {
+    public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new RuntimeException("Aucun utilisateur connecté");
@@ -82,68 +169,485 @@ public class MockProjectService {
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé en base : " + username));
     }
 
-    // 🔨 Création projet mock
-    @Transactional(rollbackFor = Exception.class)
+    /**
+     * Fichiers d'un projet déposés dans baseDir/projectName, avant enregistrement en base
+     *
+     * @param wsdlBlob    fichier du magasin partagé référencé par le WSDL (null hors magasin), idem xsdBlob
+     * @param bundleBlobs autres fichiers d'une archive dépliée dans le projet
+     * @param createdDirectory dossier du projet créé par ce dépôt : lui seul peut le supprimer en cas d'échec
+     */
+    public record StagedUpload(Path projectPath, Path wsdlPath, Path xsdPath, String wsdlBlob, String xsdBlob,
+                               List<String> bundleBlobs, boolean createdDirectory) {
+
+        public StagedUpload(Path projectPath, Path wsdlPath, Path xsdPath, String wsdlBlob, String xsdBlob,
+                            List<String> bundleBlobs) {
+            this(projectPath, wsdlPath, xsdPath, wsdlBlob, xsdBlob, bundleBlobs, false);
+        }
+
+        public StagedUpload(Path projectPath, Path wsdlPath, Path xsdPath) {
+            this(projectPath, wsdlPath, xsdPath, null, null, List.of());
+        }
+
+        StagedUpload withCreatedDirectory(boolean created) {
+            return new StagedUpload(projectPath, wsdlPath, xsdPath, wsdlBlob, xsdBlob, bundleBlobs, created);
+        }
+    }
+
+    // Noms réservés par les créations en cours (id utilisateur / nom), pas encore enregistrés en base
+    private final Set<String> pendingProjectNames = ConcurrentHashMap.newKeySet();
+
+    // 🔨 Création projet mock (synchrone : toutes les étapes du pipeline à la suite)
     public MockProject createMockProject(String projectName, MultipartFile wsdlFile, MultipartFile xsdFile) throws Exception {
+        return createMockProject(projectName, wsdlFile, xsdFile, ServingMode.DOCKER);
+    }
+
+    public MockProject createMockProject(String projectName, MultipartFile wsdlFile, MultipartFile xsdFile,
+                                         ServingMode servingMode) throws Exception {
         User currentUser = getCurrentUser();
+        reserveProjectName(currentUser, projectName);
+
+        MockProject savedProject;
+        StagedUpload staged = null;
+        try {
+            staged = stageUploads(projectName, wsdlFile, xsdFile);
+            savedProject = persistProject(currentUser, projectName, staged, servingMode);
+        } catch (Exception e) {
+            if (staged != null) discardStagedUpload(staged);
+            throw e;
+        } finally {
+            releaseProjectName(currentUser, projectName);
+        }
 
-        boolean projectExists = mockProjectRepository.findByUser(currentUser)
+        try {
+            generateArtifacts(projectName, staged, line -> logger.info("[GENERATOR] " + line));
+            fixProjectPermissions(staged.projectPath());
+            return markGenerated(savedProject.getId(), staged);
+        } catch (Exception e) {
+            logger.severe("[GENERATOR] Erreur : " + e.getMessage());
+            return markGeneration(savedProject.getId(), GenerationStatus.FAILED, e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void checkProjectNameAvailable(User user, String projectName) {
+        boolean projectExists = mockProjectRepository.findByUser(user)
                 .stream()
                 .anyMatch(p -> p.getName().equals(projectName));
         if (projectExists) {
-            throw new RuntimeException("Un projet avec le nom '" + projectName + "' existe déjà pour cet utilisateur");
+            throw new ProjectNameConflictException("Un projet avec le nom '" + projectName + "' existe déjà pour cet utilisateur");
+        }
+    }
+
+    /**
+     * Réserve le nom d'un projet jusqu'à son enregistrement (voir {@link #releaseProjectName}) : une
+     * seconde création du même nom par le même utilisateur est refusée même si la première n'est
+     * encore que dans la file.
+     *
+     * @throws ProjectNameConflictException projet existant ou création du même nom en cours
+     */
+    public void reserveProjectName(User user, String projectName) {
+        String key = user.getId() + "/" + projectName;
+        if (!pendingProjectNames.add(key)) {
+            throw new ProjectNameConflictException("Un projet avec le nom '" + projectName + "' est déjà en cours de création");
+        }
+        try {
+            checkProjectNameAvailable(user, projectName);
+        } catch (RuntimeException e) {
+            pendingProjectNames.remove(key);
+            throw e;
         }
+    }
 
+    public void releaseProjectName(User user, String projectName) {
+        pendingProjectNames.remove(user.getId() + "/" + projectName);
+    }
+
+    // 📂 Sauvegarde des fichiers uploadés dans le dossier du projet
+    public StagedUpload stageUploads(String projectName, MultipartFile wsdlFile, MultipartFile xsdFile) throws IOException {
+        boolean created = !Files.exists(baseDir.resolve(projectName));
+        Path projectPath = projectDirectory(projectName);
+
+        String wsdlBlob = null;
+        try {
+            Path wsdlDest = projectPath.resolve(wsdlFile.getOriginalFilename());
+            wsdlBlob = storeUpload(wsdlFile, wsdlDest);
+
+            Path xsdDest = null;
+            String xsdBlob = null;
+            if (xsdFile != null && !xsdFile.isEmpty()) {
+                Path xsdDir = projectPath.resolve("xsd");
+                if (!Files.exists(xsdDir)) Files.createDirectories(xsdDir);
+                fixFilePermissions(xsdDir);
+                xsdDest = xsdDir.resolve(xsdFile.getOriginalFilename());
+                xsdBlob = storeUpload(xsdFile, xsdDest);
+            }
+            return new StagedUpload(projectPath, wsdlDest, xsdDest, wsdlBlob, xsdBlob, List.of(), created);
+        } catch (IOException | RuntimeException e) {
+            blobStore.release(wsdlBlob);
+            if (created) deleteDirectoryRecursively(projectPath.toFile());
+            throw e;
+        }
+    }
+
+    /**
+     * Dépôt en flux du corps d'une requête : WSDL seul ou archive .zip dépliée dans le projet
+     * (voir {@link UploadReceiver}).
+     */
+    public StagedUpload stageStream(String projectName, String fileName, InputStream body, long declaredLength)
+            throws IOException {
+        boolean created = !Files.exists(baseDir.resolve(projectName));
+        Path projectPath = projectDirectory(projectName);
+        try {
+            return uploadReceiver.receive(projectPath, fileName, body, declaredLength).withCreatedDirectory(created);
+        } catch (IOException | RuntimeException e) {
+            // Envoi refusé : pas de dossier vide laissé derrière
+            if (created) deleteDirectoryRecursively(projectPath.toFile());
+            throw e;
+        }
+    }
+
+    private Path projectDirectory(String projectName) throws IOException {
         Path projectPath = baseDir.resolve(projectName);
         if (!Files.exists(projectPath)) {
             Files.createDirectories(projectPath);
             // Fixer les permissions du dossier projet (Linux uniquement)
             fixFilePermissions(projectPath);
         }
+        return projectPath;
+    }
 
-        // 📂 Sauvegarde des fichiers
-        Path wsdlDest = projectPath.resolve(wsdlFile.getOriginalFilename());
-        wsdlFile.transferTo(wsdlDest.toFile());
-        fixFilePermissions(wsdlDest);
-
-        Path xsdDest = null;
-        if (xsdFile != null && !xsdFile.isEmpty()) {
-            Path xsdDir = projectPath.resolve("xsd");
-            if (!Files.exists(xsdDir)) Files.createDirectories(xsdDir);
-            fixFilePermissions(xsdDir);
-            xsdDest = xsdDir.resolve(xsdFile.getOriginalFilename());
-            xsdFile.transferTo(xsdDest.toFile());
-            fixFilePermissions(xsdDest);
+    // Dépôt via le magasin partagé : un WSDL / XSD déjà déposé par un autre projet n'est pas recopié
+    private String storeUpload(MultipartFile upload, Path target) throws IOException {
+        BlobStore.Placement placement;
+        try (InputStream in = upload.getInputStream()) {
+            placement = blobStore.place(in, target);
         }
+        fixFilePermissions(target);
+        return placement.hash();
+    }
+
+    // 💾 Sauvegarde en base, génération en attente
+    @Transactional(rollbackFor = Exception.class)
+    public MockProject persistProject(User user, String projectName, StagedUpload staged, ServingMode servingMode) {
+        checkProjectNameAvailable(user, projectName);
 
-        // 💾 Sauvegarde en base
         MockProject project = new MockProject();
         project.setName(projectName);
-        project.setPath(projectPath.toString());
-        project.setWsdlPath(wsdlDest.toString());
-        project.setXsdPath(xsdDest != null ? xsdDest.toString() : null);
+        project.setPath(staged.projectPath().toString());
+        project.setWsdlPath(staged.wsdlPath().toString());
+        project.setXsdPath(staged.xsdPath() != null ? staged.xsdPath().toString() : null);
+        project.setWsdlBlob(staged.wsdlBlob());
+        project.setXsdBlob(staged.xsdBlob());
+        project.setBundleBlobs(new java.util.ArrayList<>(staged.bundleBlobs()));
         project.setCreatedAt(LocalDateTime.now());
-        project.setUser(currentUser);
+        project.setServingMode(servingMode != null ? servingMode : ServingMode.DOCKER);
+        project.setGenerationStatus(GenerationStatus.PENDING);
+        project.setUser(user);
 
-        MockProject savedProject = mockProjectRepository.save(project);
+        return mockProjectRepository.save(project);
+    }
 
-        // ⚙️ Exécuter generate.py
-        try {
+    // ⚙️ Générer imposter-config.yaml / response.groovy (imports du WSDL rendus locaux d'abord, puis
+    // réponses d'exemple des opérations, référencées par la configuration)
+    public void generateArtifacts(String projectName, StagedUpload staged, Consumer<String> output) throws Exception {
+        schemaImportResolver.resolve(staged.wsdlPath(), staged.projectPath(), output);
+        sampleResponseGenerator.generate(staged.wsdlPath(), staged.projectPath(), output);
+        generateConfig(projectName, staged, output);
+    }
+
+    // imposter-config.yaml et response.groovy seuls : dérivés du WSDL et de la liste des réponses
+    private void generateConfig(String projectName, StagedUpload staged, Consumer<String> output) throws Exception {
+        if ("python".equalsIgnoreCase(generatorEngine)) {
             runPythonScript(
                     globalScriptPyDir.resolve("generate.py"),
                     projectName,
-                    wsdlDest,
-                    xsdDest,
-                    projectPath
+                    staged.wsdlPath(),
+                    staged.xsdPath(),
+                    staged.projectPath(),
+                    output
             );
+        } else {
+            imposterConfigGenerator.generate(projectName, staged.wsdlPath(), staged.xsdPath(), staged.projectPath(), output);
+        }
+    }
+
+    @Transactional
+    public MockProject markGeneration(Long projectId, GenerationStatus status, String error) {
+        MockProject project = mockProjectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Projet introuvable : " + projectId));
+        project.setGenerationStatus(status);
+        project.setGenerationError(error != null && error.length() > 2000 ? error.substring(0, 2000) : error);
+        return mockProjectRepository.save(project);
+    }
+
+    /** Génération réussie : statut READY et empreintes des entrées utilisées */
+    @Transactional
+    public MockProject markGenerated(Long projectId, StagedUpload staged) throws IOException {
+        InputFingerprint fingerprint = fingerprint(staged.projectPath(), staged.wsdlPath(), staged.wsdlBlob(),
+                staged.xsdPath(), staged.xsdBlob(), staged.bundleBlobs());
+        MockProject project = mockProjectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Projet introuvable : " + projectId));
+        fingerprint.applyTo(project);
+        storeRoutes(project.getId(), staged.projectPath(), staged.wsdlPath());
+        project.setGenerationStatus(GenerationStatus.READY);
+        project.setGenerationError(null);
+        return mockProjectRepository.save(project);
+    }
+
+    /** Table de routage SOAP enregistrée à la dernière génération, dans l'ordre de imposter-config.yaml */
+    @Transactional(readOnly = true)
+    public List<SoapRoute> getRoutes(MockProject project) {
+        return soapRouteRepository.findByProjectIdOrderById(project.getId());
+    }
 
-            // Fixer les permissions des fichiers générés (Linux uniquement)
-            fixProjectPermissions(projectPath);
+    // Table de routage remplacée à chaque génération : mêmes routes que les ressources de la configuration
+    private void storeRoutes(Long projectId, Path projectPath, Path wsdlPath) throws IOException {
+        List<SoapRoute> routes = SoapRoutingIndex.routesOf(wsdlAnalyzer.analyze(wsdlPath), projectPath).stream()
+                .map(r -> new SoapRoute(null, projectId, r.path(), r.operation(), r.soapAction(), r.bodyElement(),
+                        r.responseFile()))
+                .toList();
+        soapRouteRepository.deleteByProjectId(projectId);
+        soapRouteRepository.saveAll(routes);
+    }
+
+    /**
+     * Empreintes SHA-256 du WSDL, du XSD (null sans XSD), des autres schémas du projet (null sans
+     * archive ni import) et version du générateur
+     */
+    public record InputFingerprint(String wsdlHash, String xsdHash, String importsHash, String generatorVersion) {
+
+        void applyTo(MockProject project) {
+            project.setWsdlHash(wsdlHash);
+            project.setXsdHash(xsdHash);
+            project.setImportsHash(importsHash);
+            project.setGeneratorVersion(generatorVersion);
+        }
+    }
+
+    // Fichier du magasin partagé : son nom est déjà l'empreinte du contenu, pas de relecture
+    private InputFingerprint fingerprint(Path projectPath, Path wsdlPath, String wsdlBlob, Path xsdPath, String xsdBlob,
+                                         List<String> bundleBlobs) throws IOException {
+        Set<Path> inputs = xsdPath != null ? Set.of(wsdlPath, xsdPath) : Set.of(wsdlPath);
+        return new InputFingerprint(
+                wsdlBlob != null ? wsdlBlob : ContentHash.sha256(wsdlPath),
+                xsdBlob != null ? xsdBlob : xsdPath != null && Files.exists(xsdPath) ? ContentHash.sha256(xsdPath) : null,
+                schemaImportResolver.importsHash(projectPath, inputs, bundleBlobs),
+                generatorVersion());
+    }
+
+    // Moteur Java : version déclarée ; script Python : empreinte de generate.py
+    private String generatorVersion() throws IOException {
+        if ("python".equalsIgnoreCase(generatorEngine)) {
+            Path script = globalScriptPyDir.resolve("generate.py");
+            return "python-" + (Files.exists(script) ? ContentHash.sha256(script).substring(0, 16) : "absent");
+        }
+        return ImposterConfigGenerator.VERSION;
+    }
+
+    /**
+     * @param outcome         "unchanged" (rien régénéré) ou "regenerated"
+     * @param changed         entrées modifiées depuis la dernière génération (wsdl, xsd, imports, generator)
+     * @param artifacts       fichiers réécrits (imports, responses, config, routes), vide si inchangé
+     * @param restartRequired conteneur en cours d'exécution servant encore l'ancienne version
+     */
+    public record Regeneration(String projectName, String outcome, List<String> changed, List<String> artifacts,
+                               boolean restartRequired) {
+    }
+
+    /**
+     * Régénère les fichiers du projet si ses entrées ont changé depuis la dernière génération.
+     * Un nouveau WSDL ou XSD peut être fourni ; identique à l'actuel, il est ignoré. Seuls les fichiers
+     * générés qui dépendent des entrées modifiées sont réécrits, permissions corrigées : un XSD ou des
+     * schémas importés modifiés refont les imports et les réponses d'exemple, la configuration et les
+     * routes seulement si la liste des réponses a changé. Un WSDL ou un générateur modifié (ou force)
+     * refait tout, la configuration et les routes étant dérivées du WSDL. Un mock embarqué déployé est
+     * redéployé.
+     *
+     * @param force régénérer même si rien n'a changé
+     */
+    public Regeneration regenerate(MockProject project, MultipartFile wsdlFile, MultipartFile xsdFile, boolean force)
+            throws IOException, InterruptedException {
+        boolean uploads = (wsdlFile != null && !wsdlFile.isEmpty()) || (xsdFile != null && !xsdFile.isEmpty());
+        ProjectOperationCoordinator.Action action = uploads || force
+                ? ProjectOperationCoordinator.Action.UPDATE_INPUTS
+                : ProjectOperationCoordinator.Action.REGENERATE;
+        return operationCoordinator.run(project.getName(), action, () -> doRegenerate(project, wsdlFile, xsdFile, force));
+    }
+
+    private Regeneration doRegenerate(MockProject project, MultipartFile wsdlFile, MultipartFile xsdFile, boolean force)
+            throws IOException {
+        String projectName = project.getName();
+        Path projectPath = Paths.get(project.getPath());
+        Path wsdlPath = Paths.get(project.getWsdlPath());
+        Path xsdPath = project.getXsdPath() != null ? Paths.get(project.getXsdPath()) : null;
+
+        boolean replaced = false;
+        if (wsdlFile != null && !wsdlFile.isEmpty()) {
+            ProjectInput current = new ProjectInput(wsdlPath, project.getWsdlBlob());
+            // Dossier du WSDL actuel (sous-dossier d'une archive) : ses imports relatifs restent valides
+            ProjectInput wsdl = replaceInput(current, wsdlPath.getParent(), wsdlFile);
+            replaced = wsdl != current;
+            wsdlPath = wsdl.path();
+            project.setWsdlBlob(wsdl.blob());
+        }
+        if (xsdFile != null && !xsdFile.isEmpty()) {
+            Path xsdDir = projectPath.resolve("xsd");
+            if (!Files.exists(xsdDir)) {
+                Files.createDirectories(xsdDir);
+                fixFilePermissions(xsdDir);
+            }
+            ProjectInput current = new ProjectInput(xsdPath, project.getXsdBlob());
+            ProjectInput xsd = replaceInput(current, xsdDir, xsdFile);
+            replaced |= xsd != current;
+            xsdPath = xsd.path();
+            project.setXsdBlob(xsd.blob());
+        }
+        if (replaced) {
+            // Références du magasin enregistrées tout de suite : la génération peut encore échouer
+            project.setWsdlPath(wsdlPath.toString());
+            project.setXsdPath(xsdPath != null ? xsdPath.toString() : null);
+            project = mockProjectRepository.save(project);
+        }
+
+        InputFingerprint fingerprint = fingerprint(projectPath, wsdlPath, project.getWsdlBlob(), xsdPath,
+                project.getXsdBlob(), project.getBundleBlobs());
+        List<String> changed = new java.util.ArrayList<>();
+        if (!fingerprint.wsdlHash().equals(project.getWsdlHash())) changed.add("wsdl");
+        if (!Objects.equals(fingerprint.xsdHash(), project.getXsdHash())) changed.add("xsd");
+        if (!Objects.equals(fingerprint.importsHash(), project.getImportsHash())) changed.add("imports");
+        if (!fingerprint.generatorVersion().equals(project.getGeneratorVersion())) changed.add("generator");
+        Path configPath = projectPath.resolve(ImposterConfigGenerator.CONFIG_FILE);
+        Path groovyPath = projectPath.resolve(ImposterConfigGenerator.RESPONSE_SCRIPT);
+        boolean artifactsMissing = !Files.exists(configPath) || !Files.exists(groovyPath);
+
+        if (!force && changed.isEmpty() && !artifactsMissing && project.getGenerationStatus() == GenerationStatus.READY) {
+            logger.info("[GENERATOR] " + projectName + " : entrées inchangées, génération sautée");
+            return new Regeneration(projectName, "unchanged", changed, List.of(), false);
+        }
+
+        // Toute entrée modifiée compte, XSD compris : les réponses d'exemple sont dérivées de ses types
+        boolean full = force || artifactsMissing || project.getGenerationStatus() != GenerationStatus.READY
+                || changed.contains("wsdl") || changed.contains("generator");
+        Path responses = projectPath.resolve(ImposterConfigGenerator.RESPONSES_DIR);
+        Path imports = projectPath.resolve(SchemaImportResolver.IMPORTS_DIR);
+        StagedUpload staged = new StagedUpload(projectPath, wsdlPath, xsdPath);
+        Consumer<String> output = line -> logger.info("[GENERATOR] " + projectName + " : " + line);
+        List<String> artifacts = new java.util.ArrayList<>();
+        try {
+            if (full) {
+                generateArtifacts(projectName, staged, output);
+            } else {
+                Set<String> before = responseFiles(responses);
+                schemaImportResolver.resolve(wsdlPath, projectPath, output);
+                sampleResponseGenerator.generate(wsdlPath, projectPath, output);
+                // Routes et configuration référencent les fichiers de réponses, pas leur contenu
+                full = !before.equals(responseFiles(responses));
+                if (full) generateConfig(projectName, staged, output);
+            }
         } catch (Exception e) {
-            logger.severe("[generate.py] Erreur : " + e.getMessage());
+            logger.severe("[GENERATOR] " + projectName + " : échec de la régénération : " + e.getMessage());
+            markGeneration(project.getId(), GenerationStatus.FAILED, e.getMessage());
+            throw new RuntimeException("Régénération impossible : " + e.getMessage(), e);
+        }
+        if (Files.exists(imports)) {
+            fixProjectPermissions(imports);
+            artifacts.add("imports");
+        }
+        if (Files.exists(responses)) {
+            fixProjectPermissions(responses);
+            artifacts.add("responses");
+        }
+        if (full) {
+            fixFilePermissions(configPath);
+            fixFilePermissions(groovyPath);
+            storeRoutes(project.getId(), projectPath, wsdlPath);
+            artifacts.add("config");
+            artifacts.add("routes");
+        }
+
+        project.setWsdlPath(wsdlPath.toString());
+        project.setXsdPath(xsdPath != null ? xsdPath.toString() : null);
+        // Imports rendus locaux par la résolution : empreinte relue sur le projet à jour
+        fingerprint(projectPath, wsdlPath, project.getWsdlBlob(), xsdPath, project.getXsdBlob(), project.getBundleBlobs())
+                .applyTo(project);
+        project.setGenerationStatus(GenerationStatus.READY);
+        project.setGenerationError(null);
+        MockProject saved = mockProjectRepository.save(project);
+        // Schémas compilés de l'ancienne version : une régénération forcée garde les mêmes empreintes
+        requestValidator.evict(projectName);
+
+        boolean restartRequired = false;
+        if (saved.getServingMode() == ServingMode.EMBEDDED) {
+            if (embeddedMockEngine.isDeployed(projectName)) embeddedMockEngine.deploy(saved);
+        } else {
+            // Conteneur du pool : il sert une copie du projet, pas le dossier lui-même
+            warmContainerPool.refresh(projectName, projectPath);
+            restartRequired = isContainerRunning(projectName);
+        }
+        logger.info("[GENERATOR] " + projectName + " : entrées modifiées " + changed + ", fichiers réécrits " + artifacts);
+        return new Regeneration(projectName, "regenerated", changed, artifacts, restartRequired);
+    }
+
+    // Noms des réponses d'exemple du projet (ensemble vide sans dossier responses/)
+    private static Set<String> responseFiles(Path responses) throws IOException {
+        if (!Files.isDirectory(responses)) return Set.of();
+        try (var stream = Files.list(responses)) {
+            return stream.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(".xml"))
+                    .collect(java.util.stream.Collectors.toSet());
         }
+    }
 
-        return savedProject;
+    /** Fichier d'entrée d'un projet et fichier du magasin partagé qu'il référence (null hors magasin) */
+    private record ProjectInput(Path path, String blob) {
+    }
+
+    /**
+     * Dépose un fichier à la place d'une entrée du projet. Contenu identique : rien n'est touché
+     * (current est rendu tel quel).
+     * Nom différent : l'ancien fichier est supprimé (le générateur n'accepte qu'un seul .wsdl).
+     * La référence au magasin de l'ancien contenu est rendue.
+     */
+    private ProjectInput replaceInput(ProjectInput current, Path dir, MultipartFile upload) throws IOException {
+        Path target = dir.resolve(Paths.get(Objects.requireNonNull(upload.getOriginalFilename())).getFileName().toString());
+        Path temp = dir.resolve(".upload-" + UUID.randomUUID() + ".tmp");
+        String acquired = null;
+        try {
+            try (InputStream in = upload.getInputStream()) {
+                acquired = blobStore.place(in, temp).hash();
+            }
+            if (target.equals(current.path()) && Files.exists(target)) {
+                String hash = acquired != null ? acquired : ContentHash.sha256(temp);
+                String currentHash = current.blob() != null ? current.blob() : ContentHash.sha256(target);
+                if (hash.equals(currentHash)) return current;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fixFilePermissions(target);
+            if (current.path() != null && !current.path().equals(target)) Files.deleteIfExists(current.path());
+            blobStore.release(current.blob());
+            ProjectInput replaced = new ProjectInput(target, acquired);
+            acquired = null;
+            return replaced;
+        } finally {
+            // Contenu identique ou échec : la référence prise pour le fichier temporaire est rendue
+            blobStore.release(acquired);
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Supprime le dossier d'un projet dont la création n'a pas abouti, s'il a été créé par ce dépôt :
+    // un dossier existant avant lui (projet d'un autre utilisateur, dossier orphelin) n'est pas touché
+    public void discardStagedUpload(StagedUpload staged) {
+        try {
+            if (staged.createdDirectory() && Files.exists(staged.projectPath())) {
+                deleteDirectoryRecursively(staged.projectPath().toFile());
+            }
+        } catch (IOException e) {
+            logger.warning("[PROVISIONING] Nettoyage impossible de " + staged.projectPath() + " : " + e.getMessage());
+        }
+        blobStore.release(staged.wsdlBlob());
+        blobStore.release(staged.xsdBlob());
+        staged.bundleBlobs().forEach(blobStore::release);
     }
 
     // Méthode cross-platform pour fixer les permissions
@@ -173,7 +677,7 @@ public class MockProjectService {
     }
 
     // Fixer les permissions de tout le projet (cross-platform)
-    private void fixProjectPermissions(Path projectPath) throws IOException {
+    public void fixProjectPermissions(Path projectPath) throws IOException {
         Files.walkFileTree(projectPath, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult visitFile(Path file, java.nio.file.attribute.BasicFileAttributes attrs) throws IOException {
@@ -189,32 +693,12 @@ public class MockProjectService {
         });
     }
 
-    // Créer le réseau Docker s'il n'existe pas (cross-platform)
+    // Créer le réseau Docker s'il n'existe pas
     private void createDockerNetworkIfNotExists() {
         try {
-            // Vérifier si le réseau existe
-            String[] dockerCmd = IS_WINDOWS ?
-                    new String[]{"cmd", "/c", "docker", "network", "ls", "-q", "-f", "name=" + dockerNetwork} :
-                    new String[]{"docker", "network", "ls", "-q", "-f", "name=" + dockerNetwork};
-
-            ProcessBuilder pb = new ProcessBuilder(dockerCmd);
-            Process process = pb.start();
-
-            String output;
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                output = reader.lines().collect(java.util.stream.Collectors.joining("\n")).trim();
-            }
-
-            if (output.isEmpty()) {
-                // Créer le réseau
+            if (!dockerClient.networkExists(dockerNetwork)) {
                 logger.info("[DOCKER] Création du réseau Docker : " + dockerNetwork);
-                String[] createCmd = IS_WINDOWS ?
-                        new String[]{"cmd", "/c", "docker", "network", "create", dockerNetwork} :
-                        new String[]{"docker", "network", "create", dockerNetwork};
-
-                ProcessBuilder createPb = new ProcessBuilder(createCmd);
-                Process createProcess = createPb.start();
-                createProcess.waitFor();
+                dockerClient.createNetwork(dockerNetwork);
                 logger.info("[DOCKER] Réseau " + dockerNetwork + " créé avec succès");
             } else {
                 logger.info("[DOCKER] Réseau " + dockerNetwork + " existe déjà");
@@ -225,69 +709,35 @@ public class MockProjectService {
     }
 
     // --- Exécution script Python générique (cross-platform) ---
-    private void runPythonScript(Path scriptPath, String projectName, Path wsdlPath, Path xsdPath, Path outputDir) throws Exception {
+    private void runPythonScript(Path scriptPath, String projectName, Path wsdlPath, Path xsdPath, Path outputDir,
+                                 Consumer<String> output) throws Exception {
         if (!scriptPath.toFile().exists()) {
             throw new RuntimeException("Script Python introuvable : " + scriptPath);
         }
 
-        String pythonCommand = detectPython();
-        List<String> command = new java.util.ArrayList<>();
-
-        if (IS_WINDOWS) {
-            command.add("cmd");
-            command.add("/c");
-        }
-
-        command.add(pythonCommand);
-        command.add(scriptPath.toString());
-        command.add("--project=" + projectName);
-        command.add("--wsdl=" + wsdlPath.toAbsolutePath().toString());
+        List<String> args = new java.util.ArrayList<>();
+        args.add("--project=" + projectName);
+        args.add("--wsdl=" + wsdlPath.toAbsolutePath().toString());
         if (xsdPath != null) {
-            command.add("--xsd=" + xsdPath.toAbsolutePath().toString());
+            args.add("--xsd=" + xsdPath.toAbsolutePath().toString());
         }
-        command.add("--output=" + outputDir.toAbsolutePath().toString());
-
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(scriptPath.getParent().toFile());
-        pb.redirectErrorStream(true);
+        args.add("--output=" + outputDir.toAbsolutePath().toString());
 
         // Ajouter la variable BASE_DIR pour le script Python
-        pb.environment().put("BASE_DIR", baseDir.toString());
-
-        Process process = pb.start();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                logger.info("[PYTHON] " + line);
-            }
+        ProcessSupervisor.Result result = pythonWorkerPool.run("generate", args,
+                Map.of("BASE_DIR", baseDir.toString()), Duration.ofMillis(pythonTimeoutMs),
+                line -> {
+                    logger.info("[PYTHON] " + line);
+                    output.accept(line);
+                });
+
+        if (result.outcome() == ProcessSupervisor.Outcome.TIMEOUT) {
+            throw new RuntimeException("Timeout du script Python après " + pythonTimeoutMs + " ms. Sortie: " + result.output());
         }
-
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("Script Python terminé avec code d'erreur " + exitCode);
-        }
-    }
-
-    private String detectPython() {
-        String[] candidates = IS_WINDOWS ?
-                new String[]{"python.exe", "python", "py.exe", "py"} :
-                new String[]{"python3", "python"};
-
-        for (String cmd : candidates) {
-            try {
-                String[] testCmd = IS_WINDOWS ?
-                        new String[]{"cmd", "/c", cmd, "--version"} :
-                        new String[]{cmd, "--version"};
-
-                ProcessBuilder pb = new ProcessBuilder(testCmd);
-                Process p = pb.start();
-                if (p.waitFor() == 0) {
-                    logger.info("[PYTHON] Interpréteur Python détecté : " + cmd);
-                    return cmd;
-                }
-            } catch (Exception ignored) {}
+        if (result.exitCode() != 0) {
+            throw new RuntimeException("Script Python terminé avec code d'erreur " + result.exitCode()
+                    + ", sortie: " + result.output());
         }
-        throw new RuntimeException("Aucun interpréteur Python trouvé dans le PATH.");
     }
 
     // --- Gestion projets ---
@@ -297,20 +747,62 @@ public class MockProjectService {
     }
 
     @Transactional
-    public void deleteProject(MockProject project) throws IOException {
-        Path projectDir = Paths.get(project.getPath());
-        if (Files.exists(projectDir)) {
-            deleteDirectoryRecursively(projectDir.toFile());
+    public MockProject updateServingMode(MockProject project, ServingMode servingMode) {
+        if (project.getServingMode() == ServingMode.EMBEDDED && servingMode != ServingMode.EMBEDDED) {
+            embeddedMockEngine.undeploy(project.getName());
         }
-        mockProjectRepository.delete(project);
+        project.setServingMode(servingMode);
+        return mockProjectRepository.save(project);
+    }
 
+    @Transactional
+    public void deleteProject(MockProject project) throws IOException {
         try {
-            stopDockerContainer(project.getName());
-        } catch (Exception e) {
-            logger.warning("[docker_control.py] Erreur lors de l'arrêt du conteneur : " + e.getMessage());
+            // Attend la fin d'un démarrage / arrêt en cours sur le projet
+            operationCoordinator.run(project.getName(), ProjectOperationCoordinator.Action.DELETE, () -> {
+                Path projectDir = Paths.get(project.getPath());
+                if (Files.exists(projectDir)) {
+                    deleteDirectoryRecursively(projectDir.toFile());
+                }
+                mockProjectRepository.delete(project);
+                soapRouteRepository.deleteByProjectId(project.getId());
+                releaseBlobsAfterCommit(project);
+                embeddedMockEngine.undeploy(project.getName());
+                requestValidator.evict(project.getName());
+                wakeOnRequestListener.cancel(project.getName());
+                hostPortAllocator.release(project.getHostPort());
+
+                try {
+                    stopDockerContainer(project.getName());
+                } catch (Exception e) {
+                    logger.warning("[docker_control.py] Erreur lors de l'arrêt du conteneur : " + e.getMessage());
+                }
+                return null;
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Suppression interrompue", e);
         }
     }
 
+    // Une suppression annulée garde ses références ; sans transaction en cours, libération immédiate
+    private void releaseBlobsAfterCommit(MockProject project) {
+        List<String> blobs = new ArrayList<>();
+        blobs.add(project.getWsdlBlob());
+        blobs.add(project.getXsdBlob());
+        blobs.addAll(project.getBundleBlobs());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            blobs.forEach(blobStore::release);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                blobs.forEach(blobStore::release);
+            }
+        });
+    }
+
     private void deleteDirectoryRecursively(File dir) throws IOException {
         File[] allContents = dir.listFiles();
         if (allContents != null) {
@@ -327,30 +819,243 @@ public class MockProjectService {
         return mockProjectRepository.findAll();
     }
 
+    // --- Démarrage / arrêt selon le mode de service du projet ---
+    @Transactional(readOnly = true)
+    public Optional<MockProject> findProjectByName(String projectName) {
+        return mockProjectRepository.findFirstByName(projectName);
+    }
+
+    /** Résultat d'un démarrage : temps jusqu'à disponibilité et port hôte publié (null en mode EMBEDDED) */
+    public record MockStart(Duration timeToReady, Integer hostPort) {
+    }
+
+    public MockStart startMock(String projectName) throws IOException, InterruptedException {
+        return operationCoordinator.run(projectName, ProjectOperationCoordinator.Action.START, () -> doStartMock(projectName));
+    }
+
+    public void stopMock(String projectName) throws IOException, InterruptedException {
+        operationCoordinator.run(projectName, ProjectOperationCoordinator.Action.STOP, () -> {
+            doStopMock(projectName);
+            return null;
+        });
+    }
+
+    /** Arrêt puis démarrage sous un même verrou de projet */
+    public MockStart restartMock(String projectName) throws IOException, InterruptedException {
+        return operationCoordinator.run(projectName, ProjectOperationCoordinator.Action.RESTART, () -> {
+            try {
+                doStopMock(projectName);
+            } catch (Exception e) {
+                logger.warning("[DOCKER] Conteneur déjà arrêté ou inexistant : " + e.getMessage());
+            }
+            return doStartMock(projectName);
+        });
+    }
+
+    private MockStart doStartMock(String projectName) throws IOException, InterruptedException {
+        Optional<MockProject> project = findProjectByName(projectName);
+        if (project.isPresent() && project.get().getServingMode() == ServingMode.EMBEDDED) {
+            long start = System.nanoTime();
+            embeddedMockEngine.deploy(project.get());
+            return new MockStart(Duration.ofNanos(System.nanoTime() - start), null);
+        }
+        return startDockerContainer(projectName);
+    }
+
+    private void doStopMock(String projectName) throws IOException, InterruptedException {
+        Optional<MockProject> project = findProjectByName(projectName);
+        if (project.isPresent() && project.get().getServingMode() == ServingMode.EMBEDDED) {
+            embeddedMockEngine.undeploy(projectName);
+            return;
+        }
+        stopDockerContainer(projectName);
+    }
+
     // --- Gestion Docker AMÉLIORÉE (cross-platform) ---
-    public void startDockerContainer(String projectName) throws IOException, InterruptedException {
+    /** @return le temps mesuré entre la demande de démarrage et la disponibilité du mock, et son port hôte */
+    public MockStart startDockerContainer(String projectName) throws IOException, InterruptedException {
+        // Un mock en veille repart sur le port qu'il avait : son URL ne change pas
+        return startDockerContainer(projectName, wakeOnRequestListener.cancel(projectName));
+    }
+
+    /** @param reservedPort port déjà attribué au projet à réutiliser (réveil), null pour en allouer un */
+    public MockStart startDockerContainer(String projectName, Integer reservedPort) throws IOException, InterruptedException {
         logger.info("[DOCKER] Démarrage conteneur pour projet : " + projectName);
-        runDockerScript("start", projectName);
+        long start = System.nanoTime();
+        long startEpochSecond = Instant.now().getEpochSecond();
+
+        // Un éventuel port encore attribué (conteneur précédent) est rendu avant d'en prendre un
+        if (reservedPort == null) {
+            assignHostPort(projectName, null);
+        }
 
-        // Attendre plus longtemps pour le démarrage
-        logger.info("[DOCKER] Attente de démarrage du conteneur...");
-        Thread.sleep(10000); // 10 secondes
+        int hostPort;
+        try {
+            if ("script".equalsIgnoreCase(dockerControl)) {
+                hostPort = reservedPort != null ? reservedPort : hostPortAllocator.allocate();
+                try {
+                    runDockerScript("start", projectName, hostPort);
+                } catch (IOException | RuntimeException e) {
+                    if (reservedPort == null) hostPortAllocator.release(hostPort);
+                    throw e;
+                }
+            } else {
+                Path configFile = baseDir.resolve(projectName).resolve(ImposterConfigGenerator.CONFIG_FILE);
+                if (!Files.isRegularFile(configFile)) {
+                    throw new RuntimeException("Aucun fichier imposter-config.yaml trouvé pour le projet " + projectName);
+                }
+                Integer pooledPort = reservedPort == null ? warmContainerPool.claim(projectName, baseDir.resolve(projectName)) : null;
+                hostPort = pooledPort != null ? pooledPort : createAndStartContainer(projectName, reservedPort);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Port conservé pendant la veille : rendu si le réveil échoue
+            if (reservedPort != null) assignHostPort(projectName, null);
+            throw e;
+        }
+        assignHostPort(projectName, hostPort);
 
-        if (!isContainerRunning(projectName)) {
+        containerStatusCache.invalidate();
+        String containerName = "mock-" + projectName;
+        logger.info("[DOCKER] Attente de disponibilité du conteneur...");
+        ContainerReadinessProbe.Readiness readiness = readinessProbe.awaitReady(containerName, 8080, hostPort, startEpochSecond);
+
+        if (!readiness.ready()) {
             String logs = getContainerLogs(projectName);
-            logger.severe("[DOCKER] Logs du conteneur arrêté : " + logs);
+            logger.severe("[DOCKER] Logs du conteneur (" + readiness.outcome() + ") : " + logs);
+            if (readiness.outcome() == ContainerReadinessProbe.Outcome.TIMEOUT) {
+                throw new RuntimeException("Le conteneur n'est pas prêt après "
+                        + readiness.elapsed().toMillis() + " ms. Logs: " + logs);
+            }
             throw new RuntimeException("Le conteneur s'est arrêté après le démarrage. Logs: " + logs);
         }
 
-        logger.info("[DOCKER] Conteneur démarré avec succès : mock-" + projectName);
+        Duration timeToReady = Duration.ofNanos(System.nanoTime() - start);
+        logger.info("[DOCKER] Conteneur démarré avec succès : " + containerName + " sur le port " + hostPort
+                + " (prêt en " + timeToReady.toMillis() + " ms)");
+        return new MockStart(timeToReady, hostPort);
     }
 
     public void stopDockerContainer(String projectName) throws IOException, InterruptedException {
         logger.info("[DOCKER] Arrêt conteneur pour projet : " + projectName);
-        runDockerScript("stop", projectName);
+        wakeOnRequestListener.cancel(projectName);
+        containerStatusCache.invalidate();
+        removeDockerContainer(projectName);
+        assignHostPort(projectName, null);
+    }
+
+    /** Mise en veille : conteneur supprimé, port conservé et écouté pour un réveil à la première requête */
+    public void suspendDockerContainer(String projectName) throws IOException, InterruptedException {
+        operationCoordinator.run(projectName, ProjectOperationCoordinator.Action.SUSPEND, () -> {
+            doSuspendDockerContainer(projectName);
+            return null;
+        });
+    }
+
+    /** Réveil d'un mock en veille sur son port, sous le verrou du projet */
+    public MockStart wakeDockerContainer(String projectName, int hostPort) throws IOException, InterruptedException {
+        return operationCoordinator.run(projectName, ProjectOperationCoordinator.Action.START,
+                () -> startDockerContainer(projectName, hostPort));
+    }
+
+    private void doSuspendDockerContainer(String projectName) throws IOException, InterruptedException {
+        Integer hostPort = findProjectByName(projectName).map(MockProject::getHostPort).orElse(null);
+        if (hostPort == null) return;
+
+        logger.info("[DOCKER] Mise en veille du conteneur pour projet : " + projectName + " (port " + hostPort + " conservé)");
+        containerStatusCache.invalidate();
+        removeDockerContainer(projectName);
+        if (!wakeOnRequestListener.listen(projectName, hostPort)) {
+            assignHostPort(projectName, null);
+        }
     }
 
-    private void runDockerScript(String action, String projectName) throws IOException, InterruptedException {
+    private void removeDockerContainer(String projectName) throws IOException, InterruptedException {
+        if ("script".equalsIgnoreCase(dockerControl)) {
+            runDockerScript("stop", projectName, null);
+        } else {
+            String containerName = "mock-" + projectName;
+            dockerClient.stopContainer(containerName, 10);
+            dockerClient.removeContainer(containerName, true);
+            warmContainerPool.release(projectName);
+            logger.info("[DOCKER] Conteneur " + containerName + " arrêté et supprimé");
+        }
+    }
+
+    // Enregistre le port hôte du projet ; l'ancien port éventuel est rendu à l'allocateur
+    private void assignHostPort(String projectName, Integer hostPort) {
+        mockProjectRepository.findFirstByName(projectName).ifPresent(project -> {
+            if (Objects.equals(project.getHostPort(), hostPort)) return;
+            if (project.getHostPort() != null) hostPortAllocator.release(project.getHostPort());
+            project.setHostPort(hostPort);
+            mockProjectRepository.save(project);
+        });
+    }
+
+    /**
+     * Équivalent de start_container (docker_control.py) via l'API Docker.
+     *
+     * @param fixedPort port imposé (réveil d'un mock en veille), null pour en allouer un
+     * @return le port hôte attribué au conteneur
+     */
+    private int createAndStartContainer(String projectName, Integer fixedPort) throws IOException {
+        String containerName = "mock-" + projectName;
+
+        // Stop + remove si existant
+        dockerClient.stopContainer(containerName, 10);
+        dockerClient.removeContainer(containerName, true);
+
+        // Montage : chemin vu par le démon Docker (hôte) si le backend tourne lui-même dans un conteneur
+        String hostRoot = hostProjectsDir.isBlank() ? baseDir.toString() : hostProjectsDir;
+        String hostProjectPath = Paths.get(hostRoot, projectName).toString();
+        String network = dockerClient.networkExists(dockerNetwork) ? dockerNetwork : null;
+        logger.info("[DOCKER] Montage : " + hostProjectPath + " -> /opt/imposter/config, réseau : " + network);
+
+        for (int attempt = 1; ; attempt++) {
+            int hostPort = fixedPort != null ? fixedPort : hostPortAllocator.allocate();
+            DockerClient.ContainerSpec spec = new DockerClient.ContainerSpec(
+                    containerName,
+                    dockerImage,
+                    hostPort,
+                    8080,
+                    hostProjectPath,
+                    "/opt/imposter/config",
+                    network,
+                    Map.of(DockerClient.PROJECT_LABEL, projectName)
+            );
+
+            String containerId;
+            try {
+                containerId = dockerClient.createContainer(spec);
+            } catch (IOException | RuntimeException e) {
+                // Image introuvable, nom déjà pris, démon absent : le port alloué est rendu
+                if (fixedPort == null) hostPortAllocator.release(hostPort);
+                throw e;
+            }
+            try {
+                dockerClient.startContainer(containerId);
+                logger.info("[DOCKER] Conteneur " + containerName + " démarré (ID=" + containerId + ", port " + hostPort + ")");
+                return hostPort;
+            } catch (DockerApiException e) {
+                dockerClient.removeContainer(containerId, true);
+                String message = String.valueOf(e.getMessage());
+                boolean portTaken = message.contains("port is already allocated") || message.contains("address already in use");
+                if (portTaken && fixedPort == null && attempt < 3) {
+                    // Port occupé hors du backend : il reste marqué pris, on en essaie un autre
+                    logger.warning("[DOCKER] Port " + hostPort + " occupé sur l'hôte, nouvel essai");
+                    continue;
+                }
+                if (fixedPort == null) hostPortAllocator.release(hostPort);
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                // Port rendu avant la suppression, qui peut elle-même échouer
+                if (fixedPort == null) hostPortAllocator.release(hostPort);
+                dockerClient.removeContainer(containerId, true);
+                throw e;
+            }
+        }
+    }
+
+    private void runDockerScript(String action, String projectName, Integer hostPort) throws IOException, InterruptedException {
         if (!Files.exists(globalScriptPyDir) || !Files.isDirectory(globalScriptPyDir)) {
             throw new IllegalStateException("Dossier script_py introuvable : " + globalScriptPyDir);
         }
@@ -360,86 +1065,46 @@ public class MockProjectService {
             throw new RuntimeException("Script docker_control.py introuvable : " + dockerScript);
         }
 
-        String pythonCommand = detectPython();
-        List<String> command = new java.util.ArrayList<>();
-
-        if (IS_WINDOWS) {
-            command.add("cmd");
-            command.add("/c");
-        }
-
-        command.add(pythonCommand);
-        command.add("docker_control.py");
-        command.add(action);
-        command.add(projectName);
+        List<String> args = new java.util.ArrayList<>();
+        args.add(action);
+        args.add(projectName);
 
         // Ajouter le port si nécessaire
         if ("start".equals(action)) {
-            command.add("--port=8080");
+            args.add("--port=" + hostPort);
         }
 
-        logger.info("[DOCKER] Commande : " + String.join(" ", command));
+        logger.info("[DOCKER] Commande : docker_control.py " + String.join(" ", args));
         logger.info("[DOCKER] Répertoire de travail : " + globalScriptPyDir);
         logger.info("[DOCKER] BASE_DIR : " + baseDir.toString());
         logger.info("[DOCKER] NETWORK : " + dockerNetwork);
 
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(globalScriptPyDir.toFile());
-        pb.redirectErrorStream(true);
-
         // Injection des variables d'environnement
-        pb.environment().put("BASE_DIR", baseDir.toString());
-        pb.environment().put("DOCKER_NETWORK", dockerNetwork);
+        ProcessSupervisor.Result result = pythonWorkerPool.run("docker_control", args,
+                Map.of("BASE_DIR", baseDir.toString(), "DOCKER_NETWORK", dockerNetwork),
+                Duration.ofMinutes(2), line -> logger.info("[DOCKER] " + line));
 
-        Process process = pb.start();
-
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                logger.info("[DOCKER] " + line);
-                output.append(line).append("\n");
-            }
-        }
-
-        boolean finished = process.waitFor(120, TimeUnit.SECONDS); // 2 minutes
-
-        if (!finished) {
-            process.destroyForcibly();
+        if (result.outcome() == ProcessSupervisor.Outcome.TIMEOUT) {
             throw new RuntimeException("Timeout lors de l'exécution du script Docker (" + action + ")");
         }
 
-        int exitCode = process.exitValue();
+        int exitCode = result.exitCode();
         logger.info("[DOCKER] Code de sortie : " + exitCode);
 
         if (exitCode != 0) {
             throw new RuntimeException("Échec du script Docker (" + action + "), code=" + exitCode +
-                    ", sortie: " + output.toString());
+                    ", sortie: " + result.output());
         }
     }
 
-    // Méthodes utilitaires pour vérifier l'état des conteneurs (cross-platform)
+    // Méthodes utilitaires pour vérifier l'état des conteneurs
     private boolean isContainerRunning(String projectName) {
+        String containerName = "mock-" + projectName;
         try {
-            String containerName = "mock-" + projectName;
-            String[] cmd = IS_WINDOWS ?
-                    new String[]{"cmd", "/c", "docker", "ps", "-q", "-f", "name=" + containerName} :
-                    new String[]{"docker", "ps", "-q", "-f", "name=" + containerName};
-
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            Process process = pb.start();
-
-            String output;
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                output = reader.lines()
-                        .collect(java.util.stream.Collectors.joining("\n"))
-                        .trim();
-            }
-
-            boolean running = !output.isEmpty();
+            DockerClient.ContainerInfo info = containerStatusCache.get().byProject().get(projectName);
+            boolean running = info != null && info.running();
             logger.info("[DOCKER] Conteneur " + containerName + " en cours : " + running);
             return running;
-
         } catch (Exception e) {
             logger.warning("[DOCKER] Erreur vérification conteneur : " + e.getMessage());
             return false;
@@ -448,54 +1113,55 @@ public class MockProjectService {
 
     private String getContainerLogs(String projectName) {
         try {
-            String containerName = "mock-" + projectName;
-            String[] cmd = IS_WINDOWS ?
-                    new String[]{"cmd", "/c", "docker", "logs", "--tail", "50", containerName} :
-                    new String[]{"docker", "logs", "--tail", "50", containerName};
-
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            Process process = pb.start();
-
-            StringBuilder logs = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    logs.append(line).append("\n");
-                }
-            }
-
-            // Lire aussi stderr
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    logs.append("ERROR: ").append(line).append("\n");
-                }
-            }
-
-            return logs.toString();
+            return dockerClient.containerLogs("mock-" + projectName, 50);
         } catch (Exception e) {
             return "Impossible de récupérer les logs : " + e.getMessage();
         }
     }
 
-    // Méthode pour obtenir l'état d'un conteneur (cross-platform)
+    // Méthode pour obtenir l'état d'un conteneur (lu dans l'instantané partagé)
     public String getContainerStatus(String projectName) {
         try {
-            String containerName = "mock-" + projectName;
-            String[] cmd = IS_WINDOWS ?
-                    new String[]{"cmd", "/c", "docker", "ps", "-a", "-f", "name=" + containerName, "--format", "{{.Status}}"} :
-                    new String[]{"docker", "ps", "-a", "-f", "name=" + containerName, "--format", "{{.Status}}"};
-
-            ProcessBuilder pb = new ProcessBuilder(cmd);
-            Process process = pb.start();
-
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                return reader.lines()
-                        .findFirst()
-                        .orElse("Conteneur non trouvé");
-            }
+            DockerClient.ContainerInfo info = containerStatusCache.get().byProject().get(projectName);
+            return info != null ? info.status() : "Conteneur non trouvé";
         } catch (Exception e) {
             return "Erreur : " + e.getMessage();
         }
     }
-}
\ No newline at end of file
+
+    /** État de plusieurs projets à partir d'une seule énumération des conteneurs */
+    public List<Map<String, Object>> getContainerStatuses(List<MockProject> projects) throws IOException {
+        ContainerStatusCache.Snapshot snapshot = containerStatusCache.get();
+        List<Map<String, Object>> statuses = new java.util.ArrayList<>();
+        for (MockProject project : projects) {
+            Map<String, Object> entry = new java.util.LinkedHashMap<>();
+            entry.put("projectName", project.getName());
+            entry.put("servingMode", project.getServingMode());
+            entry.put("hostPort", project.getHostPort());
+            if (project.getServingMode() == ServingMode.EMBEDDED) {
+                boolean deployed = embeddedMockEngine.isDeployed(project.getName());
+                entry.put("state", deployed ? "running" : "stopped");
+                entry.put("status", deployed ? "Servi par le moteur embarqué" : "Arrêté");
+                entry.put("running", deployed);
+            } else {
+                DockerClient.ContainerInfo info = snapshot.byProject().get(project.getName());
+                if (info == null && wakeOnRequestListener.isSuspended(project.getName())) {
+                    entry.put("state", "suspended");
+                    entry.put("status", "En veille : réveil à la première requête");
+                    entry.put("running", false);
+                    statuses.add(entry);
+                    continue;
+                }
+                entry.put("state", info != null ? info.state() : "absent");
+                entry.put("status", info != null ? info.status() : "Conteneur non trouvé");
+                entry.put("running", info != null && info.running());
+                containerStateTracker.state(project.getName()).ifPresent(state -> {
+                    if (state.health() != null) entry.put("health", state.health());
+                    if (state.oomKilled()) entry.put("oomKilled", true);
+                });
+            }
+            statuses.add(entry);
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,244 @@
+package com.imposter.mockimposter.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Exécution des opérations Docker / Python longues (démarrage, arrêt...) hors des threads Tomcat :
+ * les contrôleurs rendent la main immédiatement et répondent quand l'opération se termine.
+ * Threads virtuels si la JVM les propose (Java 21+), sinon pool de threads plateforme.
+ * Le nombre d'opérations simultanées est plafonné par type d'opération : au-delà, l'opération attend
+ * son tour dans la file de son type, sans occuper de thread. Les threads ne portent donc que des
+ * opérations en cours et une rafale de démarrages ne retarde pas les arrêts.
+ */
+@Component
+public class OrchestrationExecutor {
+
+    private static final Logger logger = Logger.getLogger(OrchestrationExecutor.class.getName());
+
+    public enum Operation {START, STOP, RESTART}
+
+    /** Levée quand le plafond d'un type d'opération reste atteint au-delà de l'attente autorisée */
+    public static class OrchestrationBusyException extends RuntimeException {
+        public OrchestrationBusyException(String message) {
+            super(message);
+        }
+    }
+
+    @Value("${orchestration.virtual-threads:true}")
+    private boolean virtualThreadsRequested;
+
+    // Taille du pool de repli quand les threads virtuels ne sont pas disponibles
+    @Value("${orchestration.platform-threads:64}")
+    private int platformThreads;
+
+    @Value("${orchestration.max-concurrent.start:8}")
+    private int maxStarts;
+
+    @Value("${orchestration.max-concurrent.stop:16}")
+    private int maxStops;
+
+    @Value("${orchestration.max-concurrent.restart:8}")
+    private int maxRestarts;
+
+    @Value("${orchestration.permit-timeout-ms:120000}")
+    private long permitTimeoutMs;
+
+    private ExecutorService executor;
+    private boolean virtualThreads;
+
+    // Expiration des opérations restées en file au-delà de permitTimeoutMs
+    private ScheduledThreadPoolExecutor timeouts;
+
+    private final Map<Operation, Lane> lanes = new EnumMap<>(Operation.class);
+
+    /** Opérations d'un type : nombre en cours (au plus limit) et file des suivantes, dans l'ordre d'arrivée */
+    private static final class Lane {
+        final int limit;
+        int running;
+        final Deque<Pending> queue = new ArrayDeque<>();
+
+        Lane(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    private static final class Pending {
+        final Runnable run;
+        final CompletableFuture<?> result;
+        ScheduledFuture<?> expiry;
+
+        Pending(Runnable run, CompletableFuture<?> result) {
+            this.run = run;
+            this.result = result;
+        }
+    }
+
+    public OrchestrationExecutor() {
+    }
+
+    // Tests : plafonds explicites, pool de threads plateforme (cas d'une JVM 17)
+    OrchestrationExecutor(int maxStarts, int maxStops, int maxRestarts, long permitTimeoutMs) {
+        this.virtualThreadsRequested = false;
+        this.platformThreads = 64;
+        this.maxStarts = maxStarts;
+        this.maxStops = maxStops;
+        this.maxRestarts = maxRestarts;
+        this.permitTimeoutMs = permitTimeoutMs;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        lanes.put(Operation.START, new Lane(maxStarts));
+        lanes.put(Operation.STOP, new Lane(maxStops));
+        lanes.put(Operation.RESTART, new Lane(maxRestarts));
+        timeouts = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "orchestration-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timeouts.setRemoveOnCancelPolicy(true);
+
+        executor = virtualThreadsRequested ? virtualThreadExecutor() : null;
+        virtualThreads = executor != null;
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(platformThreads, platformThreads,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "orchestration-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        logger.info("[ORCHESTRATION] Exécution sur " + (virtualThreads ? "threads virtuels" : platformThreads + " threads plateforme")
+                + ", plafonds START " + maxStarts + ", STOP " + maxStops + ", RESTART " + maxRestarts);
+    }
+
+    /**
+     * Exécute la tâche sous le plafond de son type d'opération ; le résultat arrive dans le futur rendu.
+     * Plafond atteint : la tâche attend en file qu'une opération du même type se termine, au plus
+     * permitTimeoutMs, puis échoue en {@link OrchestrationBusyException}.
+     */
+    public <T> CompletableFuture<T> submit(Operation operation, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Lane lane = lanes.get(operation);
+        Pending pending = new Pending(() -> run(lane, task, result), result);
+        synchronized (lane) {
+            if (lane.running >= lane.limit) {
+                lane.queue.addLast(pending);
+                pending.expiry = timeouts.schedule(() -> expire(operation, lane, pending),
+                        permitTimeoutMs, TimeUnit.MILLISECONDS);
+                return result;
+            }
+            lane.running++;
+        }
+        dispatch(lane, pending);
+        return result;
+    }
+
+    private <T> void run(Lane lane, Callable<T> task, CompletableFuture<T> result) {
+        try {
+            result.complete(task.call());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            next(lane);
+        }
+    }
+
+    // Place libérée : elle passe directement à la première tâche en file, sinon elle est rendue
+    private void next(Lane lane) {
+        Pending following;
+        synchronized (lane) {
+            following = lane.queue.pollFirst();
+            if (following == null) {
+                lane.running--;
+                return;
+            }
+        }
+        following.expiry.cancel(false);
+        dispatch(lane, following);
+    }
+
+    private void dispatch(Lane lane, Pending pending) {
+        try {
+            executor.execute(pending.run);
+        } catch (RejectedExecutionException e) {
+            // Arrêt de l'application
+            pending.result.completeExceptionally(e);
+            next(lane);
+        }
+    }
+
+    private void expire(Operation operation, Lane lane, Pending pending) {
+        boolean removed;
+        synchronized (lane) {
+            removed = lane.queue.remove(pending);
+        }
+        if (removed) {
+            pending.result.completeExceptionally(new OrchestrationBusyException(
+                    "Trop d'opérations " + operation + " en cours, réessayez plus tard"));
+        }
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** Par type d'opération : en cours, en attente d'une place, plafond */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("virtualThreads", virtualThreads);
+        lanes.forEach((operation, lane) -> {
+            synchronized (lane) {
+                stats.put(operation.name().toLowerCase(), Map.of(
+                        "running", lane.running,
+                        "waiting", lane.queue.size(),
+                        "limit", lane.limit));
+            }
+        });
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timeouts.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() par réflexion : le projet compile en Java 17
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) java.util.concurrent.Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Lancement supervisé des sous-processus (scripts Python, CLI docker) : sortie standard et
+ * d'erreur fusionnées et lues par un thread dédié, seules les N dernières lignes sont gardées,
+ * échéance sur le temps réel écoulé, arbre de processus tué à l'échéance ou sur interruption.
+ * Durées publiées dans la métrique process.duration (command, outcome).
+ */
+@Component
+public class ProcessSupervisor {
+
+    private static final Logger logger = Logger.getLogger(ProcessSupervisor.class.getName());
+
+    public static final int DEFAULT_TAIL_LINES = 200;
+
+    // Attente du lecteur après la fin du processus (un petit-fils peut garder le tube ouvert)
+    private static final long DRAIN_GRACE_MS = 2000;
+
+    public enum Outcome {SUCCESS, FAILURE, TIMEOUT, CANCELLED}
+
+    /**
+     * @param tail         dernières lignes de sortie (stdout et stderr mêlés)
+     * @param droppedLines lignes plus anciennes écartées du tampon
+     */
+    public record Result(int exitCode, Outcome outcome, List<String> tail, long droppedLines, Duration elapsed) {
+
+        public boolean succeeded() {
+            return outcome == Outcome.SUCCESS;
+        }
+
+        public String output() {
+            return String.join("\n", tail);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Process> running = ConcurrentHashMap.newKeySet();
+
+    public ProcessSupervisor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Result run(String name, List<String> command, Duration timeout) throws IOException, InterruptedException {
+        return run(name, command, null, Map.of(), timeout, DEFAULT_TAIL_LINES, line -> {
+        });
+    }
+
+    /**
+     * @param name        libellé court de la commande (tag de métrique, logs)
+     * @param tailLines   taille du tampon circulaire de sortie
+     * @param onLine      appelé depuis le thread de lecture pour chaque ligne
+     * @throws InterruptedException si le thread appelant est interrompu ; l'arbre de processus est tué
+     */
+    public Result run(String name, List<String> command, Path workDir, Map<String, String> environment,
+                      Duration timeout, int tailLines, Consumer<String> onLine) throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        if (workDir != null) pb.directory(workDir.toFile());
+        pb.environment().putAll(environment);
+        pb.redirectErrorStream(true);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        Process process;
+        try {
+            process = pb.start();
+        } catch (IOException e) {
+            record(sample, name, "start_failed");
+            throw e;
+        }
+        running.add(process);
+
+        OutputTail output = new OutputTail(tailLines);
+        Thread drainer = new Thread(() -> drain(process, output, onLine), "proc-" + name + "-" + process.pid());
+        drainer.setDaemon(true);
+        drainer.start();
+
+        Outcome outcome;
+        try {
+            if (process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                outcome = process.exitValue() == 0 ? Outcome.SUCCESS : Outcome.FAILURE;
+            } else {
+                logger.warning("[PROCESS] " + name + " dépasse " + timeout.toMillis() + " ms, arrêt de l'arbre de processus");
+                killTree(process);
+                outcome = Outcome.TIMEOUT;
+            }
+        } catch (InterruptedException e) {
+            killTree(process);
+            record(sample, name, Outcome.CANCELLED.name().toLowerCase());
+            running.remove(process);
+            throw e;
+        }
+
+        drainer.join(DRAIN_GRACE_MS);
+        if (drainer.isAlive()) {
+            // Tube encore tenu par un descendant détaché : on cesse de le lire
+            process.getInputStream().close();
+        }
+        running.remove(process);
+        record(sample, name, outcome.name().toLowerCase());
+
+        int exitCode = outcome == Outcome.TIMEOUT ? -1 : process.exitValue();
+        return new Result(exitCode, outcome, output.lines(), output.dropped(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Processus longue durée (workers) dont l'appelant gère les flux : il est tué avec son arbre
+     * à l'arrêt du backend. La sortie d'erreur est lue ici et transmise ligne à ligne à onStderr.
+     */
+    public Process spawn(String name, List<String> command, Path workDir, Map<String, String> environment,
+                         Consumer<String> onStderr) throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        if (workDir != null) pb.directory(workDir.toFile());
+        pb.environment().putAll(environment);
+
+        Process process = pb.start();
+        running.add(process);
+        process.onExit().thenRun(() -> running.remove(process));
+
+        Thread drainer = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), Charset.defaultCharset()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    onStderr.accept(line);
+                }
+            } catch (IOException ignored) {
+                // Processus terminé
+            }
+        }, "proc-" + name + "-" + process.pid() + "-stderr");
+        drainer.setDaemon(true);
+        drainer.start();
+        return process;
+    }
+
+    /** Arrêt immédiat d'un processus et de ses descendants */
+    public void kill(Process process) {
+        killTree(process);
+        running.remove(process);
+    }
+
+    /** Processus encore en cours (supervision) */
+    public int runningCount() {
+        return running.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running.forEach(ProcessSupervisor::killTree);
+        running.clear();
+    }
+
+    private static void drain(Process process, OutputTail output, Consumer<String> onLine) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+                onLine.accept(line);
+            }
+        } catch (IOException ignored) {
+            // Flux fermé (processus tué ou lecture abandonnée)
+        }
+    }
+
+    private static void killTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    void record(Timer.Sample sample, String name, String outcome) {
+        sample.stop(meterRegistry.timer("process.duration", "command", name, "outcome", outcome));
+    }
+
+    /** Tampon circulaire des dernières lignes */
+    static final class OutputTail {
+        private final int capacity;
+        private final ArrayDeque<String> lines;
+        private long dropped;
+
+        OutputTail(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.lines = new ArrayDeque<>(Math.min(this.capacity, 1024));
+        }
+
+        synchronized void add(String line) {
+            if (lines.size() == capacity) {
+                lines.removeFirst();
+                dropped++;
+            }
+            lines.addLast(line);
+        }
+
+        synchronized List<String> lines() {
+            return new ArrayList<>(lines);
+        }
+
+        synchronized long dropped() {
+            return dropped;
+        }
+    }
+}
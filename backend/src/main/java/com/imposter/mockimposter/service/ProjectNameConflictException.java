@@ -0,0 +1,9 @@
+package com.imposter.mockimposter.service;
+
+/** Nom de projet déjà utilisé par l'utilisateur, ou réservé par une création en cours */
+public class ProjectNameConflictException extends RuntimeException {
+
+    public ProjectNameConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,131 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Sérialise les opérations sur un même projet (démarrage, arrêt, suppression, régénération...) :
+ * verrous répartis par hachage du nom de projet, pris dans l'ordre d'arrivée. Une demande
+ * identique à la dernière opération en attente ou en cours du projet la rejoint et reçoit son
+ * résultat au lieu d'en lancer une seconde ; une demande différente passe après elle.
+ */
+@Component
+public class ProjectOperationCoordinator {
+
+    private static final Logger logger = Logger.getLogger(ProjectOperationCoordinator.class.getName());
+
+    public enum Action {
+        START, STOP, RESTART, SUSPEND, DELETE, REGENERATE,
+        // Régénération avec nouveaux fichiers ou forcée : jamais rattachée à une autre demande
+        UPDATE_INPUTS;
+
+        boolean coalescable() {
+            return this != UPDATE_INPUTS;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Operation<T> {
+        T call() throws IOException, InterruptedException;
+    }
+
+    private record Pending(Action action, CompletableFuture<Object> result) {
+    }
+
+    private final ReentrantLock[] stripes;
+    private final ConcurrentHashMap<String, Pending> tails = new ConcurrentHashMap<>();
+    private final Map<Action, AtomicLong> coalesced = new EnumMap<>(Action.class);
+    private final Map<Action, AtomicLong> queued = new EnumMap<>(Action.class);
+
+    public ProjectOperationCoordinator(@Value("${docker.operations.lock-stripes:64}") int stripeCount,
+                                       MeterRegistry meterRegistry) {
+        stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        for (Action action : Action.values()) {
+            AtomicLong coalescedCount = new AtomicLong();
+            AtomicLong queuedCount = new AtomicLong();
+            coalesced.put(action, coalescedCount);
+            queued.put(action, queuedCount);
+            String tag = action.name().toLowerCase();
+            meterRegistry.more().counter("mock.operations.coalesced", Tags.of("action", tag), coalescedCount);
+            meterRegistry.more().counter("mock.operations.queued", Tags.of("action", tag), queuedCount);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T run(String projectName, Action action, Operation<T> operation) throws IOException, InterruptedException {
+        Pending mine = new Pending(action, new CompletableFuture<>());
+        Pending current = tails.compute(projectName, (name, last) ->
+                last != null && action.coalescable() && last.action() == action && !last.result().isDone() ? last : mine);
+
+        if (current != mine) {
+            coalesced.get(action).incrementAndGet();
+            logger.info("[OPERATIONS] " + action + " déjà demandé pour " + projectName + ", demande rattachée");
+            return (T) await(current.result());
+        }
+
+        ReentrantLock lock = stripes[Math.floorMod(projectName.hashCode(), stripes.length)];
+        // tryLock() sans délai passerait devant les demandes déjà en attente : délai nul, équité respectée
+        try {
+            if (!lock.tryLock(0, TimeUnit.NANOSECONDS)) {
+                queued.get(action).incrementAndGet();
+                lock.lockInterruptibly();
+            }
+        } catch (InterruptedException e) {
+            tails.remove(projectName, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+        try {
+            T value = operation.call();
+            mine.result().complete(value);
+            return value;
+        } catch (IOException | InterruptedException | RuntimeException | Error e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            tails.remove(projectName, mine);
+            lock.unlock();
+        }
+    }
+
+    /** Compteurs de demandes rattachées et mises en attente, par action */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Action action : Action.values()) {
+            stats.put(action.name().toLowerCase(), Map.of(
+                    "coalesced", coalesced.get(action).get(),
+                    "queued", queued.get(action).get()));
+        }
+        return stats;
+    }
+
+    private static Object await(CompletableFuture<Object> result) throws IOException, InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof InterruptedException) throw new IOException("Opération interrompue", cause);
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.imposter.mockimposter.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Suivi d'une création de projet asynchrone : étape courante, durée de chaque étape et erreur éventuelle.
+ * Mis à jour par un seul worker, lu par les appels GET /api/projects/jobs/{id}.
+ * Les changements d'étape et les lignes du générateur sont aussi journalisés (journal borné,
+ * les plus anciens événements sont écartés) pour le flux GET /api/projects/jobs/{id}/events.
+ * Une régénération groupée suit de même ses projets un à un, résultat de chacun dans results.
+ */
+public class ProvisioningJob {
+
+    public enum Stage {QUEUED, UPLOAD, PERSIST, GENERATE, PERMISSIONS, DONE, FAILED}
+
+    public static final int DEFAULT_EVENT_CAPACITY = 1000;
+
+    // Une ligne de générateur démesurée ne doit pas remplir le tas à elle seule
+    static final int MAX_LINE_LENGTH = 4000;
+
+    /**
+     * @param id   numéro croissant, sert d'identifiant SSE (reprise via Last-Event-ID)
+     * @param type "stage" (changement d'étape, line = erreur éventuelle) ou "output" (ligne du générateur)
+     */
+    public record ProgressEvent(long id, String type, Stage stage, String line, Instant at) {
+    }
+
+    /**
+     * @param events événements suivant celui demandé, dans l'ordre
+     * @param missed événements écartés du journal avant d'avoir été lus
+     */
+    public record EventSlice(List<ProgressEvent> events, long missed) {
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String projectName;
+    private final String username;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Stage stage = Stage.QUEUED;
+    private volatile Long projectId;
+    private volatile String error;
+    private volatile Instant finishedAt;
+    private final Map<Stage, Long> timingsMs = new LinkedHashMap<>();
+
+    private long stageStart = System.nanoTime();
+
+    private final int eventCapacity;
+    private final ArrayDeque<ProgressEvent> events = new ArrayDeque<>();
+    private long lastEventId;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final List<Map<String, Object>> results = new CopyOnWriteArrayList<>();
+
+    public ProvisioningJob(String projectName, String username) {
+        this(projectName, username, DEFAULT_EVENT_CAPACITY);
+    }
+
+    public ProvisioningJob(String projectName, String username, int eventCapacity) {
+        this.projectName = projectName;
+        this.username = username;
+        this.eventCapacity = Math.max(1, eventCapacity);
+    }
+
+    /** Termine l'étape courante (durée mesurée) et passe à la suivante */
+    void enter(Stage next) {
+        synchronized (this) {
+            long now = System.nanoTime();
+            timingsMs.put(stage, (now - stageStart) / 1_000_000);
+            stage = next;
+            stageStart = now;
+            if (next == Stage.DONE || next == Stage.FAILED) {
+                finishedAt = Instant.now();
+            }
+            append("stage", next, next == Stage.FAILED ? error : null);
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    void fail(String message) {
+        synchronized (this) {
+            error = message;
+        }
+        enter(Stage.FAILED);
+    }
+
+    /** Ligne de sortie du générateur */
+    void output(String line) {
+        synchronized (this) {
+            append("output", stage, line.length() > MAX_LINE_LENGTH ? line.substring(0, MAX_LINE_LENGTH) + "…" : line);
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    private void append(String type, Stage eventStage, String line) {
+        if (events.size() >= eventCapacity) events.removeFirst();
+        events.addLast(new ProgressEvent(++lastEventId, type, eventStage, line, Instant.now()));
+    }
+
+    /** Événements postérieurs à afterId (0 : depuis le début du journal) */
+    public synchronized EventSlice eventsAfter(long afterId) {
+        List<ProgressEvent> slice = new ArrayList<>();
+        long firstRetained = events.isEmpty() ? lastEventId + 1 : events.peekFirst().id();
+        for (ProgressEvent event : events) {
+            if (event.id() > afterId) slice.add(event);
+        }
+        return new EventSlice(slice, Math.max(0, firstRetained - afterId - 1));
+    }
+
+    /** Numéro du dernier événement journalisé */
+    public synchronized long lastEventId() {
+        return lastEventId;
+    }
+
+    /** Libère le journal (le suivi d'étape reste consultable) */
+    synchronized void releaseEvents() {
+        events.clear();
+    }
+
+    /** @param listener appelé après chaque nouvel événement, sur le thread du worker */
+    void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /** Résultat d'un projet d'une régénération groupée, aussi journalisé en ligne de sortie */
+    void result(Map<String, Object> entry) {
+        results.add(entry);
+        output(entry.get("projectName") + " : " + entry.get("outcome"));
+    }
+
+    void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized Map<Stage, Long> getTimingsMs() {
+        return new LinkedHashMap<>(timingsMs);
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public List<Map<String, Object>> getResults() {
+        return List.copyOf(results);
+    }
+
+    /** Nombre de projets par résultat (unchanged, regenerated, failed) */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public Map<String, Integer> getSummary() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        results.forEach(entry -> counts.merge(String.valueOf(entry.get("outcome")), 1, Integer::sum));
+        return counts;
+    }
+}
@@ -0,0 +1,340 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.GenerationStatus;
+import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.entities.ServingMode;
+import com.imposter.mockimposter.entities.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Création de projets en tâche de fond : la requête HTTP ne fait que déposer les fichiers,
+ * un pool borné de workers enchaîne ensuite enregistrement, génération et permissions.
+ */
+@Service
+public class ProvisioningService {
+
+    private static final Logger logger = Logger.getLogger(ProvisioningService.class.getName());
+
+    @Autowired
+    private MockProjectService mockProjectService;
+
+    @Value("${provisioning.workers:4}")
+    private int workers;
+
+    @Value("${provisioning.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${provisioning.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    // Journal d'événements par création (étapes + lignes du générateur)
+    @Value("${provisioning.events.capacity:1000}")
+    private int eventCapacity;
+
+    // Durée de conservation du journal après la fin d'une création
+    @Value("${provisioning.events.retention-minutes:5}")
+    private long eventRetentionMinutes;
+
+    /** Destination des événements d'un abonné (flux SSE côté contrôleur) */
+    public interface ProgressSink {
+        void event(ProvisioningJob.ProgressEvent event) throws IOException;
+
+        /** count événements écartés du journal avant d'avoir été envoyés */
+        void missed(long count) throws IOException;
+
+        /** Création terminée et tous ses événements envoyés */
+        void end();
+    }
+
+    private ThreadPoolExecutor executor;
+    private final Map<String, ProvisioningJob> jobs = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender = Executors.newCachedThreadPool(new java.util.concurrent.ThreadFactory() {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "provisioning-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "provisioning-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("[PROVISIONING] " + workers + " worker(s), file d'attente de " + queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        sender.shutdownNow();
+    }
+
+    /**
+     * Dépose les fichiers (sur le thread de la requête, les MultipartFile ne survivant pas à celle-ci)
+     * puis planifie la suite du pipeline.
+     *
+     * @throws RejectedExecutionException   si la file des créations est pleine
+     * @throws ProjectNameConflictException projet du même nom existant ou déjà en cours de création
+     */
+    public ProvisioningJob submit(String projectName, MultipartFile wsdlFile, MultipartFile xsdFile,
+                                  ServingMode servingMode) throws IOException {
+        return submit(projectName, servingMode, () -> mockProjectService.stageUploads(projectName, wsdlFile, xsdFile));
+    }
+
+    /**
+     * Création à partir du corps brut d'une requête (WSDL ou archive .zip), lu en flux sur le thread
+     * de la requête.
+     *
+     * @throws UploadLimitException si l'envoi dépasse les plafonds de dépôt
+     */
+    public ProvisioningJob submitStream(String projectName, String fileName, InputStream body, long declaredLength,
+                                        ServingMode servingMode) throws IOException {
+        return submit(projectName, servingMode,
+                () -> mockProjectService.stageStream(projectName, fileName, body, declaredLength));
+    }
+
+    @FunctionalInterface
+    private interface Stager {
+        MockProjectService.StagedUpload stage() throws IOException;
+    }
+
+    private ProvisioningJob submit(String projectName, ServingMode servingMode, Stager stager) throws IOException {
+        purgeExpiredJobs();
+
+        User user = mockProjectService.getCurrentUser();
+        // Nom réservé dès maintenant et jusqu'à l'enregistrement : un doublon est refusé avant tout dépôt
+        mockProjectService.reserveProjectName(user, projectName);
+
+        ProvisioningJob job = new ProvisioningJob(projectName, user.getUsername(), eventCapacity);
+        MockProjectService.StagedUpload staged = null;
+        try {
+            job.enter(ProvisioningJob.Stage.UPLOAD);
+            staged = stager.stage();
+            job.enter(ProvisioningJob.Stage.QUEUED);
+
+            MockProjectService.StagedUpload accepted = staged;
+            executor.execute(() -> run(job, user, accepted, servingMode));
+        } catch (IOException | RuntimeException e) {
+            if (staged != null) mockProjectService.discardStagedUpload(staged);
+            mockProjectService.releaseProjectName(user, projectName);
+            throw e;
+        }
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void run(ProvisioningJob job, User user, MockProjectService.StagedUpload staged, ServingMode servingMode) {
+        try {
+            job.enter(ProvisioningJob.Stage.PERSIST);
+            MockProject project = mockProjectService.persistProject(user, job.getProjectName(), staged, servingMode);
+            job.setProjectId(project.getId());
+        } catch (Exception e) {
+            logger.warning("[PROVISIONING] " + job.getProjectName() + " : enregistrement impossible : " + e.getMessage());
+            mockProjectService.discardStagedUpload(staged);
+            job.fail(e.getMessage());
+            return;
+        } finally {
+            // Projet en base (ou création abandonnée) : la vérification en base prend le relais
+            mockProjectService.releaseProjectName(user, job.getProjectName());
+        }
+
+        try {
+            job.enter(ProvisioningJob.Stage.GENERATE);
+            mockProjectService.generateArtifacts(job.getProjectName(), staged, line -> {
+                logger.info("[GENERATOR] " + job.getProjectName() + " : " + line);
+                job.output(line);
+            });
+
+            job.enter(ProvisioningJob.Stage.PERMISSIONS);
+            mockProjectService.fixProjectPermissions(staged.projectPath());
+
+            mockProjectService.markGenerated(job.getProjectId(), staged);
+            job.enter(ProvisioningJob.Stage.DONE);
+        } catch (Exception e) {
+            logger.severe("[PROVISIONING] " + job.getProjectName() + " : échec à l'étape " + job.getStage()
+                    + " : " + e.getMessage());
+            // L'échec est conservé sur le projet, visible dans la liste des projets
+            try {
+                mockProjectService.markGeneration(job.getProjectId(), GenerationStatus.FAILED, e.getMessage());
+            } catch (Exception markError) {
+                logger.warning("[PROVISIONING] Statut non enregistré : " + markError.getMessage());
+            }
+            job.fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Régénère les projets de l'utilisateur courant un à un sur un worker du pool : seuls ceux dont
+     * les entrées ont changé sont traités (tous avec force). Résultat de chaque projet dans le job.
+     *
+     * @throws RejectedExecutionException si la file des créations est pleine
+     */
+    public ProvisioningJob submitRegeneration(boolean force) {
+        purgeExpiredJobs();
+
+        User user = mockProjectService.getCurrentUser();
+        List<MockProject> projects = mockProjectService.getProjectsByCurrentUser();
+        ProvisioningJob job = new ProvisioningJob(null, user.getUsername(), eventCapacity);
+        executor.execute(() -> regenerateAll(job, projects, force));
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void regenerateAll(ProvisioningJob job, List<MockProject> projects, boolean force) {
+        job.enter(ProvisioningJob.Stage.GENERATE);
+        for (MockProject project : projects) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("projectName", project.getName());
+            String outcome;
+            try {
+                MockProjectService.Regeneration result = mockProjectService.regenerate(project, null, null, force);
+                outcome = result.outcome();
+                entry.put("changed", result.changed());
+                entry.put("artifacts", result.artifacts());
+                entry.put("restartRequired", result.restartRequired());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                job.fail("Régénération interrompue");
+                return;
+            } catch (Exception e) {
+                outcome = "failed";
+                entry.put("message", e.getMessage());
+            }
+            entry.put("outcome", outcome);
+            job.result(entry);
+        }
+        logger.info("[PROVISIONING] Régénération groupée terminée : " + job.getSummary());
+        job.enter(ProvisioningJob.Stage.DONE);
+    }
+
+    /** Job visible uniquement par l'utilisateur qui l'a lancé */
+    public Optional<ProvisioningJob> getJob(String jobId, String username) {
+        purgeExpiredJobs();
+        return Optional.ofNullable(jobs.get(jobId)).filter(job -> job.getUsername().equals(username));
+    }
+
+    /**
+     * Abonnement aux événements d'une création : ceux du journal postérieurs à lastEventId, puis
+     * les suivants au fil de l'eau. Chaque abonné lit le journal à son rythme sur un thread
+     * d'envoi : un client lent ne bloque pas la création, il perd au pire les événements écartés
+     * du journal entre deux lectures et en reçoit le nombre.
+     *
+     * @return vide si le job n'existe pas ou appartient à un autre utilisateur
+     */
+    public Optional<Closeable> subscribe(String jobId, String username, long lastEventId, ProgressSink sink) {
+        return getJob(jobId, username).map(job -> {
+            Subscription subscription = new Subscription(job, lastEventId, sink);
+            job.addListener(subscription.listener);
+            subscription.schedule();
+            return subscription;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${provisioning.events.purge-interval-ms:60000}")
+    public void purgeExpiredJobs() {
+        Instant limit = Instant.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+
+        Instant eventLimit = Instant.now().minus(Duration.ofMinutes(eventRetentionMinutes));
+        jobs.values().stream()
+                .filter(job -> job.isFinished() && job.getFinishedAt().isBefore(eventLimit))
+                .forEach(ProvisioningJob::releaseEvents);
+    }
+
+    private final class Subscription implements Closeable {
+        private final ProvisioningJob job;
+        private final ProgressSink sink;
+        private final Runnable listener = this::schedule;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean dirty;
+        private volatile boolean closed;
+        private long lastSent;
+
+        Subscription(ProvisioningJob job, long lastEventId, ProgressSink sink) {
+            this.job = job;
+            this.sink = sink;
+            this.lastSent = Math.max(0, lastEventId);
+        }
+
+        void schedule() {
+            dirty = true;
+            if (!closed && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            boolean finished = false;
+            try {
+                while (dirty && !closed) {
+                    dirty = false;
+                    // Fin lue avant le journal : le dernier événement est alors forcément dans la tranche
+                    finished = job.isFinished();
+                    ProvisioningJob.EventSlice slice = job.eventsAfter(lastSent);
+                    if (slice.missed() > 0) sink.missed(slice.missed());
+                    for (ProvisioningJob.ProgressEvent event : slice.events()) {
+                        sink.event(event);
+                        lastSent = event.id();
+                    }
+                    if (slice.missed() > 0 && slice.events().isEmpty()) lastSent = job.lastEventId();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Client parti : l'abonnement est fermé par le contrôleur
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            if (finished) {
+                close();
+                sink.end();
+            } else if (dirty) {
+                schedule();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            job.removeListener(listener);
+        }
+    }
+}
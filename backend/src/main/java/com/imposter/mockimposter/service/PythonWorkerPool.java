@@ -0,0 +1,324 @@
+package com.imposter.mockimposter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Exécution des scripts script_py (generate, docker_control) par des processus Python
+ * longue durée (script_py/worker.py) : l'interpréteur et les imports (typer, yaml, lxml) ne sont
+ * payés qu'au lancement du worker. Les workers sont démarrés à la première demande ; sans worker
+ * disponible, le script est lancé comme avant dans un processus dédié. Après un démarrage raté
+ * (interpréteur ou modules absents), les workers ne sont retentés qu'après un délai qui double à
+ * chaque nouvel échec.
+ */
+@Component
+public class PythonWorkerPool {
+
+    private static final Logger logger = Logger.getLogger(PythonWorkerPool.class.getName());
+    private static final boolean IS_WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
+
+    private static final String WORKER_SCRIPT = "worker.py";
+
+    @Autowired
+    private ProcessSupervisor processSupervisor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${script.py.global.dir:script_py}")
+    private String scriptDirPath;
+
+    @Value("${python.workers.enabled:true}")
+    private boolean enabled;
+
+    @Value("${python.workers.size:2}")
+    private int size;
+
+    // Attente d'un worker libre avant de repasser par un processus dédié
+    @Value("${python.workers.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMs;
+
+    @Value("${python.workers.startup-timeout-ms:30000}")
+    private long startupTimeoutMs;
+
+    // Démarrage raté : délai avant un nouvel essai, doublé à chaque échec consécutif jusqu'au plafond
+    @Value("${python.workers.retry-initial-ms:5000}")
+    private long retryInitialMs;
+
+    @Value("${python.workers.retry-max-ms:300000}")
+    private long retryMaxMs;
+
+    private final AtomicInteger startFailures = new AtomicInteger();
+    private volatile long retryAt;
+
+    private volatile String interpreter;
+
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger live = new AtomicInteger();
+
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "python-worker-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Interpréteur Python du PATH, détecté une seule fois */
+    public String interpreter() throws IOException, InterruptedException {
+        String detected = interpreter;
+        if (detected != null) return detected;
+        synchronized (this) {
+            if (interpreter == null) interpreter = detectPython();
+            return interpreter;
+        }
+    }
+
+    /**
+     * Exécute script_py/{script}.py avec ses arguments de ligne de commande.
+     *
+     * @param environment variables ajoutées pour cette exécution seulement
+     */
+    public ProcessSupervisor.Result run(String script, List<String> args, Map<String, String> environment,
+                                        Duration timeout, Consumer<String> onLine) throws IOException, InterruptedException {
+        Worker worker = enabled ? acquire() : null;
+        if (worker != null) {
+            return worker.execute(script, args, environment, timeout, onLine);
+        }
+
+        List<String> command = new ArrayList<>();
+        if (IS_WINDOWS) {
+            command.add("cmd");
+            command.add("/c");
+        }
+        command.add(interpreter());
+        command.add(script + ".py");
+        command.addAll(args);
+        return processSupervisor.run("python:" + script, command, scriptDir(), environment,
+                timeout, ProcessSupervisor.DEFAULT_TAIL_LINES, onLine);
+    }
+
+    /** Workers démarrés (occupés ou libres) */
+    public int liveWorkers() {
+        return live.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            worker.discard();
+        }
+    }
+
+    private Worker acquire() throws InterruptedException {
+        Worker worker = idle.poll();
+        if (worker != null) return worker;
+
+        int current = live.get();
+        while (current < size) {
+            // Dernier démarrage raté : processus par appel jusqu'à l'échéance du prochain essai
+            if (startFailures.get() > 0 && System.nanoTime() - retryAt < 0) return null;
+            if (live.compareAndSet(current, current + 1)) {
+                try {
+                    Worker started = startWorker();
+                    startFailures.set(0);
+                    return started;
+                } catch (IOException | RuntimeException e) {
+                    live.decrementAndGet();
+                    // Modules manquants ou interpréteur absent : pas de nouvel essai à chaque appel
+                    long delayMs = retryDelayMs(startFailures.incrementAndGet());
+                    retryAt = System.nanoTime() + delayMs * 1_000_000;
+                    logger.warning("[PYTHON] Worker non démarré, exécution dans un processus par appel, nouvel essai dans "
+                            + delayMs + " ms : " + e.getMessage());
+                    return null;
+                }
+            }
+            current = live.get();
+        }
+        return idle.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private long retryDelayMs(int failures) {
+        long delay = Math.max(1, retryInitialMs) << Math.min(failures - 1, 30);
+        return delay <= 0 ? retryMaxMs : Math.min(delay, retryMaxMs);
+    }
+
+    private Worker startWorker() throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        if (IS_WINDOWS) {
+            command.add("cmd");
+            command.add("/c");
+        }
+        command.add(interpreter());
+        command.add(WORKER_SCRIPT);
+
+        Map<String, String> environment = new HashMap<>();
+        environment.put("PYTHONIOENCODING", "utf-8");
+        environment.put("PYTHONUNBUFFERED", "1");
+
+        long start = System.nanoTime();
+        Process process = processSupervisor.spawn("python-worker", command, scriptDir(), environment,
+                line -> logger.info("[PYTHON] " + line));
+        Worker worker = new Worker(process);
+
+        // Attente du message {"ready": true}, émis une fois les imports faits
+        ScheduledFuture<?> deadline = watchdog.schedule(() -> processSupervisor.kill(process),
+                startupTimeoutMs, TimeUnit.MILLISECONDS);
+        try {
+            String line = worker.out.readLine();
+            if (line == null || !objectMapper.readTree(line).path("ready").asBoolean()) {
+                throw new IOException("le worker Python s'est arrêté au démarrage (code "
+                        + (process.isAlive() ? "?" : process.exitValue()) + ")");
+            }
+        } catch (IOException e) {
+            processSupervisor.kill(process);
+            throw e;
+        } finally {
+            deadline.cancel(false);
+        }
+        logger.info("[PYTHON] Worker " + process.pid() + " prêt en " + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms");
+        return worker;
+    }
+
+    private Path scriptDir() {
+        return Paths.get(scriptDirPath).toAbsolutePath().normalize();
+    }
+
+    private String detectPython() throws IOException, InterruptedException {
+        String[] candidates = IS_WINDOWS ?
+                new String[]{"python.exe", "python", "py.exe", "py"} :
+                new String[]{"python3", "python"};
+
+        for (String cmd : candidates) {
+            try {
+                List<String> testCmd = IS_WINDOWS ? List.of("cmd", "/c", cmd, "--version") : List.of(cmd, "--version");
+                if (processSupervisor.run("python:version", testCmd, Duration.ofSeconds(10)).succeeded()) {
+                    logger.info("[PYTHON] Interpréteur Python détecté : " + cmd);
+                    return cmd;
+                }
+            } catch (IOException ignored) {
+                // Commande absente du PATH
+            }
+        }
+        throw new RuntimeException("Aucun interpréteur Python trouvé dans le PATH.");
+    }
+
+    /** Un processus worker.py ; une commande à la fois */
+    private final class Worker {
+        private final Process process;
+        private final BufferedWriter in;
+        private final BufferedReader out;
+        private long nextId;
+
+        Worker(Process process) {
+            this.process = process;
+            this.in = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        ProcessSupervisor.Result execute(String script, List<String> args, Map<String, String> environment,
+                                         Duration timeout, Consumer<String> onLine) throws IOException {
+            long id = ++nextId;
+            String metricName = "python-worker:" + script;
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long start = System.nanoTime();
+            ProcessSupervisor.OutputTail output = new ProcessSupervisor.OutputTail(ProcessSupervisor.DEFAULT_TAIL_LINES);
+
+            // Échéance : le worker est tué, ce qui débloque la lecture ci-dessous
+            AtomicBoolean timedOut = new AtomicBoolean();
+            ScheduledFuture<?> deadline = watchdog.schedule(() -> {
+                timedOut.set(true);
+                processSupervisor.kill(process);
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            Integer exitCode = null;
+            try {
+                ObjectNode request = objectMapper.createObjectNode().put("id", id).put("script", script);
+                args.forEach(request.putArray("args")::add);
+                ObjectNode env = request.putObject("env");
+                environment.forEach(env::put);
+                in.write(objectMapper.writeValueAsString(request));
+                in.newLine();
+                in.flush();
+
+                String line;
+                while (exitCode == null && (line = out.readLine()) != null) {
+                    JsonNode message = objectMapper.readTree(line);
+                    if (message.path("id").asLong() != id) continue;
+                    if (message.has("line")) {
+                        String text = message.get("line").asText();
+                        output.add(text);
+                        onLine.accept(text);
+                    } else if (message.has("exit")) {
+                        exitCode = message.get("exit").asInt();
+                    }
+                }
+            } catch (IOException e) {
+                logger.warning("[PYTHON] Worker " + process.pid() + " perdu : " + e.getMessage());
+            } catch (RuntimeException | Error e) {
+                // Lecture interrompue en cours de commande (onLine en échec...) : la sortie du worker
+                // n'est plus synchronisée avec le protocole, il est arrêté plutôt que rendu au pool
+                deadline.cancel(false);
+                discard();
+                processSupervisor.record(sample, metricName, ProcessSupervisor.Outcome.FAILURE.name().toLowerCase());
+                throw e;
+            } finally {
+                deadline.cancel(false);
+            }
+
+            ProcessSupervisor.Outcome outcome;
+            if (exitCode == null) {
+                discard();
+                outcome = timedOut.get() ? ProcessSupervisor.Outcome.TIMEOUT : ProcessSupervisor.Outcome.FAILURE;
+                if (outcome == ProcessSupervisor.Outcome.TIMEOUT) {
+                    logger.warning("[PYTHON] " + script + " dépasse " + timeout.toMillis() + " ms, worker arrêté");
+                }
+            } else {
+                idle.offer(this);
+                outcome = exitCode == 0 ? ProcessSupervisor.Outcome.SUCCESS : ProcessSupervisor.Outcome.FAILURE;
+            }
+            processSupervisor.record(sample, metricName, outcome.name().toLowerCase());
+            return new ProcessSupervisor.Result(exitCode != null ? exitCode : -1, outcome, output.lines(),
+                    output.dropped(), Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        void discard() {
+            live.decrementAndGet();
+            processSupervisor.kill(process);
+        }
+    }
+}
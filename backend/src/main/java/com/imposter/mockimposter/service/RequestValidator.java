@@ -0,0 +1,434 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.MockProject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Validation facultative des requêtes mock (validation.requests.enabled) : le premier élément du
+ * Body est vérifié contre les schémas du projet (types du WSDL et XSD déposé).
+ *
+ * Compiler un {@link Schema} coûte cher : les schémas compilés sont gardés dans un cache LRU
+ * indexé par projet et empreintes des entrées (WSDL, XSD, autres schémas : une régénération donne
+ * une nouvelle clé), chacun avec une réserve de {@link Validator} réutilisés (un Validator n'est
+ * pas partagé entre threads). Une compilation en cours est attendue par les requêtes concurrentes,
+ * jamais relancée ; une compilation échouée n'est gardée que quelques secondes.
+ */
+@Service
+public class RequestValidator {
+
+    private static final Logger logger = Logger.getLogger(RequestValidator.class.getName());
+
+    public static final String HEADER = "X-Mock-Validation";
+    public static final String ERRORS_HEADER = "X-Mock-Validation-Errors";
+
+    private static final int MAX_ERRORS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheEvictions;
+
+    @Value("${validation.requests.enabled:false}")
+    private boolean enabled;
+
+    // Requête non conforme : faute SOAP au lieu de la réponse du mock (sinon simple en-tête)
+    @Value("${validation.requests.reject-invalid:false}")
+    private boolean rejectInvalid;
+
+    // Corps plus gros : relayé sans validation
+    @Value("${validation.requests.max-bytes:10485760}")
+    private long maxBytes;
+
+    @Value("${validation.schema-cache.size:32}")
+    private int cacheSize;
+
+    @Value("${validation.validators-per-schema:4}")
+    private int validatorsPerSchema;
+
+    // Échec de compilation (fichier en cours d'écriture, import manquant) : nouvel essai passé ce délai
+    @Value("${validation.schema-cache.failure-ttl-ms:30000}")
+    private long failureTtlMs;
+
+    // Tag project sur le timer mock.validation.requests : une série par projet, à activer au besoin
+    @Value("${validation.metrics.per-project:false}")
+    private boolean perProjectMetrics;
+
+    private final XMLInputFactory inputFactory;
+
+    private final Map<String, CompletableFuture<CompiledSchema>> schemas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<CompiledSchema>> eldest) {
+            if (size() <= cacheSize) return false;
+            cacheEvictions.increment();
+            return true;
+        }
+    };
+
+    public enum Status {
+        VALID, INVALID, SKIPPED;
+
+        public String header() {
+            return name().toLowerCase();
+        }
+    }
+
+    public record Result(Status status, List<String> errors) {
+
+        /** En-têtes de réponse : statut, et premières erreurs sur une ligne */
+        public Map<String, String> headers() {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put(HEADER, status.header());
+            if (!errors.isEmpty()) {
+                String joined = String.join(" | ", errors).replaceAll("[\\r\\n]+", " ");
+                headers.put(ERRORS_HEADER, joined.length() > 500 ? joined.substring(0, 500) : joined);
+            }
+            return headers;
+        }
+    }
+
+    /**
+     * Schéma compilé et ses Validator disponibles ; schema null = rien à valider (skipReason).
+     * expiresAt (System.nanoTime) : échec de compilation à retenter, 0 si gardé jusqu'à éviction.
+     */
+    private static final class CompiledSchema {
+        final Schema schema;
+        final String skipReason;
+        final BlockingQueue<Validator> validators;
+        final long expiresAt;
+
+        CompiledSchema(Schema schema, String skipReason, int poolSize) {
+            this(schema, skipReason, poolSize, 0);
+        }
+
+        CompiledSchema(Schema schema, String skipReason, int poolSize, long expiresAt) {
+            this.schema = schema;
+            this.skipReason = skipReason;
+            this.validators = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+            this.expiresAt = expiresAt;
+        }
+
+        boolean expired() {
+            return expiresAt != 0 && System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    public RequestValidator(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.cacheHits = Counter.builder("mock.validation.schema-cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("mock.validation.schema-cache").tag("result", "miss").register(meterRegistry);
+        this.cacheEvictions = Counter.builder("mock.validation.schema-cache").tag("result", "evicted")
+                .register(meterRegistry);
+        Gauge.builder("mock.validation.schemas", this, v -> v.cachedSchemas()).register(meterRegistry);
+
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean rejectsInvalid() {
+        return rejectInvalid;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int cachedSchemas() {
+        synchronized (schemas) {
+            return schemas.size();
+        }
+    }
+
+    /** Schémas compilés d'un projet retirés du cache (projet supprimé ou régénéré) */
+    public void evict(String projectName) {
+        synchronized (schemas) {
+            schemas.keySet().removeIf(key -> key.startsWith(projectName + "@"));
+        }
+    }
+
+    public Result validate(MockProject project, byte[] body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Result result;
+        try {
+            result = doValidate(project, body);
+        } catch (RuntimeException e) {
+            logger.warning("[VALIDATION] " + project.getName() + " : validation impossible : " + e.getMessage());
+            result = new Result(Status.SKIPPED, List.of("Validation impossible : " + e.getMessage()));
+        }
+        sample.stop(perProjectMetrics
+                ? meterRegistry.timer("mock.validation.requests", "project", project.getName(),
+                "result", result.status().header())
+                : meterRegistry.timer("mock.validation.requests", "result", result.status().header()));
+        return result;
+    }
+
+    private Result doValidate(MockProject project, byte[] body) {
+        if (body == null || body.length == 0) {
+            return new Result(Status.SKIPPED, List.of());
+        }
+        CompiledSchema compiled = compiled(project);
+        if (compiled.schema == null) {
+            return new Result(Status.SKIPPED, compiled.skipReason != null ? List.of(compiled.skipReason) : List.of());
+        }
+
+        Validator validator = compiled.validators.poll();
+        if (validator == null) validator = compiled.schema.newValidator();
+        List<String> errors = new ArrayList<>();
+        try {
+            validator.setErrorHandler(new Collector(errors));
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(new ByteArrayInputStream(body));
+            try {
+                if (!toPayload(reader)) {
+                    return new Result(Status.INVALID, List.of("Body SOAP vide"));
+                }
+                validator.validate(new StAXSource(reader));
+            } finally {
+                reader.close();
+            }
+        } catch (SAXParseException e) {
+            // Erreur fatale déjà relevée par le Collector
+        } catch (SAXException | XMLStreamException | IOException e) {
+            errors.add(e.getMessage());
+        } finally {
+            validator.reset();
+            compiled.validators.offer(validator);
+        }
+        return new Result(errors.isEmpty() ? Status.VALID : Status.INVALID, List.copyOf(errors));
+    }
+
+    // Positionne le lecteur sur le premier élément du Body (ou la racine hors enveloppe SOAP)
+    private static boolean toPayload(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        boolean inBody = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if (depth == 1 && !"Envelope".equals(reader.getLocalName())) return true;
+                if (depth == 2) inBody = "Body".equals(reader.getLocalName());
+                if (depth == 3 && inBody) return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 2 && inBody) return false;
+                depth--;
+            }
+        }
+        return false;
+    }
+
+    private CompiledSchema compiled(MockProject project) {
+        String key = project.getName() + "@" + project.getWsdlHash() + ":" + project.getXsdHash() + ":"
+                + project.getImportsHash();
+        CompletableFuture<CompiledSchema> future;
+        boolean owner = false;
+        synchronized (schemas) {
+            future = schemas.get(key);
+            if (future != null && future.isDone() && future.join().expired()) {
+                schemas.remove(key);
+                future = null;
+            }
+            if (future == null) {
+                future = new CompletableFuture<>();
+                schemas.put(key, future);
+                owner = true;
+            }
+        }
+        if (!owner) {
+            cacheHits.increment();
+            return future.join();
+        }
+        cacheMisses.increment();
+        CompiledSchema compiled = null;
+        long start = System.nanoTime();
+        try {
+            compiled = compile(project);
+            logger.info("[VALIDATION] Schémas de " + project.getName() + " compilés en "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (Exception e) {
+            // Échec gardé en cache un court instant : pas de nouvelle compilation à chaque requête
+            logger.warning("[VALIDATION] Schémas de " + project.getName() + " inutilisables : " + e.getMessage());
+            compiled = new CompiledSchema(null, "Schéma du projet invalide : " + e.getMessage(), 0,
+                    System.nanoTime() + Math.max(1, failureTtlMs) * 1_000_000);
+        } catch (Error e) {
+            // Mémoire, pile... : les requêtes en attente échouent aussi, la prochaine recompile
+            synchronized (schemas) {
+                schemas.remove(key, future);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Jamais laissée en suspens : les requêtes qui l'attendent seraient bloquées pour toujours
+            if (compiled != null) future.complete(compiled);
+        }
+        return compiled;
+    }
+
+    private CompiledSchema compile(MockProject project) throws Exception {
+        List<Source> sources = new ArrayList<>();
+        if (project.getWsdlPath() != null && Files.isRegularFile(Paths.get(project.getWsdlPath()))) {
+            sources.addAll(inlineSchemas(Paths.get(project.getWsdlPath())));
+        }
+        if (project.getXsdPath() != null && Files.isRegularFile(Paths.get(project.getXsdPath()))) {
+            Path xsd = Paths.get(project.getXsdPath());
+            sources.add(new StreamSource(xsd.toFile()));
+        }
+        if (sources.isEmpty()) {
+            return new CompiledSchema(null, "Aucun schéma dans le projet", 0);
+        }
+
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        // Imports locaux seulement : les schémas distants ont été rapatriés par SchemaImportResolver
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "file");
+        factory.setResourceResolver(new ProjectResolver(projectDir(project)));
+        Schema schema = factory.newSchema(sources.toArray(new Source[0]));
+        return new CompiledSchema(schema, null, validatorsPerSchema);
+    }
+
+    private static Path projectDir(MockProject project) {
+        if (project.getPath() != null) return Paths.get(project.getPath());
+        Path wsdl = project.getWsdlPath() != null ? Paths.get(project.getWsdlPath()) : Paths.get(project.getXsdPath());
+        return wsdl.toAbsolutePath().getParent();
+    }
+
+    /**
+     * Imports et inclusions de fichiers limités au dossier du projet (liens symboliques suivis) :
+     * un schemaLocation ne peut pas faire lire un autre fichier du serveur. Les autres schémas
+     * (http...) restent soumis à ACCESS_EXTERNAL_SCHEMA, donc ignorés.
+     */
+    private static final class ProjectResolver implements LSResourceResolver {
+        private final Path root;
+
+        ProjectResolver(Path projectDir) throws IOException {
+            Path dir = projectDir.toAbsolutePath().normalize();
+            this.root = Files.exists(dir) ? dir.toRealPath() : dir;
+        }
+
+        @Override
+        public LSInput resolveResource(String type, String namespaceURI, String publicId, String systemId, String baseURI) {
+            if (systemId == null) return null;
+            URI target;
+            try {
+                target = (baseURI != null ? URI.create(baseURI) : root.toUri()).resolve(systemId.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Emplacement de schéma invalide : " + systemId);
+            }
+            if (!"file".equalsIgnoreCase(target.getScheme())) return null;
+
+            Path file = Paths.get(target).toAbsolutePath().normalize();
+            try {
+                if (Files.exists(file)) file = file.toRealPath();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (!file.startsWith(root)) {
+                throw new SecurityException("Schéma hors du dossier du projet refusé : " + systemId);
+            }
+            return null;
+        }
+    }
+
+    // Schémas de wsdl:types, détachés avec les préfixes déclarés plus haut dans le WSDL
+    private static List<Source> inlineSchemas(Path wsdl) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        Document document = builder.parse(wsdl.toFile());
+
+        List<Source> sources = new ArrayList<>();
+        var nodes = document.getElementsByTagNameNS(XMLConstants.W3C_XML_SCHEMA_NS_URI, "schema");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element schema = (Element) nodes.item(i);
+            Document standalone = builder.newDocument();
+            Element copy = (Element) standalone.importNode(schema, true);
+            for (Node parent = schema.getParentNode(); parent instanceof Element element; parent = parent.getParentNode()) {
+                NamedNodeMap attributes = element.getAttributes();
+                for (int a = 0; a < attributes.getLength(); a++) {
+                    Attr attr = (Attr) attributes.item(a);
+                    if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())
+                            && !copy.hasAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attr.getLocalName())) {
+                        copy.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attr.getName(), attr.getValue());
+                    }
+                }
+            }
+            standalone.appendChild(copy);
+            // Identifiant système du WSDL : les schemaLocation relatifs restent résolus depuis son dossier
+            sources.add(new DOMSource(standalone, wsdl.toUri().toString()));
+        }
+        return sources;
+    }
+
+    /** Erreurs relevées par le Validator, limitées aux premières */
+    private static final class Collector implements ErrorHandler {
+        private final List<String> errors;
+
+        Collector(List<String> errors) {
+            this.errors = errors;
+        }
+
+        @Override
+        public void warning(SAXParseException exception) {
+        }
+
+        @Override
+        public void error(SAXParseException exception) {
+            if (errors.size() < MAX_ERRORS) errors.add(exception.getMessage());
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            error(exception);
+            throw exception;
+        }
+    }
+}
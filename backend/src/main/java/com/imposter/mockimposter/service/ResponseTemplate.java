@@ -0,0 +1,124 @@
+package com.imposter.mockimposter.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Réponse d'opération précompilée : les octets du fichier découpés une fois pour toutes autour
+ * des emplacements ${...} reconnus. Servir une réponse revient à recopier les segments et à y
+ * intercaler les quelques valeurs calculées, sans reparser ni reconstruire de XML.
+ *
+ * Les emplacements reprennent la syntaxe des gabarits Imposter (template: true dans
+ * imposter-config.yaml) : le même fichier est servi à l'identique par le conteneur et par le
+ * moteur embarqué. Un ${...} inconnu est laissé tel quel.
+ */
+public final class ResponseTemplate {
+
+    enum Slot {
+        DATE("datetime.now.iso8601_date"),
+        DATETIME("datetime.now.iso8601_datetime"),
+        UUID("random.uuid()");
+
+        final String expression;
+
+        Slot(String expression) {
+            this.expression = expression;
+        }
+
+        byte[] value() {
+            return switch (this) {
+                case DATE -> DateTimeFormatter.ISO_LOCAL_DATE.format(OffsetDateTime.now(ZoneOffset.UTC))
+                        .getBytes(StandardCharsets.US_ASCII);
+                case DATETIME -> DateTimeFormatter.ISO_OFFSET_DATE_TIME
+                        .format(OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS))
+                        .getBytes(StandardCharsets.US_ASCII);
+                case UUID -> java.util.UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+            };
+        }
+
+        static Slot of(String expression) {
+            for (Slot slot : values()) {
+                if (slot.expression.equals(expression)) return slot;
+            }
+            return null;
+        }
+    }
+
+    // segments.length == slots.length + 1 : segment, emplacement, segment, ...
+    private final byte[][] segments;
+    private final Slot[] slots;
+    private final int fixedLength;
+
+    private ResponseTemplate(byte[][] segments, Slot[] slots) {
+        this.segments = segments;
+        this.slots = slots;
+        int length = 0;
+        for (byte[] segment : segments) length += segment.length;
+        this.fixedLength = length;
+    }
+
+    public static ResponseTemplate compile(byte[] content) {
+        List<byte[]> segments = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        while (i < content.length - 1) {
+            if (content[i] == '$' && content[i + 1] == '{') {
+                int end = indexOf(content, (byte) '}', i + 2);
+                if (end < 0) break;
+                Slot slot = Slot.of(new String(content, i + 2, end - i - 2, StandardCharsets.US_ASCII));
+                if (slot != null) {
+                    segments.add(Arrays.copyOfRange(content, start, i));
+                    slots.add(slot);
+                    start = end + 1;
+                }
+                i = end + 1;
+            } else {
+                i++;
+            }
+        }
+        segments.add(Arrays.copyOfRange(content, start, content.length));
+        return new ResponseTemplate(segments.toArray(new byte[0][]), slots.toArray(new Slot[0]));
+    }
+
+    private static int indexOf(byte[] content, byte b, int from) {
+        for (int i = from; i < content.length; i++) {
+            if (content[i] == b) return i;
+            if (content[i] == '<' || content[i] == '\n') return -1;
+        }
+        return -1;
+    }
+
+    /** Réponse sans emplacement : servie telle quelle, sans copie */
+    public boolean isStatic() {
+        return slots.length == 0;
+    }
+
+    public byte[] render() {
+        if (isStatic()) return segments[0];
+        byte[][] values = new byte[slots.length][];
+        int length = fixedLength;
+        for (int i = 0; i < slots.length; i++) {
+            values[i] = slots[i].value();
+            length += values[i].length;
+        }
+        byte[] out = new byte[length];
+        int position = 0;
+        for (int i = 0; i < slots.length; i++) {
+            System.arraycopy(segments[i], 0, out, position, segments[i].length);
+            position += segments[i].length;
+            System.arraycopy(values[i], 0, out, position, values[i].length);
+            position += values[i].length;
+        }
+        byte[] last = segments[slots.length];
+        System.arraycopy(last, 0, out, position, last.length);
+        return out;
+    }
+}
@@ -0,0 +1,650 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Réponses d'exemple des opérations d'un projet, dérivées des types XSD de leur message de sortie :
+ * une enveloppe SOAP valide par opération dans responses/&lt;opération&gt;.xml, servie par le mock
+ * à la place de l'écho de response.groovy (voir {@link SoapRoutingIndex}).
+ *
+ * Les schémas sont ceux du WSDL (types) et les fichiers qu'ils importent ou incluent, déjà rendus
+ * locaux par {@link SchemaImportResolver}. Les dates et identifiants sont des emplacements
+ * ${...} remplis à chaque réponse (voir {@link ResponseTemplate}).
+ *
+ * Un fichier dont la première ligne n'est plus le marqueur de génération a été repris à la main :
+ * il n'est jamais réécrit.
+ */
+@Component
+public class SampleResponseGenerator {
+
+    private static final Logger logger = Logger.getLogger(SampleResponseGenerator.class.getName());
+
+    static final String MARKER = "<!-- mock-imposter:sample (retirer cette ligne pour conserver le fichier) -->";
+
+    private static final String XSD_NS = XMLConstants.W3C_XML_SCHEMA_NS_URI;
+    private static final String SOAP11_ENV = "http://schemas.xmlsoap.org/soap/envelope/";
+    private static final String SOAP12_ENV = "http://www.w3.org/2003/05/soap-envelope";
+
+    @Autowired
+    private WsdlAnalyzer wsdlAnalyzer;
+
+    @Value("${responses.samples.enabled:true}")
+    private boolean enabled;
+
+    // Profondeur maximale d'imbrication des éléments : borne les types récursifs
+    @Value("${responses.samples.max-depth:12}")
+    private int maxDepth;
+
+    public SampleResponseGenerator() {
+    }
+
+    // Constructeur utilisé hors contexte Spring (tests)
+    SampleResponseGenerator(WsdlAnalyzer wsdlAnalyzer) {
+        this.wsdlAnalyzer = wsdlAnalyzer;
+        this.enabled = true;
+        this.maxDepth = 12;
+    }
+
+    /** @return nombre de réponses écrites ou mises à jour */
+    public int generate(Path wsdlPath, Path projectPath, Consumer<String> output) throws IOException {
+        if (!enabled) return 0;
+        WsdlDescriptor descriptor = wsdlAnalyzer.analyze(wsdlPath);
+        Schemas schemas = new Schemas();
+        schemas.load(wsdlPath);
+        boolean soap12 = descriptor.soapAddresses().isEmpty() && !descriptor.soap12Addresses().isEmpty();
+
+        Path responses = projectPath.resolve(ImposterConfigGenerator.RESPONSES_DIR);
+        Set<String> seen = new HashSet<>();
+        int written = 0;
+        int kept = 0;
+        List<String> skipped = new ArrayList<>();
+        for (WsdlDescriptor.SoapOperation operation : descriptor.operations()) {
+            if (!seen.add(operation.name())) continue;
+            if (operation.responseElement() == null) {
+                skipped.add(operation.name());
+                continue;
+            }
+            Sample payload = new Builder(schemas).payload(operation);
+            if (payload == null) {
+                skipped.add(operation.name());
+                continue;
+            }
+            Path file = responses.resolve(operation.name() + ".xml");
+            String content = envelope(payload, soap12);
+            if (Files.exists(file)) {
+                String current = Files.readString(file, StandardCharsets.UTF_8);
+                if (!isGenerated(current)) {
+                    kept++;
+                    continue;
+                }
+                if (current.equals(content)) continue;
+            }
+            Files.createDirectories(responses);
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+            written++;
+        }
+
+        output.accept("Réponses d'exemple : " + written + " écrite(s), " + kept + " conservée(s) (modifiées à la main)"
+                + (skipped.isEmpty() ? "" : ", sans schéma de sortie : " + skipped));
+        logger.fine("[SAMPLES] " + projectPath.getFileName() + " : " + written + " réponse(s) écrite(s)");
+        return written;
+    }
+
+    private static boolean isGenerated(String content) {
+        int line = content.indexOf('\n');
+        int next = line < 0 ? -1 : content.indexOf('\n', line + 1);
+        return line >= 0 && content.substring(line + 1, next < 0 ? content.length() : next).trim().equals(MARKER);
+    }
+
+    // ---- Schémas ----------------------------------------------------------------------------
+
+    /** Contexte d'un schéma : espace de noms cible et qualification des déclarations locales */
+    private record Ctx(String tns, boolean qualifiedElements, boolean qualifiedAttributes) {
+    }
+
+    private record Decl(Element node, Ctx ctx) {
+    }
+
+    /** Déclarations globales des schémas du WSDL et de ceux qu'ils importent ou incluent */
+    private static final class Schemas {
+        final Map<QName, Decl> elements = new HashMap<>();
+        final Map<QName, Decl> types = new HashMap<>();
+        final Map<QName, Decl> groups = new HashMap<>();
+        final Map<QName, Decl> attributeGroups = new HashMap<>();
+        final Map<QName, Decl> attributes = new HashMap<>();
+        private final Set<String> loaded = new HashSet<>();
+        private final DocumentBuilder builder;
+
+        Schemas() throws IOException {
+            try {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                factory.setNamespaceAware(true);
+                // Fichiers uploadés : ni DTD ni entités externes
+                factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+                factory.setXIncludeAware(false);
+                factory.setExpandEntityReferences(false);
+                builder = factory.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                throw new IOException(e);
+            }
+        }
+
+        void load(Path wsdl) throws IOException {
+            Document document = parse(wsdl);
+            if (document == null) return;
+            Element root = document.getDocumentElement();
+            if (XSD_NS.equals(root.getNamespaceURI()) && "schema".equals(root.getLocalName())) {
+                schema(root, wsdl, null);
+                return;
+            }
+            for (Element types : children(root, WsdlAnalyzer.WSDL_NS, "types")) {
+                for (Element schema : children(types, XSD_NS, "schema")) {
+                    schema(schema, wsdl, null);
+                }
+            }
+        }
+
+        private Document parse(Path file) throws IOException {
+            if (!loaded.add(file.toAbsolutePath().normalize() + "") || !Files.isRegularFile(file)) return null;
+            try {
+                return builder.parse(file.toFile());
+            } catch (SAXException e) {
+                throw new IOException("Schéma invalide (" + file.getFileName() + ") : " + e.getMessage(), e);
+            }
+        }
+
+        // chameleon : espace de noms de l'inclusion pour un schéma inclus qui n'en déclare pas
+        private void schema(Element schema, Path file, String chameleon) throws IOException {
+            String tns = schema.getAttribute("targetNamespace");
+            if (tns.isEmpty() && chameleon != null) tns = chameleon;
+            Ctx ctx = new Ctx(tns, "qualified".equals(schema.getAttribute("elementFormDefault")),
+                    "qualified".equals(schema.getAttribute("attributeFormDefault")));
+
+            for (Element child : children(schema, XSD_NS, null)) {
+                String name = child.getAttribute("name");
+                QName qname = new QName(tns, name);
+                switch (child.getLocalName()) {
+                    case "element" -> elements.putIfAbsent(qname, new Decl(child, ctx));
+                    case "complexType", "simpleType" -> types.putIfAbsent(qname, new Decl(child, ctx));
+                    case "group" -> groups.putIfAbsent(qname, new Decl(child, ctx));
+                    case "attributeGroup" -> attributeGroups.putIfAbsent(qname, new Decl(child, ctx));
+                    case "attribute" -> attributes.putIfAbsent(qname, new Decl(child, ctx));
+                    case "import", "include", "redefine" -> {
+                        String location = child.getAttribute("schemaLocation");
+                        // Référence distante non résolue par SchemaImportResolver : types inconnus
+                        if (location.isEmpty() || location.contains("://")) continue;
+                        Path included = file.resolveSibling(location).normalize();
+                        Document document = parse(included);
+                        if (document == null) continue;
+                        schema(document.getDocumentElement(), included,
+                                "import".equals(child.getLocalName()) ? null : tns);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    // ---- Construction de l'exemple ----------------------------------------------------------
+
+    /** Élément XML de la réponse en cours de construction */
+    private static final class Sample {
+        final QName name;
+        final Map<QName, String> attributes = new LinkedHashMap<>();
+        final List<Sample> children = new ArrayList<>();
+        String text;
+
+        Sample(QName name) {
+            this.name = name;
+        }
+    }
+
+    private final class Builder {
+        private final Schemas schemas;
+        // Types et éléments globaux en cours de développement : coupe les récursions
+        private final Deque<Object> stack = new ArrayDeque<>();
+
+        Builder(Schemas schemas) {
+            this.schemas = schemas;
+        }
+
+        Sample payload(WsdlDescriptor.SoapOperation operation) {
+            if (operation.responseParts().isEmpty()) {
+                Decl decl = schemas.elements.get(operation.responseElement());
+                return decl != null ? element(decl, true, 0) : null;
+            }
+            // rpc : enveloppe <opérationResponse>, une part non qualifiée par enfant
+            Sample wrapper = new Sample(operation.responseElement());
+            for (WsdlDescriptor.MessagePart part : operation.responseParts()) {
+                if (part.element() != null) {
+                    Decl decl = schemas.elements.get(part.element());
+                    if (decl != null) wrapper.children.add(element(decl, true, 1));
+                    continue;
+                }
+                Sample child = new Sample(new QName("", part.name()));
+                typed(child, part.type(), null, 1);
+                wrapper.children.add(child);
+            }
+            return wrapper;
+        }
+
+        private Sample element(Decl decl, boolean global, int depth) {
+            Element node = decl.node();
+            String ref = node.getAttribute("ref");
+            if (!ref.isEmpty()) {
+                Decl target = schemas.elements.get(qname(node, ref, decl.ctx()));
+                return target != null ? element(target, true, depth) : null;
+            }
+
+            String form = node.getAttribute("form");
+            boolean qualified = global || (form.isEmpty() ? decl.ctx().qualifiedElements() : "qualified".equals(form));
+            Sample element = new Sample(new QName(qualified ? decl.ctx().tns() : "", node.getAttribute("name")));
+            if (global && !enter(decl)) return element;
+            try {
+                String fixed = firstNonEmpty(node.getAttribute("fixed"), node.getAttribute("default"));
+                String type = node.getAttribute("type");
+                if (!type.isEmpty()) {
+                    typed(element, qname(node, type, decl.ctx()), decl.ctx(), depth);
+                } else {
+                    Element complex = child(node, "complexType");
+                    Element simple = child(node, "simpleType");
+                    if (complex != null) complexType(element, new Decl(complex, decl.ctx()), depth);
+                    else if (simple != null) element.text = simpleValue(new Decl(simple, decl.ctx()), element.name);
+                }
+                if (!fixed.isEmpty()) element.text = fixed;
+            } finally {
+                if (global) stack.pop();
+            }
+            return element;
+        }
+
+        private void typed(Sample target, QName type, Ctx ctx, int depth) {
+            if (type == null) return;
+            if (XSD_NS.equals(type.getNamespaceURI())) {
+                target.text = builtin(type.getLocalPart(), target.name);
+                return;
+            }
+            Decl decl = schemas.types.get(type);
+            if (decl == null) {
+                target.text = "?";
+            } else if ("simpleType".equals(decl.node().getLocalName())) {
+                target.text = simpleValue(decl, target.name);
+            } else if (enter(decl)) {
+                try {
+                    complexType(target, decl, depth);
+                } finally {
+                    stack.pop();
+                }
+            }
+        }
+
+        private void complexType(Sample target, Decl decl, int depth) {
+            for (Element child : children(decl.node(), XSD_NS, null)) {
+                switch (child.getLocalName()) {
+                    case "sequence", "all", "choice", "group" -> particle(target, new Decl(child, decl.ctx()), depth);
+                    case "attribute", "attributeGroup", "anyAttribute" -> attribute(target, new Decl(child, decl.ctx()));
+                    case "complexContent", "simpleContent" -> {
+                        Element derivation = firstChild(child);
+                        if (derivation == null) continue;
+                        QName base = qname(derivation, derivation.getAttribute("base"), decl.ctx());
+                        boolean extension = "extension".equals(derivation.getLocalName());
+                        if ("simpleContent".equals(child.getLocalName())) {
+                            Element facets = "restriction".equals(derivation.getLocalName()) ? derivation : null;
+                            target.text = facets != null ? restricted(new Decl(derivation, decl.ctx()), target.name)
+                                    : baseValue(base, target);
+                        } else if (extension && base != null) {
+                            typed(target, base, decl.ctx(), depth);
+                        }
+                        complexType(target, new Decl(derivation, decl.ctx()), depth);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        // Contenu texte hérité d'un type de base simple ou à contenu simple
+        private String baseValue(QName base, Sample target) {
+            if (base == null) return null;
+            if (XSD_NS.equals(base.getNamespaceURI())) return builtin(base.getLocalPart(), target.name);
+            Decl decl = schemas.types.get(base);
+            if (decl == null) return "?";
+            if ("simpleType".equals(decl.node().getLocalName())) return simpleValue(decl, target.name);
+            Sample probe = new Sample(target.name);
+            complexType(probe, decl, maxDepth);
+            target.attributes.putAll(probe.attributes);
+            return probe.text;
+        }
+
+        private void particle(Sample target, Decl decl, int depth) {
+            Element node = decl.node();
+            if ("0".equals(node.getAttribute("maxOccurs"))) return;
+            switch (node.getLocalName()) {
+                case "element" -> {
+                    // Élément facultatif qui relancerait un type en cours : omis plutôt que laissé vide
+                    if (depth >= maxDepth || "0".equals(node.getAttribute("minOccurs")) && recursive(decl)) return;
+                    Sample child = element(decl, false, depth + 1);
+                    if (child != null) target.children.add(child);
+                }
+                case "group" -> {
+                    String ref = node.getAttribute("ref");
+                    Decl group = ref.isEmpty() ? decl : schemas.groups.get(qname(node, ref, decl.ctx()));
+                    if (group == null) return;
+                    Element model = firstChild(group.node());
+                    if (model != null) particle(target, new Decl(model, group.ctx()), depth);
+                }
+                case "choice" -> {
+                    // Première branche de la choice
+                    Element first = firstChild(node, "element", "sequence", "choice", "group");
+                    if (first != null) particle(target, new Decl(first, decl.ctx()), depth);
+                }
+                case "sequence", "all" -> {
+                    for (Element child : children(node, XSD_NS, null)) {
+                        particle(target, new Decl(child, decl.ctx()), depth);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void attribute(Sample target, Decl decl) {
+            Element node = decl.node();
+            if ("prohibited".equals(node.getAttribute("use"))) return;
+            String ref = node.getAttribute("ref");
+            if ("attributeGroup".equals(node.getLocalName())) {
+                Decl group = !ref.isEmpty() ? schemas.attributeGroups.get(qname(node, ref, decl.ctx())) : decl;
+                if (group == null) return;
+                for (Element child : children(group.node(), XSD_NS, null)) {
+                    attribute(target, new Decl(child, group.ctx()));
+                }
+                return;
+            }
+            if (!"attribute".equals(node.getLocalName())) return;
+            if (!ref.isEmpty()) {
+                QName name = qname(node, ref, decl.ctx());
+                Decl global = schemas.attributes.get(name);
+                if (global != null) {
+                    target.attributes.put(name, attributeValue(global, name));
+                }
+                return;
+            }
+            String form = node.getAttribute("form");
+            boolean qualified = form.isEmpty() ? decl.ctx().qualifiedAttributes() : "qualified".equals(form);
+            QName name = new QName(qualified ? decl.ctx().tns() : "", node.getAttribute("name"));
+            target.attributes.put(name, attributeValue(decl, name));
+        }
+
+        private String attributeValue(Decl decl, QName name) {
+            Element node = decl.node();
+            String fixed = firstNonEmpty(node.getAttribute("fixed"), node.getAttribute("default"));
+            if (!fixed.isEmpty()) return fixed;
+            String type = node.getAttribute("type");
+            if (!type.isEmpty()) {
+                QName typeName = qname(node, type, decl.ctx());
+                if (XSD_NS.equals(typeName.getNamespaceURI())) return builtin(typeName.getLocalPart(), name);
+                Decl simple = schemas.types.get(typeName);
+                return simple != null ? simpleValue(simple, name) : "?";
+            }
+            Element simple = child(node, "simpleType");
+            return simple != null ? simpleValue(new Decl(simple, decl.ctx()), name) : builtin("string", name);
+        }
+
+        private String simpleValue(Decl decl, QName name) {
+            if (!enter(decl)) return "";
+            try {
+                Element node = decl.node();
+                Element restriction = child(node, "restriction");
+                if (restriction != null) return restricted(new Decl(restriction, decl.ctx()), name);
+                Element list = child(node, "list");
+                if (list != null) {
+                    String item = list.getAttribute("itemType");
+                    Element inline = child(list, "simpleType");
+                    return !item.isEmpty() ? valueOf(qname(list, item, decl.ctx()), name)
+                            : inline != null ? simpleValue(new Decl(inline, decl.ctx()), name) : "";
+                }
+                Element union = child(node, "union");
+                if (union != null) {
+                    String members = union.getAttribute("memberTypes").trim();
+                    if (!members.isEmpty()) return valueOf(qname(union, members.split("\\s+")[0], decl.ctx()), name);
+                    Element inline = child(union, "simpleType");
+                    return inline != null ? simpleValue(new Decl(inline, decl.ctx()), name) : "";
+                }
+                return builtin("string", name);
+            } finally {
+                stack.pop();
+            }
+        }
+
+        // Restriction : première valeur énumérée, sinon valeur du type de base ajustée aux facettes
+        private String restricted(Decl decl, QName name) {
+            Element restriction = decl.node();
+            Element enumeration = child(restriction, "enumeration");
+            if (enumeration != null) return enumeration.getAttribute("value");
+
+            String base = restriction.getAttribute("base");
+            Element inline = child(restriction, "simpleType");
+            String value = !base.isEmpty() ? valueOf(qname(restriction, base, decl.ctx()), name)
+                    : inline != null ? simpleValue(new Decl(inline, decl.ctx()), name) : builtin("string", name);
+            if (value == null || value.startsWith("${")) return value;
+
+            String minInclusive = facet(restriction, "minInclusive");
+            String minExclusive = facet(restriction, "minExclusive");
+            String maxInclusive = facet(restriction, "maxInclusive");
+            if (minInclusive != null) return minInclusive;
+            if (minExclusive != null && isNumber(minExclusive)) {
+                return new BigDecimal(minExclusive).add(BigDecimal.ONE).stripTrailingZeros().toPlainString();
+            }
+            if (maxInclusive != null && isNumber(value) && isNumber(maxInclusive)
+                    && new BigDecimal(value).compareTo(new BigDecimal(maxInclusive)) > 0) {
+                return maxInclusive;
+            }
+
+            String length = facet(restriction, "length");
+            String minLength = facet(restriction, "minLength");
+            String maxLength = facet(restriction, "maxLength");
+            if (length != null) return fit(value, Integer.parseInt(length), Integer.parseInt(length));
+            if (minLength != null || maxLength != null) {
+                return fit(value, minLength != null ? Integer.parseInt(minLength) : 0,
+                        maxLength != null ? Integer.parseInt(maxLength) : Integer.MAX_VALUE);
+            }
+            return value;
+        }
+
+        private String valueOf(QName type, QName name) {
+            if (XSD_NS.equals(type.getNamespaceURI())) return builtin(type.getLocalPart(), name);
+            Decl decl = schemas.types.get(type);
+            return decl != null && "simpleType".equals(decl.node().getLocalName()) ? simpleValue(decl, name) : "?";
+        }
+
+        private boolean recursive(Decl decl) {
+            Element node = decl.node();
+            String ref = node.getAttribute("ref");
+            String type = node.getAttribute("type");
+            Decl target = !ref.isEmpty() ? schemas.elements.get(qname(node, ref, decl.ctx()))
+                    : !type.isEmpty() ? schemas.types.get(qname(node, type, decl.ctx())) : null;
+            return target != null && stack.contains(target.node());
+        }
+
+        private boolean enter(Decl decl) {
+            if (stack.contains(decl.node()) || stack.size() > maxDepth * 4) return false;
+            stack.push(decl.node());
+            return true;
+        }
+    }
+
+    // Valeur d'exemple d'un type prédéfini ; le nom de l'élément sert d'exemple de texte
+    static String builtin(String type, QName name) {
+        String local = name != null ? name.getLocalPart() : "";
+        return switch (type) {
+            case "boolean" -> "true";
+            case "int", "integer", "long", "short", "byte", "nonNegativeInteger", "positiveInteger",
+                 "unsignedInt", "unsignedLong", "unsignedShort", "unsignedByte" -> "1";
+            case "negativeInteger" -> "-1";
+            case "nonPositiveInteger" -> "0";
+            case "decimal" -> "1.00";
+            case "float", "double" -> "1.0";
+            case "date" -> "${" + ResponseTemplate.Slot.DATE.expression + "}";
+            case "dateTime" -> "${" + ResponseTemplate.Slot.DATETIME.expression + "}";
+            case "time" -> "12:00:00";
+            case "duration" -> "P1D";
+            case "gYear" -> "2024";
+            case "gYearMonth" -> "2024-01";
+            case "gMonth" -> "--01";
+            case "gMonthDay" -> "--01-01";
+            case "gDay" -> "---01";
+            case "base64Binary" -> "AA==";
+            case "hexBinary" -> "00";
+            case "anyURI" -> "http://example.com";
+            case "language" -> "fr";
+            case "QName" -> "xs:string";
+            case "anyType", "anySimpleType" -> "?";
+            default -> local.equalsIgnoreCase("id") || local.endsWith("Id") || local.endsWith("ID")
+                    ? "${" + ResponseTemplate.Slot.UUID.expression + "}"
+                    : local.isEmpty() ? "string" : local;
+        };
+    }
+
+    private static String fit(String value, int min, int max) {
+        StringBuilder fitted = new StringBuilder(value.length() > max ? value.substring(0, max) : value);
+        while (fitted.length() < min) fitted.append('x');
+        return fitted.toString();
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            new BigDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String firstNonEmpty(String a, String b) {
+        return !a.isEmpty() ? a : b;
+    }
+
+    private static String facet(Element restriction, String name) {
+        Element facet = child(restriction, name);
+        return facet != null ? facet.getAttribute("value") : null;
+    }
+
+    // "tns:Type" -> QName ; sans préfixe ni espace de noms par défaut, celui du schéma (inclusion chameleon)
+    private static QName qname(Element context, String prefixed, Ctx ctx) {
+        if (prefixed == null || prefixed.isEmpty()) return null;
+        int colon = prefixed.indexOf(':');
+        String prefix = colon > 0 ? prefixed.substring(0, colon) : null;
+        String ns = context.lookupNamespaceURI(prefix);
+        if (ns == null && prefix == null && ctx != null) ns = ctx.tns();
+        return new QName(ns != null ? ns : "", prefixed.substring(colon + 1));
+    }
+
+    private static List<Element> children(Element parent, String ns, String local) {
+        List<Element> children = new ArrayList<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element element && ns.equals(element.getNamespaceURI())
+                    && (local == null || local.equals(element.getLocalName()))) {
+                children.add(element);
+            }
+        }
+        return children;
+    }
+
+    private static Element child(Element parent, String local) {
+        List<Element> children = children(parent, XSD_NS, local);
+        return children.isEmpty() ? null : children.get(0);
+    }
+
+    private static Element firstChild(Element parent, String... locals) {
+        for (Element child : children(parent, XSD_NS, null)) {
+            if (locals.length == 0 || List.of(locals).contains(child.getLocalName())) return child;
+        }
+        return null;
+    }
+
+    // ---- Écriture ---------------------------------------------------------------------------
+
+    private static String envelope(Sample payload, boolean soap12) {
+        Map<String, String> prefixes = new LinkedHashMap<>();
+        collectNamespaces(payload, prefixes);
+
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n").append(MARKER).append('\n');
+        xml.append("<soapenv:Envelope xmlns:soapenv=\"").append(soap12 ? SOAP12_ENV : SOAP11_ENV).append("\">\n");
+        xml.append("  <soapenv:Header/>\n  <soapenv:Body>\n");
+        write(xml, payload, prefixes, true, 2);
+        xml.append("  </soapenv:Body>\n</soapenv:Envelope>\n");
+        return xml.toString();
+    }
+
+    private static void collectNamespaces(Sample node, Map<String, String> prefixes) {
+        if (!node.name.getNamespaceURI().isEmpty()) {
+            prefixes.computeIfAbsent(node.name.getNamespaceURI(), ns -> "ns" + (prefixes.size() + 1));
+        }
+        node.attributes.keySet().stream().map(QName::getNamespaceURI).filter(ns -> !ns.isEmpty())
+                .forEach(ns -> prefixes.computeIfAbsent(ns, n -> "ns" + (prefixes.size() + 1)));
+        node.children.forEach(child -> collectNamespaces(child, prefixes));
+    }
+
+    private static void write(StringBuilder xml, Sample node, Map<String, String> prefixes, boolean root, int indent) {
+        String name = qualified(node.name, prefixes);
+        xml.append("  ".repeat(indent)).append('<').append(name);
+        if (root) {
+            prefixes.forEach((ns, prefix) -> xml.append(" xmlns:").append(prefix).append("=\"")
+                    .append(escape(ns)).append('"'));
+        }
+        node.attributes.forEach((attribute, value) -> xml.append(' ').append(qualified(attribute, prefixes))
+                .append("=\"").append(escape(value)).append('"'));
+        if (node.children.isEmpty()) {
+            if (node.text == null || node.text.isEmpty()) {
+                xml.append("/>\n");
+            } else {
+                xml.append('>').append(escape(node.text)).append("</").append(name).append(">\n");
+            }
+            return;
+        }
+        xml.append(">\n");
+        for (Sample child : node.children) {
+            write(xml, child, prefixes, false, indent + 1);
+        }
+        xml.append("  ".repeat(indent)).append("</").append(name).append(">\n");
+    }
+
+    private static String qualified(QName name, Map<String, String> prefixes) {
+        String ns = name.getNamespaceURI();
+        return ns.isEmpty() ? name.getLocalPart() : prefixes.get(ns) + ":" + name.getLocalPart();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,568 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Résout hors ligne les imports d'un WSDL (wsdl:import, xsd:import / include / redefine) avant la
+ * génération : le graphe des documents est parcouru en parallèle, chaque référence absente du
+ * projet est cherchée, dans l'ordre, dans les fichiers déposés avec le projet (même nom de
+ * fichier), dans le cache de schémas partagé (base.dir/.schemas, adressé par contenu, index
+ * URL -> empreinte), puis sur le réseau si schema.resolver.fetch-remote l'autorise.
+ *
+ * Les documents distants sont recopiés sous imports/hôte/chemin (même arborescence que l'URL, les
+ * références relatives entre eux restent valides) ; les références absolues sont réécrites en
+ * chemins relatifs, le mock n'a ainsi jamais besoin du réseau. Les références d'un document sont
+ * mémorisées par empreinte de contenu : un schéma partagé par plusieurs projets n'est lu qu'une fois.
+ */
+@Component
+public class SchemaImportResolver {
+
+    private static final Logger logger = Logger.getLogger(SchemaImportResolver.class.getName());
+
+    static final String XSD_NS = "http://www.w3.org/2001/XMLSchema";
+    public static final String IMPORTS_DIR = "imports";
+
+    /**
+     * @param documents  documents parcourus (WSDL compris)
+     * @param bundled    références distantes servies par un fichier déposé avec le projet
+     * @param cached     références distantes servies par le cache de schémas
+     * @param fetched    documents téléchargés
+     * @param rewritten  documents dont des références ont été réécrites
+     * @param unresolved références introuvables (le mock démarrera sans elles)
+     */
+    public record Resolution(int documents, int bundled, int cached, int fetched, int rewritten,
+                             List<String> unresolved) {
+    }
+
+    @Value("${schema.resolver.enabled:true}")
+    private boolean enabled;
+
+    @Value("${base.dir:projets_mocks}")
+    private String baseDirPath;
+
+    @Value("${schema.resolver.threads:4}")
+    private int threads;
+
+    @Value("${schema.resolver.max-documents:500}")
+    private int maxDocuments;
+
+    @Value("${schema.resolver.parsed-cache-size:1000}")
+    private int parsedCacheSize;
+
+    @Value("${schema.resolver.fetch-remote:false}")
+    private boolean fetchRemote;
+
+    @Value("${schema.resolver.fetch-timeout-ms:10000}")
+    private long fetchTimeoutMs;
+
+    @Value("${schema.resolver.fetch-max-bytes:10485760}")
+    private long fetchMaxBytes;
+
+    private final XMLInputFactory inputFactory;
+    private final Counter parses;
+    private final Counter parseHits;
+
+    private Path cacheDir;
+    private ExecutorService executor;
+    private HttpClient httpClient;
+
+    // URL -> empreinte du document dans le cache, conservé dans .schemas/index.properties
+    private final Properties index = new Properties();
+
+    // Références extraites, par empreinte de contenu (LRU)
+    private final Map<String, List<String>> parsed = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > Math.max(1, parsedCacheSize);
+        }
+    };
+
+    public SchemaImportResolver(MeterRegistry meterRegistry) {
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        parses = meterRegistry.counter("mock.schemas.parsed");
+        parseHits = meterRegistry.counter("mock.schemas.parse-cache.hits");
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) return;
+        cacheDir = Paths.get(baseDirPath).toAbsolutePath().normalize().resolve(".schemas");
+        Files.createDirectories(cacheDir);
+        Path indexFile = cacheDir.resolve("index.properties");
+        if (Files.exists(indexFile)) {
+            try (InputStream in = Files.newInputStream(indexFile)) {
+                index.load(in);
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "schema-resolver-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (fetchRemote) {
+            httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofMillis(fetchTimeoutMs))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+        logger.info("[SCHEMAS] Cache de schémas : " + cacheDir + ", " + index.size() + " URL connue(s)"
+                + (fetchRemote ? ", téléchargement autorisé" : ", hors ligne"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /**
+     * Rend les imports du WSDL locaux au projet. Les références introuvables sont signalées sur
+     * output sans faire échouer la génération.
+     */
+    public Resolution resolve(Path wsdlPath, Path projectPath, Consumer<String> output) throws IOException {
+        if (!enabled) return new Resolution(0, 0, 0, 0, 0, List.of());
+        Walk walk = new Walk(projectPath.toAbsolutePath().normalize(), output);
+        walk.run(wsdlPath.toAbsolutePath().normalize());
+        return walk.result();
+    }
+
+    /**
+     * Empreinte d'ensemble des schémas d'un projet hors de ses entrées principales (inputs) : fichiers
+     * d'une archive déposée (bundleBlobs compris), XSD importés rendus locaux sous imports/. Les
+     * réponses d'exemple n'en font pas partie.
+     *
+     * @return null si le projet n'a pas d'autre schéma
+     */
+    public String importsHash(Path projectPath, Set<Path> inputs, List<String> bundleBlobs) throws IOException {
+        Path root = projectPath.toAbsolutePath().normalize();
+        Path responses = root.resolve(ImposterConfigGenerator.RESPONSES_DIR);
+        Set<Path> excluded = new java.util.HashSet<>();
+        inputs.forEach(input -> excluded.add(input.toAbsolutePath().normalize()));
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(p -> !p.startsWith(responses) && !p.getFileName().toString().startsWith("."))
+                    .filter(p -> isSchemaFile(p.getFileName().toString()) && !excluded.contains(p))
+                    .sorted()
+                    .toList();
+        }
+        if (files.isEmpty() && bundleBlobs.isEmpty()) return null;
+
+        StringBuilder summary = new StringBuilder();
+        for (Path file : files) {
+            summary.append(root.relativize(file).toString().replace('\\', '/')).append('=')
+                    .append(ContentHash.sha256(file)).append('\n');
+        }
+        bundleBlobs.stream().sorted().forEach(blob -> summary.append("blob=").append(blob).append('\n'));
+        return ContentHash.sha256(summary.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Références d'un document (location / schemaLocation), dans l'ordre d'apparition */
+    List<String> references(byte[] content) throws XMLStreamException {
+        String hash = ContentHash.sha256(content);
+        synchronized (parsed) {
+            List<String> known = parsed.get(hash);
+            if (known != null) {
+                parseHits.increment();
+                return known;
+            }
+        }
+        Set<String> references = new LinkedHashSet<>();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new ByteArrayInputStream(content));
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) continue;
+                String ns = reader.getNamespaceURI();
+                String local = reader.getLocalName();
+                String location = null;
+                if (WsdlAnalyzer.WSDL_NS.equals(ns) && "import".equals(local)) {
+                    location = reader.getAttributeValue(null, "location");
+                } else if (XSD_NS.equals(ns) && ("import".equals(local) || "include".equals(local)
+                        || "redefine".equals(local))) {
+                    location = reader.getAttributeValue(null, "schemaLocation");
+                }
+                if (location != null && !location.isBlank()) references.add(location.trim());
+            }
+        } finally {
+            reader.close();
+        }
+        parses.increment();
+        List<String> result = List.copyOf(references);
+        synchronized (parsed) {
+            parsed.put(hash, result);
+        }
+        return result;
+    }
+
+    /**
+     * Document à parcourir. base : URL d'une copie distante, ses références relatives sont résolues
+     * par rapport à elle ; origin : URL que remplace un fichier du projet, ses inclusions relatives
+     * (locales) sont ajoutées à l'index du cache sous l'URL correspondante.
+     */
+    private record Doc(Path file, URI base, URI origin) {
+    }
+
+    /** asIs : référence locale valide telle qu'écrite, jamais réécrite */
+    private record Target(Path file, URI base, URI origin, boolean asIs) {
+    }
+
+    /** Parcours du graphe d'imports d'un projet */
+    private final class Walk {
+        private final Path projectPath;
+        private final Consumer<String> output;
+        private final Map<String, Path> localByName = new LinkedHashMap<>();
+        private final Set<Path> visited = ConcurrentHashMap.newKeySet();
+        private final Map<String, Target> remote = new ConcurrentHashMap<>();
+        private final Map<Path, Map<String, String>> rewrites = new ConcurrentHashMap<>();
+        private final Set<String> unresolved = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger bundled = new AtomicInteger();
+        private final AtomicInteger cached = new AtomicInteger();
+        private final AtomicInteger fetched = new AtomicInteger();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile boolean indexChanged;
+        private int rewritten;
+
+        Walk(Path projectPath, Consumer<String> output) {
+            this.projectPath = projectPath;
+            this.output = line -> {
+                synchronized (this) {
+                    output.accept(line);
+                }
+            };
+        }
+
+        void run(Path wsdl) throws IOException {
+            indexProjectFiles();
+            submit(new Doc(wsdl, null, null));
+            try {
+                done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Résolution des imports interrompue", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Résolution des imports impossible : " + e.getCause().getMessage(), e.getCause());
+            }
+            applyRewrites();
+            if (indexChanged) saveIndex();
+
+            if (visited.size() > 1 || !unresolved.isEmpty()) {
+                output.accept("Imports : " + visited.size() + " document(s), " + bundled + " depuis les fichiers du projet, "
+                        + cached + " depuis le cache, " + fetched + " téléchargé(s), " + rewritten + " document(s) réécrit(s)");
+            }
+            unresolved.forEach(reference -> output.accept("Import introuvable hors ligne : " + reference));
+        }
+
+        Resolution result() {
+            return new Resolution(visited.size(), bundled.get(), cached.get(), fetched.get(), rewritten,
+                    List.copyOf(unresolved));
+        }
+
+        // Fichiers déposés avec le projet, par nom : servent les références distantes ou mal placées
+        private void indexProjectFiles() throws IOException {
+            Path imports = projectPath.resolve(IMPORTS_DIR);
+            try (Stream<Path> files = Files.walk(projectPath)) {
+                files.filter(Files::isRegularFile)
+                        .filter(p -> !p.startsWith(imports) && !p.getFileName().toString().startsWith("."))
+                        .filter(p -> isSchemaFile(p.getFileName().toString()))
+                        .sorted(Comparator.comparingInt(Path::getNameCount))
+                        .forEach(p -> localByName.putIfAbsent(p.getFileName().toString(), p));
+            }
+        }
+
+        private void submit(Doc doc) {
+            if (!visited.add(doc.file())) return;
+            if (visited.size() > maxDocuments) {
+                unresolved.add(projectPath.relativize(doc.file()) + " (plus de " + maxDocuments + " documents)");
+                return;
+            }
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        visit(doc);
+                    } catch (Exception e) {
+                        unresolved.add(projectPath.relativize(doc.file()) + " (" + e.getMessage() + ")");
+                    } finally {
+                        if (pending.decrementAndGet() == 0) done.complete(null);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pending.decrementAndGet();
+                done.completeExceptionally(e);
+            }
+        }
+
+        private void visit(Doc doc) throws IOException, XMLStreamException {
+            byte[] content = Files.readAllBytes(doc.file());
+            for (String reference : references(content)) {
+                Target target = resolveReference(doc, reference);
+                if (target == null) {
+                    unresolved.add(reference + " (" + projectPath.relativize(doc.file()) + ")");
+                    continue;
+                }
+                String relative = doc.file().getParent().relativize(target.file()).toString().replace('\\', '/');
+                if (!target.asIs() && !relative.equals(reference)) {
+                    rewrites.computeIfAbsent(doc.file(), f -> new ConcurrentHashMap<>()).put(reference, relative);
+                }
+                submit(new Doc(target.file(), target.base(), target.origin()));
+            }
+        }
+
+        private Target resolveReference(Doc doc, String reference) throws IOException {
+            URI uri;
+            try {
+                uri = new URI(reference.replace(" ", "%20"));
+            } catch (URISyntaxException e) {
+                return null;
+            }
+            if (doc.base() != null) uri = doc.base().resolve(uri);
+
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : null;
+            if ("http".equals(scheme) || "https".equals(scheme)) {
+                String url = uri.normalize().toString();
+                try {
+                    return remote.computeIfAbsent(url, this::materialize);
+                } catch (UncheckedIo e) {
+                    throw e.getCause();
+                }
+            }
+            if (scheme != null || uri.getPath() == null) {
+                // file:, urn:... : jamais lus depuis le serveur
+                return null;
+            }
+
+            Path local = doc.file().getParent().resolve(uri.getPath()).normalize();
+            boolean asIs = local.startsWith(projectPath) && Files.isRegularFile(local);
+            if (!asIs) local = localByName.get(local.getFileName().toString());
+            if (local == null) return null;
+            URI origin = doc.origin() != null ? doc.origin().resolve(uri).normalize() : null;
+            if (origin != null) remember(origin.toString(), local);
+            return new Target(local, null, origin, asIs);
+        }
+
+        // Fichier du projet de même nom, sinon cache, sinon réseau ; null si introuvable
+        private Target materialize(String url) {
+            try {
+                String fileName = fileNameOf(url);
+                Path local = localByName.get(fileName);
+                if (local != null) {
+                    remember(url, local);
+                    bundled.incrementAndGet();
+                    return new Target(local, null, URI.create(url), false);
+                }
+
+                String hash;
+                synchronized (index) {
+                    hash = index.getProperty(url);
+                }
+                if (hash != null && Files.exists(cachePath(hash))) {
+                    cached.incrementAndGet();
+                } else if (fetchRemote) {
+                    hash = store(download(url));
+                    synchronized (index) {
+                        index.setProperty(url, hash);
+                    }
+                    indexChanged = true;
+                    fetched.incrementAndGet();
+                    output.accept("Téléchargé : " + url);
+                } else {
+                    return null;
+                }
+
+                Path copy = importPathOf(URI.create(url));
+                Files.createDirectories(copy.getParent());
+                linkOrCopy(cachePath(hash), copy);
+                return new Target(copy, URI.create(url), null, false);
+            } catch (IOException e) {
+                throw new UncheckedIo(e);
+            }
+        }
+
+        // Fichier déposé avec le projet pour une URL : ajouté au cache pour les projets suivants
+        private void remember(String url, Path local) throws IOException {
+            String hash = ContentHash.sha256(local);
+            Path cachedCopy = cachePath(hash);
+            if (!Files.exists(cachedCopy)) {
+                Files.createDirectories(cachedCopy.getParent());
+                linkOrCopy(local, cachedCopy);
+            }
+            synchronized (index) {
+                if (hash.equals(index.getProperty(url))) return;
+                index.setProperty(url, hash);
+            }
+            indexChanged = true;
+        }
+
+        private Path importPathOf(URI url) {
+            Path path = projectPath.resolve(IMPORTS_DIR).resolve(safeSegment(url.getHost() != null ? url.getHost() : "remote"));
+            String rawPath = url.getPath() != null ? url.getPath() : "";
+            for (String segment : rawPath.split("/")) {
+                if (segment.isEmpty() || ".".equals(segment) || "..".equals(segment)) continue;
+                path = path.resolve(safeSegment(segment));
+            }
+            if (url.getQuery() != null || rawPath.isEmpty() || rawPath.endsWith("/")) {
+                // ?wsdl, ?xsd=1... : un fichier par URL
+                path = path.resolveSibling(path.getFileName() + "-" + ContentHash.sha256(url.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 8) + ".xsd");
+            }
+            return path;
+        }
+
+        // Remplacement textuel des seules valeurs d'attributs : mise en forme et encodage préservés
+        private void applyRewrites() throws IOException {
+            for (Map.Entry<Path, Map<String, String>> entry : rewrites.entrySet()) {
+                Path file = entry.getKey();
+                String text = Files.readString(file, StandardCharsets.ISO_8859_1);
+                String updated = text;
+                for (Map.Entry<String, String> rewrite : entry.getValue().entrySet()) {
+                    for (String original : List.of(rewrite.getKey(), rewrite.getKey().replace("&", "&amp;"))) {
+                        updated = updated.replace("\"" + original + "\"", "\"" + rewrite.getValue() + "\"")
+                                .replace("'" + original + "'", "'" + rewrite.getValue() + "'");
+                    }
+                }
+                if (updated.equals(text)) continue;
+                // Nouveau fichier : un lien physique vers le magasin ou le cache n'est jamais modifié
+                Path temp = file.resolveSibling("." + file.getFileName() + ".rewrite");
+                Files.writeString(temp, updated, StandardCharsets.ISO_8859_1);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                rewritten++;
+            }
+        }
+    }
+
+    private static final class UncheckedIo extends RuntimeException {
+        UncheckedIo(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    private byte[] download(String url) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofMillis(fetchTimeoutMs)).GET().build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() >= 400) {
+                    throw new IOException("HTTP " + response.statusCode() + " pour " + url);
+                }
+                byte[] content = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, fetchMaxBytes + 1));
+                if (content.length > fetchMaxBytes) {
+                    throw new UploadLimitException("Schéma distant trop volumineux : " + url, fetchMaxBytes);
+                }
+                return content;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Téléchargement interrompu : " + url, e);
+        }
+    }
+
+    private String store(byte[] content) throws IOException {
+        String hash = ContentHash.sha256(content);
+        Path target = cachePath(hash);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(cacheDir, ".incoming-", ".tmp");
+            try {
+                Files.write(temp, content);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return hash;
+    }
+
+    private void saveIndex() throws IOException {
+        Path temp = Files.createTempFile(cacheDir, ".index-", ".tmp");
+        try {
+            synchronized (index) {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    index.store(out, "URL -> empreinte SHA-256 du schéma en cache");
+                }
+            }
+            Files.move(temp, cacheDir.resolve("index.properties"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path cachePath(String hash) {
+        return cacheDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(source, target);
+        }
+    }
+
+    private static boolean isSchemaFile(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".xsd") || lower.endsWith(".wsdl") || lower.endsWith(".xml");
+    }
+
+    private static String fileNameOf(String url) {
+        String path = URI.create(url).getPath();
+        if (path == null || path.isEmpty()) return "";
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static String safeSegment(String segment) {
+        return segment.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
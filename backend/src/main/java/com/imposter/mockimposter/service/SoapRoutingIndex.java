@@ -0,0 +1,197 @@
+package com.imposter.mockimposter.service;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Table de routage SOAP d'un projet : chemin de la soap:address, puis SOAPAction ou premier élément
+ * du Body -> opération. Deux tables de hachage par chemin, la résolution est en temps constant quel
+ * que soit le nombre d'opérations du WSDL ; seul le début du corps est lu, et seulement quand la
+ * SOAPAction est absente ou partagée par plusieurs opérations.
+ *
+ * Les mêmes routes produisent les ressources de imposter-config.yaml, la table enregistrée en base
+ * et le routage du moteur embarqué. Immuable une fois construite.
+ */
+public final class SoapRoutingIndex {
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    /**
+     * @param operation    null pour une route « tout venant » (port dont le binding est hors du WSDL)
+     * @param bodyElement  premier élément du Body en notation {ns}nom, null si inconnu
+     * @param responseFile réponse de l'opération relative au projet, null pour le script commun
+     */
+    public record Route(String path, String operation, String soapAction, String bodyElement, String responseFile) {
+    }
+
+    private static final class Endpoint {
+        final Map<String, Route> byAction = new HashMap<>();
+        final Map<String, Route> byElement = new HashMap<>();
+        final Set<String> sharedActions = new HashSet<>();
+        final Set<String> sharedElements = new HashSet<>();
+        Route fallback;
+        int operations;
+    }
+
+    private final Map<String, Endpoint> endpoints;
+    private final int size;
+
+    private SoapRoutingIndex(Map<String, Endpoint> endpoints, int size) {
+        this.endpoints = endpoints;
+        this.size = size;
+    }
+
+    /**
+     * Routes d'un WSDL, dans l'ordre des ports puis des opérations ; un chemin exposé par plusieurs
+     * ports (SOAP 1.1 et 1.2) ne garde qu'une route par opération. Une réponse est associée à
+     * l'opération si le projet contient responses/&lt;opération&gt;.xml.
+     */
+    public static List<Route> routesOf(WsdlDescriptor descriptor, Path projectPath) {
+        Map<String, Map<String, Route>> byPath = new LinkedHashMap<>();
+        for (WsdlDescriptor.SoapEndpoint endpoint : descriptor.endpoints()) {
+            Map<String, Route> routes = byPath.computeIfAbsent(WsdlDescriptor.pathOf(endpoint.location()),
+                    path -> new LinkedHashMap<>());
+            for (WsdlDescriptor.SoapOperation op : endpoint.operations()) {
+                routes.computeIfAbsent(op.name(), name -> new Route(null, name, op.soapAction(),
+                        op.bodyElement() != null ? op.bodyElement().toString() : null,
+                        responseFile(projectPath, name)));
+            }
+        }
+        List<Route> routes = new ArrayList<>();
+        byPath.forEach((path, operations) -> {
+            if (operations.isEmpty()) {
+                routes.add(new Route(path, null, null, null, null));
+            }
+            operations.values().forEach(r -> routes.add(
+                    new Route(path, r.operation(), r.soapAction(), r.bodyElement(), r.responseFile())));
+        });
+        return routes;
+    }
+
+    private static String responseFile(Path projectPath, String operation) {
+        String file = ImposterConfigGenerator.RESPONSES_DIR + "/" + operation + ".xml";
+        return projectPath != null && Files.isRegularFile(projectPath.resolve(file)) ? file : null;
+    }
+
+    public static SoapRoutingIndex of(List<Route> routes) {
+        Map<String, Endpoint> endpoints = new HashMap<>();
+        Map<String, Route> generic = new HashMap<>();
+        Map<String, Route> first = new HashMap<>();
+        for (Route route : routes) {
+            Endpoint endpoint = endpoints.computeIfAbsent(route.path(), path -> new Endpoint());
+            if (route.operation() == null) {
+                generic.put(route.path(), route);
+                continue;
+            }
+            endpoint.operations++;
+            first.putIfAbsent(route.path(), route);
+            String action = normalizeSoapAction(route.soapAction());
+            if (!action.isEmpty()) register(endpoint.byAction, endpoint.sharedActions, action, route);
+            if (route.bodyElement() != null) register(endpoint.byElement, endpoint.sharedElements, route.bodyElement(), route);
+        }
+        // Repli : route générique du chemin, ou son unique opération qui répond alors à tout
+        endpoints.forEach((path, e) -> e.fallback = generic.containsKey(path) ? generic.get(path)
+                : e.operations == 1 ? first.get(path) : null);
+        return new SoapRoutingIndex(Collections.unmodifiableMap(endpoints), routes.size());
+    }
+
+    // Clé partagée par deux opérations : inutilisable pour choisir, retirée de la table
+    private static void register(Map<String, Route> table, Set<String> shared, String key, Route route) {
+        if (shared.contains(key)) return;
+        Route previous = table.putIfAbsent(key, route);
+        if (previous != null && !previous.operation().equals(route.operation())) {
+            table.remove(key);
+            shared.add(key);
+        }
+    }
+
+    public boolean hasPath(String path) {
+        return endpoints.containsKey(path);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Opération appelée, null si ni la SOAPAction ni le premier élément du Body ne la désignent */
+    public Route resolve(String path, String soapAction, byte[] body) {
+        Endpoint endpoint = endpoints.get(path);
+        if (endpoint == null) return null;
+        Route route = endpoint.byAction.get(normalizeSoapAction(soapAction));
+        if (route == null && !endpoint.byElement.isEmpty()) {
+            String element = bodyElement(body);
+            if (element != null) route = endpoint.byElement.get(element);
+        }
+        return route != null ? route : endpoint.fallback;
+    }
+
+    static String normalizeSoapAction(String soapAction) {
+        if (soapAction == null) return "";
+        String action = soapAction.trim();
+        if (action.length() >= 2 && action.startsWith("\"") && action.endsWith("\"")) {
+            action = action.substring(1, action.length() - 1);
+        }
+        return action;
+    }
+
+    /** Premier élément du Body ({ns}nom), ou élément racine hors enveloppe SOAP ; la lecture s'arrête là */
+    static String bodyElement(byte[] body) {
+        if (body == null || body.length == 0) return null;
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(body));
+            try {
+                int depth = 0;
+                boolean envelope = false;
+                boolean inBody = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        String local = reader.getLocalName();
+                        if (depth == 1) {
+                            envelope = "Envelope".equals(local);
+                            if (!envelope) return clark(reader);
+                        } else if (depth == 2) {
+                            inBody = "Body".equals(local);
+                        } else if (depth == 3 && inBody) {
+                            return clark(reader);
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == 2 && inBody) return null;
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ignored) {
+            // Corps illisible : routage sur la SOAPAction seule
+        }
+        return null;
+    }
+
+    private static String clark(XMLStreamReader reader) {
+        String ns = reader.getNamespaceURI();
+        return new QName(ns != null ? ns : "", reader.getLocalName()).toString();
+    }
+}
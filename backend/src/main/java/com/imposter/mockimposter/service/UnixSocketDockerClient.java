@@ -0,0 +1,725 @@
+package com.imposter.mockimposter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.URLEncoder;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Client HTTP/1.1 minimal pour l'API Docker Engine, directement sur le socket Unix
+ * (aucun fork de la CLI docker). Les connexions keep-alive sont conservées dans un pool
+ * borné et réutilisées d'un appel à l'autre.
+ *
+ * Les lectures d'une réponse sont soumises à un délai : un démon qui ne répond plus (ou plus rien
+ * pendant readTimeout) voit sa connexion fermée par une sentinelle, et l'appel échoue en
+ * {@link SocketTimeoutException} au lieu de bloquer son appelant.
+ */
+public class UnixSocketDockerClient implements DockerClient {
+
+    private static final Logger logger = Logger.getLogger(UnixSocketDockerClient.class.getName());
+
+    private final UnixDomainSocketAddress address;
+    private final String apiPrefix;
+    private final ObjectMapper mapper;
+    private final BlockingQueue<Connection> idle;
+    private final AtomicInteger openedConnections = new AtomicInteger();
+    private final long readTimeoutMs;
+
+    // Connexions en attente d'une réponse, surveillées par la sentinelle
+    private final Set<Connection> awaiting = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService watchdog;
+    private volatile boolean closed;
+
+    public UnixSocketDockerClient(Path socketPath, String apiVersion, int maxIdleConnections, ObjectMapper mapper) {
+        this(socketPath, apiVersion, maxIdleConnections, mapper, Duration.ofSeconds(60));
+    }
+
+    /**
+     * @param apiVersion  version d'API à préfixer (ex. "v1.44"), vide pour la version du démon
+     * @param readTimeout silence maximal du démon pendant la lecture d'une réponse
+     */
+    public UnixSocketDockerClient(Path socketPath, String apiVersion, int maxIdleConnections, ObjectMapper mapper,
+                                  Duration readTimeout) {
+        this.address = UnixDomainSocketAddress.of(socketPath);
+        this.apiPrefix = (apiVersion == null || apiVersion.isBlank()) ? "" : "/" + apiVersion.replaceFirst("^/", "");
+        this.mapper = mapper;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdleConnections));
+        this.readTimeoutMs = readTimeout.toMillis();
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "docker-api-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tick = Math.max(50, Math.min(1000, readTimeoutMs / 4));
+        executor.scheduleWithFixedDelay(this::expireStalled, tick, tick, TimeUnit.MILLISECONDS);
+        this.watchdog = executor;
+    }
+
+    /** Arrête la sentinelle et ferme les connexions inoccupées (arrêt du contexte Spring) */
+    @Override
+    public void close() {
+        closed = true;
+        watchdog.shutdownNow();
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private void expireStalled() {
+        long now = System.nanoTime();
+        for (Connection connection : awaiting) {
+            if (connection.expiredAt(now)) {
+                awaiting.remove(connection);
+                logger.warning("[DOCKER] Démon Docker sans réponse depuis " + connection.window + " ms, connexion fermée");
+                connection.close();
+            }
+        }
+    }
+
+    // --- Conteneurs ---
+
+    @Override
+    public String createContainer(ContainerSpec spec) throws IOException {
+        String path = "/containers/create?name=" + encode(spec.name());
+        byte[] body = mapper.writeValueAsBytes(createBody(spec));
+
+        Response response = request("POST", path, body);
+        // 404 aussi pour un réseau absent : seule une image manquante justifie un téléchargement
+        if (response.status == 404 && errorMessage(response).toLowerCase(Locale.ROOT).contains("no such image")) {
+            // Image absente localement : on la tire puis on recrée
+            pullImage(spec.image());
+            response = request("POST", path, body);
+        }
+        return json(check(response)).path("Id").asText();
+    }
+
+    private ObjectNode createBody(ContainerSpec spec) {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("Image", spec.image());
+
+        String port = spec.containerPort() + "/tcp";
+        root.putObject("ExposedPorts").putObject(port);
+
+        if (spec.labels() != null && !spec.labels().isEmpty()) {
+            ObjectNode labels = root.putObject("Labels");
+            spec.labels().forEach(labels::put);
+        }
+
+        ObjectNode hostConfig = root.putObject("HostConfig");
+        if (spec.hostPort() != null) {
+            hostConfig.putObject("PortBindings").putArray(port)
+                    .addObject().put("HostPort", String.valueOf(spec.hostPort()));
+        }
+        if (spec.bindSource() != null) {
+            hostConfig.putArray("Binds").add(spec.bindSource() + ":" + spec.bindTarget());
+        }
+        if (spec.network() != null) {
+            hostConfig.put("NetworkMode", spec.network());
+        }
+        return root;
+    }
+
+    private void pullImage(String image) throws IOException {
+        String name = image;
+        String tag = "latest";
+        int colon = image.lastIndexOf(':');
+        if (colon > image.lastIndexOf('/')) {
+            name = image.substring(0, colon);
+            tag = image.substring(colon + 1);
+        }
+        logger.info("[DOCKER] Image absente, téléchargement : " + name + ":" + tag);
+        // Le corps est un flux de progression JSON, lu jusqu'au bout avant de rendre la main
+        check(request("POST", "/images/create?fromImage=" + encode(name) + "&tag=" + encode(tag), null));
+    }
+
+    @Override
+    public void startContainer(String container) throws IOException {
+        Response response = request("POST", "/containers/" + encode(container) + "/start", null);
+        if (response.status != 304) check(response);
+    }
+
+    @Override
+    public void stopContainer(String container, int timeoutSeconds) throws IOException {
+        Response response = request("POST", "/containers/" + encode(container) + "/stop?t=" + timeoutSeconds, null,
+                timeoutSeconds * 1000L);
+        if (response.status != 304 && response.status != 404) check(response);
+    }
+
+    @Override
+    public void removeContainer(String container, boolean force) throws IOException {
+        Response response = request("DELETE", "/containers/" + encode(container) + "?force=" + force, null);
+        if (response.status != 404) check(response);
+    }
+
+    @Override
+    public void restartContainer(String container, int timeoutSeconds) throws IOException {
+        check(request("POST", "/containers/" + encode(container) + "/restart?t=" + timeoutSeconds, null,
+                timeoutSeconds * 1000L));
+    }
+
+    @Override
+    public void renameContainer(String container, String newName) throws IOException {
+        check(request("POST", "/containers/" + encode(container) + "/rename?name=" + encode(newName), null));
+    }
+
+    @Override
+    public Optional<ContainerInfo> inspectContainer(String container) throws IOException {
+        Response response = request("GET", "/containers/" + encode(container) + "/json", null);
+        if (response.status == 404) return Optional.empty();
+
+        JsonNode node = json(check(response));
+        String state = node.path("State").path("Status").asText();
+        return Optional.of(new ContainerInfo(
+                node.path("Id").asText(),
+                node.path("Name").asText().replaceFirst("^/", ""),
+                state,
+                state,
+                labels(node.path("Config").path("Labels"))));
+    }
+
+    @Override
+    public List<ContainerInfo> listContainers(boolean all, String namePrefix) throws IOException {
+        StringBuilder path = new StringBuilder("/containers/json?all=").append(all);
+        if (namePrefix != null) {
+            // Le filtre "name" de Docker est une expression régulière sur le nom
+            String filters = "{\"name\":[\"^/" + namePrefix.replace("\"", "") + "\"]}";
+            path.append("&filters=").append(encode(filters));
+        }
+
+        List<ContainerInfo> containers = new ArrayList<>();
+        for (JsonNode node : json(check(request("GET", path.toString(), null)))) {
+            String name = node.path("Names").path(0).asText().replaceFirst("^/", "");
+            containers.add(new ContainerInfo(
+                    node.path("Id").asText(),
+                    name,
+                    node.path("State").asText(),
+                    node.path("Status").asText(),
+                    labels(node.path("Labels"))));
+        }
+        return containers;
+    }
+
+    @Override
+    public String containerLogs(String container, int tail, long sinceEpochSeconds) throws IOException {
+        Response response = request("GET", "/containers/" + encode(container)
+                + "/logs?stdout=true&stderr=true&tail=" + tail + "&since=" + sinceEpochSeconds, null);
+        return demultiplex(check(response).body);
+    }
+
+    @Override
+    public Closeable followLogs(String container, int tail, Consumer<String> onLine, Runnable onEnd) throws IOException {
+        Connection stream = openStream("/containers/" + encode(container)
+                + "/logs?follow=true&stdout=true&stderr=true&tail=" + Math.max(0, tail));
+        Thread reader = new Thread(() -> {
+            try {
+                followFrames(stream.in, onLine);
+            } catch (IOException ignored) {
+                // Flux fermé : close() de l'appelant ou conteneur supprimé
+            } finally {
+                stream.close();
+                onEnd.run();
+            }
+        }, "docker-logs-" + container);
+        reader.setDaemon(true);
+        reader.start();
+        return stream;
+    }
+
+    /**
+     * Version incrémentale de {@link #demultiplex(byte[])} : les trames sont lues une à une et
+     * chaque ligne complète est transmise dès sa réception.
+     */
+    static void followFrames(InputStream in, Consumer<String> onLine) throws IOException {
+        LineSplitter stdout = new LineSplitter("", onLine);
+        LineSplitter stderr = new LineSplitter("ERROR: ", onLine);
+        byte[] header = in.readNBytes(8);
+        boolean multiplexed = header.length == 8 && header[0] <= 2 && header[1] == 0 && header[2] == 0 && header[3] == 0;
+        if (!multiplexed) {
+            // Conteneur avec TTY : flux brut
+            stdout.write(header, 0, header.length);
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                stdout.write(buffer, 0, n);
+            }
+            stdout.flush();
+            return;
+        }
+
+        byte[] payload = new byte[8192];
+        while (header.length == 8) {
+            int size = ((header[4] & 0xff) << 24) | ((header[5] & 0xff) << 16)
+                    | ((header[6] & 0xff) << 8) | (header[7] & 0xff);
+            LineSplitter target = header[0] == 2 ? stderr : stdout;
+            while (size > 0) {
+                int n = in.read(payload, 0, Math.min(payload.length, size));
+                if (n == -1) throw new EOFException("Trame de logs tronquée");
+                target.write(payload, 0, n);
+                size -= n;
+            }
+            header = in.readNBytes(8);
+        }
+        stdout.flush();
+        stderr.flush();
+    }
+
+    /** Découpe un flux d'octets UTF-8 en lignes, une ligne partielle attend la suite */
+    private static final class LineSplitter {
+        private final String prefix;
+        private final Consumer<String> onLine;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(256);
+
+        LineSplitter(String prefix, Consumer<String> onLine) {
+            this.prefix = prefix;
+            this.onLine = onLine;
+        }
+
+        void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    flush();
+                } else {
+                    pending.write(bytes[i]);
+                }
+            }
+        }
+
+        void flush() {
+            if (pending.size() == 0) return;
+            String line = pending.toString(StandardCharsets.UTF_8);
+            pending.reset();
+            if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+            onLine.accept(prefix + line);
+        }
+    }
+
+    @Override
+    public Closeable containerEvents(Consumer<ContainerEvent> onEvent, Runnable onEnd) throws IOException {
+        Connection stream = openStream("/events?filters=" + encode("{\"type\":[\"container\"]}"));
+        Thread reader = new Thread(() -> {
+            // Un objet JSON par ligne
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(stream.in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (!line.isBlank()) onEvent.accept(ContainerEvent.fromJson(mapper.readTree(line)));
+                }
+            } catch (IOException ignored) {
+                // Flux fermé : close() de l'appelant ou démon arrêté
+            } finally {
+                stream.close();
+                onEnd.run();
+            }
+        }, "docker-events");
+        reader.setDaemon(true);
+        reader.start();
+        return stream;
+    }
+
+    @Override
+    public long networkReceivedBytes(String container) throws IOException {
+        // one-shot : pas d'attente du second échantillon servant au calcul CPU
+        Response response = request("GET", "/containers/" + encode(container) + "/stats?stream=false&one-shot=true", null);
+        if (response.status == 404) return -1;
+
+        JsonNode networks = json(check(response)).path("networks");
+        if (networks.isMissingNode() || networks.isNull() || networks.isEmpty()) return -1;
+        long received = 0;
+        for (JsonNode network : networks) {
+            received += network.path("rx_bytes").asLong();
+        }
+        return received;
+    }
+
+    // --- Réseaux ---
+
+    @Override
+    public boolean networkExists(String network) throws IOException {
+        Response response = request("GET", "/networks/" + encode(network), null);
+        if (response.status == 404) return false;
+        check(response);
+        return true;
+    }
+
+    @Override
+    public void createNetwork(String network) throws IOException {
+        ObjectNode body = mapper.createObjectNode().put("Name", network).put("CheckDuplicate", true);
+        check(request("POST", "/networks/create", mapper.writeValueAsBytes(body)));
+    }
+
+    /** Nombre de connexions ouvertes depuis le démarrage (observabilité / tests du pool) */
+    public int getOpenedConnections() {
+        return openedConnections.get();
+    }
+
+    // --- Couche HTTP ---
+
+    static final class Response {
+        final int status;
+        final Map<String, String> headers;
+        final byte[] body;
+
+        Response(int status, Map<String, String> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private static final class Connection implements Closeable {
+        final SocketChannel channel;
+        final InputStream in;
+        final OutputStream out;
+        // Échéance de lecture (System.nanoTime), repoussée à chaque octet reçu ; 0 = pas de délai
+        volatile long deadline;
+        volatile long window;
+        volatile boolean expired;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.in = new BufferedInputStream(new FilterInputStream(Channels.newInputStream(channel)) {
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0 && deadline != 0) deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(window);
+                    return n;
+                }
+            }, 8192);
+            this.out = Channels.newOutputStream(channel);
+        }
+
+        Connection(Connection connection, InputStream in) {
+            this.channel = connection.channel;
+            this.in = in;
+            this.out = connection.out;
+        }
+
+        void arm(long windowMs) {
+            window = windowMs;
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+        }
+
+        void disarm() {
+            deadline = 0;
+        }
+
+        boolean expiredAt(long now) {
+            long current = deadline;
+            if (current == 0 || now - current < 0) return false;
+            expired = true;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    Response request(String method, String path, byte[] body) throws IOException {
+        return request(method, path, body, 0);
+    }
+
+    /** @param graceMs attente prévue côté démon avant toute réponse (délai d'arrêt...), ajoutée au délai de lecture */
+    private Response request(String method, String path, byte[] body, long graceMs) throws IOException {
+        Connection pooled = idle.poll();
+        if (pooled != null) {
+            try {
+                return exchange(pooled, method, path, body, graceMs);
+            } catch (StaleConnectionException stale) {
+                // Connexion keep-alive fermée côté démon entre deux appels : on en rouvre une
+            }
+        }
+        return exchange(open(), method, path, body, graceMs);
+    }
+
+    private Connection open() throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(address);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        openedConnections.incrementAndGet();
+        return new Connection(channel);
+    }
+
+    private Response exchange(Connection connection, String method, String path, byte[] body, long graceMs)
+            throws IOException {
+        boolean reusable = false;
+        connection.arm(readTimeoutMs + graceMs);
+        awaiting.add(connection);
+        try {
+            StringBuilder head = new StringBuilder()
+                    .append(method).append(' ').append(apiPrefix).append(path).append(" HTTP/1.1\r\n")
+                    .append("Host: docker\r\n")
+                    .append("Connection: keep-alive\r\n");
+            if (body != null) {
+                head.append("Content-Type: application/json\r\n");
+            }
+            head.append("Content-Length: ").append(body != null ? body.length : 0).append("\r\n\r\n");
+
+            try {
+                connection.out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+                if (body != null) connection.out.write(body);
+                connection.out.flush();
+            } catch (IOException e) {
+                throw new StaleConnectionException();
+            }
+
+            String statusLine = readLine(connection.in);
+            if (statusLine == null) throw new StaleConnectionException();
+            int status = parseStatus(statusLine);
+            Map<String, String> headers = readHeaders(connection.in);
+
+            byte[] responseBody;
+            boolean untilClose = false;
+            if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+                responseBody = new ChunkedInputStream(connection.in).readAllBytes();
+            } else if (headers.containsKey("content-length")) {
+                responseBody = connection.in.readNBytes(Integer.parseInt(headers.get("content-length")));
+            } else if (status == 204 || status == 304) {
+                responseBody = new byte[0];
+            } else {
+                responseBody = connection.in.readAllBytes();
+                untilClose = true;
+            }
+
+            reusable = !untilClose && !"close".equalsIgnoreCase(headers.get("connection"));
+            return new Response(status, headers, responseBody);
+        } catch (IOException e) {
+            throw connection.expired ? timeout(method + " " + path) : e;
+        } finally {
+            awaiting.remove(connection);
+            connection.disarm();
+            // Client fermé pendant l'appel : la connexion ne retourne pas dans le pool
+            if (!reusable || closed || !idle.offer(connection)) {
+                connection.close();
+            }
+        }
+    }
+
+    private static int parseStatus(String statusLine) throws IOException {
+        String[] parts = statusLine.split(" ", 3);
+        if (parts.length < 2) throw new IOException("Réponse HTTP invalide : " + statusLine);
+        return Integer.parseInt(parts[1]);
+    }
+
+    private static Map<String, String> readHeaders(InputStream in) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Requête GET dont le corps est lu au fil de l'eau (logs suivis...) : connexion dédiée, hors
+     * pool, fermée avec le flux rendu.
+     */
+    private Connection openStream(String path) throws IOException {
+        Connection connection = open();
+        // Délai limité à l'en-tête de la réponse : le flux suivi peut ensuite rester muet longtemps
+        connection.arm(readTimeoutMs);
+        awaiting.add(connection);
+        try {
+            String head = "GET " + apiPrefix + path + " HTTP/1.1\r\n"
+                    + "Host: docker\r\n"
+                    + "Connection: close\r\n\r\n";
+            connection.out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+            connection.out.flush();
+
+            String statusLine = readLine(connection.in);
+            if (statusLine == null) throw new EOFException("Connexion fermée par le démon Docker");
+            int status = parseStatus(statusLine);
+            Map<String, String> headers = readHeaders(connection.in);
+            InputStream body = "chunked".equalsIgnoreCase(headers.get("transfer-encoding"))
+                    ? new ChunkedInputStream(connection.in)
+                    : connection.in;
+            if (status >= 400) {
+                check(new Response(status, headers, body.readAllBytes()));
+            }
+            return new Connection(connection, body);
+        } catch (IOException e) {
+            connection.close();
+            throw connection.expired ? timeout("GET " + path) : e;
+        } finally {
+            awaiting.remove(connection);
+            connection.disarm();
+        }
+    }
+
+    private SocketTimeoutException timeout(String call) {
+        return new SocketTimeoutException("Démon Docker sans réponse après " + readTimeoutMs + " ms : " + call);
+    }
+
+    /** Aucune réponse reçue : la connexion a été fermée avant l'envoi du statut */
+    private static final class StaleConnectionException extends EOFException {
+        StaleConnectionException() {
+            super("Connexion fermée par le démon Docker");
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int len = line.size();
+                byte[] bytes = line.toByteArray();
+                return new String(bytes, 0, len > 0 && bytes[len - 1] == '\r' ? len - 1 : len, StandardCharsets.ISO_8859_1);
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    /** Corps HTTP en Transfer-Encoding: chunked */
+    static final class ChunkedInputStream extends FilterInputStream {
+        private long remaining;
+        private boolean eof;
+
+        ChunkedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (eof) return -1;
+            if (remaining == 0) {
+                String size = readLine(in);
+                if (size == null) throw new EOFException("Flux chunked tronqué");
+                int ext = size.indexOf(';');
+                remaining = Long.parseLong((ext >= 0 ? size.substring(0, ext) : size).trim(), 16);
+                if (remaining == 0) {
+                    // Trailers éventuels puis ligne vide finale
+                    String trailer;
+                    while ((trailer = readLine(in)) != null && !trailer.isEmpty()) {
+                    }
+                    eof = true;
+                    return -1;
+                }
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n == -1) throw new EOFException("Flux chunked tronqué");
+            remaining -= n;
+            if (remaining == 0) readLine(in); // CRLF de fin de chunk
+            return n;
+        }
+    }
+
+    // --- Utilitaires ---
+
+    private Response check(Response response) throws DockerApiException {
+        if (response.status >= 400) {
+            throw new DockerApiException(response.status, errorMessage(response));
+        }
+        return response;
+    }
+
+    // Champ "message" de l'erreur renvoyée par le démon, corps brut à défaut
+    private String errorMessage(Response response) {
+        String message = new String(response.body, StandardCharsets.UTF_8);
+        try {
+            return mapper.readTree(response.body).path("message").asText(message);
+        } catch (IOException ignored) {
+            return message;
+        }
+    }
+
+    private JsonNode json(Response response) throws IOException {
+        return mapper.readTree(response.body);
+    }
+
+    private static Map<String, String> labels(JsonNode node) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        node.properties().forEach(e -> labels.put(e.getKey(), e.getValue().asText()));
+        return labels;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * Logs sans TTY : trames [type, 0, 0, 0, taille (4 octets big-endian)] + contenu,
+     * type 1 = stdout, 2 = stderr. Avec TTY le flux est brut.
+     */
+    static String demultiplex(byte[] raw) {
+        if (raw.length < 8 || raw[0] > 2 || raw[1] != 0 || raw[2] != 0 || raw[3] != 0) {
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+
+        StringBuilder logs = new StringBuilder();
+        int pos = 0;
+        while (pos + 8 <= raw.length) {
+            int type = raw[pos];
+            int size = ((raw[pos + 4] & 0xff) << 24) | ((raw[pos + 5] & 0xff) << 16)
+                    | ((raw[pos + 6] & 0xff) << 8) | (raw[pos + 7] & 0xff);
+            pos += 8;
+            int end = Math.min(raw.length, pos + size);
+            String chunk = new String(raw, pos, end - pos, StandardCharsets.UTF_8);
+            pos = end;
+
+            if (type == 2) {
+                for (String line : chunk.split("\n", -1)) {
+                    if (!line.isEmpty()) logs.append("ERROR: ").append(line).append("\n");
+                }
+            } else {
+                logs.append(chunk);
+            }
+        }
+        return logs.toString();
+    }
+}
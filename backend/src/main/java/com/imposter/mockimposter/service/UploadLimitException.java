@@ -0,0 +1,18 @@
+package com.imposter.mockimposter.service;
+
+import java.io.IOException;
+
+/** Dépôt refusé : taille ou nombre d'entrées au-delà du plafond configuré */
+public class UploadLimitException extends IOException {
+
+    private final long limit;
+
+    public UploadLimitException(String message, long limit) {
+        super(message + " (plafond : " + limit + ")");
+        this.limit = limit;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+}
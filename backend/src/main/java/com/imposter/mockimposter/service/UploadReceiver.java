@@ -0,0 +1,288 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Dépôt en flux des fichiers d'un projet (POST /api/projects/create/stream) : le corps de la
+ * requête est lu une seule fois, haché et écrit à sa place via {@link BlobStore}, sans passer par
+ * le stockage temporaire des formulaires multipart. Une archive .zip (WSDL et XSD importés) est
+ * dépliée entrée par entrée au fil de la lecture, sans être chargée en mémoire.
+ *
+ * Les plafonds sont vérifiés avant toute lecture quand la taille est annoncée (Content-Length),
+ * puis pendant la lecture : corps brut, taille dépliée totale, nombre d'entrées.
+ */
+@Component
+public class UploadReceiver {
+
+    private static final Logger logger = Logger.getLogger(UploadReceiver.class.getName());
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private SchemaImportResolver schemaImportResolver;
+
+    @Value("${upload.stream.max-bytes:104857600}")
+    private long maxBytes;
+
+    @Value("${upload.archive.max-expanded-bytes:536870912}")
+    private long maxExpandedBytes;
+
+    @Value("${upload.archive.max-entries:2000}")
+    private int maxEntries;
+
+    private record Placed(Path relative, String hash) {
+    }
+
+    public static boolean isArchive(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    /**
+     * @param fileName       nom du WSDL, ou d'une archive .zip : la racine du projet est le dossier commun
+     *                       à son unique WSDL de plus haut niveau et aux fichiers qu'il référence (les
+     *                       imports relatifs, ../ compris, restent valides)
+     * @param declaredLength taille annoncée du corps, -1 si inconnue (envoi par morceaux)
+     * @throws UploadLimitException     plafond dépassé ; rien n'est laissé dans le projet
+     * @throws IllegalArgumentException fichier ou archive inutilisable
+     */
+    public MockProjectService.StagedUpload receive(Path projectPath, String fileName, InputStream body,
+                                                   long declaredLength) throws IOException {
+        String name = Paths.get(fileName).getFileName().toString();
+        if (declaredLength > maxBytes) {
+            throw new UploadLimitException("Envoi trop volumineux : " + declaredLength + " octets", maxBytes);
+        }
+        if (isArchive(name)) {
+            return expand(projectPath, new BoundedInputStream(body, maxBytes));
+        }
+        if (!name.toLowerCase(Locale.ROOT).endsWith(".wsdl")) {
+            throw new IllegalArgumentException("Fichier .wsdl ou archive .zip attendu : " + name);
+        }
+        Path wsdl = projectPath.resolve(name);
+        BlobStore.Placement placement = blobStore.place(body, wsdl, maxBytes);
+        logger.info("[UPLOAD] " + name + " reçu en flux (" + placement.size() + " octets)");
+        return new MockProjectService.StagedUpload(projectPath, wsdl, null, placement.hash(), null, List.of());
+    }
+
+    private MockProjectService.StagedUpload expand(Path projectPath, InputStream archive) throws IOException {
+        Path staging = projectPath.resolve(".bundle-" + UUID.randomUUID());
+        List<Placed> placed = new ArrayList<>();
+        List<Path> moved = new ArrayList<>();
+        boolean done = false;
+        try {
+            long expanded = 0;
+            try (ZipInputStream zip = new ZipInputStream(archive)) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (entry.isDirectory() || entry.getName().startsWith("__MACOSX/")) continue;
+                    if (placed.size() >= maxEntries) {
+                        throw new UploadLimitException("Archive : trop d'entrées", maxEntries);
+                    }
+                    Path relative = entryPath(entry.getName());
+                    Path target = staging.resolve(relative);
+                    Files.createDirectories(target.getParent());
+                    long budget = maxExpandedBytes - expanded;
+                    BlobStore.Placement placement;
+                    try {
+                        placement = blobStore.place(zip, target, budget);
+                    } catch (UploadLimitException e) {
+                        // Plafond de l'entrée = reste du plafond déplié ; sinon plafond du corps brut
+                        if (e.getLimit() != budget) throw e;
+                        throw new UploadLimitException("Archive : taille dépliée trop importante", maxExpandedBytes);
+                    }
+                    expanded += placement.size();
+                    placed.add(new Placed(relative, placement.hash()));
+                }
+            }
+
+            Placed wsdl = primaryWsdl(placed);
+            Path root = projectRoot(staging, wsdl, placed);
+            // Fichiers hors de la racine : jamais référencés depuis le WSDL, inaccessibles au mock
+            List<Placed> outside = placed.stream()
+                    .filter(file -> root != null && !file.relative().startsWith(root))
+                    .toList();
+            if (!outside.isEmpty()) {
+                logger.info("[UPLOAD] Archive : " + outside.size() + " fichier(s) non référencé(s) hors de "
+                        + root + " ignoré(s)");
+            }
+            // La racine devient celle du projet : simples renommages
+            Path source = root != null ? staging.resolve(root) : staging;
+            try (Stream<Path> children = Files.list(source)) {
+                for (Path child : (Iterable<Path>) children::iterator) {
+                    Path destination = projectPath.resolve(child.getFileName().toString());
+                    Files.move(child, destination);
+                    moved.add(destination);
+                }
+            }
+
+            Path wsdlPath = projectPath.resolve(root != null ? root.relativize(wsdl.relative()) : wsdl.relative());
+            List<String> others = new ArrayList<>();
+            placed.stream().filter(file -> file != wsdl && file.hash() != null && !outside.contains(file))
+                    .forEach(file -> others.add(file.hash()));
+            outside.forEach(file -> blobStore.release(file.hash()));
+            logger.info("[UPLOAD] Archive dépliée dans " + projectPath + " : " + placed.size() + " fichier(s), "
+                    + expanded + " octets, WSDL " + wsdlPath.getFileName());
+            done = true;
+            return new MockProjectService.StagedUpload(projectPath, wsdlPath, null, wsdl.hash(), null, others);
+        } finally {
+            deleteTree(staging);
+            if (!done) {
+                moved.forEach(UploadReceiver::deleteTree);
+                placed.forEach(file -> blobStore.release(file.hash()));
+            }
+        }
+    }
+
+    /**
+     * Dossier commun au WSDL et aux fichiers de l'archive qu'il référence, directement ou par
+     * imports successifs (null : racine de l'archive). Les références distantes, absentes de
+     * l'archive ou qui en sortent sont laissées à la résolution des imports.
+     */
+    private Path projectRoot(Path staging, Placed wsdl, List<Placed> placed) throws IOException {
+        Set<Path> files = new HashSet<>();
+        placed.forEach(file -> files.add(file.relative()));
+        Path root = wsdl.relative().getParent();
+        Set<Path> seen = new HashSet<>(Set.of(wsdl.relative()));
+        Deque<Path> pending = new ArrayDeque<>(seen);
+        while (!pending.isEmpty()) {
+            Path file = pending.poll();
+            List<String> references;
+            try {
+                references = schemaImportResolver.references(Files.readAllBytes(staging.resolve(file)));
+            } catch (XMLStreamException e) {
+                // Document illisible : signalé par la génération
+                continue;
+            }
+            for (String reference : references) {
+                Path target = localTarget(file, reference);
+                if (target == null || !files.contains(target) || !seen.add(target)) continue;
+                pending.add(target);
+                root = commonAncestor(root, target.getParent());
+            }
+        }
+        return root;
+    }
+
+    // Chemin dans l'archive d'une référence relative, null si distante ou hors de l'archive
+    private static Path localTarget(Path from, String reference) {
+        try {
+            URI uri = URI.create(reference.replace('\\', '/'));
+            if (uri.getScheme() != null || uri.getPath() == null || uri.getPath().isEmpty()) return null;
+            Path parent = from.getParent();
+            Path target = (parent != null ? parent.resolve(uri.getPath()) : Paths.get(uri.getPath())).normalize();
+            return target.isAbsolute() || target.startsWith("..") ? null : target;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Path commonAncestor(Path a, Path b) {
+        if (a == null || b == null) return null;
+        int common = 0;
+        while (common < a.getNameCount() && common < b.getNameCount() && a.getName(common).equals(b.getName(common))) {
+            common++;
+        }
+        return common == 0 ? null : a.subpath(0, common);
+    }
+
+    // Le WSDL le moins profond de l'archive ; les générateurs n'en acceptent qu'un à la racine du projet
+    private static Placed primaryWsdl(List<Placed> placed) {
+        List<Placed> wsdls = placed.stream()
+                .filter(file -> file.relative().getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".wsdl"))
+                .sorted(Comparator.comparingInt(file -> file.relative().getNameCount()))
+                .toList();
+        if (wsdls.isEmpty()) {
+            throw new IllegalArgumentException("Archive : aucun fichier .wsdl");
+        }
+        if (wsdls.size() > 1 && wsdls.get(1).relative().getNameCount() == wsdls.get(0).relative().getNameCount()) {
+            throw new IllegalArgumentException("Archive : plusieurs fichiers .wsdl au même niveau ("
+                    + wsdls.get(0).relative() + ", " + wsdls.get(1).relative() + ")");
+        }
+        return wsdls.get(0);
+    }
+
+    // Refuse les chemins absolus et les remontées (../) qui sortiraient du dossier du projet
+    static Path entryPath(String entryName) {
+        Path relative = Paths.get(entryName.replace('\\', '/')).normalize();
+        if (relative.isAbsolute() || relative.getNameCount() == 0 || relative.startsWith("..")
+                || relative.toString().isEmpty()) {
+            throw new IllegalArgumentException("Archive : chemin d'entrée refusé : " + entryName);
+        }
+        return relative;
+    }
+
+    private static void deleteTree(Path path) {
+        if (!Files.exists(path)) return;
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException e) {
+            logger.warning("[UPLOAD] Suppression de " + path + " impossible : " + e.getMessage());
+        }
+    }
+
+    /** Corps de requête borné : l'envoi est interrompu dès le plafond dépassé, même sans Content-Length */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) throws UploadLimitException {
+            count += n;
+            if (count > limit) throw new UploadLimitException("Envoi trop volumineux", limit);
+        }
+    }
+}
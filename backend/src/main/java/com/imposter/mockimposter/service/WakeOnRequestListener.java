@@ -0,0 +1,209 @@
+package com.imposter.mockimposter.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Écoute le port hôte d'un mock mis en veille. La première connexion (et celles déjà en file
+ * d'attente) est retenue sans être lue, le port est rendu, le conteneur redémarré par le chemin
+ * de démarrage habituel, puis chaque connexion retenue est relayée telle quelle vers le mock.
+ */
+@Component
+public class WakeOnRequestListener {
+
+    private static final Logger logger = Logger.getLogger(WakeOnRequestListener.class.getName());
+
+    // Fenêtre pendant laquelle les connexions en attente sont encore acceptées avant de rendre le port
+    private static final int BACKLOG_DRAIN_MS = 20;
+
+    @Autowired
+    @Lazy
+    private MockProjectService mockProjectService;
+
+    @Autowired
+    private MockEndpointResolver endpointResolver;
+
+    @Autowired
+    private MockActivityTracker activityTracker;
+
+    @Value("${docker.idle.bind-address:0.0.0.0}")
+    private String bindAddress;
+
+    private final ConcurrentHashMap<String, Listener> listeners = new ConcurrentHashMap<>();
+
+    private final AtomicInteger relayThreads = new AtomicInteger();
+    private final ExecutorService relayExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "wake-relay-" + relayThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** @return false si le port n'a pas pu être repris (il reste alors à libérer par l'appelant) */
+    public boolean listen(String projectName, int port) throws InterruptedException {
+        ServerSocket server = null;
+        for (int attempt = 1; server == null; attempt++) {
+            try {
+                ServerSocket socket = new ServerSocket();
+                socket.setReuseAddress(true);
+                socket.bind(new InetSocketAddress(InetAddress.getByName(bindAddress), port));
+                server = socket;
+            } catch (IOException e) {
+                // Le proxy Docker peut tenir le port quelques instants après la suppression du conteneur
+                if (attempt == 5) {
+                    logger.warning("[IDLE] Port " + port + " non disponible pour l'écoute de " + projectName + " : " + e.getMessage());
+                    return false;
+                }
+                Thread.sleep(200L * attempt);
+            }
+        }
+
+        Listener listener = new Listener(projectName, port, server);
+        Listener previous = listeners.put(projectName, listener);
+        if (previous != null) previous.close();
+        Thread thread = new Thread(listener, "wake-" + projectName);
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("[IDLE] " + projectName + " en veille, écoute sur le port " + port);
+        return true;
+    }
+
+    /** Arrête l'écoute sans réveiller le mock ; @return le port qui était écouté, null sinon */
+    public Integer cancel(String projectName) {
+        Listener listener = listeners.remove(projectName);
+        if (listener == null) return null;
+        listener.close();
+        return listener.port;
+    }
+
+    public boolean isSuspended(String projectName) {
+        return listeners.containsKey(projectName);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        listeners.values().forEach(Listener::close);
+        listeners.clear();
+        relayExecutor.shutdownNow();
+    }
+
+    private final class Listener implements Runnable {
+
+        private final String projectName;
+        private final int port;
+        private final ServerSocket server;
+
+        Listener(String projectName, int port, ServerSocket server) {
+            this.projectName = projectName;
+            this.port = port;
+            this.server = server;
+        }
+
+        @Override
+        public void run() {
+            List<Socket> held = new ArrayList<>();
+            try {
+                held.add(server.accept());
+                server.setSoTimeout(BACKLOG_DRAIN_MS);
+                while (true) {
+                    held.add(server.accept());
+                }
+            } catch (SocketTimeoutException e) {
+                // File d'attente vidée
+            } catch (IOException e) {
+                if (held.isEmpty()) return; // écoute annulée
+            }
+
+            // Un démarrage explicite concurrent a pu reprendre le port : il gagne
+            if (!listeners.remove(projectName, this)) {
+                held.forEach(WakeOnRequestListener::closeQuietly);
+                return;
+            }
+            close();
+            activityTracker.touch(projectName);
+            logger.info("[IDLE] Réveil de " + projectName + " (" + held.size() + " connexion(s) en attente)");
+
+            InetSocketAddress upstream;
+            try {
+                MockProjectService.MockStart start = mockProjectService.wakeDockerContainer(projectName, port);
+                upstream = endpointResolver.resolve("mock-" + projectName, start.hostPort());
+                logger.info("[IDLE] " + projectName + " réveillé en " + start.timeToReady().toMillis() + " ms");
+            } catch (Exception e) {
+                logger.severe("[IDLE] Échec du réveil de " + projectName + " : " + e.getMessage());
+                held.forEach(WakeOnRequestListener::rejectQuietly);
+                return;
+            }
+            for (Socket client : held) {
+                relay(client, upstream);
+            }
+        }
+
+        void close() {
+            closeQuietly(server);
+        }
+    }
+
+    private void relay(Socket client, InetSocketAddress upstreamAddress) {
+        Socket upstream;
+        try {
+            upstream = new Socket(upstreamAddress.getHostString(), upstreamAddress.getPort());
+        } catch (IOException e) {
+            logger.warning("[IDLE] Connexion au mock impossible : " + e.getMessage());
+            rejectQuietly(client);
+            return;
+        }
+        relayExecutor.execute(() -> pipe(client, upstream));
+        relayExecutor.execute(() -> pipe(upstream, client));
+    }
+
+    // Copie jusqu'à la fin du flux, puis propage la demi-fermeture
+    private static void pipe(Socket from, Socket to) {
+        try {
+            from.getInputStream().transferTo(to.getOutputStream());
+            to.shutdownOutput();
+        } catch (IOException e) {
+            closeQuietly(from);
+            closeQuietly(to);
+            return;
+        }
+        if (from.isOutputShutdown()) {
+            closeQuietly(from);
+            closeQuietly(to);
+        }
+    }
+
+    private static void rejectQuietly(Socket client) {
+        try (client; OutputStream out = client.getOutputStream()) {
+            out.write(("HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException ignored) {
+            // Client déjà parti
+        }
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Déjà fermé
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Pool de conteneurs Imposter déjà créés mais pas démarrés (image présente, conteneur créé,
+ * réseau attaché). Chaque conteneur du pool monte son propre dossier baseDir/.pool/{id} ; un
+ * démarrage de projet en réclame un, y copie les fichiers du projet, le renomme
+ * mock-{projectName} et le démarre. Imposter ne lit sa configuration qu'au démarrage et un
+ * montage ne peut être changé sur un conteneur existant : le moteur ne démarre donc qu'une fois
+ * le projet en place, seules la création du conteneur et l'attache au réseau sont évitées. Le
+ * pool est ensuite complété en tâche de fond.
+ *
+ * La copie d'un conteneur affecté est resynchronisée à chaque régénération du projet
+ * ({@link #refresh}) : réponses à jour comme avec le dossier monté d'un démarrage classique.
+ */
+@Component
+public class WarmContainerPool {
+
+    private static final Logger logger = Logger.getLogger(WarmContainerPool.class.getName());
+
+    static final String POOL_PREFIX = "imposter-pool-";
+    static final String POOL_LABEL = "mockimposter.pool";
+
+    @Autowired
+    private DockerClient dockerClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HostPortAllocator hostPortAllocator;
+
+    @Value("${docker.pool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${docker.pool.size:2}")
+    private int size;
+
+    @Value("${base.dir:projets_mocks}")
+    private String baseDirPath;
+
+    @Value("${docker.network:mocknet}")
+    private String dockerNetwork;
+
+    @Value("${docker.image:outofcoffee/imposter:latest}")
+    private String dockerImage;
+
+    @Value("${docker.host-projects-dir:${HOST_PROJECTS_DIR:}}")
+    private String hostProjectsDir;
+
+    record Slot(String id, String containerId, Path dir, Integer hostPort) {
+        String containerName() {
+            return POOL_PREFIX + id;
+        }
+    }
+
+    private final ConcurrentLinkedDeque<Slot> idle = new ConcurrentLinkedDeque<>();
+    private final Map<String, Slot> claimed = new ConcurrentHashMap<>();
+    private final AtomicInteger refilling = new AtomicInteger();
+    private ExecutorService refiller;
+    private Path poolDir;
+
+    private Counter hits;
+    private Counter misses;
+    private Timer refillTimer;
+
+    @PostConstruct
+    public void init() {
+        hits = Counter.builder("mock.pool.hits").description("Démarrages servis par le pool").register(meterRegistry);
+        misses = Counter.builder("mock.pool.misses").description("Démarrages sans conteneur disponible").register(meterRegistry);
+        refillTimer = Timer.builder("mock.pool.refill").description("Création d'un conteneur du pool")
+                .register(meterRegistry);
+        Gauge.builder("mock.pool.idle", idle, ConcurrentLinkedDeque::size).register(meterRegistry);
+
+        if (!enabled) return;
+
+        poolDir = Paths.get(baseDirPath).toAbsolutePath().normalize().resolve(".pool");
+        refiller = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "warm-pool-refill");
+            t.setDaemon(true);
+            return t;
+        });
+        refiller.execute(this::removeOrphans);
+        scheduleRefill();
+        logger.info("[POOL] Pool de " + size + " conteneur(s) déjà créé(s) dans " + poolDir);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refiller != null) refiller.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Affecte un conteneur du pool au projet ; son port hôte devient celui du projet.
+     *
+     * @return le port hôte du conteneur, null si le pool est vide ou l'affectation impossible
+     * (démarrage classique à faire)
+     */
+    public Integer claim(String projectName, Path projectDir) {
+        if (!enabled) return null;
+
+        Slot slot = idle.poll();
+        scheduleRefill();
+        if (slot == null) {
+            misses.increment();
+            logger.info("[POOL] Aucun conteneur disponible pour " + projectName);
+            return null;
+        }
+
+        String containerName = "mock-" + projectName;
+        try {
+            syncProject(projectDir, slot.dir());
+            dockerClient.stopContainer(containerName, 10);
+            dockerClient.removeContainer(containerName, true);
+            dockerClient.renameContainer(slot.containerId(), containerName);
+            // Premier démarrage du moteur, configuration du projet déjà en place
+            dockerClient.startContainer(slot.containerId());
+            claimed.put(projectName, slot);
+            hits.increment();
+            logger.info("[POOL] Conteneur " + slot.containerName() + " affecté à " + projectName);
+            return slot.hostPort();
+        } catch (IOException e) {
+            logger.warning("[POOL] Affectation à " + projectName + " impossible : " + e.getMessage());
+            discard(slot);
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Resynchronise la copie du projet servie par son conteneur affecté (aucun effet si le projet
+     * n'en a pas) : fichiers régénérés recopiés, fichiers disparus supprimés. La configuration
+     * n'est relue qu'au redémarrage du conteneur.
+     */
+    public void refresh(String projectName, Path projectDir) {
+        Slot slot = claimed.get(projectName);
+        if (slot == null) return;
+        try {
+            syncProject(projectDir, slot.dir());
+            logger.info("[POOL] Copie de " + projectName + " resynchronisée dans " + slot.containerName());
+        } catch (IOException e) {
+            logger.warning("[POOL] Resynchronisation de " + projectName + " impossible : " + e.getMessage());
+        }
+    }
+
+    /** Libère le dossier du conteneur affecté au projet (le conteneur est supprimé par l'appelant) */
+    public void release(String projectName) {
+        Slot slot = claimed.remove(projectName);
+        if (slot != null) deleteDir(slot.dir());
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "enabled", enabled,
+                "size", size,
+                "idle", idle.size(),
+                "claimed", claimed.size(),
+                "hits", (long) hits.count(),
+                "misses", (long) misses.count(),
+                "refillMeanMs", refillTimer.mean(java.util.concurrent.TimeUnit.MILLISECONDS)
+        );
+    }
+
+    // --- Remplissage ---
+
+    private void scheduleRefill() {
+        if (!enabled) return;
+        while (true) {
+            int pending = refilling.get();
+            if (idle.size() + pending >= size) return;
+            if (refilling.compareAndSet(pending, pending + 1)) {
+                refiller.execute(() -> {
+                    try {
+                        refillTimer.record(this::createSlot);
+                    } finally {
+                        refilling.decrementAndGet();
+                    }
+                });
+            }
+        }
+    }
+
+    private void createSlot() {
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        Path dir = poolDir.resolve(id);
+        String containerId = null;
+        int hostPort = hostPortAllocator.allocate();
+        try {
+            Files.createDirectories(dir);
+
+            String hostRoot = hostProjectsDir.isBlank() ? Paths.get(baseDirPath).toAbsolutePath().normalize().toString() : hostProjectsDir;
+            String network = dockerClient.networkExists(dockerNetwork) ? dockerNetwork : null;
+            containerId = dockerClient.createContainer(new DockerClient.ContainerSpec(
+                    POOL_PREFIX + id,
+                    dockerImage,
+                    hostPort,
+                    8080,
+                    Paths.get(hostRoot, ".pool", id).toString(),
+                    "/opt/imposter/config",
+                    network,
+                    Map.of(POOL_LABEL, "true")
+            ));
+            // Pas de démarrage ici : le moteur serait redémarré à l'affectation pour lire le projet
+            idle.add(new Slot(id, containerId, dir, hostPort));
+            logger.info("[POOL] Conteneur " + POOL_PREFIX + id + " créé");
+        } catch (IOException e) {
+            logger.warning("[POOL] Création d'un conteneur du pool impossible : " + e.getMessage());
+            discard(new Slot(id, containerId != null ? containerId : POOL_PREFIX + id, dir, hostPort));
+        }
+    }
+
+    // Conteneurs inoccupés laissés par une instance précédente du backend
+    private void removeOrphans() {
+        try {
+            for (DockerClient.ContainerInfo info : dockerClient.listContainers(true, POOL_PREFIX)) {
+                dockerClient.removeContainer(info.id(), true);
+                deleteDir(poolDir.resolve(info.name().substring(POOL_PREFIX.length())));
+            }
+        } catch (IOException e) {
+            logger.warning("[POOL] Nettoyage des conteneurs orphelins impossible : " + e.getMessage());
+        }
+    }
+
+    private void discard(Slot slot) {
+        hostPortAllocator.release(slot.hostPort());
+        try {
+            dockerClient.removeContainer(slot.containerId(), true);
+        } catch (IOException e) {
+            logger.warning("[POOL] Suppression de " + slot.containerName() + " impossible : " + e.getMessage());
+        }
+        deleteDir(slot.dir());
+    }
+
+    // Copie en place (un conteneur en service lit le dossier) : fichiers remplacés, puis fichiers
+    // absents du projet supprimés
+    private static void syncProject(Path projectDir, Path slotDir) throws IOException {
+        try (Stream<Path> files = Files.walk(projectDir)) {
+            for (Path source : (Iterable<Path>) files::iterator) {
+                Path target = slotDir.resolve(projectDir.relativize(source).toString());
+                if (Files.isDirectory(source)) Files.createDirectories(target);
+                else Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        List<Path> stale;
+        try (Stream<Path> existing = Files.walk(slotDir)) {
+            stale = existing.filter(p -> !p.equals(slotDir))
+                    .filter(p -> !Files.exists(projectDir.resolve(slotDir.relativize(p).toString())))
+                    .toList();
+        }
+        stale.forEach(WarmContainerPool::deleteDir);
+    }
+
+    private static void deleteDir(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException e) {
+            logger.warning("[POOL] Suppression de " + dir + " impossible : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.imposter.mockimposter.service;
+
+import org.springframework.stereotype.Component;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyse d'un WSDL 1.1 en streaming (StAX) : aucun arbre DOM n'est construit,
+ * on ne retient que les adresses SOAP, les opérations des bindings et l'élément attendu
+ * en tête du Body pour chacune (clé de routage quand la SOAPAction ne suffit pas).
+ */
+@Component
+public class WsdlAnalyzer {
+
+    static final String WSDL_NS = "http://schemas.xmlsoap.org/wsdl/";
+    static final String SOAP_NS = "http://schemas.xmlsoap.org/wsdl/soap/";
+    static final String SOAP12_NS = "http://schemas.xmlsoap.org/wsdl/soap12/";
+
+    private final XMLInputFactory inputFactory;
+
+    public WsdlAnalyzer() {
+        inputFactory = XMLInputFactory.newFactory();
+        // Pas de DTD ni d'entités externes dans un WSDL uploadé
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    public WsdlDescriptor analyze(Path wsdlPath) throws IOException {
+        try (InputStream in = Files.newInputStream(wsdlPath)) {
+            return analyze(in);
+        } catch (XMLStreamException e) {
+            throw new IOException("WSDL invalide (" + wsdlPath.getFileName() + ") : " + e.getMessage(), e);
+        }
+    }
+
+    public WsdlDescriptor analyze(InputStream in) throws XMLStreamException {
+        String targetNamespace = null;
+        List<String> soapAddresses = new ArrayList<>();
+        List<String> soap12Addresses = new ArrayList<>();
+
+        // Références entre sections résolues par nom local : un WSDL importé n'est pas suivi
+        Map<String, List<WsdlDescriptor.MessagePart>> messageParts = new HashMap<>();
+        Map<String, String> inputMessages = new HashMap<>();
+        Map<String, String> outputMessages = new HashMap<>();
+        Map<String, Binding> bindings = new LinkedHashMap<>();
+        List<Port> ports = new ArrayList<>();
+
+        String message = null;
+        String portType = null;
+        String portTypeOperation = null;
+        Binding binding = null;
+        BindingOperation operation = null;
+        boolean inInput = false;
+        boolean inOutput = false;
+        String port = null;
+
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String ns = reader.getNamespaceURI();
+                    String local = reader.getLocalName();
+
+                    if (WSDL_NS.equals(ns)) {
+                        switch (local) {
+                            case "definitions" -> targetNamespace = reader.getAttributeValue(null, "targetNamespace");
+                            case "message" -> message = reader.getAttributeValue(null, "name");
+                            case "part" -> {
+                                String element = reader.getAttributeValue(null, "element");
+                                String type = reader.getAttributeValue(null, "type");
+                                if (message != null) {
+                                    messageParts.computeIfAbsent(message, m -> new ArrayList<>()).add(
+                                            new WsdlDescriptor.MessagePart(reader.getAttributeValue(null, "name"),
+                                                    element != null ? qualify(reader, element) : null,
+                                                    type != null ? qualify(reader, type) : null));
+                                }
+                            }
+                            case "portType" -> portType = reader.getAttributeValue(null, "name");
+                            case "binding" -> {
+                                binding = new Binding(localPart(reader.getAttributeValue(null, "type")));
+                                bindings.put(reader.getAttributeValue(null, "name"), binding);
+                            }
+                            case "operation" -> {
+                                String name = reader.getAttributeValue(null, "name");
+                                if (binding != null) {
+                                    operation = new BindingOperation(name);
+                                    binding.operations.add(operation);
+                                } else if (portType != null) {
+                                    portTypeOperation = name;
+                                }
+                            }
+                            case "input", "output" -> {
+                                boolean input = "input".equals(local);
+                                if (operation != null) {
+                                    inInput = input;
+                                    inOutput = !input;
+                                } else if (portTypeOperation != null) {
+                                    (input ? inputMessages : outputMessages).put(portType + "#" + portTypeOperation,
+                                            localPart(reader.getAttributeValue(null, "message")));
+                                }
+                            }
+                            case "port" -> port = localPart(reader.getAttributeValue(null, "binding"));
+                            default -> {
+                            }
+                        }
+                    } else if (SOAP_NS.equals(ns) || SOAP12_NS.equals(ns)) {
+                        switch (local) {
+                            case "address" -> {
+                                String location = reader.getAttributeValue(null, "location");
+                                if (location != null && !location.isBlank()) {
+                                    boolean soap12 = SOAP12_NS.equals(ns);
+                                    (soap12 ? soap12Addresses : soapAddresses).add(location);
+                                    ports.add(new Port(port, location, soap12));
+                                }
+                            }
+                            case "binding" -> {
+                                String style = reader.getAttributeValue(null, "style");
+                                if (binding != null && style != null) binding.style = style;
+                            }
+                            case "operation" -> {
+                                if (operation != null) {
+                                    operation.soapAction = reader.getAttributeValue(null, "soapAction");
+                                    operation.style = reader.getAttributeValue(null, "style");
+                                }
+                            }
+                            case "body" -> {
+                                if (inInput) operation.bodyNamespace = reader.getAttributeValue(null, "namespace");
+                                if (inOutput) operation.responseNamespace = reader.getAttributeValue(null, "namespace");
+                            }
+                            default -> {
+                            }
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && WSDL_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "message" -> message = null;
+                        case "portType" -> portType = null;
+                        case "binding" -> binding = null;
+                        case "operation" -> {
+                            operation = null;
+                            portTypeOperation = null;
+                        }
+                        case "input", "output" -> {
+                            inInput = false;
+                            inOutput = false;
+                        }
+                        case "port" -> port = null;
+                        default -> {
+                        }
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Premier élément du Body : part du message (document) ou nom de l'opération (rpc)
+        Map<String, List<WsdlDescriptor.SoapOperation>> byBinding = new HashMap<>();
+        List<WsdlDescriptor.SoapOperation> operations = new ArrayList<>();
+        for (Map.Entry<String, Binding> entry : bindings.entrySet()) {
+            Binding b = entry.getValue();
+            List<WsdlDescriptor.SoapOperation> resolved = new ArrayList<>();
+            for (BindingOperation op : b.operations) {
+                String style = op.style != null ? op.style : b.style;
+                String tns = targetNamespace != null ? targetNamespace : "";
+                List<WsdlDescriptor.MessagePart> input = parts(messageParts, inputMessages.get(b.portType + "#" + op.name));
+                List<WsdlDescriptor.MessagePart> output = outputMessages.containsKey(b.portType + "#" + op.name)
+                        ? parts(messageParts, outputMessages.get(b.portType + "#" + op.name)) : null;
+                QName bodyElement;
+                QName responseElement;
+                List<WsdlDescriptor.MessagePart> responseParts = List.of();
+                if ("rpc".equals(style)) {
+                    bodyElement = new QName(op.bodyNamespace != null ? op.bodyNamespace : tns, op.name);
+                    responseElement = output != null ? new QName(op.responseNamespace != null ? op.responseNamespace
+                            : bodyElement.getNamespaceURI(), op.name + "Response") : null;
+                    if (output != null) responseParts = List.copyOf(output);
+                } else {
+                    bodyElement = input.isEmpty() ? null : input.get(0).element();
+                    responseElement = output == null || output.isEmpty() ? null : output.get(0).element();
+                }
+                resolved.add(new WsdlDescriptor.SoapOperation(op.name, op.soapAction, bodyElement, responseElement,
+                        responseParts));
+            }
+            byBinding.put(entry.getKey(), List.copyOf(resolved));
+            operations.addAll(resolved);
+        }
+        List<WsdlDescriptor.SoapEndpoint> endpoints = new ArrayList<>();
+        for (Port p : ports) {
+            endpoints.add(new WsdlDescriptor.SoapEndpoint(p.location(), p.soap12(),
+                    byBinding.getOrDefault(p.binding(), List.of())));
+        }
+
+        return new WsdlDescriptor(targetNamespace, List.copyOf(soapAddresses), List.copyOf(soap12Addresses),
+                List.copyOf(operations), List.copyOf(endpoints));
+    }
+
+    private static List<WsdlDescriptor.MessagePart> parts(Map<String, List<WsdlDescriptor.MessagePart>> messageParts,
+                                                          String message) {
+        return message != null ? messageParts.getOrDefault(message, List.of()) : List.of();
+    }
+
+    // "tns:Element" -> QName avec l'espace de noms lié au préfixe à cet endroit du document
+    private static QName qualify(XMLStreamReader reader, String prefixed) {
+        int colon = prefixed.indexOf(':');
+        String prefix = colon > 0 ? prefixed.substring(0, colon) : "";
+        String ns = reader.getNamespaceContext().getNamespaceURI(prefix);
+        return new QName(ns != null ? ns : "", prefixed.substring(colon + 1));
+    }
+
+    private static String localPart(String prefixed) {
+        if (prefixed == null) return null;
+        return prefixed.substring(prefixed.indexOf(':') + 1);
+    }
+
+    private static final class Binding {
+        final String portType;
+        final List<BindingOperation> operations = new ArrayList<>();
+        String style = "document";
+
+        Binding(String portType) {
+            this.portType = portType;
+        }
+    }
+
+    private static final class BindingOperation {
+        final String name;
+        String soapAction;
+        String style;
+        String bodyNamespace;
+        String responseNamespace;
+
+        BindingOperation(String name) {
+            this.name = name;
+        }
+    }
+
+    private record Port(String binding, String location, boolean soap12) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.imposter.mockimposter.service;
+
+import javax.xml.namespace.QName;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Vue minimale d'un WSDL, produite par {@link WsdlAnalyzer} :
+ * adresses SOAP déclarées, opérations des bindings SOAP et ports qui les exposent.
+ */
+public record WsdlDescriptor(String targetNamespace,
+                             List<String> soapAddresses,
+                             List<String> soap12Addresses,
+                             List<SoapOperation> operations,
+                             List<SoapEndpoint> endpoints) {
+
+    /**
+     * @param bodyElement     premier élément attendu dans le Body de la requête : élément de la part
+     *                        du message d'entrée (document), ou nom de l'opération (rpc) ; null si inconnu
+     * @param responseElement élément du Body de la réponse : part du message de sortie (document), ou
+     *                        enveloppe &lt;opérationResponse&gt; (rpc) ; null sans message de sortie connu
+     * @param responseParts   parts du message de sortie en style rpc, une par enfant de l'enveloppe ;
+     *                        vide en style document
+     */
+    public record SoapOperation(String name, String soapAction, QName bodyElement, QName responseElement,
+                                List<MessagePart> responseParts) {
+    }
+
+    /** Part d'un message : élément global ou type XSD (l'un des deux renseigné) */
+    public record MessagePart(String name, QName element, QName type) {
+    }
+
+    /** Port SOAP : adresse déclarée et opérations de son binding (vide si le binding est hors du WSDL) */
+    public record SoapEndpoint(String location, boolean soap12, List<SoapOperation> operations) {
+    }
+
+    /** Première adresse SOAP 1.1 (comportement historique de generate.py), sinon SOAP 1.2 */
+    public String firstAddress() {
+        if (!soapAddresses.isEmpty()) return soapAddresses.get(0);
+        if (!soap12Addresses.isEmpty()) return soap12Addresses.get(0);
+        return null;
+    }
+
+    /** Chemin HTTP d'une adresse SOAP, "/defaultPath" si l'URL n'en a pas (comme urlparse côté Python) */
+    public static String pathOf(String location) {
+        String path = null;
+        try {
+            path = URI.create(location.trim()).getRawPath();
+        } catch (IllegalArgumentException ignored) {
+        }
+        return (path == null || path.isEmpty()) ? "/defaultPath" : path;
+    }
+}
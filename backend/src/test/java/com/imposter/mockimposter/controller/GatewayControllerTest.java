@@ -0,0 +1,141 @@
+package com.imposter.mockimposter.controller;
+
+import com.imposter.mockimposter.entities.MockProject;
+import com.imposter.mockimposter.service.MockActivityTracker;
+import com.imposter.mockimposter.service.MockEndpointResolver;
+import com.imposter.mockimposter.service.MockGateway;
+import com.imposter.mockimposter.service.MockProjectService;
+import com.imposter.mockimposter.service.RequestValidator;
+import com.imposter.mockimposter.service.WakeOnRequestListener;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GatewayControllerTest {
+
+    private HttpServer upstream;
+    private MockEndpointResolver endpointResolver;
+    private MockGateway gateway;
+    private GatewayController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Mock Imposter : réponse complète envoyée aussitôt
+        upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstream.createContext("/", exchange -> {
+            byte[] body = "<ok/>".getBytes(StandardCharsets.UTF_8);
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.start();
+
+        endpointResolver = mock(MockEndpointResolver.class);
+        when(endpointResolver.baseUrl(anyString(), any())).thenReturn("http://127.0.0.1:" + upstream.getAddress().getPort());
+
+        gateway = new MockGateway();
+        ReflectionTestUtils.setField(gateway, "endpointResolver", endpointResolver);
+        ReflectionTestUtils.setField(gateway, "activityTracker", mock(MockActivityTracker.class));
+        ReflectionTestUtils.setField(gateway, "wakeOnRequestListener", mock(WakeOnRequestListener.class));
+        ReflectionTestUtils.setField(gateway, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(gateway, "maxConcurrentPerProject", 1);
+        ReflectionTestUtils.setField(gateway, "acquireTimeoutMs", 50L);
+        ReflectionTestUtils.setField(gateway, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(gateway, "responseTimeoutMs", 5000L);
+        gateway.init();
+
+        MockProject project = new MockProject();
+        project.setName("pets");
+        project.setHostPort(upstream.getAddress().getPort());
+        MockProjectService projectService = mock(MockProjectService.class);
+        when(projectService.findProjectByName("pets")).thenReturn(Optional.of(project));
+
+        controller = new GatewayController();
+        ReflectionTestUtils.setField(controller, "mockGateway", gateway);
+        ReflectionTestUtils.setField(controller, "mockProjectService", projectService);
+        ReflectionTestUtils.setField(controller, "requestValidator", mock(RequestValidator.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void releasesThePermitOnceTheBodyIsCopied() throws Exception {
+        ResponseEntity<StreamingResponseBody> relayed = forward(new MockHttpServletRequest("POST", "/gateway/pets/soap"));
+        assertEquals(200, relayed.getStatusCode().value());
+        assertEquals(1, inFlight());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        relayed.getBody().writeTo(out);
+        assertEquals("<ok/>", out.toString(StandardCharsets.UTF_8));
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void releasesThePermitWhenTheClientLeavesBeforeTheBodyIsCopied() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/gateway/pets/soap");
+        forward(request);
+        assertEquals(1, inFlight());
+
+        // Client parti : l'écriture asynchrone du corps échoue avant toute copie
+        WebAsyncUtils.getAsyncManager(request).getCallableInterceptor("com.imposter.mockimposter.controller.GatewayController$Release")
+                .handleError(new ServletWebRequest(request), () -> null, new IOException("Broken pipe"));
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void releasesThePermitWhenTheMockCannotBeReached() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        when(endpointResolver.baseUrl(anyString(), any())).thenReturn("http://127.0.0.1:" + closedPort);
+
+        ResponseEntity<StreamingResponseBody> relayed = forward(new MockHttpServletRequest("POST", "/gateway/pets/soap"));
+        assertEquals(502, relayed.getStatusCode().value());
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void answers503WhileTheProjectLimitIsReached() throws Exception {
+        ResponseEntity<StreamingResponseBody> first = forward(new MockHttpServletRequest("POST", "/gateway/pets/soap"));
+        ResponseEntity<StreamingResponseBody> second = forward(new MockHttpServletRequest("POST", "/gateway/pets/soap"));
+
+        assertEquals(503, second.getStatusCode().value());
+        first.getBody().writeTo(new ByteArrayOutputStream());
+        assertEquals(200, forward(new MockHttpServletRequest("POST", "/gateway/pets/soap")).getStatusCode().value());
+    }
+
+    private ResponseEntity<StreamingResponseBody> forward(MockHttpServletRequest request) throws Exception {
+        return controller.forward("pets", request, new MockHttpServletResponse()).get(5, TimeUnit.SECONDS);
+    }
+
+    private int inFlight() {
+        return gateway.inFlight().getOrDefault("pets", 0);
+    }
+}
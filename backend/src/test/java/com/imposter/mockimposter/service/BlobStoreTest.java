@@ -0,0 +1,89 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.StoredBlob;
+import com.imposter.mockimposter.repositories.StoredBlobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BlobStoreTest {
+
+    @TempDir
+    Path baseDir;
+
+    private final Map<String, StoredBlob> rows = new HashMap<>();
+    private BlobStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StoredBlobRepository repository = mock(StoredBlobRepository.class);
+        when(repository.findById(anyString())).thenAnswer(i -> Optional.ofNullable(rows.get(i.getArgument(0, String.class))));
+        when(repository.existsById(anyString())).thenAnswer(i -> rows.containsKey(i.getArgument(0, String.class)));
+        when(repository.save(any())).thenAnswer(i -> {
+            StoredBlob blob = i.getArgument(0);
+            rows.put(blob.getHash(), blob);
+            return blob;
+        });
+        doAnswer(i -> rows.remove(i.getArgument(0, StoredBlob.class).getHash())).when(repository).delete(any());
+        when(repository.findByRefCountLessThanEqual(anyInt())).thenReturn(List.of());
+        when(repository.addReferences(anyString(), anyInt())).thenAnswer(i -> {
+            StoredBlob blob = rows.get(i.getArgument(0, String.class));
+            if (blob == null) return 0;
+            blob.setRefCount(blob.getRefCount() + i.getArgument(1, Integer.class));
+            return 1;
+        });
+        when(repository.deleteIfUnreferenced(anyString())).thenAnswer(i -> {
+            StoredBlob blob = rows.get(i.getArgument(0, String.class));
+            return blob != null && blob.getRefCount() <= 0 && rows.remove(blob.getHash()) != null ? 1 : 0;
+        });
+
+        store = new BlobStore(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "blobRepository", repository);
+        ReflectionTestUtils.setField(store, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "baseDirPath", baseDir.toString());
+        store.init();
+    }
+
+    @Test
+    void storesRepeatedContentOnceAndFreesItWithTheLastReference() throws Exception {
+        byte[] wsdl = "<definitions/>".getBytes(StandardCharsets.UTF_8);
+        Path first = Files.createDirectories(baseDir.resolve("pets")).resolve("service.wsdl");
+        Path second = Files.createDirectories(baseDir.resolve("orders")).resolve("service.wsdl");
+
+        BlobStore.Placement stored = store.place(new ByteArrayInputStream(wsdl), first);
+        BlobStore.Placement shared = store.place(new ByteArrayInputStream(wsdl), second);
+
+        assertFalse(stored.deduplicated());
+        assertTrue(shared.deduplicated());
+        assertEquals(ContentHash.sha256(wsdl), shared.hash());
+        assertEquals(2, rows.get(shared.hash()).getRefCount());
+        assertArrayEquals(wsdl, Files.readAllBytes(second));
+        Path blob = baseDir.resolve(".blobs").resolve(shared.hash().substring(0, 2)).resolve(shared.hash());
+        if (shared.linked()) assertTrue(Files.isSameFile(blob, second));
+
+        store.release(stored.hash());
+        assertTrue(Files.exists(blob));
+        store.release(shared.hash());
+        assertFalse(Files.exists(blob));
+        assertTrue(rows.isEmpty());
+        // Les fichiers des projets ne dépendent pas du magasin
+        assertArrayEquals(wsdl, Files.readAllBytes(first));
+    }
+}
@@ -0,0 +1,148 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContainerLogStreamerTest {
+
+    private final DockerClient dockerClient = mock(DockerClient.class);
+    private final AtomicReference<Consumer<String>> upstream = new AtomicReference<>();
+    private final AtomicInteger closedReaders = new AtomicInteger();
+    private ContainerLogStreamer streamer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        when(dockerClient.followLogs(eq("mock-pets"), anyInt(), any(), any())).thenAnswer(invocation -> {
+            upstream.set(invocation.getArgument(2, Consumer.class));
+            return (Closeable) closedReaders::incrementAndGet;
+        });
+        streamer = new ContainerLogStreamer(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(streamer, "dockerClient", dockerClient);
+        ReflectionTestUtils.setField(streamer, "historySize", 3);
+        ReflectionTestUtils.setField(streamer, "subscriberBuffer", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamer.shutdown();
+    }
+
+    @Test
+    void sharesOneReaderAndReplaysTailToLateSubscribers() throws Exception {
+        RecordingSink first = new RecordingSink(null);
+        Closeable firstSubscription = streamer.subscribe("pets", 100, first);
+        List<String> lines = List.of("a", "b", "c", "d");
+        for (int i = 0; i < lines.size(); i++) {
+            upstream.get().accept(lines.get(i));
+            first.awaitEvents(i + 1);
+        }
+
+        RecordingSink second = new RecordingSink(null);
+        Closeable secondSubscription = streamer.subscribe("pets", 2, second);
+        // L'historique remplit la file de deux places : elle doit être vidée avant la ligne suivante
+        second.awaitEvents(2);
+        upstream.get().accept("e");
+
+        first.awaitEvents(5);
+        second.awaitEvents(3);
+        assertEquals(List.of("a", "b", "c", "d", "e"), first.events);
+        assertEquals(List.of("c", "d", "e"), second.events);
+        verify(dockerClient, times(1)).followLogs(eq("mock-pets"), anyInt(), any(), any());
+
+        firstSubscription.close();
+        assertEquals(0, closedReaders.get());
+        secondSubscription.close();
+        assertEquals(1, closedReaders.get());
+    }
+
+    @Test
+    void slowSubscriberSkipsLinesAndGetsTheirCount() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release);
+        RecordingSink fast = new RecordingSink(null);
+        streamer.subscribe("pets", 0, slow);
+        streamer.subscribe("pets", 0, fast);
+
+        // "1" est en cours d'envoi, "2" et "3" remplissent la file, "4" et "5" sont sautées
+        upstream.get().accept("1");
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 5; i++) {
+            upstream.get().accept(String.valueOf(i));
+            fast.awaitEvents(i);
+        }
+        release.countDown();
+        // Les lignes suivantes ne repassent qu'une fois la file vidée et le décompte envoyé
+        slow.awaitEvents(4);
+        upstream.get().accept("6");
+
+        fast.awaitEvents(6);
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), fast.events);
+        slow.awaitEvents(5);
+        assertEquals(List.of("1", "2", "3", "dropped:2", "6"), slow.events);
+    }
+
+    private static final class RecordingSink implements ContainerLogStreamer.LogSink {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void line(String line) throws java.io.IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new java.io.InterruptedIOException();
+                }
+            }
+            events.add(line);
+        }
+
+        @Override
+        public void dropped(long count) {
+            events.add("dropped:" + count);
+        }
+
+        @Override
+        public void ping() {
+        }
+
+        @Override
+        public void end() {
+            events.add("end");
+        }
+
+        // Échec immédiat à l'échéance : une attente écoulée ne doit pas laisser filer la course suivante
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count) {
+                if (System.nanoTime() > deadline) {
+                    fail("Attendu " + count + " événement(s), reçu " + events);
+                }
+                Thread.sleep(5);
+            }
+        }
+    }
+}
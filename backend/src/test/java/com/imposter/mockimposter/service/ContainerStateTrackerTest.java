@@ -0,0 +1,96 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContainerStateTrackerTest {
+
+    private final ContainerStateTracker tracker = new ContainerStateTracker();
+
+    ContainerStateTrackerTest() {
+        ReflectionTestUtils.setField(tracker, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void tracksStartDieOomAndHealth() {
+        tracker.onEvent(event("create", "c1", "mock-pets", Map.of(DockerClient.PROJECT_LABEL, "pets")));
+        tracker.onEvent(event("start", "c1", "mock-pets", Map.of()));
+        tracker.onEvent(event("health_status: healthy", "c1", "mock-pets", Map.of()));
+
+        ContainerStateTracker.ContainerState running = tracker.state("pets").orElseThrow();
+        assertTrue(running.running());
+        assertEquals("Up (healthy)", running.status());
+        assertEquals("pets", running.toInfo().labels().get(DockerClient.PROJECT_LABEL));
+
+        tracker.onEvent(event("oom", "c1", "mock-pets", Map.of()));
+        tracker.onEvent(event("die", "c1", "mock-pets", Map.of("exitCode", "137")));
+
+        ContainerStateTracker.ContainerState died = tracker.state("pets").orElseThrow();
+        assertEquals("exited", died.state());
+        assertEquals(137, died.exitCode());
+        assertTrue(died.oomKilled());
+        assertEquals("Exited (137) OOM", tracker.containersByProject().get("pets").status());
+
+        tracker.onEvent(event("start", "c1", "mock-pets", Map.of()));
+        assertFalse(tracker.state("pets").orElseThrow().oomKilled());
+    }
+
+    @Test
+    void followsRenamesAndRemovalsAndNotifiesSubscribers() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        tracker.subscribe(state -> seen.add(state.projectName() + ":" + state.state()));
+
+        // Conteneur préchauffé : ignoré tant qu'il ne porte pas un nom mock-*
+        tracker.onEvent(event("start", "p1", "imposter-pool-1", Map.of()));
+        assertTrue(tracker.states().isEmpty());
+
+        tracker.onEvent(event("rename", "p1", "mock-orders", Map.of("oldName", "/imposter-pool-1")));
+        assertTrue(tracker.state("orders").orElseThrow().running());
+
+        tracker.onEvent(event("destroy", "p1", "mock-orders", Map.of()));
+        assertTrue(tracker.state("orders").isEmpty());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (seen.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(List.of("orders:running", "orders:removed"), seen);
+        tracker.shutdown();
+    }
+
+    @Test
+    void replaysEventsBufferedDuringResyncBeforeAcceptingNewOnes() throws Exception {
+        DockerClient dockerClient = mock(DockerClient.class);
+        when(dockerClient.listContainers(anyBoolean(), any())).thenReturn(List.of(
+                new DockerClient.ContainerInfo("c1", "mock-pets", "running", "Up", Map.of())));
+        ReflectionTestUtils.setField(tracker, "dockerClient", dockerClient);
+        ReflectionTestUtils.setField(tracker, "pendingDuringSync", new ArrayList<>());
+
+        // Arrêt reçu pendant l'énumération : gardé, puis rejoué sur la table fraîche
+        tracker.onEvent(event("die", "c1", "mock-pets", Map.of("exitCode", "1")));
+        assertTrue(tracker.states().isEmpty());
+        ReflectionTestUtils.invokeMethod(tracker, "resync");
+        assertEquals("exited", tracker.state("pets").orElseThrow().state());
+
+        // Table synchronisée : les événements suivants s'appliquent directement, après le rejeu
+        tracker.onEvent(event("start", "c1", "mock-pets", Map.of()));
+        assertTrue(tracker.state("pets").orElseThrow().running());
+        tracker.shutdown();
+    }
+
+    private static DockerClient.ContainerEvent event(String action, String id, String name, Map<String, String> attributes) {
+        return new DockerClient.ContainerEvent(action, id, name, attributes, Instant.now());
+    }
+}
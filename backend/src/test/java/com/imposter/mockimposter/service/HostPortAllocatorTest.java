@@ -0,0 +1,53 @@
+package com.imposter.mockimposter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostPortAllocatorTest {
+
+    @Test
+    void concurrentAllocationsNeverCollide() throws Exception {
+        HostPortAllocator allocator = new HostPortAllocator(20000, 20199);
+        Set<Integer> ports = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+
+        for (int i = 0; i < 200; i++) {
+            pool.execute(() -> {
+                try {
+                    go.await();
+                    assertTrue(ports.add(allocator.allocate()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(200, ports.size());
+        assertThrows(IllegalStateException.class, allocator::allocate);
+    }
+
+    @Test
+    void releasedPortsCanBeReservedAgain() {
+        HostPortAllocator allocator = new HostPortAllocator(20000, 20009);
+
+        assertTrue(allocator.reserve(20005));
+        assertFalse(allocator.reserve(20005));
+        assertFalse(allocator.reserve(30000));
+
+        allocator.release(20005);
+        assertFalse(allocator.isAllocated(20005));
+        assertTrue(allocator.reserve(20005));
+    }
+}
@@ -0,0 +1,90 @@
+package com.imposter.mockimposter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImposterConfigGeneratorTest {
+
+    static final String WSDL = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <wsdl:definitions xmlns:wsdl="http://schemas.xmlsoap.org/wsdl/"
+                              xmlns:soap="http://schemas.xmlsoap.org/wsdl/soap/"
+                              xmlns:tns="http://example.com/pets" targetNamespace="http://example.com/pets">
+              <wsdl:binding name="PetBinding" type="tns:PetPortType">
+                <soap:binding transport="http://schemas.xmlsoap.org/soap/http"/>
+                <wsdl:operation name="getPetById">
+                  <soap:operation soapAction="getPetById"/>
+                </wsdl:operation>
+              </wsdl:binding>
+              <wsdl:service name="PetService">
+                <wsdl:port name="PetPort" binding="tns:PetBinding">
+                  <soap:address location="http://localhost:8080/pets/"/>
+                </wsdl:port>
+              </wsdl:service>
+            </wsdl:definitions>
+            """;
+
+    private final ImposterConfigGenerator generator = new ImposterConfigGenerator(new WsdlAnalyzer());
+
+    @Test
+    void writesSameFilesAsGeneratePy(@TempDir Path projectPath) throws Exception {
+        Path wsdl = Files.writeString(projectPath.resolve("pets.wsdl"), WSDL);
+
+        generator.generate("pets", wsdl, null, projectPath);
+
+        // Sortie de yaml.dump(config, sort_keys=False) côté Python
+        assertEquals("""
+                plugin: soap
+                wsdlFile: pets.wsdl
+                resources:
+                - path: /pets/
+                  operation: getPetById
+                  soapAction: getPetById
+                  response:
+                    scriptFile: response.groovy
+                """, Files.readString(projectPath.resolve("imposter-config.yaml")));
+        assertEquals(ImposterConfigGenerator.GROOVY_CODE, Files.readString(projectPath.resolve("response.groovy")));
+    }
+
+    @Test
+    void keepsExistingResponseScript(@TempDir Path projectPath) throws Exception {
+        Path wsdl = Files.writeString(projectPath.resolve("pets.wsdl"), WSDL);
+        Files.writeString(projectPath.resolve("response.groovy"), "return [body: 'custom']");
+
+        generator.generate("pets", wsdl, null, projectPath);
+
+        assertEquals("return [body: 'custom']", Files.readString(projectPath.resolve("response.groovy")));
+    }
+
+    @Test
+    void leavesUnchangedConfigUntouched(@TempDir Path projectPath) throws Exception {
+        Path wsdl = Files.writeString(projectPath.resolve("pets.wsdl"), WSDL);
+        generator.generate("pets", wsdl, null, projectPath);
+        Path config = projectPath.resolve("imposter-config.yaml");
+        java.nio.file.attribute.FileTime past = java.nio.file.attribute.FileTime.fromMillis(1_000_000_000L);
+        Files.setLastModifiedTime(config, past);
+
+        generator.generate("pets", wsdl, null, projectPath);
+        assertEquals(past, Files.getLastModifiedTime(config));
+
+        Files.writeString(wsdl, WSDL.replace("/pets/", "/animals/"));
+        generator.generate("pets", wsdl, null, projectPath);
+        assertNotEquals(past, Files.getLastModifiedTime(config));
+        assertEquals(ContentHash.sha256(Files.readAllBytes(config)), ContentHash.sha256(config));
+    }
+
+    @Test
+    void failsWithoutSoapAddress(@TempDir Path projectPath) throws Exception {
+        Path wsdl = Files.writeString(projectPath.resolve("pets.wsdl"),
+                "<definitions xmlns=\"http://schemas.xmlsoap.org/wsdl/\"/>");
+
+        assertThrows(java.io.IOException.class, () -> generator.generate("pets", wsdl, null, projectPath));
+    }
+}
@@ -0,0 +1,66 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.User;
+import com.imposter.mockimposter.repositories.MockProjectRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MockProjectServiceTest {
+
+    @Test
+    void reservesNameUntilReleasedAndKeepsForeignDirectoriesOnDiscard(@TempDir Path baseDir) throws Exception {
+        MockProjectRepository repository = mock(MockProjectRepository.class);
+        when(repository.findByUser(any())).thenReturn(List.of());
+        BlobStore blobStore = mock(BlobStore.class);
+        MockProjectService service = new MockProjectService();
+        ReflectionTestUtils.setField(service, "mockProjectRepository", repository);
+        ReflectionTestUtils.setField(service, "blobStore", blobStore);
+        User user = new User();
+        user.setId(1L);
+
+        // Seconde création du même nom tant que la première n'est pas enregistrée : refusée
+        service.reserveProjectName(user, "pets");
+        assertThrows(ProjectNameConflictException.class, () -> service.reserveProjectName(user, "pets"));
+        service.releaseProjectName(user, "pets");
+        service.reserveProjectName(user, "pets");
+
+        // Dépôt raté dans un dossier qu'il n'a pas créé : le dossier et son contenu restent en place
+        Path project = Files.createDirectories(baseDir.resolve("pets"));
+        Path wsdl = Files.writeString(project.resolve("pets.wsdl"), "<definitions/>");
+        service.discardStagedUpload(new MockProjectService.StagedUpload(project, wsdl, null, "h1", null, List.of()));
+        assertTrue(Files.exists(wsdl));
+        verify(blobStore).release("h1");
+
+        service.discardStagedUpload(new MockProjectService.StagedUpload(project, wsdl, null, "h1", null, List.of(), true));
+        assertFalse(Files.exists(project));
+    }
+
+    @Test
+    void releasesAllocatedPortWhenContainerCreationFails(@TempDir Path baseDir) throws Exception {
+        DockerClient dockerClient = mock(DockerClient.class);
+        when(dockerClient.createContainer(any())).thenThrow(new DockerApiException(409, "Conflict. The container name is already in use"));
+        HostPortAllocator allocator = new HostPortAllocator(20000, 20000);
+        MockProjectService service = new MockProjectService();
+        ReflectionTestUtils.setField(service, "dockerClient", dockerClient);
+        ReflectionTestUtils.setField(service, "hostPortAllocator", allocator);
+        ReflectionTestUtils.setField(service, "baseDir", baseDir);
+        ReflectionTestUtils.setField(service, "hostProjectsDir", "");
+        ReflectionTestUtils.setField(service, "dockerNetwork", "mocknet");
+        ReflectionTestUtils.setField(service, "dockerImage", "outofcoffee/imposter:latest");
+
+        Exception failure = assertThrows(Exception.class,
+                () -> ReflectionTestUtils.invokeMethod(service, "createAndStartContainer", "pets", null));
+        assertInstanceOf(DockerApiException.class, failure.getCause());
+        // Plage d'un seul port : de nouveau disponible
+        assertFalse(allocator.isAllocated(20000));
+    }
+}
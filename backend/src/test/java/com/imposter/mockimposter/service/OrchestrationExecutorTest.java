@@ -0,0 +1,100 @@
+package com.imposter.mockimposter.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrchestrationExecutorTest {
+
+    private final OrchestrationExecutor executor = new OrchestrationExecutor(8, 16, 8, 10_000);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void hundredConcurrentStartsReturnImmediatelyAndRespectTheCap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<CompletableFuture<Integer>> starts = new ArrayList<>();
+
+        long submitStart = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            int id = i;
+            starts.add(executor.submit(OrchestrationExecutor.Operation.START, () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20); // attente bloquante (readiness, sous-processus)
+                running.decrementAndGet();
+                return id;
+            }));
+        }
+        // Le thread appelant (requête HTTP) n'attend aucune des opérations
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitStart) < 1000);
+
+        CompletableFuture.allOf(starts.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        assertEquals(8, peak.get());
+        assertEquals(4950, starts.stream().mapToInt(CompletableFuture::join).sum());
+    }
+
+    @Test
+    void operationTypesHaveIndependentCaps() throws Exception {
+        OrchestrationExecutor tight = new OrchestrationExecutor(1, 1, 1, 100);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Object> blocking = tight.submit(OrchestrationExecutor.Operation.START, () -> {
+                release.await();
+                return null;
+            });
+
+            // Une place STOP reste libre alors que START est saturé
+            assertEquals("stopped", tight.submit(OrchestrationExecutor.Operation.STOP, () -> "stopped").get(5, TimeUnit.SECONDS));
+
+            ExecutionException busy = assertThrows(ExecutionException.class,
+                    () -> tight.submit(OrchestrationExecutor.Operation.START, () -> "late").get(5, TimeUnit.SECONDS));
+            assertInstanceOf(OrchestrationExecutor.OrchestrationBusyException.class, busy.getCause());
+
+            release.countDown();
+            blocking.get(5, TimeUnit.SECONDS);
+        } finally {
+            tight.shutdown();
+        }
+    }
+
+    @Test
+    void queuedStartsBeyondThePoolSizeDoNotStarveStops() throws Exception {
+        // Plus de démarrages bloqués que de threads du pool (64) : les arrêts passent quand même
+        OrchestrationExecutor burst = new OrchestrationExecutor(8, 16, 8, 30_000);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<Object>> starts = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                starts.add(burst.submit(OrchestrationExecutor.Operation.START, () -> {
+                    release.await();
+                    return null;
+                }));
+            }
+
+            assertEquals("stopped", burst.submit(OrchestrationExecutor.Operation.STOP, () -> "stopped").get(5, TimeUnit.SECONDS));
+            @SuppressWarnings("unchecked")
+            java.util.Map<String, Object> start = (java.util.Map<String, Object>) burst.stats().get("start");
+            assertEquals(8, start.get("running"));
+            assertEquals(92, start.get("waiting"));
+
+            release.countDown();
+            CompletableFuture.allOf(starts.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            burst.shutdown();
+        }
+    }
+}
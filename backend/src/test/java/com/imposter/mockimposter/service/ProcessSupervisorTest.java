@@ -0,0 +1,44 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisabledOnOs(OS.WINDOWS)
+class ProcessSupervisorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProcessSupervisor supervisor = new ProcessSupervisor(registry);
+
+    @Test
+    void keepsOnlyTheLastLines() throws Exception {
+        ProcessSupervisor.Result result = supervisor.run("seq", List.of("sh", "-c", "seq 1 500; echo fin >&2"),
+                null, java.util.Map.of(), Duration.ofSeconds(10), 10, line -> {
+                });
+
+        assertTrue(result.succeeded());
+        assertEquals(10, result.tail().size());
+        assertEquals("fin", result.tail().get(9));
+        assertEquals(491, result.droppedLines());
+        assertEquals(1, registry.get("process.duration").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void deadlineKillsTheProcessTreeEvenWhileThePipeIsHeldOpen() throws Exception {
+        // Le petit-fils garde stdout ouvert : une lecture jusqu'à EOF ne rendrait jamais la main
+        long start = System.nanoTime();
+        ProcessSupervisor.Result result = supervisor.run("sleep", List.of("sh", "-c", "echo debut; sleep 30 & wait"),
+                Duration.ofMillis(300));
+
+        assertEquals(ProcessSupervisor.Outcome.TIMEOUT, result.outcome());
+        assertEquals(List.of("debut"), result.tail());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 5);
+        assertEquals(0, supervisor.runningCount());
+    }
+}
@@ -0,0 +1,122 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectOperationCoordinatorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProjectOperationCoordinator coordinator = new ProjectOperationCoordinator(16, registry);
+
+    @Test
+    void identicalConcurrentStartsRunOnce() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger launches = new AtomicInteger();
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> call("p", ProjectOperationCoordinator.Action.START, () -> {
+            launches.incrementAndGet();
+            inside.countDown();
+            release.await();
+            return 20001;
+        }));
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> doubleClick = CompletableFuture.supplyAsync(() -> call("p", ProjectOperationCoordinator.Action.START, () -> {
+            launches.incrementAndGet();
+            return 20002;
+        }));
+
+        while (registry.get("mock.operations.coalesced").tag("action", "start").functionCounter().count() < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals(20001, first.get(5, TimeUnit.SECONDS));
+        assertEquals(20001, doubleClick.get(5, TimeUnit.SECONDS));
+        assertEquals(1, launches.get());
+    }
+
+    @Test
+    void conflictingActionsRunInArrivalOrder() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Object> start = CompletableFuture.supplyAsync(() -> call("p", ProjectOperationCoordinator.Action.START, () -> {
+            inside.countDown();
+            release.await();
+            order.add("start");
+            return null;
+        }));
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> stop = CompletableFuture.supplyAsync(() -> call("p", ProjectOperationCoordinator.Action.STOP, () -> {
+            order.add("stop");
+            return null;
+        }));
+        // Un autre projet (autre bande de verrou) n'attend pas
+        assertEquals("other", call("q", ProjectOperationCoordinator.Action.STOP, () -> "other"));
+
+        Thread.sleep(100);
+        assertTrue(order.isEmpty());
+        release.countDown();
+        CompletableFuture.allOf(start, stop).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("start", "stop"), order);
+    }
+
+    @Test
+    void queuedConflictingActionsRunInArrivalOrder() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            CompletableFuture<Object> start = CompletableFuture.supplyAsync(() -> call("p", ProjectOperationCoordinator.Action.START, () -> {
+                inside.countDown();
+                release.await();
+                order.add("start");
+                return null;
+            }), threads);
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            // Trois demandes en file, chacune arrivée après que la précédente attend le verrou
+            List<CompletableFuture<Object>> waiting = new java.util.ArrayList<>();
+            for (ProjectOperationCoordinator.Action action : List.of(ProjectOperationCoordinator.Action.STOP,
+                    ProjectOperationCoordinator.Action.RESTART, ProjectOperationCoordinator.Action.DELETE)) {
+                String name = action.name().toLowerCase();
+                waiting.add(CompletableFuture.supplyAsync(() -> call("p", action, () -> {
+                    order.add(name);
+                    return null;
+                }), threads));
+                while (registry.get("mock.operations.queued").tag("action", name).functionCounter().count() < 1) {
+                    Thread.sleep(5);
+                }
+            }
+
+            release.countDown();
+            start.get(5, TimeUnit.SECONDS);
+            CompletableFuture.allOf(waiting.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("start", "stop", "restart", "delete"), order);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private <T> T call(String project, ProjectOperationCoordinator.Action action, ProjectOperationCoordinator.Operation<T> operation) {
+        try {
+            return coordinator.run(project, action, operation);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.imposter.mockimposter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProvisioningJobTest {
+
+    @Test
+    void journalIsBoundedAndReportsMissedEvents() {
+        ProvisioningJob job = new ProvisioningJob("pets", "admin", 3);
+        job.enter(ProvisioningJob.Stage.GENERATE);
+        for (int i = 1; i <= 4; i++) {
+            job.output("ligne " + i);
+        }
+
+        // 5 événements journalisés, seuls les 3 derniers sont gardés
+        ProvisioningJob.EventSlice all = job.eventsAfter(0);
+        assertEquals(2, all.missed());
+        assertEquals(List.of("ligne 2", "ligne 3", "ligne 4"),
+                all.events().stream().map(ProvisioningJob.ProgressEvent::line).toList());
+
+        ProvisioningJob.EventSlice resumed = job.eventsAfter(4);
+        assertEquals(0, resumed.missed());
+        assertEquals(1, resumed.events().size());
+        assertEquals(5, resumed.events().get(0).id());
+    }
+
+    @Test
+    void failureIsTheLastEventAndLongLinesAreTruncated() {
+        ProvisioningJob job = new ProvisioningJob("pets", "admin");
+        job.enter(ProvisioningJob.Stage.GENERATE);
+        job.output("x".repeat(ProvisioningJob.MAX_LINE_LENGTH * 2));
+        job.fail("generate.py a échoué");
+
+        List<ProvisioningJob.ProgressEvent> events = job.eventsAfter(0).events();
+        assertTrue(events.get(1).line().length() <= ProvisioningJob.MAX_LINE_LENGTH + 1);
+        ProvisioningJob.ProgressEvent last = events.get(events.size() - 1);
+        assertEquals("stage", last.type());
+        assertEquals(ProvisioningJob.Stage.FAILED, last.stage());
+        assertEquals("generate.py a échoué", last.line());
+        assertTrue(job.isFinished());
+    }
+}
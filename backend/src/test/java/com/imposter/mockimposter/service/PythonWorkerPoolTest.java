@@ -0,0 +1,167 @@
+package com.imposter.mockimposter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisabledOnOs(OS.WINDOWS)
+class PythonWorkerPoolTest {
+
+    // Scripts factices : le worker réel, sans dépendance à typer / yaml / lxml
+    private static final String GENERATE = """
+            import os, sys
+            from pathlib import Path
+
+            def get_base_dir():
+                return Path(os.getenv("BASE_DIR", "none"))
+
+            BASE_DIR = get_base_dir()
+
+            class App:
+                def __call__(self, args, prog_name):
+                    print("pid", os.getpid(), "base", BASE_DIR)
+                    print("args", " ".join(args), file=sys.stderr)
+                    if "--sleep" in args:
+                        import time
+                        time.sleep(30)
+                    raise SystemExit(3 if "--fail" in args else 0)
+
+            app = App()
+            """;
+
+    private static final String DOCKER_CONTROL = """
+            def get_config_dir():
+                return "."
+
+            CONFIG_DIR = get_config_dir()
+
+            def main():
+                print("docker_control")
+            """;
+
+    @TempDir
+    Path scriptDir;
+
+    private final ProcessSupervisor supervisor = new ProcessSupervisor(new SimpleMeterRegistry());
+    private final PythonWorkerPool pool = new PythonWorkerPool();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(supervisor.run("probe", List.of("python3", "--version"), Duration.ofSeconds(10)).succeeded());
+        Files.copy(Paths.get("script_py", "worker.py"), scriptDir.resolve("worker.py"));
+        Files.writeString(scriptDir.resolve("generate.py"), GENERATE);
+        Files.writeString(scriptDir.resolve("docker_control.py"), DOCKER_CONTROL);
+
+        ReflectionTestUtils.setField(pool, "processSupervisor", supervisor);
+        ReflectionTestUtils.setField(pool, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pool, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(pool, "scriptDirPath", scriptDir.toString());
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "size", 1);
+        ReflectionTestUtils.setField(pool, "acquireTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(pool, "startupTimeoutMs", 10000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void reusesTheSameInterpreterAcrossCalls() throws Exception {
+        List<String> lines = new ArrayList<>();
+        ProcessSupervisor.Result first = pool.run("generate", List.of("--project=a"), Map.of("BASE_DIR", "/tmp/a"),
+                Duration.ofSeconds(10), lines::add);
+        ProcessSupervisor.Result second = pool.run("generate", List.of("--fail"), Map.of("BASE_DIR", "/tmp/b"),
+                Duration.ofSeconds(10), line -> {
+                });
+
+        assertTrue(first.succeeded());
+        assertEquals(List.of("args --project=a"), first.tail().subList(1, 2));
+        assertTrue(lines.get(0).endsWith("base /tmp/a"));
+        assertEquals(3, second.exitCode());
+        assertTrue(second.tail().get(0).endsWith("base /tmp/b"));
+        // Même processus pour les deux appels
+        assertEquals(first.tail().get(0).split(" ")[1], second.tail().get(0).split(" ")[1]);
+        assertEquals(1, pool.liveWorkers());
+    }
+
+    @Test
+    void deadlineKillsTheWorkerAndTheNextCallStartsAFreshOne() throws Exception {
+        ProcessSupervisor.Result slow = pool.run("generate", List.of("--sleep"), Map.of(),
+                Duration.ofMillis(500), line -> {
+                });
+        assertEquals(ProcessSupervisor.Outcome.TIMEOUT, slow.outcome());
+        assertEquals(0, pool.liveWorkers());
+
+        assertTrue(pool.run("docker_control", List.of("stop", "p"), Map.of(), Duration.ofSeconds(10), line -> {
+        }).succeeded());
+    }
+
+    @Test
+    void failedStartFallsBackThenRetriesAfterTheDelay() throws Exception {
+        ReflectionTestUtils.setField(pool, "retryInitialMs", 300L);
+        ReflectionTestUtils.setField(pool, "retryMaxMs", 1000L);
+        Path worker = scriptDir.resolve("worker.py");
+        Path saved = Files.move(worker, scriptDir.resolve("worker.py.saved"));
+        Files.writeString(worker, "raise SystemExit(1)\n");
+
+        // Worker en échec : exécution dans un processus dédié
+        assertTrue(pool.run("docker_control", List.of(), Map.of(), Duration.ofSeconds(10), line -> {
+        }).succeeded());
+        assertEquals(0, pool.liveWorkers());
+
+        // Cause corrigée : pas d'essai avant l'échéance, un worker ensuite
+        Files.move(saved, worker, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        pool.run("docker_control", List.of(), Map.of(), Duration.ofSeconds(10), line -> {
+        });
+        assertEquals(0, pool.liveWorkers());
+        Thread.sleep(400);
+        pool.run("docker_control", List.of(), Map.of(), Duration.ofSeconds(10), line -> {
+        });
+        assertEquals(1, pool.liveWorkers());
+    }
+
+    @Test
+    void failingLineConsumerDiscardsTheWorker() throws Exception {
+        assertThrows(IllegalStateException.class, () -> pool.run("generate", List.of(), Map.of(),
+                Duration.ofSeconds(10), line -> {
+                    throw new IllegalStateException("consommateur en échec");
+                }));
+        assertEquals(0, pool.liveWorkers());
+
+        assertTrue(pool.run("generate", List.of(), Map.of(), Duration.ofSeconds(10), line -> {
+        }).succeeded());
+        assertEquals(1, pool.liveWorkers());
+    }
+
+    @Test
+    void reloadsAScriptEditedSinceItWasImported() throws Exception {
+        ProcessSupervisor.Result before = pool.run("generate", List.of(), Map.of(), Duration.ofSeconds(10), line -> {
+        });
+        Files.writeString(scriptDir.resolve("generate.py"), GENERATE.replace("\"base\"", "\"edited\""));
+        ProcessSupervisor.Result after = pool.run("generate", List.of(), Map.of(), Duration.ofSeconds(10), line -> {
+        });
+
+        // Même worker, nouveau code
+        assertEquals(before.tail().get(0).split(" ")[1], after.tail().get(0).split(" ")[1]);
+        assertTrue(after.tail().get(0).contains("edited"));
+    }
+}
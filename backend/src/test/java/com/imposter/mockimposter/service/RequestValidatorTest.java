@@ -0,0 +1,118 @@
+package com.imposter.mockimposter.service;
+
+import com.imposter.mockimposter.entities.MockProject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RequestValidatorTest {
+
+    // Préfixe p déclaré sur wsdl:definitions seulement : le schéma inline doit le retrouver
+    private static final String WSDL = """
+            <wsdl:definitions xmlns:wsdl="http://schemas.xmlsoap.org/wsdl/"
+                              xmlns:xs="http://www.w3.org/2001/XMLSchema" xmlns:p="urn:pets:types"
+                              targetNamespace="urn:pets">
+              <wsdl:types>
+                <xs:schema targetNamespace="urn:pets:types" elementFormDefault="qualified">
+                  <xs:element name="GetPet" type="p:GetPetType"/>
+                  <xs:complexType name="GetPetType"><xs:sequence>
+                    <xs:element name="id" type="xs:int"/>
+                  </xs:sequence></xs:complexType>
+                </xs:schema>
+              </wsdl:types>
+            </wsdl:definitions>
+            """;
+
+    private static String envelope(String payload) {
+        return "<s:Envelope xmlns:s=\"http://schemas.xmlsoap.org/soap/envelope/\"><s:Header/><s:Body>"
+                + payload + "</s:Body></s:Envelope>";
+    }
+
+    @Test
+    void validatesBodyAgainstCachedSchemas(@TempDir Path projectPath) throws Exception {
+        Path wsdl = Files.writeString(projectPath.resolve("pets.wsdl"), WSDL);
+        MockProject project = new MockProject();
+        project.setName("pets");
+        project.setWsdlPath(wsdl.toString());
+        project.setWsdlHash("h1");
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequestValidator validator = new RequestValidator(registry);
+        ReflectionTestUtils.setField(validator, "cacheSize", 2);
+        ReflectionTestUtils.setField(validator, "validatorsPerSchema", 2);
+
+        RequestValidator.Result valid = validator.validate(project,
+                envelope("<GetPet xmlns=\"urn:pets:types\"><id>7</id></GetPet>").getBytes(StandardCharsets.UTF_8));
+        RequestValidator.Result invalid = validator.validate(project,
+                envelope("<GetPet xmlns=\"urn:pets:types\"><id>seven</id></GetPet>").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(RequestValidator.Status.VALID, valid.status());
+        assertEquals("valid", valid.headers().get(RequestValidator.HEADER));
+        assertEquals(RequestValidator.Status.INVALID, invalid.status());
+        assertTrue(invalid.headers().get(RequestValidator.ERRORS_HEADER).contains("seven"));
+        // Un seul schéma compilé pour les deux requêtes
+        assertEquals(1, registry.counter("mock.validation.schema-cache", "result", "miss").count());
+        assertEquals(1, registry.counter("mock.validation.schema-cache", "result", "hit").count());
+        // Pas de tag project par défaut (validation.metrics.per-project)
+        assertEquals(1, registry.timer("mock.validation.requests", "result", "invalid").count());
+
+        // Nouvelle empreinte (régénération) : nouvelle clé ; au-delà de la taille du cache, la plus ancienne sort
+        project.setWsdlHash("h2");
+        validator.validate(project, envelope("<GetPet xmlns=\"urn:pets:types\"><id>1</id></GetPet>").getBytes());
+        project.setWsdlHash("h3");
+        validator.validate(project, envelope("<GetPet xmlns=\"urn:pets:types\"><id>1</id></GetPet>").getBytes());
+        assertEquals(2, validator.cachedSchemas());
+        assertEquals(1, registry.counter("mock.validation.schema-cache", "result", "evicted").count());
+    }
+
+    @Test
+    void refusesSchemaImportsOutsideTheProjectDirectory(@TempDir Path baseDir) throws Exception {
+        Files.writeString(baseDir.resolve("secret.xsd"), "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"/>");
+        Path projectPath = Files.createDirectories(baseDir.resolve("pets"));
+        Path xsd = Files.writeString(projectPath.resolve("pets.xsd"), """
+                <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema" targetNamespace="urn:pets:types">
+                  <xs:include schemaLocation="../secret.xsd"/>
+                  <xs:element name="GetPet" type="xs:int"/>
+                </xs:schema>
+                """);
+        MockProject project = new MockProject();
+        project.setName("pets");
+        project.setPath(projectPath.toString());
+        project.setXsdPath(xsd.toString());
+
+        RequestValidator validator = new RequestValidator(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(validator, "cacheSize", 2);
+        RequestValidator.Result result = validator.validate(project,
+                envelope("<GetPet xmlns=\"urn:pets:types\">7</GetPet>").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(RequestValidator.Status.SKIPPED, result.status());
+        assertTrue(result.errors().get(0).contains("hors du dossier du projet"), result.errors().toString());
+    }
+
+    @Test
+    void compilationErrorDoesNotLeaveAPendingCacheEntry(@TempDir Path projectPath) throws Exception {
+        Path wsdl = Files.writeString(projectPath.resolve("pets.wsdl"), WSDL);
+        MockProject project = spy(new MockProject());
+        project.setName("pets");
+        project.setWsdlPath(wsdl.toString());
+        project.setWsdlHash("h1");
+        doThrow(new OutOfMemoryError("compilation")).doCallRealMethod().when(project).getWsdlPath();
+
+        RequestValidator validator = new RequestValidator(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(validator, "cacheSize", 2);
+        ReflectionTestUtils.setField(validator, "validatorsPerSchema", 2);
+        byte[] body = envelope("<GetPet xmlns=\"urn:pets:types\"><id>7</id></GetPet>").getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(OutOfMemoryError.class, () -> validator.validate(project, body));
+        assertEquals(0, validator.cachedSchemas());
+        assertEquals(RequestValidator.Status.VALID, validator.validate(project, body).status());
+    }
+}
@@ -0,0 +1,117 @@
+package com.imposter.mockimposter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.validation.SchemaFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleResponseGeneratorTest {
+
+    private static final String WSDL = """
+            <wsdl:definitions xmlns:wsdl="http://schemas.xmlsoap.org/wsdl/"
+                              xmlns:soap="http://schemas.xmlsoap.org/wsdl/soap/"
+                              xmlns:tns="urn:pets" xmlns:p="urn:pets:types" targetNamespace="urn:pets">
+              <wsdl:types>
+                <xsd:schema xmlns:xsd="http://www.w3.org/2001/XMLSchema">
+                  <xsd:import namespace="urn:pets:types" schemaLocation="xsd/pets.xsd"/>
+                </xsd:schema>
+              </wsdl:types>
+              <wsdl:message name="GetPet"><wsdl:part name="in" element="p:GetPet"/></wsdl:message>
+              <wsdl:message name="GetPetResponse"><wsdl:part name="out" element="p:GetPetResponse"/></wsdl:message>
+              <wsdl:portType name="PetPort">
+                <wsdl:operation name="getPet">
+                  <wsdl:input message="tns:GetPet"/>
+                  <wsdl:output message="tns:GetPetResponse"/>
+                </wsdl:operation>
+              </wsdl:portType>
+              <wsdl:binding name="PetBinding" type="tns:PetPort">
+                <soap:binding transport="http://schemas.xmlsoap.org/soap/http"/>
+                <wsdl:operation name="getPet"><soap:operation soapAction="getPet"/></wsdl:operation>
+              </wsdl:binding>
+              <wsdl:service name="PetService">
+                <wsdl:port name="Pet" binding="tns:PetBinding"><soap:address location="http://h/pets"/></wsdl:port>
+              </wsdl:service>
+            </wsdl:definitions>
+            """;
+
+    // Extension, énumération, attributs, facettes, choice et type récursif
+    private static final String XSD = """
+            <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema" xmlns:p="urn:pets:types"
+                       targetNamespace="urn:pets:types" elementFormDefault="qualified">
+              <xs:element name="GetPet"><xs:complexType><xs:sequence>
+                <xs:element name="petId" type="xs:string"/>
+              </xs:sequence></xs:complexType></xs:element>
+              <xs:element name="GetPetResponse"><xs:complexType><xs:sequence>
+                <xs:element name="pet" type="p:Dog"/>
+                <xs:element name="retrievedAt" type="xs:dateTime"/>
+              </xs:sequence></xs:complexType></xs:element>
+              <xs:complexType name="Animal">
+                <xs:sequence>
+                  <xs:element name="petId" type="xs:string"/>
+                  <xs:element name="age"><xs:simpleType><xs:restriction base="xs:int">
+                    <xs:minInclusive value="3"/></xs:restriction></xs:simpleType></xs:element>
+                  <xs:element name="parent" type="p:Animal" minOccurs="0"/>
+                </xs:sequence>
+                <xs:attribute name="status" type="p:Status" use="required"/>
+              </xs:complexType>
+              <xs:complexType name="Dog"><xs:complexContent><xs:extension base="p:Animal">
+                <xs:sequence>
+                  <xs:element name="code"><xs:simpleType><xs:restriction base="xs:string">
+                    <xs:length value="4"/></xs:restriction></xs:simpleType></xs:element>
+                  <xs:choice><xs:element name="kennel" type="xs:string"/><xs:element name="home" type="xs:string"/></xs:choice>
+                </xs:sequence>
+              </xs:extension></xs:complexContent></xs:complexType>
+              <xs:simpleType name="Status"><xs:restriction base="xs:string">
+                <xs:enumeration value="AVAILABLE"/><xs:enumeration value="SOLD"/>
+              </xs:restriction></xs:simpleType>
+            </xs:schema>
+            """;
+
+    @Test
+    void writesSchemaValidSampleThatRendersAsTemplate(@TempDir Path projectPath) throws Exception {
+        Path wsdl = Files.writeString(projectPath.resolve("pets.wsdl"), WSDL);
+        Files.createDirectories(projectPath.resolve("xsd"));
+        Files.writeString(projectPath.resolve("xsd/pets.xsd"), XSD);
+        SampleResponseGenerator generator = new SampleResponseGenerator(new WsdlAnalyzer());
+
+        assertEquals(1, generator.generate(wsdl, projectPath, line -> {
+        }));
+
+        Path sample = projectPath.resolve("responses/getPet.xml");
+        String content = Files.readString(sample);
+        assertTrue(content.contains("<ns1:kennel>kennel</ns1:kennel>"));
+        assertTrue(content.contains("status=\"AVAILABLE\""));
+        assertTrue(content.contains("${random.uuid()}"));
+
+        // Rendu du gabarit : emplacements remplis, réponse valide pour le schéma
+        ResponseTemplate template = ResponseTemplate.compile(Files.readAllBytes(sample));
+        byte[] rendered = template.render();
+        assertFalse(new String(rendered, StandardCharsets.UTF_8).contains("${"));
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document envelope = factory.newDocumentBuilder().parse(new ByteArrayInputStream(rendered));
+        Element body = (Element) envelope.getDocumentElement().getElementsByTagNameNS("*", "Body").item(0);
+        Node payload = body.getElementsByTagNameNS("urn:pets:types", "GetPetResponse").item(0);
+        SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                .newSchema(projectPath.resolve("xsd/pets.xsd").toFile())
+                .newValidator().validate(new DOMSource(payload));
+
+        // Réponse reprise à la main (marqueur retiré) : conservée à la génération suivante
+        Files.writeString(sample, "<custom/>");
+        assertEquals(0, generator.generate(wsdl, projectPath, line -> {
+        }));
+        assertEquals("<custom/>", Files.readString(sample));
+    }
+}
@@ -0,0 +1,94 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaImportResolverTest {
+
+    private static final String WSDL = """
+            <definitions xmlns="http://schemas.xmlsoap.org/wsdl/" targetNamespace="urn:orders">
+              <types>
+                <xsd:schema xmlns:xsd="http://www.w3.org/2001/XMLSchema">
+                  <xsd:import namespace="urn:common" schemaLocation="http://schemas.example.com/common/common.xsd"/>
+                </xsd:schema>
+              </types>
+            </definitions>
+            """;
+
+    private static final String COMMON = """
+            <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema" targetNamespace="urn:common">
+              <xs:include schemaLocation="types.xsd"/>
+            </xs:schema>
+            """;
+
+    @TempDir
+    Path baseDir;
+
+    private SimpleMeterRegistry registry;
+    private SchemaImportResolver resolver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new SimpleMeterRegistry();
+        resolver = new SchemaImportResolver(registry);
+        ReflectionTestUtils.setField(resolver, "enabled", true);
+        ReflectionTestUtils.setField(resolver, "baseDirPath", baseDir.toString());
+        ReflectionTestUtils.setField(resolver, "threads", 2);
+        ReflectionTestUtils.setField(resolver, "maxDocuments", 50);
+        ReflectionTestUtils.setField(resolver, "parsedCacheSize", 100);
+        resolver.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        resolver.shutdown();
+    }
+
+    @Test
+    void servesRemoteImportsFromUploadedFilesThenFromTheCacheOffline() throws Exception {
+        // Premier projet : les schémas distants sont fournis avec le WSDL
+        Path first = Files.createDirectories(baseDir.resolve("orders"));
+        Files.writeString(first.resolve("orders.wsdl"), WSDL);
+        Files.createDirectories(first.resolve("xsd"));
+        Files.writeString(first.resolve("xsd/common.xsd"), COMMON);
+        Files.writeString(first.resolve("xsd/types.xsd"), "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"/>");
+
+        SchemaImportResolver.Resolution resolution = resolver.resolve(first.resolve("orders.wsdl"), first, line -> {
+        });
+
+        assertEquals(3, resolution.documents());
+        assertEquals(1, resolution.bundled());
+        assertTrue(resolution.unresolved().isEmpty());
+        assertTrue(Files.readString(first.resolve("orders.wsdl")).contains("schemaLocation=\"xsd/common.xsd\""));
+
+        // Second projet, WSDL seul et sans réseau : common.xsd et son inclusion (indexée sous son URL
+        // lors du premier projet) viennent du cache
+        Path second = Files.createDirectories(baseDir.resolve("invoices"));
+        Files.writeString(second.resolve("invoices.wsdl"), WSDL);
+        List<String> output = new ArrayList<>();
+
+        resolution = resolver.resolve(second.resolve("invoices.wsdl"), second, output::add);
+
+        assertEquals(2, resolution.cached());
+        assertTrue(resolution.unresolved().isEmpty());
+        Path copy = second.resolve("imports/schemas.example.com/common/common.xsd");
+        assertEquals(COMMON, Files.readString(copy));
+        assertTrue(Files.readString(second.resolve("invoices.wsdl"))
+                .contains("schemaLocation=\"imports/schemas.example.com/common/common.xsd\""));
+        assertTrue(Files.exists(second.resolve("imports/schemas.example.com/common/types.xsd")));
+        assertTrue(output.stream().anyMatch(line -> line.contains("2 depuis le cache")));
+        // Même contenu que dans le premier projet : common.xsd n'est pas relu
+        assertTrue(registry.counter("mock.schemas.parse-cache.hits").count() >= 1);
+    }
+}
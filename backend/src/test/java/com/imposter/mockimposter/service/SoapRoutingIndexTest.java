@@ -0,0 +1,67 @@
+package com.imposter.mockimposter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoapRoutingIndexTest {
+
+    // Deux opérations document/literal sans SOAPAction, exposées en SOAP 1.1 et 1.2 sur le même chemin
+    private static final String WSDL = """
+            <wsdl:definitions xmlns:wsdl="http://schemas.xmlsoap.org/wsdl/"
+                              xmlns:soap="http://schemas.xmlsoap.org/wsdl/soap/"
+                              xmlns:soap12="http://schemas.xmlsoap.org/wsdl/soap12/"
+                              xmlns:tns="urn:pets" xmlns:p="urn:pets:types" targetNamespace="urn:pets">
+              <wsdl:message name="GetPet"><wsdl:part name="in" element="p:GetPet"/></wsdl:message>
+              <wsdl:message name="AddPet"><wsdl:part name="in" element="p:AddPet"/></wsdl:message>
+              <wsdl:portType name="PetPort">
+                <wsdl:operation name="getPet"><wsdl:input message="tns:GetPet"/></wsdl:operation>
+                <wsdl:operation name="addPet"><wsdl:input message="tns:AddPet"/></wsdl:operation>
+              </wsdl:portType>
+              <wsdl:binding name="PetBinding" type="tns:PetPort">
+                <soap:binding transport="http://schemas.xmlsoap.org/soap/http"/>
+                <wsdl:operation name="getPet"><soap:operation soapAction=""/></wsdl:operation>
+                <wsdl:operation name="addPet"><soap:operation soapAction=""/></wsdl:operation>
+              </wsdl:binding>
+              <wsdl:binding name="PetBinding12" type="tns:PetPort">
+                <soap12:binding transport="http://schemas.xmlsoap.org/soap/http"/>
+                <wsdl:operation name="getPet"><soap12:operation soapAction=""/></wsdl:operation>
+                <wsdl:operation name="addPet"><soap12:operation soapAction=""/></wsdl:operation>
+              </wsdl:binding>
+              <wsdl:service name="PetService">
+                <wsdl:port name="Pet" binding="tns:PetBinding"><soap:address location="http://h/pets"/></wsdl:port>
+                <wsdl:port name="Pet12" binding="tns:PetBinding12"><soap12:address location="http://h/pets"/></wsdl:port>
+              </wsdl:service>
+            </wsdl:definitions>
+            """;
+
+    @Test
+    void routesOnFirstBodyElementWhenSoapActionIsShared(@TempDir Path projectPath) throws Exception {
+        Files.createDirectories(projectPath.resolve("responses"));
+        Files.writeString(projectPath.resolve("responses/addPet.xml"), "<added/>");
+        WsdlDescriptor descriptor = new WsdlAnalyzer().analyze(
+                new ByteArrayInputStream(WSDL.getBytes(StandardCharsets.UTF_8)));
+
+        List<SoapRoutingIndex.Route> routes = SoapRoutingIndex.routesOf(descriptor, projectPath);
+        SoapRoutingIndex index = SoapRoutingIndex.of(routes);
+
+        assertEquals(2, routes.size());
+        assertEquals("{urn:pets:types}GetPet", routes.get(0).bodyElement());
+        assertEquals("responses/addPet.xml", routes.get(1).responseFile());
+        String envelope = """
+                <s:Envelope xmlns:s="http://schemas.xmlsoap.org/soap/envelope/">
+                  <s:Header><h:Trace xmlns:h="urn:trace"/></s:Header>
+                  <s:Body><AddPet xmlns="urn:pets:types"><name>Rex</name></AddPet></s:Body>
+                </s:Envelope>""";
+        assertEquals("addPet", index.resolve("/pets", "\"\"", envelope.getBytes(StandardCharsets.UTF_8)).operation());
+        assertNull(index.resolve("/pets", null, "<s:Envelope xmlns:s=\"urn:s\"><s:Body/></s:Envelope>".getBytes()));
+        assertFalse(index.hasPath("/other"));
+    }
+}
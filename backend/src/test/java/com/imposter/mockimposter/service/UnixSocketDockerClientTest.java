@@ -0,0 +1,277 @@
+package com.imposter.mockimposter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Client Docker testé contre un faux démon qui écoute sur un socket Unix local */
+class UnixSocketDockerClientTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FakeDaemon daemon;
+    private UnixSocketDockerClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path socket = tempDir.resolve("docker.sock");
+        daemon = new FakeDaemon(socket);
+        client = new UnixSocketDockerClient(socket, "", 4, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        daemon.close();
+    }
+
+    @Test
+    void inspectsContainerAndReusesKeepAliveConnection() throws Exception {
+        daemon.handler = request -> json(200, """
+                {"Id":"abc","Name":"/mock-pets","State":{"Status":"running"},
+                 "Config":{"Labels":{"mockimposter.project":"pets"}}}""");
+
+        DockerClient.ContainerInfo info = client.inspectContainer("mock-pets").orElseThrow();
+        assertTrue(info.running());
+        assertEquals("mock-pets", info.name());
+        assertEquals("pets", info.labels().get(DockerClient.PROJECT_LABEL));
+
+        client.inspectContainer("mock-pets");
+        assertEquals(1, client.getOpenedConnections());
+        assertEquals(List.of("GET /containers/mock-pets/json", "GET /containers/mock-pets/json"), daemon.requests);
+    }
+
+    @Test
+    void missingContainerIsEmpty() throws Exception {
+        daemon.handler = request -> json(404, "{\"message\":\"No such container: mock-x\"}");
+
+        assertTrue(client.inspectContainer("mock-x").isEmpty());
+        assertFalse(client.networkExists("mocknet"));
+    }
+
+    @Test
+    void apiErrorsCarryDaemonMessage() {
+        daemon.handler = request -> json(500, "{\"message\":\"boom\"}");
+
+        DockerApiException e = assertThrows(DockerApiException.class, () -> client.startContainer("mock-x"));
+        assertEquals(500, e.getStatus());
+        assertTrue(e.getMessage().contains("boom"));
+    }
+
+    @Test
+    void createPullsMissingImageThenRetries() throws Exception {
+        daemon.handler = request -> {
+            if (request.startsWith("POST /containers/create") && daemon.requests.size() == 1) {
+                return json(404, "{\"message\":\"No such image\"}");
+            }
+            if (request.startsWith("POST /images/create")) {
+                return chunked(200, "{\"status\":\"Pulling\"}\n", "{\"status\":\"Done\"}\n");
+            }
+            return json(201, "{\"Id\":\"new-id\"}");
+        };
+
+        String id = client.createContainer(new DockerClient.ContainerSpec("mock-pets", "outofcoffee/imposter:latest",
+                8080, 8080, "/host/pets", "/opt/imposter/config", "mocknet", Map.of()));
+
+        assertEquals("new-id", id);
+        assertEquals(List.of(
+                "POST /containers/create?name=mock-pets",
+                "POST /images/create?fromImage=outofcoffee%2Fimposter&tag=latest",
+                "POST /containers/create?name=mock-pets"), daemon.requests);
+    }
+
+    @Test
+    void createDoesNotPullWhenTheNetworkIsMissing() {
+        daemon.handler = request -> json(404, "{\"message\":\"network mocknet not found\"}");
+
+        DockerApiException e = assertThrows(DockerApiException.class, () -> client.createContainer(new DockerClient.ContainerSpec(
+                "mock-pets", "outofcoffee/imposter:latest", 8080, 8080, "/host/pets", "/opt/imposter/config", "mocknet", Map.of())));
+        assertEquals(404, e.getStatus());
+        assertEquals(List.of("POST /containers/create?name=mock-pets"), daemon.requests);
+    }
+
+    @Test
+    void closeStopsTheWatchdogAndDropsIdleConnections() throws Exception {
+        client.inspectContainer("mock-pets");
+        assertEquals(1, client.getOpenedConnections());
+
+        client.close();
+        assertTrue(((ExecutorService) ReflectionTestUtils.getField(client, "watchdog")).isShutdown());
+        // Plus de connexion à réutiliser, ni à garder après l'appel
+        client.inspectContainer("mock-pets");
+        client.inspectContainer("mock-pets");
+        assertEquals(3, client.getOpenedConnections());
+    }
+
+    @Test
+    void demultiplexesLogStreams() throws Exception {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        frame(frames, 1, "started\n");
+        frame(frames, 2, "warning\n");
+        daemon.handler = request -> raw(200, frames.toByteArray());
+
+        assertEquals("started\nERROR: warning\n", client.containerLogs("mock-pets", 50));
+    }
+
+    @Test
+    void followsLogsLineByLineAcrossFrames() throws Exception {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        frame(first, 1, "hel");
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        frame(second, 1, "lo\nwor");
+        frame(second, 2, "oops\n");
+        frame(second, 1, "ld\n");
+        daemon.handler = request -> chunked(200,
+                first.toString(StandardCharsets.ISO_8859_1), second.toString(StandardCharsets.ISO_8859_1));
+
+        List<String> lines = new CopyOnWriteArrayList<>();
+        java.util.concurrent.CountDownLatch ended = new java.util.concurrent.CountDownLatch(1);
+        client.followLogs("mock-pets", 10, lines::add, ended::countDown);
+
+        assertTrue(ended.await(5, java.util.concurrent.TimeUnit.SECONDS));
+        assertEquals(List.of("hello", "ERROR: oops", "world"), lines);
+        assertEquals("GET /containers/mock-pets/logs?follow=true&stdout=true&stderr=true&tail=10", daemon.requests.get(0));
+    }
+
+    @Test
+    void stalledDaemonFailsWithTimeoutInsteadOfBlocking() throws Exception {
+        UnixSocketDockerClient impatient = new UnixSocketDockerClient(tempDir.resolve("docker.sock"), "", 4,
+                new ObjectMapper(), java.time.Duration.ofMillis(200));
+        java.util.concurrent.CountDownLatch hung = new java.util.concurrent.CountDownLatch(1);
+        daemon.handler = request -> {
+            if (request.startsWith("POST")) {
+                try {
+                    hung.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+            return json(200, "{\"Id\":\"abc\",\"State\":{\"Status\":\"running\"}}");
+        };
+
+        long start = System.nanoTime();
+        assertThrows(java.net.SocketTimeoutException.class, () -> impatient.startContainer("mock-pets"));
+        assertTrue(java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+
+        // Connexion abandonnée, la suivante repart sur une nouvelle
+        assertTrue(impatient.inspectContainer("mock-pets").orElseThrow().running());
+        hung.countDown();
+    }
+
+    // --- Faux démon ---
+
+    private static byte[] json(int status, String body) {
+        return raw(status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] raw(int status, byte[] body) {
+        String head = "HTTP/1.1 " + status + " X\r\nContent-Length: " + body.length + "\r\n\r\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(head.getBytes(StandardCharsets.ISO_8859_1));
+        out.writeBytes(body);
+        return out.toByteArray();
+    }
+
+    private static byte[] chunked(int status, String... chunks) {
+        StringBuilder response = new StringBuilder("HTTP/1.1 " + status + " X\r\nTransfer-Encoding: chunked\r\n\r\n");
+        for (String chunk : chunks) {
+            response.append(Integer.toHexString(chunk.length())).append("\r\n").append(chunk).append("\r\n");
+        }
+        return response.append("0\r\n\r\n").toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void frame(ByteArrayOutputStream out, int type, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeBytes(new byte[]{(byte) type, 0, 0, 0, 0, 0, 0, (byte) bytes.length});
+        out.writeBytes(bytes);
+    }
+
+    static final class FakeDaemon implements AutoCloseable {
+        final ServerSocketChannel server;
+        final List<String> requests = new CopyOnWriteArrayList<>();
+        volatile Function<String, byte[]> handler = request -> json(200, "{}");
+
+        FakeDaemon(Path socket) throws IOException {
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socket));
+            Thread acceptor = new Thread(this::acceptLoop, "fake-docker-daemon");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private void acceptLoop() {
+            while (server.isOpen()) {
+                try {
+                    SocketChannel channel = server.accept();
+                    Thread worker = new Thread(() -> serve(channel));
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(SocketChannel channel) {
+            try (channel) {
+                InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+                OutputStream out = Channels.newOutputStream(channel);
+                String requestLine;
+                while ((requestLine = readLine(in)) != null) {
+                    int contentLength = 0;
+                    String header;
+                    while ((header = readLine(in)) != null && !header.isEmpty()) {
+                        if (header.toLowerCase().startsWith("content-length:")) {
+                            contentLength = Integer.parseInt(header.substring(15).trim());
+                        }
+                    }
+                    in.readNBytes(contentLength);
+
+                    String request = requestLine.substring(0, requestLine.lastIndexOf(' '));
+                    requests.add(request);
+                    out.write(handler.apply(request));
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') return line.toString().replace("\r", "");
+                line.append((char) b);
+            }
+            return line.length() == 0 ? null : line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
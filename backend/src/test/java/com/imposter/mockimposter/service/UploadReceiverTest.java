@@ -0,0 +1,106 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadReceiverTest {
+
+    @TempDir
+    Path projectPath;
+
+    private UploadReceiver receiver;
+
+    @BeforeEach
+    void setUp() {
+        BlobStore blobStore = new BlobStore(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(blobStore, "enabled", false);
+        receiver = new UploadReceiver();
+        ReflectionTestUtils.setField(receiver, "blobStore", blobStore);
+        ReflectionTestUtils.setField(receiver, "schemaImportResolver", new SchemaImportResolver(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(receiver, "maxBytes", 1024 * 1024L);
+        ReflectionTestUtils.setField(receiver, "maxExpandedBytes", 1024L);
+        ReflectionTestUtils.setField(receiver, "maxEntries", 10);
+    }
+
+    @Test
+    void expandsArchiveWithTheWsdlDirectoryAsProjectRoot() throws Exception {
+        byte[] archive = zip(Map.of(
+                "bundle/service.wsdl", "<definitions/>",
+                "bundle/xsd/types.xsd", "<schema/>",
+                "bundle/imports/legacy.wsdl", "<definitions/>"));
+
+        MockProjectService.StagedUpload staged = receiver.receive(projectPath, "bundle.zip",
+                new ByteArrayInputStream(archive), archive.length);
+
+        assertEquals(projectPath.resolve("service.wsdl"), staged.wsdlPath());
+        assertEquals("<schema/>", Files.readString(projectPath.resolve("xsd/types.xsd")));
+        assertTrue(Files.exists(projectPath.resolve("imports/legacy.wsdl")));
+        try (Stream<Path> files = Files.list(projectPath)) {
+            assertTrue(files.noneMatch(p -> p.getFileName().toString().startsWith(".bundle-")));
+        }
+    }
+
+    @Test
+    void rootsProjectAtCommonAncestorOfWsdlAndReferencedSchemas() throws Exception {
+        byte[] archive = zip(Map.of(
+                "api/wsdl/service.wsdl", """
+                        <definitions xmlns="http://schemas.xmlsoap.org/wsdl/">
+                          <import namespace="urn:types" location="../xsd/types.xsd"/>
+                        </definitions>""",
+                "api/xsd/types.xsd", "<schema/>",
+                "docs/readme.xsd", "<schema/>"));
+
+        MockProjectService.StagedUpload staged = receiver.receive(projectPath, "bundle.zip",
+                new ByteArrayInputStream(archive), archive.length);
+
+        assertEquals(projectPath.resolve("wsdl/service.wsdl"), staged.wsdlPath());
+        assertEquals("<schema/>", Files.readString(projectPath.resolve("xsd/types.xsd")));
+        assertFalse(Files.exists(projectPath.resolve("docs")));
+    }
+
+    @Test
+    void rejectsOversizedOrEscapingArchivesWithoutLeavingFiles() throws Exception {
+        byte[] escaping = zip(Map.of("service.wsdl", "<definitions/>", "../outside.xsd", "<schema/>"));
+        assertThrows(IllegalArgumentException.class, () -> receiver.receive(projectPath, "bundle.zip",
+                new ByteArrayInputStream(escaping), -1));
+
+        byte[] oversized = zip(Map.of("service.wsdl", "x".repeat(2048)));
+        assertThrows(UploadLimitException.class, () -> receiver.receive(projectPath, "bundle.zip",
+                new ByteArrayInputStream(oversized), -1));
+
+        assertThrows(UploadLimitException.class, () -> receiver.receive(projectPath, "service.wsdl",
+                new ByteArrayInputStream(new byte[0]), 2 * 1024 * 1024L));
+
+        try (Stream<Path> files = Files.list(projectPath)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
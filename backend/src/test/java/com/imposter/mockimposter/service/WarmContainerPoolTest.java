@@ -0,0 +1,87 @@
+package com.imposter.mockimposter.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WarmContainerPoolTest {
+
+    private WarmContainerPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    @Test
+    void claimsAnUnstartedSlotThenMirrorsAndReleasesTheProjectCopy(@TempDir Path baseDir) throws Exception {
+        DockerClient dockerClient = mock(DockerClient.class);
+        when(dockerClient.listContainers(anyBoolean(), anyString())).thenReturn(List.of());
+        when(dockerClient.networkExists("mocknet")).thenReturn(true);
+        when(dockerClient.createContainer(any())).thenReturn("c1");
+        HostPortAllocator allocator = new HostPortAllocator(20000, 20001);
+
+        pool = new WarmContainerPool();
+        ReflectionTestUtils.setField(pool, "dockerClient", dockerClient);
+        ReflectionTestUtils.setField(pool, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pool, "hostPortAllocator", allocator);
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "size", 1);
+        ReflectionTestUtils.setField(pool, "baseDirPath", baseDir.toString());
+        ReflectionTestUtils.setField(pool, "dockerNetwork", "mocknet");
+        ReflectionTestUtils.setField(pool, "dockerImage", "outofcoffee/imposter:latest");
+        ReflectionTestUtils.setField(pool, "hostProjectsDir", "");
+        pool.init();
+        awaitIdle(1);
+
+        // Conteneur créé mais pas démarré tant qu'aucun projet ne l'a réclamé
+        verify(dockerClient, never()).startContainer(anyString());
+
+        Path project = Files.createDirectories(baseDir.resolve("pets"));
+        Files.writeString(project.resolve("imposter-config.yaml"), "plugin: soap");
+        Files.createDirectories(project.resolve("responses"));
+        Files.writeString(project.resolve("responses").resolve("old.xml"), "<old/>");
+
+        assertEquals(20000, pool.claim("pets", project));
+        verify(dockerClient).renameContainer("c1", "mock-pets");
+        verify(dockerClient).startContainer("c1");
+        verify(dockerClient, never()).restartContainer(anyString(), anyInt());
+        // Le pool se complète aussitôt : le dossier affecté est celui qui a reçu le projet
+        Path slot;
+        try (var slots = Files.list(baseDir.resolve(".pool"))) {
+            slot = slots.filter(dir -> Files.exists(dir.resolve("imposter-config.yaml"))).findFirst().orElseThrow();
+        }
+        assertEquals("plugin: soap", Files.readString(slot.resolve("imposter-config.yaml")));
+
+        // Régénération : fichiers réécrits recopiés, fichiers disparus supprimés
+        Files.writeString(project.resolve("imposter-config.yaml"), "plugin: soap\nwsdlFile: pets.wsdl");
+        Files.delete(project.resolve("responses").resolve("old.xml"));
+        Files.writeString(project.resolve("responses").resolve("new.xml"), "<new/>");
+        pool.refresh("pets", project);
+        assertEquals("plugin: soap\nwsdlFile: pets.wsdl", Files.readString(slot.resolve("imposter-config.yaml")));
+        assertFalse(Files.exists(slot.resolve("responses").resolve("old.xml")));
+        assertTrue(Files.exists(slot.resolve("responses").resolve("new.xml")));
+
+        pool.release("pets");
+        assertFalse(Files.exists(slot));
+        assertEquals(0, pool.stats().get("claimed"));
+    }
+
+    private void awaitIdle(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!pool.stats().get("idle").equals(expected)) {
+            assertTrue(System.nanoTime() < deadline, "pool non rempli");
+            Thread.sleep(10);
+        }
+    }
+}